@@ -19,7 +19,7 @@ import imp
 __all__ = ["compile_dir","compile_file","compile_path"]
 
 def compile_dir(dir, maxlevels=10, ddir=None,
-                force=0, rx=None, quiet=0):
+                force=0, rx=None, quiet=0, workers=1):
     """Byte-compile all modules in the given directory tree.
 
     Arguments (only dir is required):
@@ -30,7 +30,13 @@ def compile_dir(dir, maxlevels=10, ddir=None,
                file as it is compiled into each byte-code file.
     force:     if 1, force compilation, even if timestamps are up-to-date
     quiet:     if 1, be quiet during compilation
+    workers:   number of threads compiling at once (default 1); 0 means
+               one for each processor
     """
+    if workers != 1:
+        files = []
+        _list_dir(dir, maxlevels, ddir, force, rx, quiet, files)
+        return _compile_files(files, quiet, workers)
     if not quiet:
         print 'Listing', dir, '...'
     try:
@@ -58,6 +64,76 @@ def compile_dir(dir, maxlevels=10, ddir=None,
                 success = 0
     return success
 
+def _list_dir(dir, maxlevels, ddir, force, rx, quiet, files):
+    """Append to files the (fullname, dfile) of each module in the tree
+    that compile_dir would compile."""
+    if not quiet:
+        print 'Listing', dir, '...'
+    try:
+        names = os.listdir(dir)
+    except os.error:
+        print "Can't list", dir
+        names = []
+    names.sort()
+    for name in names:
+        fullname = os.path.join(dir, name)
+        if ddir is not None:
+            dfile = os.path.join(ddir, name)
+        else:
+            dfile = None
+        if not os.path.isdir(fullname):
+            if _needs_compile(fullname, force, rx):
+                files.append((fullname, dfile))
+        elif maxlevels > 0 and \
+             name != os.curdir and name != os.pardir and \
+             os.path.isdir(fullname) and \
+             not os.path.islink(fullname):
+            _list_dir(fullname, maxlevels - 1, dfile, force, rx, quiet, files)
+
+def _needs_compile(fullname, force=0, rx=None):
+    """Whether fullname is a module source to compile: not excluded by rx
+    and, unless force, not already compiled since it was last changed."""
+    if rx is not None and rx.search(fullname):
+        return False
+    if not os.path.isfile(fullname) or fullname[-3:] != '.py':
+        return False
+    if not force:
+        try:
+            mtime = int(os.stat(fullname).st_mtime)
+            expect = struct.pack('<4sl', imp.get_magic(), mtime)
+            cfile = imp._makeCompiledFilename(fullname)
+            with open(cfile, 'rb') as chandle:
+                actual = chandle.read(8)
+            if expect == actual:
+                return False
+        except IOError:
+            pass
+    return True
+
+def _compile_files(files, quiet, workers):
+    """Compile the (fullname, dfile) pairs on a pool of threads, printing
+    the time each took unless quiet."""
+    from java.io import File
+    from java.util import ArrayList
+    from org.python.core import BatchCompiler
+    tasks = ArrayList()
+    for fullname, dfile in files:
+        tasks.add(BatchCompiler.Task(File(fullname), None, None, dfile))
+    results = BatchCompiler(workers).compile(tasks)
+    success = 1
+    for (fullname, dfile), result in zip(files, results):
+        if not quiet or not result.isOk():
+            print 'Compiling', fullname, '... %.1f ms' % (result.nanos / 1e6)
+        if not result.isOk():
+            err = result.error
+            if err.match(IOError):
+                print "Sorry", err.value
+            else:
+                print py_compile.PyCompileError(err.type, err.value,
+                                                dfile or fullname).msg
+            success = 0
+    return success
+
 def compile_file(fullname, ddir=None, force=0, rx=None, quiet=0):
     """Byte-compile one file.
 
@@ -75,39 +151,22 @@ def compile_file(fullname, ddir=None, force=0, rx=None, quiet=0):
         dfile = os.path.join(ddir, name)
     else:
         dfile = None
-    if rx is not None:
-        mo = rx.search(fullname)
-        if mo:
-            return success
-    if os.path.isfile(fullname):
-        head, tail = name[:-3], name[-3:]
-        if tail == '.py':
-            if not force:
-                try:
-                    mtime = int(os.stat(fullname).st_mtime)
-                    expect = struct.pack('<4sl', imp.get_magic(), mtime)
-                    cfile = imp._makeCompiledFilename(fullname)
-                    with open(cfile, 'rb') as chandle:
-                        actual = chandle.read(8)
-                    if expect == actual:
-                        return success
-                except IOError:
-                    pass
-            if not quiet:
+    if _needs_compile(fullname, force, rx):
+        if not quiet:
+            print 'Compiling', fullname, '...'
+        try:
+            ok = py_compile.compile(fullname, None, dfile, True)
+        except py_compile.PyCompileError,err:
+            if quiet:
                 print 'Compiling', fullname, '...'
-            try:
-                ok = py_compile.compile(fullname, None, dfile, True)
-            except py_compile.PyCompileError,err:
-                if quiet:
-                    print 'Compiling', fullname, '...'
-                print err.msg
-                success = 0
-            except IOError, e:
-                print "Sorry", e
+            print err.msg
+            success = 0
+        except IOError, e:
+            print "Sorry", e
+            success = 0
+        else:
+            if ok == 0:
                 success = 0
-            else:
-                if ok == 0:
-                    success = 0
     return success
 
 def compile_path(skip_curdir=1, maxlevels=0, force=0, quiet=0):
@@ -152,11 +211,11 @@ def main():
     """Script main program."""
     import getopt
     try:
-        opts, args = getopt.getopt(sys.argv[1:], 'lfqd:x:i:')
+        opts, args = getopt.getopt(sys.argv[1:], 'lfqd:x:i:j:')
     except getopt.error, msg:
         print msg
         print "usage: python compileall.py [-l] [-f] [-q] [-d destdir] " \
-              "[-x regexp] [-i list] [directory|file ...]"
+              "[-x regexp] [-i list] [-j workers] [directory|file ...]"
         print
         print "arguments: zero or more file and directory names to compile; " \
               "if no arguments given, "
@@ -177,6 +236,8 @@ def main():
         print "-i file: add all the files and directories listed in file to " \
               "the list considered for"
         print '         compilation; if "-", names are read from stdin'
+        print "-j workers: compile on this many threads at once, or one for " \
+              "each processor if 0"
 
         sys.exit(2)
     maxlevels = 10
@@ -185,6 +246,7 @@ def main():
     quiet = 0
     rx = None
     flist = None
+    workers = 1
     for o, a in opts:
         if o == '-l': maxlevels = 0
         if o == '-d': ddir = a
@@ -194,6 +256,7 @@ def main():
             import re
             rx = re.compile(a)
         if o == '-i': flist = a
+        if o == '-j': workers = int(a)
     if ddir:
         if len(args) != 1 and not os.path.isdir(args[0]):
             print "-d destdir require exactly one directory argument"
@@ -210,7 +273,7 @@ def main():
                 for arg in args:
                     if os.path.isdir(arg):
                         if not compile_dir(arg, maxlevels, ddir,
-                                           force, rx, quiet):
+                                           force, rx, quiet, workers):
                             success = 0
                     else:
                         if not compile_file(arg, ddir, force, rx, quiet):
@@ -10,8 +10,9 @@ try:
     from org.python.google.common.collect import MapMaker
     from org.python.google.common.cache import CacheBuilder, CacheLoader
 except ImportError:
-    # dev version from extlibs
-    import com.google.common as guava
+    # dev version from extlibs; import a class first, since the package
+    # itself is only found once the JVM has loaded something from it
     from com.google.common.collect import MapMaker
+    import com.google.common as guava
     from com.google.common.cache import CacheBuilder, CacheLoader
 
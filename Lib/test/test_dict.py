@@ -379,6 +379,22 @@ class DictTest(unittest.TestCase):
         d = self._make_dict({})
         self.assertRaises(KeyError, d.popitem)
 
+    def test_popitem_repeated(self):
+        # Adding and popping an item over and over must not use up the table
+        d = self._make_dict({})
+        for i in xrange(100000):
+            d[i] = i
+            self.assertEqual(d.popitem(), (i, i))
+        self.assertFalse(d)
+        # Nor must deleting an item, then popping from the empty dict
+        d = self._make_dict({})
+        for i in xrange(100000):
+            d[i] = i
+            del d[i]
+            self.assertRaises(KeyError, d.popitem)
+        d[1] = 1
+        self.assertEqual(d, {1: 1})
+
     def test_pop(self):
         # Tests for pop with specified key
         d = self._make_dict({})
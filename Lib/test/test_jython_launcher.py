@@ -170,6 +170,30 @@ class TestLauncher(unittest.TestCase):
             for option in native_access:
                 self.assertNotIn(option, args)
 
+    def test_cds(self):
+        if is_windows:
+            # The Windows launcher is a native executable without --cds
+            return
+        env = self.get_newenv()
+        archive = test_support.TESTFN + ".jsa"
+        env["JYTHON_CDS_ARCHIVE"] = archive
+        self.addCleanup(test_support.unlink, archive)
+        if test_support.get_java_version() < (13,):
+            args = self.get_cmdline([launcher, "--print", "--cds"], env)
+            self.assertFalse([arg for arg in args if "Archive" in arg])
+            return
+        # Without an archive, one is written at exit
+        args = self.get_cmdline([launcher, "--print", "--cds"], env)
+        self.assertIn("-XX:ArchiveClassesAtExit=" + archive, args)
+        self.assertIn("-Xshare:auto", args)
+        # An archive newer than the Jython JAR is used
+        with open(archive, "wb"):
+            pass
+        args = self.get_cmdline([launcher, "--print", "--cds"], env)
+        self.assertIn("-XX:SharedArchiveFile=" + archive, args)
+        self.assertNotIn("-XX:ArchiveClassesAtExit=" + archive, args)
+        self.assertEqual(args[-1], "org.python.util.jython")
+
     def test_mem_env(self):
         env = self.get_newenv()
         env["JAVA_MEM"] = "-Xmx4g"
@@ -39,6 +39,40 @@ def make_fib_function():
 
 fib = make_fib_function()
 
+def make_function(name, argcount, nlocals, co_code, co_consts, co_names, co_varnames,
+                  co_lnotab='\x00\x01'):
+    from org.python.core import PyBytecode, PyFunction
+    c = PyBytecode(
+        argcount, nlocals, 4, 67,
+        co_code, co_consts, co_names, co_varnames,
+        '<%s test code>' % name, name, 1, co_lnotab, (), ())
+    return PyFunction(c, globals())
+
+# def total(n):
+#     i = 0
+#     s = 0
+#     while i < n:
+#         s = s + i
+#         i = i + 1
+#     return s
+def make_total():
+    return make_function('total', 1, 3,
+        'd\x01\x00}\x01\x00d\x01\x00}\x02\x00x\x24\x00|\x01\x00|\x00\x00k\x00\x00r\x32\x00'
+        '|\x02\x00|\x01\x00\x17}\x02\x00|\x01\x00d\x02\x00\x17}\x01\x00q\x0f\x00W|\x02\x00S',
+        (None, 0, 1), (), ('n', 'i', 's'),
+        '\x00\x01\x06\x01\x06\x01\x0f\x01\x0a\x01\x0e\x01')
+
+total = make_total()
+
+# def real_of_x():
+#     return x.real
+real_of_x = make_function('real_of_x', 0, 0, 't\x00\x00j\x01\x00S', (None,), ('x', 'real'), ())
+
+# def length_of_x():
+#     return len(x)
+length_of_x = make_function('length_of_x', 0, 0, 't\x00\x00t\x01\x00\x83\x01\x00S',
+    (None,), ('len', 'x'), ())
+
 class PyBytecodeTest(unittest.TestCase):
 
     def test_fib(self):
@@ -46,6 +80,77 @@ class PyBytecodeTest(unittest.TestCase):
         for i in range(10):
             self.assertEquals(fib(i), expected_fib[i])
 
+    # The code objects below are called often enough to be quickened: that is, to run with
+    # instructions specialised for the values seen, and fused in pairs.
+
+    def test_fused_instructions(self):
+        for n in range(20):
+            self.assertEquals(total(n), n * (n - 1) / 2)
+        self.assertEquals(total(100000), 4999950000L)
+
+    def test_specialised_compare_falls_back(self):
+        for n in range(20):
+            total(n)
+        self.assertEquals(total(3.5), 6)
+        self.assertEquals(total(4L), 6)
+        self.assertEquals(total(2), 1)
+        self.assertEquals(total(None), 0)
+        self.assertEquals(total(-1), 0)
+
+    def test_cached_global_and_attribute(self):
+        global x
+        class C(object):
+            real = 1
+        x = C()
+        for i in range(20):
+            self.assertEquals(real_of_x(), 1)
+        C.real = 2
+        self.assertEquals(real_of_x(), 2)
+        x.real = 3
+        self.assertEquals(real_of_x(), 3)
+        x = 4.5
+        self.assertEquals(real_of_x(), 4.5)
+        del x
+        self.assertRaises(NameError, real_of_x)
+
+    def test_cached_builtin(self):
+        global x, len
+        x = 'abc'
+        for i in range(20):
+            self.assertEquals(length_of_x(), 3)
+        len = lambda o: -1
+        try:
+            self.assertEquals(length_of_x(), -1)
+        finally:
+            del len
+        self.assertEquals(length_of_x(), 3)
+
+    def test_tracing_sees_every_line(self):
+        def trace(function, n):
+            events = []
+            def tracer(frame, event, arg):
+                if frame.f_code is function.func_code:
+                    events.append((event, frame.f_lineno))
+                return tracer
+            sys.settrace(tracer)
+            try:
+                self.assertEquals(function(n), n * (n - 1) / 2)
+            finally:
+                sys.settrace(None)
+            return events
+        # A fresh copy of the code, called too few times to be quickened
+        expected = trace(make_total(), 3)
+        self.assertEquals(expected[0][0], 'call')
+        self.assertEquals(expected[-1][0], 'return')
+        # The statements after the first are traced, the loop on each iteration
+        lines = [line for event, line in expected if event == 'line']
+        self.assertTrue(lines.count(6) >= 3, expected)
+        self.assertTrue(set(lines) >= set(range(3, 8)), expected)
+        hot = make_total()
+        for i in range(20):
+            hot(3)
+        self.assertEquals(trace(hot, 3), expected)
+
 class AdhocRegrtest(unittest.TestCase):
 
     def setUp(self):
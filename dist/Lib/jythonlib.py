@@ -0,0 +1,18 @@
+from _jythonlib import *
+import _bytecodetools as bytecodetools
+
+# Convenience imports, since this is the most common case for using
+# jythonlib, especially with MapMaker
+
+try:
+    # jarjar-ed version
+    import org.python.google.common as guava
+    from org.python.google.common.collect import MapMaker
+    from org.python.google.common.cache import CacheBuilder, CacheLoader
+except ImportError:
+    # dev version from extlibs; import a class first, since the package
+    # itself is only found once the JVM has loaded something from it
+    from com.google.common.collect import MapMaker
+    import com.google.common as guava
+    from com.google.common.cache import CacheBuilder, CacheLoader
+
@@ -0,0 +1,4 @@
+from org.python.tests import Invisible
+Invisible.protectedStaticField
+Invisible().protectedField
+Invisible.packageField
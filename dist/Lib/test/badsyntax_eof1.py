@@ -0,0 +1,5 @@
+def hi():
+    pass
+
+def bye():
+    hi(
@@ -0,0 +1 @@
+print type(KeyError())
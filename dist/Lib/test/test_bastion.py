@@ -0,0 +1,3 @@
+##import Bastion
+##
+##Bastion._test()
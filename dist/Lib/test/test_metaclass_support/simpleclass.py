@@ -0,0 +1,3 @@
+from metaclass import NoOpMetaClass
+class TestClass(object):
+    __metaclass__ = NoOpMetaClass
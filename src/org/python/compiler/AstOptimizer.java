@@ -0,0 +1,676 @@
+// Copyright (c)2026 Jython Developers.
+// Licensed to PSF under a Contributor Agreement.
+package org.python.compiler;
+
+import java.util.ArrayList;
+
+import org.python.antlr.PythonTree;
+import org.python.antlr.Visitor;
+import org.python.antlr.ast.Assert;
+import org.python.antlr.ast.Assign;
+import org.python.antlr.ast.Attribute;
+import org.python.antlr.ast.AugAssign;
+import org.python.antlr.ast.BinOp;
+import org.python.antlr.ast.BoolOp;
+import org.python.antlr.ast.Break;
+import org.python.antlr.ast.Call;
+import org.python.antlr.ast.ClassDef;
+import org.python.antlr.ast.Compare;
+import org.python.antlr.ast.Continue;
+import org.python.antlr.ast.Delete;
+import org.python.antlr.ast.Dict;
+import org.python.antlr.ast.DictComp;
+import org.python.antlr.ast.ExceptHandler;
+import org.python.antlr.ast.Exec;
+import org.python.antlr.ast.Expr;
+import org.python.antlr.ast.Expression;
+import org.python.antlr.ast.For;
+import org.python.antlr.ast.FunctionDef;
+import org.python.antlr.ast.GeneratorExp;
+import org.python.antlr.ast.If;
+import org.python.antlr.ast.IfExp;
+import org.python.antlr.ast.ImportFrom;
+import org.python.antlr.ast.Index;
+import org.python.antlr.ast.Interactive;
+import org.python.antlr.ast.Lambda;
+import org.python.antlr.ast.ListComp;
+import org.python.antlr.ast.Name;
+import org.python.antlr.ast.Num;
+import org.python.antlr.ast.Pass;
+import org.python.antlr.ast.Print;
+import org.python.antlr.ast.Raise;
+import org.python.antlr.ast.Repr;
+import org.python.antlr.ast.Return;
+import org.python.antlr.ast.SetComp;
+import org.python.antlr.ast.Slice;
+import org.python.antlr.ast.Str;
+import org.python.antlr.ast.Subscript;
+import org.python.antlr.ast.Suite;
+import org.python.antlr.ast.TryExcept;
+import org.python.antlr.ast.TryFinally;
+import org.python.antlr.ast.Tuple;
+import org.python.antlr.ast.UnaryOp;
+import org.python.antlr.ast.While;
+import org.python.antlr.ast.With;
+import org.python.antlr.ast.Yield;
+import org.python.antlr.ast.comprehension;
+import org.python.antlr.ast.keyword;
+import org.python.antlr.ast.operatorType;
+import org.python.antlr.ast.unaryopType;
+import org.python.antlr.base.expr;
+import org.python.antlr.base.mod;
+import org.python.antlr.base.stmt;
+import org.python.core.PyComplex;
+import org.python.core.PyException;
+import org.python.core.PyFloat;
+import org.python.core.PyInteger;
+import org.python.core.PyLong;
+import org.python.core.PyObject;
+import org.python.core.PyString;
+import org.python.core.PyUnicode;
+
+/**
+ * Simplifies the AST of a module before {@link CodeCompiler} generates code for it, when
+ * {@link org.python.core.Options#optimizeAst} is set. It folds arithmetic and string operations
+ * on constants into the constant result, replaces an {@code if} statement (or expression) whose
+ * test is a constant, or {@code __debug__}, by the branch that will run, and drops the statements
+ * of a block that follow a {@code return}, {@code raise}, {@code break} or {@code continue}. (The
+ * tuples of constants this leaves, and the literal lists searched by {@code in}, are built once
+ * per module by {@link CodeCompiler}.) Code that cannot run is kept if it holds a statement
+ * {@link CodeCompiler} may reject, such as a {@code return} outside a function, so that the
+ * {@code SyntaxError} is raised whether or not the module is optimised.
+ * <p>
+ * The tree is changed in place. This runs after {@link ScopesCompiler}, so the scope of every name
+ * is as the whole source implies, as in CPython, whatever code is dropped. Each visit method
+ * returns the node to take the place of the one visited: an expression may become a {@link Num}
+ * or {@link Str}, and a statement a list of statements (possibly empty).
+ */
+class AstOptimizer extends Visitor {
+
+    /** The longest string, and largest {@code long} (in bits), a folded operation may produce. */
+    private static final int MAX_FOLDED_SIZE = 4096;
+
+    private AstOptimizer() {}
+
+    /** Simplify the given module, expression or suite in place. */
+    static void optimize(mod node) throws Exception {
+        new AstOptimizer().visit(node);
+    }
+
+    @Override
+    protected Object unhandled_node(PythonTree node) throws Exception {
+        return node;
+    }
+
+    private expr fold(expr node) throws Exception {
+        return node == null ? null : (expr)visit(node);
+    }
+
+    private void foldAll(java.util.List<expr> nodes) throws Exception {
+        if (nodes != null) {
+            for (int i = 0; i < nodes.size(); i++) {
+                nodes.set(i, fold(nodes.get(i)));
+            }
+        }
+    }
+
+    private void visitAll(java.util.List<? extends PythonTree> nodes) throws Exception {
+        if (nodes != null) {
+            for (PythonTree node : nodes) {
+                visit(node);
+            }
+        }
+    }
+
+    private void foldGenerators(java.util.List<comprehension> generators) throws Exception {
+        for (comprehension generator : generators) {
+            generator.setIter(fold(generator.getInternalIter()));
+            foldAll(generator.getInternalIfs());
+        }
+    }
+
+    /**
+     * Simplify each statement of a block, replacing it with the statements it becomes, and drop
+     * what cannot run after a jump.
+     */
+    @SuppressWarnings("unchecked")
+    private void optimizeBody(java.util.List<stmt> body) throws Exception {
+        if (body == null || body.isEmpty()) {
+            return;
+        }
+        java.util.List<stmt> result = new ArrayList<stmt>(body.size());
+        for (int i = 0; i < body.size(); i++) {
+            Object s = visit(body.get(i));
+            if (s instanceof java.util.List) {
+                result.addAll((java.util.List<stmt>)s);
+            } else {
+                result.add((stmt)s);
+            }
+            if (!result.isEmpty() && isJump(result.get(result.size() - 1))
+                    && !mayReportError(body.subList(i + 1, body.size()))) {
+                break;
+            }
+        }
+        if (result.isEmpty()) {
+            result.add(new Pass(body.get(0)));
+        } else if (result.get(0) != body.get(0) && isString(result.get(0))) {
+            // Do not make a docstring of a string that was not one
+            result.add(0, new Pass(result.get(0)));
+        }
+        body.clear();
+        body.addAll(result);
+    }
+
+    private static boolean isJump(stmt node) {
+        return node instanceof Return || node instanceof Raise || node instanceof Break
+                || node instanceof Continue;
+    }
+
+    private static boolean isString(stmt node) {
+        return node instanceof Expr && ((Expr)node).getInternalValue() instanceof Str;
+    }
+
+    /**
+     * Whether {@link CodeCompiler} may report an error in any of these statements, so that they
+     * must be kept even though they cannot run.
+     */
+    private static boolean mayReportError(java.util.List<stmt> nodes) throws Exception {
+        ErrorFinder finder = new ErrorFinder();
+        for (stmt node : nodes) {
+            finder.visit(node);
+        }
+        return finder.found;
+    }
+
+    /** Finds the statements and expressions {@link CodeCompiler} may reject. */
+    private static class ErrorFinder extends Visitor {
+
+        boolean found;
+
+        @Override
+        protected Object unhandled_node(PythonTree node) throws Exception {
+            found |= node instanceof Break || node instanceof Continue || node instanceof Return
+                    || node instanceof Yield || node instanceof ImportFrom
+                    || node instanceof TryExcept || node instanceof Delete || node instanceof With;
+            return this;
+        }
+    }
+
+    /**
+     * The truth of a test that is constant ({@code __debug__} is always true in Jython), or
+     * {@code null} if the test is not constant.
+     */
+    private static Boolean constantTest(expr test) {
+        if (test instanceof Num) {
+            return ((PyObject)((Num)test).getInternalN()).__nonzero__();
+        } else if (test instanceof Str) {
+            return ((PyObject)((Str)test).getInternalS()).__nonzero__();
+        } else if (test instanceof Name) {
+            return ((Name)test).getInternalId().equals("__debug__") ? Boolean.TRUE : null;
+        } else if (test instanceof UnaryOp && ((UnaryOp)test).getInternalOp() == unaryopType.Not) {
+            Boolean operand = constantTest(((UnaryOp)test).getInternalOperand());
+            return operand == null ? null : !operand;
+        }
+        return null;
+    }
+
+    /** The value of a literal number or string, or {@code null} if the node is not one. */
+    private static PyObject constantValue(expr node) {
+        if (node instanceof Num) {
+            return (PyObject)((Num)node).getInternalN();
+        } else if (node instanceof Str) {
+            return (PyObject)((Str)node).getInternalS();
+        }
+        return null;
+    }
+
+    /**
+     * A literal for the result of folding an operation, or {@code null} if the result is of a
+     * type, or is too large, to compile as a literal.
+     */
+    private static expr literal(PythonTree tree, PyObject value) {
+        Class<?> c = value.getClass();
+        if (c == PyInteger.class || c == PyFloat.class) {
+            return new Num(tree, value);
+        } else if (c == PyLong.class) {
+            return ((PyLong)value).getValue().bitLength() <= MAX_FOLDED_SIZE ? new Num(tree, value)
+                    : null;
+        } else if (c == PyComplex.class) {
+            // Only an imaginary literal is compiled
+            return Double.doubleToRawLongBits(((PyComplex)value).real) == 0L ? new Num(tree, value)
+                    : null;
+        } else if (c == PyString.class || c == PyUnicode.class) {
+            return ((PyString)value).__len__() <= MAX_FOLDED_SIZE ? new Str(tree, value) : null;
+        }
+        return null;
+    }
+
+    /**
+     * Whether an operation on these constants is worth computing: it may not be if its result
+     * would be too large to compile, or depends on options in force when the code runs.
+     */
+    private static boolean mayFold(operatorType op, PyObject left, PyObject right) {
+        switch (op) {
+            case Div:
+                // Depends on from __future__ import division, and -Q
+                return false;
+            case Mod:
+                // String formatting is left to run time
+                return !(left instanceof PyString);
+            case Mult:
+                if (left instanceof PyString || right instanceof PyString) {
+                    PyObject s = left instanceof PyString ? left : right;
+                    PyObject n = left instanceof PyString ? right : left;
+                    return isInteger(n) && n.asLong() * ((PyString)s).__len__() <= MAX_FOLDED_SIZE;
+                }
+                return true;
+            case Pow:
+                if (isInteger(left) && isInteger(right) && right.asLong() > 1) {
+                    long bits = ((PyLong)left.__abs__().__long__()).getValue().bitLength();
+                    return bits <= 1 || right.asLong() <= MAX_FOLDED_SIZE / bits;
+                }
+                return true;
+            case LShift:
+                return !isInteger(right) || right.asLong() <= MAX_FOLDED_SIZE;
+            default:
+                return true;
+        }
+    }
+
+    private static boolean isInteger(PyObject value) {
+        return value instanceof PyInteger || value instanceof PyLong;
+    }
+
+    private static PyObject binaryOp(operatorType op, PyObject left, PyObject right) {
+        switch (op) {
+            case Add:
+                return left._add(right);
+            case Sub:
+                return left._sub(right);
+            case Mult:
+                return left._mul(right);
+            case FloorDiv:
+                return left._floordiv(right);
+            case Mod:
+                return left._mod(right);
+            case Pow:
+                return left._pow(right);
+            case LShift:
+                return left._lshift(right);
+            case RShift:
+                return left._rshift(right);
+            case BitOr:
+                return left._or(right);
+            case BitXor:
+                return left._xor(right);
+            case BitAnd:
+                return left._and(right);
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public Object visitBinOp(BinOp node) throws Exception {
+        node.setLeft(fold(node.getInternalLeft()));
+        node.setRight(fold(node.getInternalRight()));
+        PyObject left = constantValue(node.getInternalLeft());
+        PyObject right = constantValue(node.getInternalRight());
+        if (left == null || right == null) {
+            return node;
+        }
+        try {
+            if (!mayFold(node.getInternalOp(), left, right)) {
+                return node;
+            }
+            PyObject result = binaryOp(node.getInternalOp(), left, right);
+            expr folded = result == null ? null : literal(node, result);
+            return folded == null ? node : folded;
+        } catch (PyException pye) {
+            // The error is raised when (and if) the code runs
+            return node;
+        }
+    }
+
+    @Override
+    public Object visitUnaryOp(UnaryOp node) throws Exception {
+        node.setOperand(fold(node.getInternalOperand()));
+        if (!(node.getInternalOperand() instanceof Num)) {
+            return node;
+        }
+        PyObject operand = constantValue(node.getInternalOperand());
+        try {
+            PyObject result;
+            switch (node.getInternalOp()) {
+                case UAdd:
+                    result = operand.__pos__();
+                    break;
+                case USub:
+                    result = operand.__neg__();
+                    break;
+                case Invert:
+                    result = operand.__invert__();
+                    break;
+                default:
+                    return node;
+            }
+            expr folded = literal(node, result);
+            return folded == null ? node : folded;
+        } catch (PyException pye) {
+            return node;
+        }
+    }
+
+    @Override
+    public Object visitIfExp(IfExp node) throws Exception {
+        node.setTest(fold(node.getInternalTest()));
+        node.setBody(fold(node.getInternalBody()));
+        node.setOrelse(fold(node.getInternalOrelse()));
+        Boolean test = constantTest(node.getInternalTest());
+        if (test == null) {
+            return node;
+        }
+        return test ? node.getInternalBody() : node.getInternalOrelse();
+    }
+
+    @Override
+    public Object visitIf(If node) throws Exception {
+        node.setTest(fold(node.getInternalTest()));
+        Boolean test = constantTest(node.getInternalTest());
+        if (test == null) {
+            optimizeBody(node.getInternalBody());
+            optimizeBody(node.getInternalOrelse());
+            return node;
+        }
+        // Only the branch that runs is compiled (as CPython does)
+        java.util.List<stmt> branch = test ? node.getInternalBody() : node.getInternalOrelse();
+        java.util.List<stmt> dropped = test ? node.getInternalOrelse() : node.getInternalBody();
+        if (mayReportError(dropped)) {
+            // Keep the dead branch, so that an error in it is still reported
+            optimizeBody(node.getInternalBody());
+            optimizeBody(node.getInternalOrelse());
+            return node;
+        }
+        optimizeBody(branch);
+        return branch;
+    }
+
+    @Override
+    public Object visitExpr(Expr node) throws Exception {
+        expr value = fold(node.getInternalValue());
+        if (!(value instanceof Str)) {
+            // A string statement is left alone, lest it become a docstring
+            node.setValue(value);
+        }
+        return node;
+    }
+
+    @Override
+    public Object visitBoolOp(BoolOp node) throws Exception {
+        foldAll(node.getInternalValues());
+        return node;
+    }
+
+    @Override
+    public Object visitCompare(Compare node) throws Exception {
+        node.setLeft(fold(node.getInternalLeft()));
+        foldAll(node.getInternalComparators());
+        return node;
+    }
+
+    @Override
+    public Object visitCall(Call node) throws Exception {
+        node.setFunc(fold(node.getInternalFunc()));
+        foldAll(node.getInternalArgs());
+        for (keyword k : node.getInternalKeywords()) {
+            k.setValue(fold(k.getInternalValue()));
+        }
+        node.setStarargs(fold(node.getInternalStarargs()));
+        node.setKwargs(fold(node.getInternalKwargs()));
+        return node;
+    }
+
+    @Override
+    public Object visitAttribute(Attribute node) throws Exception {
+        node.setValue(fold(node.getInternalValue()));
+        return node;
+    }
+
+    @Override
+    public Object visitSubscript(Subscript node) throws Exception {
+        node.setValue(fold(node.getInternalValue()));
+        visit(node.getInternalSlice());
+        return node;
+    }
+
+    @Override
+    public Object visitIndex(Index node) throws Exception {
+        node.setValue(fold(node.getInternalValue()));
+        return node;
+    }
+
+    @Override
+    public Object visitSlice(Slice node) throws Exception {
+        node.setLower(fold(node.getInternalLower()));
+        node.setUpper(fold(node.getInternalUpper()));
+        node.setStep(fold(node.getInternalStep()));
+        return node;
+    }
+
+    @Override
+    public Object visitDict(Dict node) throws Exception {
+        foldAll(node.getInternalKeys());
+        foldAll(node.getInternalValues());
+        return node;
+    }
+
+    @Override
+    public Object visitList(org.python.antlr.ast.List node) throws Exception {
+        foldAll(node.getInternalElts());
+        return node;
+    }
+
+    @Override
+    public Object visitTuple(Tuple node) throws Exception {
+        foldAll(node.getInternalElts());
+        return node;
+    }
+
+    @Override
+    public Object visitSet(org.python.antlr.ast.Set node) throws Exception {
+        foldAll(node.getInternalElts());
+        return node;
+    }
+
+    @Override
+    public Object visitLambda(Lambda node) throws Exception {
+        foldAll(node.getInternalArgs().getInternalDefaults());
+        node.setBody(fold(node.getInternalBody()));
+        return node;
+    }
+
+    @Override
+    public Object visitListComp(ListComp node) throws Exception {
+        node.setElt(fold(node.getInternalElt()));
+        foldGenerators(node.getInternalGenerators());
+        return node;
+    }
+
+    @Override
+    public Object visitSetComp(SetComp node) throws Exception {
+        node.setElt(fold(node.getInternalElt()));
+        foldGenerators(node.getInternalGenerators());
+        return node;
+    }
+
+    @Override
+    public Object visitDictComp(DictComp node) throws Exception {
+        node.setKey(fold(node.getInternalKey()));
+        node.setValue(fold(node.getInternalValue()));
+        foldGenerators(node.getInternalGenerators());
+        return node;
+    }
+
+    @Override
+    public Object visitGeneratorExp(GeneratorExp node) throws Exception {
+        node.setElt(fold(node.getInternalElt()));
+        foldGenerators(node.getInternalGenerators());
+        return node;
+    }
+
+    @Override
+    public Object visitYield(Yield node) throws Exception {
+        node.setValue(fold(node.getInternalValue()));
+        return node;
+    }
+
+    @Override
+    public Object visitRepr(Repr node) throws Exception {
+        node.setValue(fold(node.getInternalValue()));
+        return node;
+    }
+
+    @Override
+    public Object visitAssign(Assign node) throws Exception {
+        foldAll(node.getInternalTargets());
+        node.setValue(fold(node.getInternalValue()));
+        return node;
+    }
+
+    @Override
+    public Object visitAugAssign(AugAssign node) throws Exception {
+        node.setTarget(fold(node.getInternalTarget()));
+        node.setValue(fold(node.getInternalValue()));
+        return node;
+    }
+
+    @Override
+    public Object visitDelete(Delete node) throws Exception {
+        foldAll(node.getInternalTargets());
+        return node;
+    }
+
+    @Override
+    public Object visitPrint(Print node) throws Exception {
+        node.setDest(fold(node.getInternalDest()));
+        foldAll(node.getInternalValues());
+        return node;
+    }
+
+    @Override
+    public Object visitReturn(Return node) throws Exception {
+        node.setValue(fold(node.getInternalValue()));
+        return node;
+    }
+
+    @Override
+    public Object visitRaise(Raise node) throws Exception {
+        node.setExceptType(fold(node.getInternalType()));
+        node.setInst(fold(node.getInternalInst()));
+        node.setTback(fold(node.getInternalTback()));
+        return node;
+    }
+
+    @Override
+    public Object visitAssert(Assert node) throws Exception {
+        node.setTest(fold(node.getInternalTest()));
+        node.setMsg(fold(node.getInternalMsg()));
+        return node;
+    }
+
+    @Override
+    public Object visitExec(Exec node) throws Exception {
+        node.setBody(fold(node.getInternalBody()));
+        node.setGlobals(fold(node.getInternalGlobals()));
+        node.setLocals(fold(node.getInternalLocals()));
+        return node;
+    }
+
+    @Override
+    public Object visitFor(For node) throws Exception {
+        node.setTarget(fold(node.getInternalTarget()));
+        node.setIter(fold(node.getInternalIter()));
+        optimizeBody(node.getInternalBody());
+        optimizeBody(node.getInternalOrelse());
+        return node;
+    }
+
+    @Override
+    public Object visitWhile(While node) throws Exception {
+        node.setTest(fold(node.getInternalTest()));
+        optimizeBody(node.getInternalBody());
+        optimizeBody(node.getInternalOrelse());
+        return node;
+    }
+
+    @Override
+    public Object visitWith(With node) throws Exception {
+        node.setContext_expr(fold(node.getInternalContext_expr()));
+        node.setOptional_vars(fold(node.getInternalOptional_vars()));
+        optimizeBody(node.getInternalBody());
+        return node;
+    }
+
+    @Override
+    public Object visitTryExcept(TryExcept node) throws Exception {
+        optimizeBody(node.getInternalBody());
+        visitAll(node.getInternalHandlers());
+        optimizeBody(node.getInternalOrelse());
+        return node;
+    }
+
+    @Override
+    public Object visitExceptHandler(ExceptHandler node) throws Exception {
+        node.setExceptType(fold(node.getInternalType()));
+        node.setName(fold(node.getInternalName()));
+        optimizeBody(node.getInternalBody());
+        return node;
+    }
+
+    @Override
+    public Object visitTryFinally(TryFinally node) throws Exception {
+        optimizeBody(node.getInternalBody());
+        optimizeBody(node.getInternalFinalbody());
+        return node;
+    }
+
+    @Override
+    public Object visitFunctionDef(FunctionDef node) throws Exception {
+        foldAll(node.getInternalArgs().getInternalDefaults());
+        foldAll(node.getInternalDecorator_list());
+        optimizeBody(node.getInternalBody());
+        return node;
+    }
+
+    @Override
+    public Object visitClassDef(ClassDef node) throws Exception {
+        foldAll(node.getInternalBases());
+        foldAll(node.getInternalDecorator_list());
+        optimizeBody(node.getInternalBody());
+        return node;
+    }
+
+    @Override
+    public Object visitModule(org.python.antlr.ast.Module node) throws Exception {
+        optimizeBody(node.getInternalBody());
+        return node;
+    }
+
+    @Override
+    public Object visitInteractive(Interactive node) throws Exception {
+        optimizeBody(node.getInternalBody());
+        return node;
+    }
+
+    @Override
+    public Object visitExpression(Expression node) throws Exception {
+        node.setBody(fold(node.getInternalBody()));
+        return node;
+    }
+
+    @Override
+    public Object visitSuite(Suite node) throws Exception {
+        optimizeBody(node.getInternalBody());
+        return node;
+    }
+}
@@ -31,6 +31,7 @@ public class ClassFile
     String superclass;
     String sfilename;
     String[] interfaces;
+    int version = Opcodes.V1_6;
     List<MethodVisitor> methodVisitors;
     List<FieldVisitor> fieldVisitors;
     List<AnnotationVisitor> annotationVisitors;
@@ -98,6 +99,16 @@ public class ClassFile
         sfilename = name;
     }
 
+    /**
+     * Ensure the class file version is at least that given, for example
+     * <code>Opcodes.V1_7</code> when the code uses <code>invokedynamic</code>.
+     */
+    public void requireVersion(int version) {
+        if (version > this.version) {
+            this.version = version;
+        }
+    }
+
     public void addInterface(String name)
         throws IOException
     {
@@ -112,6 +123,7 @@ public class ClassFile
     {
         MethodVisitor mv = cw.visitMethod(access, name, type, null, null);
         Code pmv = new Code(mv, type, access);
+        pmv.splitAtStores = version >= Opcodes.V1_7;
         methodVisitors.add(pmv);
         return pmv;
     }
@@ -121,6 +133,7 @@ public class ClassFile
     {
         MethodVisitor mv = cw.visitMethod(access, name, type, null, exceptions);
         Code pmv = new Code(mv, type, access);
+        pmv.splitAtStores = version >= Opcodes.V1_7;
         methodVisitors.add(pmv);
         return pmv;
     }
@@ -152,6 +165,7 @@ public class ClassFile
         }
 
         Code pmv = new Code(mv, type, access);
+        pmv.splitAtStores = version >= Opcodes.V1_7;
         methodVisitors.add(pmv);
         return pmv;
     }
@@ -239,7 +253,7 @@ public class ClassFile
                 }
             } catch (Exception fe) {}
         }
-        cw.visit(Opcodes.V1_6, Opcodes.ACC_PUBLIC + Opcodes.ACC_SUPER, this.name, null, this.superclass, interfaces);
+        cw.visit(version, Opcodes.ACC_PUBLIC + Opcodes.ACC_SUPER, this.name, null, this.superclass, interfaces);
         AnnotationVisitor av = cw.visitAnnotation("Lorg/python/compiler/APIVersion;", true);
         // XXX: should imp.java really house this value or should imp.java point into
         // org.python.compiler?
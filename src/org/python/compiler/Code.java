@@ -18,6 +18,14 @@ public class Code extends MethodVisitor implements Opcodes {
     int argcount;
     int returnLocal;
     BitSet finallyLocals = new java.util.BitSet();
+
+    /**
+     * Whether to start a new basic block after each store to a local. ASM computes the frame at an
+     * exception handler from the frames at the start of the blocks the handler covers, so this
+     * stops a local that changes type inside a try block from being given a stale type there. It
+     * only matters from class file version 51, where the frames are strictly verified.
+     */
+    boolean splitAtStores;
     
     //XXX: I'd really like to get sig and access out of here since MethodVistitor
     //     should already have this information.
@@ -254,6 +262,9 @@ public class Code extends MethodVisitor implements Opcodes {
 
     public void astore(int index) {
         mv.visitVarInsn(ASTORE, index);
+        if (splitAtStores) {
+            mv.visitLabel(new Label());
+        }
     }
 
     public void athrow() {
@@ -493,6 +504,9 @@ public class Code extends MethodVisitor implements Opcodes {
  
     public void istore(int index) {
         mv.visitVarInsn(ISTORE, index);
+        if (splitAtStores) {
+            mv.visitLabel(new Label());
+        }
     }
 
     public void isub() {
@@ -2,9 +2,13 @@
 package org.python.compiler;
 
 import java.io.IOException;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Stack;
@@ -75,9 +79,12 @@ import org.python.antlr.ast.operatorType;
 import org.python.antlr.base.expr;
 import org.python.antlr.base.mod;
 import org.python.antlr.base.stmt;
+import org.python.core.AttributeSite;
+import org.python.core.BinOps;
 import org.python.core.CompilerFlags;
 import org.python.core.ContextGuard;
 import org.python.core.ContextManager;
+import org.python.core.GlobalSite;
 import org.python.core.imp;
 import org.python.core.Py;
 import org.python.core.PyCode;
@@ -86,6 +93,7 @@ import org.python.core.PyDictionary;
 import org.python.core.PyException;
 import org.python.core.PyFloat;
 import org.python.core.PyFrame;
+import org.python.core.PyFrozenSet;
 import org.python.core.PyFunction;
 import org.python.core.PyInteger;
 import org.python.core.PyList;
@@ -94,9 +102,11 @@ import org.python.core.PyObject;
 import org.python.core.PySet;
 import org.python.core.PySlice;
 import org.python.core.PyString;
+import org.python.core.PyTableCode;
 import org.python.core.PyTuple;
 import org.python.core.PyUnicode;
 import org.python.core.ThreadState;
+import org.objectweb.asm.Handle;
 import org.objectweb.asm.Label;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
@@ -107,6 +117,19 @@ public class CodeCompiler extends Visitor implements Opcodes, ClassConstants {
 
     private static final Object Exit = Integer.valueOf(1);
     private static final Object NoExit = null;
+
+    /** Bootstrap methods for attribute sites, used when {@link Module#indyAttributes}. */
+    private static final Handle GETATTR_BOOTSTRAP = attributeBootstrap("bootstrapGet");
+    private static final Handle SETATTR_BOOTSTRAP = attributeBootstrap("bootstrapSet");
+    private static final Handle METHOD_BOOTSTRAP = attributeBootstrap("bootstrapMethod");
+    /** Bootstrap method for global name sites, used when {@link Module#indyGlobals}. */
+    private static final Handle GLOBAL_BOOTSTRAP = new Handle(H_INVOKESTATIC, p(GlobalSite.class),
+            "bootstrap", sig(CallSite.class, MethodHandles.Lookup.class, String.class,
+                    MethodType.class, String.class), false);
+    /** Operations for which {@link BinOps} provides a static, number-specialised equivalent. */
+    private static final Collection<String> BINOPS_METHODS = Arrays.asList("_add", "_sub",
+            "_mul", "_div", "_truediv", "_floordiv", "_mod", "_iadd", "_isub", "_imul", "_idiv",
+            "_itruediv", "_ifloordiv", "_imod", "_eq", "_ne", "_lt", "_le", "_gt", "_ge");
     private Module module;
     private Code code;
     private CompilerFlags cflags;
@@ -120,6 +143,17 @@ public class CodeCompiler extends Visitor implements Opcodes, ClassConstants {
     private Map<String, SymInfo> tbl;
     private ScopeInfo my_scope;
     private boolean optimizeGlobals = true;
+    private boolean indyAttributes;
+    private boolean indyGlobals;
+    /**
+     * Whether this is the frameless form of a function (see {@link LeafChecker}), whose method
+     * takes the thread state, globals and arguments in place of a frame.
+     */
+    private boolean leaf;
+    /** In a frameless function, the JVM local holding each Python local (by index). */
+    private int[] leafLocals;
+    /** In a frameless function, the JVM local holding the current line number. */
+    private int leafLine;
     private String className;
     private Stack<Label> continueLabels, breakLabels;
     private Stack<ExceptionHandler> exceptionHandlers;
@@ -139,25 +173,46 @@ public class CodeCompiler extends Visitor implements Opcodes, ClassConstants {
     public CodeCompiler(Module module, boolean print_results) {
         this.module = module;
         this.print_results = print_results;
+        this.indyAttributes = module.indyAttributes;
+        this.indyGlobals = module.indyGlobals;
 
         continueLabels = new Stack<Label>();
         breakLabels = new Stack<Label>();
         exceptionHandlers = new Stack<ExceptionHandler>();
     }
 
+    private static Handle attributeBootstrap(String name) {
+        return new Handle(H_INVOKESTATIC, p(AttributeSite.class), name, sig(CallSite.class,
+                MethodHandles.Lookup.class, String.class, MethodType.class, String.class), false);
+    }
+
+    /**
+     * Emit an <code>invokedynamic</code> attribute site (see {@link AttributeSite}) for the named
+     * attribute. The {@link Module} will have chosen a class file version that supports it.
+     */
+    private void attributeSite(String op, String descriptor, Handle bootstrap, String name) {
+        code.visitInvokeDynamicInsn(op, descriptor, bootstrap, name);
+    }
+
     public void getNone() throws IOException {
         code.getstatic(p(Py.class), "None", ci(PyObject.class));
     }
 
     public void loadFrame() throws Exception {
+        if (leaf) {
+            throw new IllegalStateException("frame used in frameless function");
+        }
         code.aload(1);
     }
 
     public void loadThreadState() throws Exception {
-        code.aload(2);
+        code.aload(leaf ? 1 : 2);
     }
 
     public void setLastI(int idx) throws Exception {
+        if (leaf) {
+            return;
+        }
         loadFrame();
         code.iconst(idx);
         code.putfield(p(PyFrame.class), "f_lasti", "I");
@@ -176,6 +231,11 @@ public class CodeCompiler extends Visitor implements Opcodes, ClassConstants {
     public void setline(int line) throws Exception {
         if (module.linenumbers) {
             code.setline(line);
+            if (leaf) {
+                code.iconst(line);
+                code.istore(leafLine);
+                return;
+            }
             loadFrame();
             code.iconst(line);
             code.invokevirtual(p(PyFrame.class), "setline", sig(Void.TYPE, Integer.TYPE));
@@ -347,6 +407,74 @@ public class CodeCompiler extends Visitor implements Opcodes, ClassConstants {
         // END postparse
     }
 
+    /**
+     * Compile the frameless form of a function, a method with signature
+     * {@code (ThreadState, PyObject globals, PyObject[] args)PyObject}. Local variables are held
+     * in JVM locals, and a frame is created only if an exception escapes (see
+     * {@link PyTableCode#leafException}). The function must satisfy {@link LeafChecker}.
+     */
+    void parseLeaf(mod node, Code code, String className, ScopeInfo scope, CompilerFlags cflags,
+            PyCodeConstant pyCode) throws Exception {
+        this.leaf = true;
+        this.fast_locals = true;
+        this.className = className;
+        this.code = code;
+        this.cflags = cflags;
+        this.my_scope = scope;
+        this.tbl = scope.tbl;
+        optimizeGlobals = checkOptimizeGlobals(fast_locals, my_scope);
+
+        int nlocals = scope.names.size();
+        leafLocals = new int[nlocals];
+        for (int i = 0; i < nlocals; i++) {
+            leafLocals[i] = code.getLocal(p(PyObject.class));
+            if (i < pyCode.argcount) {
+                code.aload(3);
+                code.iconst(i);
+                code.aaload();
+            } else {
+                code.aconst_null();
+            }
+            code.astore(leafLocals[i]);
+        }
+        leafLine = code.getLocal("I");
+        code.iconst(pyCode.co_firstlineno);
+        code.istore(leafLine);
+
+        Label start = new Label();
+        Label end = new Label();
+        Label handler = new Label();
+        code.label(start);
+
+        Object exit = visit(node);
+        if (exit == null) {
+            getNone();
+            code.areturn();
+        }
+        code.label(end);
+
+        // Make the frame the function did without, so that it may appear in the traceback
+        code.label(handler);
+        loadThreadState();
+        code.aload(2);
+        pyCode.get(code);
+        code.checkcast(p(PyTableCode.class));
+        code.iload(leafLine);
+        code.iconst(nlocals);
+        code.anewarray(p(PyObject.class));
+        for (int i = 0; i < nlocals; i++) {
+            code.dup();
+            code.iconst(i);
+            code.aload(leafLocals[i]);
+            code.aastore();
+        }
+        code.invokestatic(p(PyTableCode.class), "leafException",
+                sig(PyException.class, Throwable.class, ThreadState.class, PyObject.class,
+                        PyTableCode.class, Integer.TYPE, PyObject[].class));
+        code.athrow();
+        code.trycatch(start, end, handler, p(Throwable.class));
+    }
+
     @Override
     public Object visitInteractive(Interactive node) throws Exception {
         traverse(node);
@@ -733,7 +861,7 @@ public class CodeCompiler extends Visitor implements Opcodes, ClassConstants {
             code.anewarray(p(Object.class));
             code.astore(array);
             ListIterator<String> content = stack.listIterator(stack.size());
-            for (int i = 0; content.hasPrevious(); i++) {
+            for (int i = 0; content.hasPrevious();) {
                 String signature = content.previous();
                 if (p(ThreadState.class).equals(signature)) {
                     // Stack: ... threadstate
@@ -758,7 +886,8 @@ public class CodeCompiler extends Visitor implements Opcodes, ClassConstants {
 
     private void restoreStack(int array) throws Exception {
         if (stack.size() > 0) {
-            int i = stack.size() - 1;
+            // Thread states are not saved, so the values occupy the bottom of the array.
+            int i = stack.size() - 1 - Collections.frequency(stack, p(ThreadState.class));
             for (String signature : stack) {
                 if (p(ThreadState.class).equals(signature)) {
                     loadThreadState();
@@ -1514,10 +1643,13 @@ public class CodeCompiler extends Visitor implements Opcodes, ClassConstants {
             code.ifeq(end);
         }
 
-        visit(node.getInternalComparators().get(n - 1));
-        code.aload(last);
-        code.swap();
-        visitCmpop(node.getInternalOps().get(n - 1));
+        if (!visitInConstants(node.getInternalOps().get(n - 1),
+                node.getInternalComparators().get(n - 1), last)) {
+            visit(node.getInternalComparators().get(n - 1));
+            code.aload(last);
+            code.swap();
+            visitCmpop(node.getInternalOps().get(n - 1));
+        }
 
         if (n > 1) {
             code.astore(result);
@@ -1532,6 +1664,55 @@ public class CodeCompiler extends Visitor implements Opcodes, ClassConstants {
         return null;
     }
 
+    /**
+     * Emit the comparison of the object in local {@code last} with a literal list or tuple of
+     * constants by {@code in} or {@code not in}, as a search of constants the module builds once
+     * (see {@link BinOps#_in(PyObject, PyFrozenSet, PyTuple)}), if the module is optimised and
+     * this is such a comparison.
+     *
+     * @return whether the comparison was emitted
+     */
+    private boolean visitInConstants(cmpopType op, expr comparator, int last) throws Exception {
+        if (!module.optimizeAst || (op != cmpopType.In && op != cmpopType.NotIn)) {
+            return false;
+        }
+        PyTupleConstant items;
+        if (comparator instanceof List
+                && ((List)comparator).getInternalCtx() == expr_contextType.Load) {
+            items = tupleConstant(((List)comparator).getInternalElts());
+        } else if (comparator instanceof Tuple) {
+            items = tupleConstant(((Tuple)comparator).getInternalElts());
+        } else {
+            return false;
+        }
+        if (items == null) {
+            return false;
+        }
+        Constant set = isHashable(items) ? module.frozenSetConstant(items) : null;
+        code.aload(last);
+        if (set == null) {
+            items.get(code);
+            visitCmpop(op);
+        } else {
+            set.get(code);
+            items.get(code);
+            code.invokestatic(p(BinOps.class), op == cmpopType.In ? "_in" : "_notin",
+                    sig(PyObject.class, PyObject.class, PyFrozenSet.class, PyTuple.class));
+        }
+        return true;
+    }
+
+    /** Whether the items are all numbers (but not complex) or all {@code str}. */
+    private static boolean isHashable(PyTupleConstant items) {
+        boolean numbers = true, strings = true;
+        for (Constant item : items.elements) {
+            numbers &= item instanceof PyIntegerConstant || item instanceof PyLongConstant
+                    || item instanceof PyFloatConstant;
+            strings &= item instanceof PyStringConstant;
+        }
+        return !items.elements.isEmpty() && (numbers || strings);
+    }
+
     public void visitCmpop(cmpopType op) throws Exception {
         String name = null;
         switch (op) {
@@ -1566,7 +1747,21 @@ public class CodeCompiler extends Visitor implements Opcodes, ClassConstants {
                 name = "_notin";
                 break;
         }
-        code.invokevirtual(p(PyObject.class), name, sig(PyObject.class, PyObject.class));
+        emitBinaryOp(name);
+    }
+
+    /**
+     * Emit the binary operation {@code name} on the two objects on the stack, as a call to the
+     * {@link BinOps} method of that name where there is one, which handles int and float operands
+     * without the generic dispatch, or otherwise to the {@link PyObject} method.
+     */
+    private void emitBinaryOp(String name) throws Exception {
+        if (BINOPS_METHODS.contains(name)) {
+            code.invokestatic(p(BinOps.class), name,
+                    sig(PyObject.class, PyObject.class, PyObject.class));
+        } else {
+            code.invokevirtual(p(PyObject.class), name, sig(PyObject.class, PyObject.class));
+        }
     }
 
     @Override
@@ -1618,7 +1813,7 @@ public class CodeCompiler extends Visitor implements Opcodes, ClassConstants {
         if (node.getInternalOp() == operatorType.Div && module.getFutures().areDivisionOn()) {
             name = "_truediv";
         }
-        code.invokevirtual(p(PyObject.class), name, sig(PyObject.class, PyObject.class));
+        emitBinaryOp(name);
         return null;
     }
 
@@ -1698,7 +1893,7 @@ public class CodeCompiler extends Visitor implements Opcodes, ClassConstants {
         if (node.getInternalOp() == operatorType.Div && module.getFutures().areDivisionOn()) {
             name = "_itruediv";
         }
-        code.invokevirtual(p(PyObject.class), name, sig(PyObject.class, PyObject.class));
+        emitBinaryOp(name);
         code.freeLocal(target);
 
         temporary = storeTop();
@@ -1733,6 +1928,9 @@ public class CodeCompiler extends Visitor implements Opcodes, ClassConstants {
 
     public Object invokeNoKeywords(Attribute node, java.util.List<expr> values) throws Exception {
         String name = getName(node.getInternalAttr());
+        if (indyAttributes) {
+            return invokeMethodSite(node, name, values);
+        }
         visit(node.getInternalValue());
         stackProduce();
         code.ldc(name);
@@ -1800,6 +1998,45 @@ public class CodeCompiler extends Visitor implements Opcodes, ClassConstants {
         return null;
     }
 
+    /**
+     * Emit a method call <code>obj.name(values)</code> through an {@link AttributeSite}, which
+     * looks up the method before the arguments are evaluated, as usual, but may avoid binding it
+     * to <code>obj</code>.
+     */
+    private Object invokeMethodSite(Attribute node, String name, java.util.List<expr> values)
+            throws Exception {
+        visit(node.getInternalValue());
+        code.dup();
+        attributeSite("getmethod", sig(Object.class, PyObject.class), METHOD_BOOTSTRAP, name);
+        code.swap();
+        stackProduce(p(Object.class));
+        stackProduce();
+        loadThreadState();
+        stackProduce(p(ThreadState.class));
+
+        Class<?>[] params;
+        if (values.size() <= 4) {
+            params = new Class<?>[values.size() + 3];
+            for (int i = 0; i < values.size(); i++) {
+                params[i + 3] = PyObject.class;
+                visit(values.get(i));
+                stackProduce();
+            }
+            stackConsume(values.size());
+        } else {
+            params = new Class<?>[] {null, null, null, PyObject[].class};
+            int argArray = makeArray(values);
+            code.aload(argArray);
+            code.freeLocal(argArray);
+        }
+        params[0] = Object.class;
+        params[1] = PyObject.class;
+        params[2] = ThreadState.class;
+        stackConsume(3); // method + target + ts
+        code.invokestatic(p(AttributeSite.class), "callMethod", sig(PyObject.class, params));
+        return null;
+    }
+
     @Override
     public Object visitCall(Call node) throws Exception {
         java.util.List<String> keys = new ArrayList<String>();
@@ -2047,6 +2284,20 @@ public class CodeCompiler extends Visitor implements Opcodes, ClassConstants {
     public Object visitAttribute(Attribute node) throws Exception {
 
         expr_contextType ctx = node.getInternalCtx();
+        if (indyAttributes && (ctx == expr_contextType.Load || ctx == expr_contextType.Store
+                || ctx == expr_contextType.Param)) {
+            String name = getName(node.getInternalAttr());
+            visit(node.getInternalValue());
+            if (ctx == expr_contextType.Load) {
+                attributeSite("getattr", sig(PyObject.class, PyObject.class), GETATTR_BOOTSTRAP,
+                        name);
+            } else {
+                code.aload(temporary);
+                attributeSite("setattr", sig(Void.TYPE, PyObject.class, PyObject.class),
+                        SETATTR_BOOTSTRAP, name);
+            }
+            return null;
+        }
         if (node.getInternalCtx() == expr_contextType.AugStore && augmode == expr_contextType.Store) {
             restoreAugTmps(node, 2);
             ctx = expr_contextType.Store;
@@ -2115,6 +2366,14 @@ public class CodeCompiler extends Visitor implements Opcodes, ClassConstants {
             return seqDel(node.getInternalElts());
         }
 
+        if (module.optimizeAst) {
+            Constant tuple = tupleConstant(node.getInternalElts());
+            if (tuple != null) {
+                tuple.get(code);
+                return null;
+            }
+        }
+
         if (my_scope.generator) {
             int content = makeArray(node.getInternalElts());
             code.new_(p(PyTuple.class));
@@ -2412,18 +2671,58 @@ public class CodeCompiler extends Visitor implements Opcodes, ClassConstants {
 
     @Override
     public Object visitNum(Num node) throws Exception {
+        Constant n = numConstant(node);
+        if (n != null) {
+            n.get(code);
+        }
+        return null;
+    }
+
+    private Constant numConstant(Num node) {
         if (node.getInternalN() instanceof PyInteger) {
-            module.integerConstant(((PyInteger)node.getInternalN()).getValue()).get(code);
+            return module.integerConstant(((PyInteger)node.getInternalN()).getValue());
         } else if (node.getInternalN() instanceof PyLong) {
-            module.longConstant(((PyObject)node.getInternalN()).__str__().toString()).get(code);
+            return module.longConstant(((PyObject)node.getInternalN()).__str__().toString());
         } else if (node.getInternalN() instanceof PyFloat) {
-            module.floatConstant(((PyFloat)node.getInternalN()).getValue()).get(code);
+            return module.floatConstant(((PyFloat)node.getInternalN()).getValue());
         } else if (node.getInternalN() instanceof PyComplex) {
-            module.complexConstant(((PyComplex)node.getInternalN()).imag).get(code);
+            return module.complexConstant(((PyComplex)node.getInternalN()).imag);
         }
         return null;
     }
 
+    private Constant strConstant(Str node) {
+        PyString s = (PyString)node.getInternalS();
+        if (s instanceof PyUnicode) {
+            return module.unicodeConstant(s.asString());
+        } else {
+            return module.stringConstant(s.asString());
+        }
+    }
+
+    /**
+     * Return the constant tuple of the given elements, if they are all literal numbers, strings,
+     * or tuples of these, or {@code null} if they are not or the module may build no more tuples.
+     */
+    private PyTupleConstant tupleConstant(java.util.List<expr> elts) {
+        java.util.List<Constant> elements = new ArrayList<Constant>(elts.size());
+        for (expr elt : elts) {
+            Constant element = null;
+            if (elt instanceof Num) {
+                element = numConstant((Num)elt);
+            } else if (elt instanceof Str) {
+                element = strConstant((Str)elt);
+            } else if (elt instanceof Tuple) {
+                element = tupleConstant(((Tuple)elt).getInternalElts());
+            }
+            if (element == null) {
+                return null;
+            }
+            elements.add(element);
+        }
+        return module.tupleConstant(elements);
+    }
+
     private String getName(String name) {
         if (className != null && name.startsWith("__") && !name.endsWith("__")) {
             // remove leading '_' from classname
@@ -2437,6 +2736,11 @@ public class CodeCompiler extends Visitor implements Opcodes, ClassConstants {
     }
 
     void emitGetGlobal(String name) throws Exception {
+        if (indyGlobals) {
+            code.visitInvokeDynamicInsn("getglobal", sig(PyObject.class, PyFrame.class),
+                    GLOBAL_BOOTSTRAP, name);
+            return;
+        }
         code.ldc(name);
         code.invokevirtual(p(PyFrame.class), "getglobal", sig(PyObject.class, String.class));
     }
@@ -2457,6 +2761,10 @@ public class CodeCompiler extends Visitor implements Opcodes, ClassConstants {
             ctx = augmode;
         }
 
+        if (leaf) {
+            return leafName(node, name, syminf, ctx);
+        }
+
         switch (ctx) {
             case Load:
                 loadFrame();
@@ -2553,14 +2861,47 @@ public class CodeCompiler extends Visitor implements Opcodes, ClassConstants {
         return null;
     }
 
+    /** {@link #visitName(Name)} in a frameless function, where locals are JVM locals. */
+    private Object leafName(Name node, String name, SymInfo syminf, expr_contextType ctx)
+            throws Exception {
+        boolean local = syminf != null && (syminf.flags & ScopeInfo.BOUND) != 0
+                && (syminf.flags & ScopeInfo.GLOBAL) == 0;
+        switch (ctx) {
+            case Load:
+                if (local) {
+                    Label bound = new Label();
+                    code.aload(leafLocals[syminf.locals_index]);
+                    code.dup();
+                    code.ifnonnull(bound);
+                    code.pop();
+                    code.ldc(name);
+                    code.invokestatic(p(PyTableCode.class), "leafUnboundLocal",
+                            sig(PyObject.class, String.class));
+                    code.label(bound);
+                } else {
+                    loadThreadState();
+                    code.aload(2);
+                    code.ldc(name);
+                    code.invokestatic(p(PyTableCode.class), "leafGlobal",
+                            sig(PyObject.class, ThreadState.class, PyObject.class, String.class));
+                }
+                return null;
+            case Param:
+            case Store:
+                if (!local) {
+                    throw new ParseException("internal compiler error", node);
+                }
+                code.aload(temporary);
+                code.astore(leafLocals[syminf.locals_index]);
+                return null;
+            default:
+                throw new ParseException("internal compiler error", node);
+        }
+    }
+
     @Override
     public Object visitStr(Str node) throws Exception {
-        PyString s = (PyString)node.getInternalS();
-        if (s instanceof PyUnicode) {
-            module.unicodeConstant(s.asString()).get(code);
-        } else {
-            module.stringConstant(s.asString()).get(code);
-        }
+        strConstant(node).get(code);
         return null;
     }
 
@@ -0,0 +1,223 @@
+// Copyright (c)2026 Jython Developers.
+// Licensed to PSF under a Contributor Agreement.
+package org.python.compiler;
+
+import org.python.antlr.PythonTree;
+import org.python.antlr.Visitor;
+import org.python.antlr.ast.Assign;
+import org.python.antlr.ast.Attribute;
+import org.python.antlr.ast.AugAssign;
+import org.python.antlr.ast.BinOp;
+import org.python.antlr.ast.BoolOp;
+import org.python.antlr.ast.Break;
+import org.python.antlr.ast.Compare;
+import org.python.antlr.ast.Continue;
+import org.python.antlr.ast.Dict;
+import org.python.antlr.ast.Expr;
+import org.python.antlr.ast.For;
+import org.python.antlr.ast.If;
+import org.python.antlr.ast.IfExp;
+import org.python.antlr.ast.Index;
+import org.python.antlr.ast.List;
+import org.python.antlr.ast.Name;
+import org.python.antlr.ast.Num;
+import org.python.antlr.ast.Pass;
+import org.python.antlr.ast.Raise;
+import org.python.antlr.ast.Repr;
+import org.python.antlr.ast.Return;
+import org.python.antlr.ast.Slice;
+import org.python.antlr.ast.Str;
+import org.python.antlr.ast.Subscript;
+import org.python.antlr.ast.Suite;
+import org.python.antlr.ast.Tuple;
+import org.python.antlr.ast.UnaryOp;
+import org.python.antlr.ast.While;
+import org.python.antlr.ast.expr_contextType;
+
+/**
+ * Decides whether a function may be compiled in the frameless ("leaf") form used when
+ * {@link org.python.core.Options#lazyFrames} is set. The body may contain only the statements and
+ * expressions accepted here, none of which needs the frame except to read and write local
+ * variables and to read globals. In particular a leaf function makes no calls, defines no nested
+ * scopes, handles no exceptions, and does not assign or delete global names.
+ */
+class LeafChecker extends Visitor {
+
+    private boolean leaf = true;
+
+    /**
+     * Whether a function with the given body and scope may be compiled in frameless form.
+     *
+     * @param body of the function
+     * @param scope of the function
+     * @return true if the function needs no frame
+     */
+    static boolean isLeaf(PythonTree body, ScopeInfo scope) throws Exception {
+        if (scope.ac == null || scope.ac.arglist || scope.ac.keywordlist || scope.generator
+                || scope.exec || scope.from_import_star || !scope.cellvars.isEmpty()
+                || !scope.freevars.isEmpty() || !scope.jy_paramcells.isEmpty()
+                || scope.max_with_count > 0) {
+            return false;
+        }
+        LeafChecker checker = new LeafChecker();
+        checker.visit(body);
+        return checker.leaf;
+    }
+
+    private Object accept(PythonTree node) throws Exception {
+        if (leaf) {
+            traverse(node);
+        }
+        return null;
+    }
+
+    @Override
+    protected Object unhandled_node(PythonTree node) throws Exception {
+        leaf = false;
+        return null;
+    }
+
+    @Override
+    public Object visitSuite(Suite node) throws Exception {
+        return accept(node);
+    }
+
+    @Override
+    public Object visitExpr(Expr node) throws Exception {
+        return accept(node);
+    }
+
+    @Override
+    public Object visitAssign(Assign node) throws Exception {
+        return accept(node);
+    }
+
+    @Override
+    public Object visitAugAssign(AugAssign node) throws Exception {
+        return accept(node);
+    }
+
+    @Override
+    public Object visitReturn(Return node) throws Exception {
+        return accept(node);
+    }
+
+    @Override
+    public Object visitIf(If node) throws Exception {
+        return accept(node);
+    }
+
+    @Override
+    public Object visitWhile(While node) throws Exception {
+        return accept(node);
+    }
+
+    @Override
+    public Object visitFor(For node) throws Exception {
+        return accept(node);
+    }
+
+    @Override
+    public Object visitPass(Pass node) throws Exception {
+        return null;
+    }
+
+    @Override
+    public Object visitBreak(Break node) throws Exception {
+        return null;
+    }
+
+    @Override
+    public Object visitContinue(Continue node) throws Exception {
+        return null;
+    }
+
+    @Override
+    public Object visitRaise(Raise node) throws Exception {
+        return accept(node);
+    }
+
+    @Override
+    public Object visitName(Name node) throws Exception {
+        // Loads and stores of locals, and loads of globals, need no frame; del does.
+        if (node.getInternalCtx() == expr_contextType.Del) {
+            leaf = false;
+        }
+        return null;
+    }
+
+    @Override
+    public Object visitNum(Num node) throws Exception {
+        return null;
+    }
+
+    @Override
+    public Object visitStr(Str node) throws Exception {
+        return null;
+    }
+
+    @Override
+    public Object visitBinOp(BinOp node) throws Exception {
+        return accept(node);
+    }
+
+    @Override
+    public Object visitUnaryOp(UnaryOp node) throws Exception {
+        return accept(node);
+    }
+
+    @Override
+    public Object visitBoolOp(BoolOp node) throws Exception {
+        return accept(node);
+    }
+
+    @Override
+    public Object visitCompare(Compare node) throws Exception {
+        return accept(node);
+    }
+
+    @Override
+    public Object visitIfExp(IfExp node) throws Exception {
+        return accept(node);
+    }
+
+    @Override
+    public Object visitAttribute(Attribute node) throws Exception {
+        return accept(node);
+    }
+
+    @Override
+    public Object visitSubscript(Subscript node) throws Exception {
+        return accept(node);
+    }
+
+    @Override
+    public Object visitIndex(Index node) throws Exception {
+        return accept(node);
+    }
+
+    @Override
+    public Object visitSlice(Slice node) throws Exception {
+        return accept(node);
+    }
+
+    @Override
+    public Object visitTuple(Tuple node) throws Exception {
+        return accept(node);
+    }
+
+    @Override
+    public Object visitList(List node) throws Exception {
+        return accept(node);
+    }
+
+    @Override
+    public Object visitDict(Dict node) throws Exception {
+        return accept(node);
+    }
+
+    @Override
+    public Object visitRepr(Repr node) throws Exception {
+        return accept(node);
+    }
+}
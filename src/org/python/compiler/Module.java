@@ -25,6 +25,8 @@ import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.Hashtable;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Stack;
 import java.util.List;
 import java.util.regex.Matcher;
@@ -46,6 +48,7 @@ import org.python.core.CodeFlag;
 import org.python.core.CodeLoader;
 import org.python.core.CompilerFlags;
 import org.python.core.imp;
+import org.python.core.Options;
 import org.python.core.Py;
 import org.python.core.PyCode;
 import org.python.core.PyBytecode;
@@ -54,6 +57,7 @@ import org.python.core.PyException;
 import org.python.core.PyFile;
 import org.python.core.PyFloat;
 import org.python.core.PyFrame;
+import org.python.core.PyFrozenSet;
 import org.python.core.PyFunctionTable;
 import org.python.core.PyInteger;
 import org.python.core.PyLong;
@@ -61,6 +65,8 @@ import org.python.core.PyObject;
 import org.python.core.PyRunnable;
 import org.python.core.PyRunnableBootstrap;
 import org.python.core.PyString;
+import org.python.core.PyTableCode;
+import org.python.core.PyTuple;
 import org.python.core.PyUnicode;
 import org.python.core.ThreadState;
 import org.python.modules._marshal;
@@ -269,6 +275,97 @@ class PyLongConstant extends Constant implements ClassConstants, Opcodes {
 }
 
 
+/**
+ * A tuple of constants, built once in {@code <init>} and kept in a static field, where the code
+ * without {@link AstOptimizer} builds it on each evaluation.
+ */
+class PyTupleConstant extends Constant implements ClassConstants, Opcodes {
+
+    final List<Constant> elements;
+
+    PyTupleConstant(List<Constant> elements) {
+        this.elements = elements;
+    }
+
+    @Override
+    void get(Code c) throws IOException {
+        c.getstatic(module.classfile.name, name, ci(PyTuple.class));
+    }
+
+    @Override
+    void put(Code c) throws IOException {
+        // A tuple nested in this one was made a constant first, so is built before it
+        module.classfile.addField(name, ci(PyTuple.class), access);
+        c.new_(p(PyTuple.class));
+        c.dup();
+        c.iconst(elements.size());
+        c.anewarray(p(PyObject.class));
+        for (int i = 0; i < elements.size(); i++) {
+            c.dup();
+            c.iconst(i);
+            elements.get(i).get(c);
+            c.aastore();
+        }
+        c.invokespecial(p(PyTuple.class), "<init>", sig(Void.TYPE, PyObject[].class));
+        c.putstatic(module.classfile.name, name, ci(PyTuple.class));
+    }
+
+    @Override
+    public int hashCode() {
+        return elements.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof PyTupleConstant) {
+            return ((PyTupleConstant)o).elements.equals(elements);
+        } else {
+            return false;
+        }
+    }
+}
+
+
+/** A {@code frozenset} of the elements of a {@link PyTupleConstant}, built once. */
+class PyFrozenSetConstant extends Constant implements ClassConstants, Opcodes {
+
+    final PyTupleConstant tuple;
+
+    PyFrozenSetConstant(PyTupleConstant tuple) {
+        this.tuple = tuple;
+    }
+
+    @Override
+    void get(Code c) throws IOException {
+        c.getstatic(module.classfile.name, name, ci(PyFrozenSet.class));
+    }
+
+    @Override
+    void put(Code c) throws IOException {
+        module.classfile.addField(name, ci(PyFrozenSet.class), access);
+        c.new_(p(PyFrozenSet.class));
+        c.dup();
+        tuple.get(c);
+        c.invokespecial(p(PyFrozenSet.class), "<init>", sig(Void.TYPE, PyObject.class));
+        c.putstatic(module.classfile.name, name, ci(PyFrozenSet.class));
+    }
+
+    @Override
+    public int hashCode() {
+        return tuple.hashCode() + 1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof PyFrozenSetConstant) {
+            return ((PyFrozenSetConstant)o).tuple.equals(tuple);
+        } else {
+            return false;
+        }
+    }
+}
+
+
 class PyCodeConstant extends Constant implements ClassConstants, Opcodes {
 
     final String co_name;
@@ -283,6 +380,8 @@ class PyCodeConstant extends Constant implements ClassConstants, Opcodes {
     final List<String> freevars;
     final int jy_npurecell;
     final int moreflags;
+    /** Whether there is also a frameless form of this code (see {@link LeafChecker}). */
+    boolean leaf;
 
     PyCodeConstant(mod tree, String name, boolean fast_locals, String className, boolean classBody,
             boolean printResults, int firstlineno, ScopeInfo scope, CompilerFlags cflags,
@@ -438,6 +537,12 @@ class PyCodeConstant extends Constant implements ClassConstants, Opcodes {
                 sig(PyCode.class, Integer.TYPE, String[].class, String.class, String.class,
                         Integer.TYPE, Boolean.TYPE, Boolean.TYPE, PyFunctionTable.class,
                         Integer.TYPE, String[].class, String[].class, Integer.TYPE, Integer.TYPE));
+        if (leaf) {
+            c.dup();
+            c.checkcast(p(PyTableCode.class));
+            c.iconst_1();
+            c.putfield(p(PyTableCode.class), "jy_leaf", "Z");
+        }
         c.putstatic(module.classfile.name, name, ci(PyCode.class));
     }
 }
@@ -471,6 +576,15 @@ public class Module implements Opcodes, ClassConstants, CompilationContext {
     Hashtable<PythonTree, ScopeInfo> scopes;
     List<PyCodeConstant> codes;
     long mtime;
+
+    /** Whether attribute access is compiled to <code>invokedynamic</code>. */
+    final boolean indyAttributes;
+    /** Whether loads of global names are compiled to <code>invokedynamic</code>. */
+    final boolean indyGlobals;
+    /** Whether functions that need no frame are also compiled to a frameless form. */
+    final boolean lazyFrames;
+    /** Whether the AST is simplified by {@link AstOptimizer} before code is generated for it. */
+    final boolean optimizeAst;
     private int setter_count = 0;
     private final static int USE_SETTERS_LIMIT = 100;
     private final static int MAX_SETTINGS_PER_SETTER = 4096;
@@ -478,6 +592,16 @@ public class Module implements Opcodes, ClassConstants, CompilationContext {
     /** The pool of Python Constants */
     Hashtable<Constant, Constant> constants;
 
+    /**
+     * Tuples and frozensets built once in {@code <init>}, in the order first used, so that a tuple
+     * is built before any tuple that contains it, or frozenset of its elements.
+     */
+    private final Map<Constant, Constant> builtConstants = new LinkedHashMap<Constant, Constant>();
+
+    /** Number of elements in {@link #builtConstants}, limited so as to keep {@code <init>} small. */
+    private int builtElements;
+    private final static int MAX_BUILT_ELEMENTS = 2048;
+
     /** Table of oversized methods represented as CPython bytecode. */
     protected Hashtable<String, String> oversized_methods = null;
 
@@ -490,6 +614,13 @@ public class Module implements Opcodes, ClassConstants, CompilationContext {
         this.mtime = mtime;
         classfile =
                 new ClassFile(name, p(PyFunctionTable.class), ACC_SYNCHRONIZED | ACC_PUBLIC, mtime);
+        indyAttributes = Options.indyAttributes;
+        indyGlobals = Options.indyGlobals;
+        lazyFrames = Options.lazyFrames;
+        optimizeAst = Options.optimizeAst;
+        if (indyAttributes || indyGlobals) {
+            classfile.requireVersion(V1_7);
+        }
         constants = new Hashtable<Constant, Constant>();
         sfilename = filename;
         if (filename != null) {
@@ -543,6 +674,36 @@ public class Module implements Opcodes, ClassConstants, CompilationContext {
         return findConstant(new PyLongConstant(value));
     }
 
+    /**
+     * Return the constant tuple of the given elements, or {@code null} if the module may build no
+     * more constant tuples.
+     */
+    PyTupleConstant tupleConstant(List<Constant> elements) {
+        return (PyTupleConstant)findBuiltConstant(new PyTupleConstant(elements), elements.size());
+    }
+
+    /**
+     * Return the constant {@code frozenset} of the elements of a constant tuple, or {@code null} if
+     * the module may build no more constants.
+     */
+    Constant frozenSetConstant(PyTupleConstant tuple) {
+        return findBuiltConstant(new PyFrozenSetConstant(tuple), tuple.elements.size());
+    }
+
+    private Constant findBuiltConstant(Constant c, int size) {
+        Constant ret = builtConstants.get(c);
+        if (ret != null) {
+            return ret;
+        } else if (builtElements + size > MAX_BUILT_ELEMENTS) {
+            return null;
+        }
+        builtElements += size;
+        c.module = this;
+        c.name = (c instanceof PyTupleConstant ? "_tuple" : "_frozenset") + builtConstants.size();
+        builtConstants.put(c, c);
+        return c;
+    }
+
     Constant codeConstant(mod tree, String name, boolean fast_locals, String className,
             boolean classBody, boolean printResults, int firstlineno, ScopeInfo scope,
             CompilerFlags cflags) throws Exception {
@@ -571,6 +732,16 @@ public class Module implements Opcodes, ClassConstants, CompilationContext {
         Code c = classfile.addMethod(code.fname,
                 sig(PyObject.class, PyFrame.class, ThreadState.class), ACC_PUBLIC);
         compiler.parse(tree, c, fast_locals, className, classDoc, classBody, scope, cflags);
+
+        if (lazyFrames && fast_locals && !classBody && !printResults
+                && LeafChecker.isLeaf(tree, scope)) {
+            code.leaf = true;
+            compiler = new CodeCompiler(this, false);
+            c = classfile.addMethod(code.fname + "$leaf",
+                    sig(PyObject.class, ThreadState.class, PyObject.class, PyObject[].class),
+                    ACC_PUBLIC);
+            compiler.parseLeaf(tree, c, className, scope, cflags, code);
+        }
         return code;
     }
 
@@ -623,6 +794,10 @@ public class Module implements Opcodes, ClassConstants, CompilationContext {
             constant.put(c);
         }
 
+        for (Constant constant : builtConstants.values()) {
+            constant.put(c);
+        }
+
         for (PyCodeConstant pyc: codes) {
             pyc.put(c);
         }
@@ -660,6 +835,49 @@ public class Module implements Opcodes, ClassConstants, CompilationContext {
         // Should probably throw internal exception here
         code.aconst_null();
         code.areturn();
+
+        addLeafFunctions();
+    }
+
+    /** Write {@code call_leaf}, dispatching to the frameless forms of functions (if any). */
+    private void addLeafFunctions() throws IOException {
+        List<PyCodeConstant> leaves = new ArrayList<PyCodeConstant>();
+        for (PyCodeConstant pyc : codes) {
+            if (pyc.leaf) {
+                leaves.add(pyc);
+            }
+        }
+        if (leaves.isEmpty()) {
+            return;
+        }
+
+        Code code = classfile.addMethod("call_leaf", sig(PyObject.class, Integer.TYPE,
+                ThreadState.class, PyObject.class, PyObject[].class), ACC_PUBLIC);
+        code.aload(0); // this
+        code.aload(2); // thread state
+        code.aload(3); // globals
+        code.aload(4); // arguments
+        Label def = new Label();
+        int[] keys = new int[leaves.size()];
+        Label[] labels = new Label[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = leaves.get(i).id;
+            labels[i] = new Label();
+        }
+
+        code.iload(1);
+        code.visitLookupSwitchInsn(def, keys, labels);
+        for (int i = 0; i < keys.length; i++) {
+            code.label(labels[i]);
+            code.invokevirtual(classfile.name, leaves.get(i).fname + "$leaf",
+                    sig(PyObject.class, ThreadState.class, PyObject.class, PyObject[].class));
+            code.areturn();
+        }
+        code.label(def);
+        code.new_(p(IllegalArgumentException.class));
+        code.dup();
+        code.invokespecial(p(IllegalArgumentException.class), "<init>", sig(Void.TYPE));
+        code.athrow();
     }
 
     public void write(OutputStream stream) throws IOException {
@@ -722,6 +940,10 @@ public class Module implements Opcodes, ClassConstants, CompilationContext {
         }
         module.futures.preprocessFutures(node, cflags);
         new ScopesCompiler(module, module.scopes).parse(node);
+        if (module.optimizeAst && !cflags.ast_is_given) {
+            // After the scopes are found, so that dropping code changes no name's scope
+            AstOptimizer.optimize(node);
+        }
 
         // Add __doc__ if it exists
 
@@ -0,0 +1,399 @@
+// Copyright (c)2026 Jython Developers.
+// Licensed to PSF under a Contributor Agreement.
+package org.python.core;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.ConstantCallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
+
+/**
+ * An inline cache for one attribute access (get, set or method lookup) in compiled Python code.
+ * When {@link Options#indyAttributes} is set, {@link org.python.compiler.CodeCompiler} emits an
+ * {@code invokedynamic} instruction for each {@code obj.attr} expression, bootstrapped by one of
+ * the static methods here. Each call site binds to its own {@code AttributeSite}, which remembers
+ * the result of the type lookup ({@link PyType#lookup(String)}) for up to
+ * {@link #MAX_ENTRIES} receiver types.
+ * <p>
+ * An entry belongs to the {@link PyType} of the receiver and its Java class, which are the same
+ * for all instances of a class defined in Python, but may differ among those of a built-in type.
+ * It is guarded by the version tag of the receiver's type, which
+ * {@link PyType#invalidateMethodCache()} replaces whenever the type or one of its bases is
+ * modified, so an entry is valid exactly as long as a {@link PyType.MethodCache} entry would be.
+ * Only receivers whose attribute protocol is the generic {@code object.__getattribute__} (or
+ * {@code object.__setattr__}) are cached; anything else, and any site that sees too many types,
+ * falls back to {@link PyObject#__getattr__(String)} and friends.
+ */
+public class AttributeSite {
+
+    /** Number of receiver types a site will cache before going megamorphic. */
+    static final int MAX_ENTRIES = 4;
+
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    /** Marks a site that has given up on caching. */
+    private static final Entry[] MEGAMORPHIC = new Entry[0];
+
+    /** Whether a receiver class finds attributes with {@code object___findattr__}. */
+    private static final ClassValue<Boolean> genericGet = new ClassValue<Boolean>() {
+
+        @Override
+        protected Boolean computeValue(Class<?> c) {
+            return isGeneric(c, "__findattr_ex__", String.class);
+        }
+    };
+
+    /** Whether a receiver class sets attributes with {@code object___setattr__}. */
+    private static final ClassValue<Boolean> genericSet = new ClassValue<Boolean>() {
+
+        @Override
+        protected Boolean computeValue(Class<?> c) {
+            return isGeneric(c, "__setattr__", String.class, PyObject.class);
+        }
+    };
+
+    /** object.__setattr__ descriptor, which a Derived class uses unless it is overridden. */
+    private static PyObject objectSetattr;
+
+    /** The attribute name (interned). */
+    private final String name;
+
+    /** Cache entries, replaced (never modified) on a miss. */
+    private volatile Entry[] entries = NO_ENTRIES;
+
+    AttributeSite(String name) {
+        this.name = name.intern();
+    }
+
+    /**
+     * Bootstrap an attribute load site of type {@code (PyObject)PyObject}.
+     *
+     * @param lookup of the calling class
+     * @param opName ignored (always {@code "getattr"})
+     * @param type of the call site
+     * @param name of the attribute
+     * @return the call site
+     */
+    public static CallSite bootstrapGet(MethodHandles.Lookup lookup, String opName,
+            MethodType type, String name) throws ReflectiveOperationException {
+        return bind(new AttributeSite(name), "getattr", type);
+    }
+
+    /**
+     * Bootstrap an attribute store site of type {@code (PyObject, PyObject)V}.
+     *
+     * @param lookup of the calling class
+     * @param opName ignored (always {@code "setattr"})
+     * @param type of the call site
+     * @param name of the attribute
+     * @return the call site
+     */
+    public static CallSite bootstrapSet(MethodHandles.Lookup lookup, String opName,
+            MethodType type, String name) throws ReflectiveOperationException {
+        return bind(new AttributeSite(name), "setattr", type);
+    }
+
+    /**
+     * Bootstrap a method lookup site of type {@code (PyObject)Object}, the first half of a method
+     * call (see {@link #getmethod(PyObject)}).
+     *
+     * @param lookup of the calling class
+     * @param opName ignored (always {@code "getmethod"})
+     * @param type of the call site
+     * @param name of the attribute
+     * @return the call site
+     */
+    public static CallSite bootstrapMethod(MethodHandles.Lookup lookup, String opName,
+            MethodType type, String name) throws ReflectiveOperationException {
+        return bind(new AttributeSite(name), "getmethod", type);
+    }
+
+    private static CallSite bind(AttributeSite site, String method, MethodType type)
+            throws ReflectiveOperationException {
+        MethodHandle mh = MethodHandles.lookup().findVirtual(AttributeSite.class, method, type);
+        return new ConstantCallSite(mh.bindTo(site));
+    }
+
+    /** Equivalent to {@code obj.__getattr__(name)}. */
+    public PyObject getattr(PyObject obj) {
+        Entry e = find(obj, false);
+        if (e.cacheable) {
+            PyObject res = get(e, obj);
+            if (res != null) {
+                return res;
+            }
+        }
+        return obj.__getattr__(name);
+    }
+
+    /** Equivalent to {@code obj.__setattr__(name, value)}. */
+    public void setattr(PyObject obj, PyObject value) {
+        Entry e = find(obj, true);
+        if (e.cacheable) {
+            PyObject descr = e.get();
+            if (descr != null && descr.implementsDescrSet() && descr.isDataDescr()) {
+                descr.__set__(obj, value);
+                return;
+            }
+            PyObject dict = obj.fastGetDict();
+            if (dict != null) {
+                dict.__setitem__(name, value);
+                return;
+            }
+        }
+        obj.__setattr__(name, value);
+    }
+
+    /**
+     * The first half of a method call {@code obj.name(...)}: equivalent to
+     * {@code obj.__getattr__(name)}, except that if the result would be a method bound to
+     * {@code obj}, an opaque object is returned instead, and the method is not created. The
+     * second half is one of the {@code callMethod} methods, to which the result must be passed
+     * with {@code obj} and the evaluated arguments.
+     */
+    public Object getmethod(PyObject obj) {
+        Entry e = find(obj, false);
+        if (e.function != null) {
+            PyObject dict = obj.fastGetDict();
+            if (dict == null || dict.__finditem__(name) == null) {
+                return e;
+            }
+        }
+        return getattr(obj);
+    }
+
+    /** Equivalent to {@code obj.name(ts)}, given {@code method = getmethod(obj)}. */
+    public static PyObject callMethod(Object method, PyObject obj, ThreadState ts) {
+        if (method instanceof Entry) {
+            return ((Entry) method).function.__call__(ts, obj);
+        }
+        return ((PyObject) method).__call__(ts);
+    }
+
+    /** Equivalent to {@code obj.name(arg0)}, given {@code method = getmethod(obj)}. */
+    public static PyObject callMethod(Object method, PyObject obj, ThreadState ts,
+            PyObject arg0) {
+        if (method instanceof Entry) {
+            return ((Entry) method).function.__call__(ts, obj, arg0);
+        }
+        return ((PyObject) method).__call__(ts, arg0);
+    }
+
+    /** Equivalent to {@code obj.name(arg0, arg1)}, given {@code method = getmethod(obj)}. */
+    public static PyObject callMethod(Object method, PyObject obj, ThreadState ts,
+            PyObject arg0, PyObject arg1) {
+        if (method instanceof Entry) {
+            return ((Entry) method).function.__call__(ts, obj, arg0, arg1);
+        }
+        return ((PyObject) method).__call__(ts, arg0, arg1);
+    }
+
+    /** Equivalent to {@code obj.name(arg0, arg1, arg2)}, given {@code method = getmethod(obj)}. */
+    public static PyObject callMethod(Object method, PyObject obj, ThreadState ts,
+            PyObject arg0, PyObject arg1, PyObject arg2) {
+        if (method instanceof Entry) {
+            return ((Entry) method).function.__call__(ts, obj, arg0, arg1, arg2);
+        }
+        return ((PyObject) method).__call__(ts, arg0, arg1, arg2);
+    }
+
+    /**
+     * Equivalent to {@code obj.name(arg0, arg1, arg2, arg3)}, given
+     * {@code method = getmethod(obj)}.
+     */
+    public static PyObject callMethod(Object method, PyObject obj, ThreadState ts,
+            PyObject arg0, PyObject arg1, PyObject arg2, PyObject arg3) {
+        if (method instanceof Entry) {
+            return ((Entry) method).function.__call__(ts, obj,
+                    new PyObject[] {arg0, arg1, arg2, arg3}, Py.NoKeywords);
+        }
+        return ((PyObject) method).__call__(ts, arg0, arg1, arg2, arg3);
+    }
+
+    /** Equivalent to {@code obj.name(*args)}, given {@code method = getmethod(obj)}. */
+    public static PyObject callMethod(Object method, PyObject obj, ThreadState ts,
+            PyObject[] args) {
+        if (method instanceof Entry) {
+            PyObject[] newArgs = new PyObject[args.length + 1];
+            System.arraycopy(args, 0, newArgs, 1, args.length);
+            newArgs[0] = obj;
+            return ((Entry) method).function.__call__(ts, newArgs, Py.NoKeywords);
+        }
+        return ((PyObject) method).__call__(ts, args);
+    }
+
+    /**
+     * The remainder of {@link PyObject#object___findattr__(String)} once the type lookup has been
+     * satisfied from the cache.
+     */
+    private PyObject get(Entry e, PyObject obj) {
+        PyObject descr = e.get();
+        boolean get = false;
+        if (descr != null) {
+            get = descr.implementsDescrGet();
+            if (get && descr.isDataDescr()) {
+                return descr.__get__(obj, obj.getType());
+            }
+        } else if (!e.absent) {
+            // The descriptor has been collected, so this entry must be stale.
+            return null;
+        }
+
+        PyObject dict = obj.fastGetDict();
+        if (dict != null) {
+            PyObject res = dict.__finditem__(name);
+            if (res != null) {
+                return res;
+            }
+        }
+
+        if (get) {
+            return descr.__get__(obj, obj.getType());
+        }
+        return descr;
+    }
+
+    /** The number of receiver types cached, or -1 if the site has gone megamorphic. */
+    int cachedTypes() {
+        Entry[] current = entries;
+        return current == MEGAMORPHIC ? -1 : current.length;
+    }
+
+    /**
+     * Find the entry for the type of {@code obj}, adding one if there is room. An entry is made
+     * even when the receiver is not cacheable, so that the generic path is taken without further
+     * checks.
+     *
+     * @param obj receiver
+     * @param set whether the site is an attribute store
+     * @return the valid entry, which may not be {@link Entry#cacheable}
+     */
+    private Entry find(PyObject obj, boolean set) {
+        PyType type = obj.getType();
+        Object versionTag = type.getVersionTag();
+        Class<?> c = obj.getClass();
+        Entry[] current = entries;
+        for (Entry e : current) {
+            if (e.versionTag == versionTag && e.receiverClass == c) {
+                return e;
+            }
+        }
+        if (current == MEGAMORPHIC) {
+            return Entry.GENERIC;
+        }
+
+        Entry e;
+        if (isCacheable(type, c, set)) {
+            e = new Entry(type, versionTag, c, type.lookup(name));
+        } else {
+            e = new Entry(type, versionTag, c);
+        }
+        // Drop entries for old versions of the same type (or for types since collected) rather
+        // than let them crowd the cache.
+        int n = 0;
+        Entry[] updated = new Entry[MAX_ENTRIES];
+        for (Entry old : current) {
+            PyType oldType = old.type.get();
+            if (oldType != null && (oldType != type || old.receiverClass != c)) {
+                updated[n++] = old;
+            }
+        }
+        if (n == MAX_ENTRIES) {
+            entries = MEGAMORPHIC;
+        } else {
+            updated[n++] = e;
+            Entry[] next = new Entry[n];
+            System.arraycopy(updated, 0, next, 0, n);
+            entries = next;
+        }
+        return e;
+    }
+
+    private static boolean isCacheable(PyType type, Class<?> c, boolean set) {
+        // A Derived class defers to the special methods of its type, which must be object's.
+        boolean derived = Slotted.class.isAssignableFrom(c);
+        if (set) {
+            return genericSet.get(c)
+                    && (!derived || type.lookup("__setattr__") == objectSetattr());
+        } else {
+            return genericGet.get(c) && (!derived || type.getUsesObjectGetattribute());
+        }
+    }
+
+    private static PyObject objectSetattr() {
+        if (objectSetattr == null) {
+            objectSetattr = PyObject.TYPE.lookup("__setattr__");
+        }
+        return objectSetattr;
+    }
+
+    /**
+     * Whether the named method of {@code c} is either that of {@code PyObject}, or that generated
+     * into the Derived classes (which all implement {@link Slotted}), which comes to the same
+     * thing when the type does not override the corresponding special method. {@code PyModule}
+     * only adds to the generic lookup when it fails, which the generic path will then handle.
+     */
+    private static boolean isGeneric(Class<?> c, String method, Class<?>... params) {
+        try {
+            Class<?> declaring = c.getMethod(method, params).getDeclaringClass();
+            return declaring == PyObject.class || Slotted.class.isAssignableFrom(declaring)
+                    || (declaring == PyModule.class && method == "__findattr_ex__");
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * The type lookup for one receiver type at one version. The referent is the descriptor found
+     * (held weakly, as in {@link PyType.MethodCache}), or {@code null} if the type has no such
+     * attribute. When the descriptor is a plain Python function it is also held strongly, since
+     * {@link #getmethod(PyObject)} hands the entry out in place of the bound method.
+     */
+    private static final class Entry extends WeakReference<PyObject> {
+
+        /** Stands for any receiver at a megamorphic site. */
+        static final Entry GENERIC = new Entry(null, null, null);
+
+        /** The type of the receiver (held weakly, so that the site does not keep it alive). */
+        final WeakReference<PyType> type;
+
+        /** The {@link PyType} version tag of the receiver, unique to the type and version. */
+        final Object versionTag;
+
+        /** The Java class of the receiver. */
+        final Class<?> receiverClass;
+
+        /** The receiver uses the generic attribute protocol, so the entry may be used. */
+        final boolean cacheable;
+
+        /** The type has no attribute of this name. */
+        final boolean absent;
+
+        /** The descriptor if it is a plain Python function (so calls may skip the bound method). */
+        final PyFunction function;
+
+        Entry(PyType type, Object versionTag, Class<?> receiverClass, PyObject descr) {
+            super(descr);
+            this.type = new WeakReference<PyType>(type);
+            this.versionTag = versionTag;
+            this.receiverClass = receiverClass;
+            this.cacheable = true;
+            this.absent = descr == null;
+            this.function = descr != null && descr.getClass() == PyFunction.class
+                    ? (PyFunction) descr : null;
+        }
+
+        /** An entry directing receivers of this type to the generic path. */
+        Entry(PyType type, Object versionTag, Class<?> receiverClass) {
+            super(null);
+            this.type = new WeakReference<PyType>(type);
+            this.versionTag = versionTag;
+            this.receiverClass = receiverClass;
+            this.cacheable = false;
+            this.absent = false;
+            this.function = null;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+// Copyright (c)2026 Jython Developers.
+// Licensed to PSF under a Contributor Agreement.
+package org.python.core;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.python.modules._py_compile;
+
+/**
+ * Compiles many Python source files to {@code $py.class} files on a bounded pool of threads, as
+ * {@code compileall -j} and the {@code threads} attribute of the {@code jycompile} Ant task do.
+ * The parse and code generation of one module do not depend on those of another, so the files
+ * are compiled independently, the largest first so that the work is spread evenly. Each worker
+ * thread is bound once to the {@link PySystemState} of the thread that made the compiler, so that
+ * warnings and the default encoding are those of the caller.
+ * <p>
+ * The outcome of each file, with the time it took, is returned as a {@link Result}; a file that
+ * cannot be compiled does not stop the others.
+ */
+public class BatchCompiler {
+
+    /** A source file to compile, and where to write the class. */
+    public static class Task {
+
+        public final File source;
+        public final File compiled;
+        public final String moduleName;
+        public final String filename;
+
+        /**
+         * @param source file containing the source
+         * @param compiled file to write, or {@code null} for the {@code $py.class} file beside the
+         *            source
+         * @param moduleName of the module, or {@code null} to infer it from the packages the
+         *            source is in (as {@code py_compile} does)
+         * @param filename to compile into the class as that of the source, or {@code null} for
+         *            the path of the source
+         */
+        public Task(File source, File compiled, String moduleName, String filename) {
+            this.source = source;
+            this.compiled = compiled != null ? compiled
+                    : new File(imp.makeCompiledFilename(source.getPath()));
+            this.moduleName =
+                    moduleName != null ? moduleName : _py_compile.getModuleName(source);
+            this.filename = filename;
+        }
+
+        public Task(File source) {
+            this(source, null, null, null);
+        }
+    }
+
+    /** The outcome of a {@link Task}. */
+    public static class Result {
+
+        public final Task task;
+
+        /** Time taken to compile and write the class, in nanoseconds. */
+        public final long nanos;
+
+        /** Why the source could not be compiled or written, or {@code null} if it was. */
+        public final PyException error;
+
+        Result(Task task, long nanos, PyException error) {
+            this.task = task;
+            this.nanos = nanos;
+            this.error = error;
+        }
+
+        public boolean isOk() {
+            return error == null;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s (%.1f ms)%s", task.source, nanos / 1e6,
+                    error == null ? "" : ": " + error.value);
+        }
+    }
+
+    private final int threads;
+
+    private final PySystemState sys;
+
+    /**
+     * Create a compiler that uses at most the given number of threads.
+     *
+     * @param threads to use, or 0 (or less) for one for each available processor
+     */
+    public BatchCompiler(int threads) {
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.sys = Py.getSystemState();
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Compile the given sources, each to its class file, and return the outcomes in the order of
+     * the tasks.
+     *
+     * @param tasks to carry out
+     * @return the result of each task
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    public List<Result> compile(List<Task> tasks) throws InterruptedException {
+        if (threads == 1 || tasks.size() < 2) {
+            List<Result> results = new ArrayList<Result>(tasks.size());
+            for (Task task : tasks) {
+                results.add(compile(task));
+            }
+            return results;
+        }
+
+        // Start the largest files first, lest one be left to last on a single thread
+        Integer[] bySize = new Integer[tasks.size()];
+        for (int i = 0; i < bySize.length; i++) {
+            bySize[i] = i;
+        }
+        final long[] sizes = new long[tasks.size()];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = tasks.get(i).source.length();
+        }
+        Arrays.sort(bySize, new Comparator<Integer>() {
+
+            @Override
+            public int compare(Integer a, Integer b) {
+                return Long.compare(sizes[b], sizes[a]);
+            }
+        });
+
+        ExecutorService pool =
+                Executors.newFixedThreadPool(Math.min(threads, tasks.size()), new Workers());
+        try {
+            List<Future<Result>> futures =
+                    new ArrayList<>(Collections.<Future<Result>> nCopies(tasks.size(), null));
+            for (int i : bySize) {
+                final Task task = tasks.get(i);
+                futures.set(i, pool.submit(new Callable<Result>() {
+
+                    @Override
+                    public Result call() {
+                        return compile(task);
+                    }
+                }));
+            }
+            List<Result> results = new ArrayList<Result>(tasks.size());
+            for (Future<Result> future : futures) {
+                results.add(get(future));
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Result get(Future<Result> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException ee) {
+            // compile(Task) catches what the compiler throws: this is an Error
+            Throwable cause = ee.getCause();
+            if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    /** Compile one source to its class file. */
+    private static Result compile(Task task) {
+        long start = System.nanoTime();
+        PyException error = null;
+        try {
+            byte[] bytes = imp.compileSource(task.moduleName, task.source, task.filename);
+            File dir = task.compiled.getAbsoluteFile().getParentFile();
+            if (!dir.isDirectory() && !dir.mkdirs() && !dir.isDirectory()) {
+                error = Py.IOError("Unable to make directory for compiled file: "
+                        + task.compiled);
+            } else if (imp.cacheCompiledSource(task.source.getPath(), task.compiled.getPath(),
+                    bytes) == null) {
+                error = Py.IOError("Unable to write compiled file: " + task.compiled);
+            }
+        } catch (PyException pye) {
+            pye.normalize();
+            error = pye;
+        } catch (RuntimeException e) {
+            error = Py.JavaError(e);
+        }
+        return new Result(task, System.nanoTime() - start, error);
+    }
+
+    /** Makes the worker threads, bound to the system state of the compiler. */
+    private class Workers implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable r) {
+            Thread t = new Thread(new Runnable() {
+
+                @Override
+                public void run() {
+                    Py.setSystemState(sys);
+                    r.run();
+                }
+            }, "jython-compile-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
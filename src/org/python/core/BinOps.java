@@ -0,0 +1,330 @@
+// Copyright (c)2026 Jython Developers.
+// Licensed to PSF under a Contributor Agreement.
+package org.python.core;
+
+/**
+ * Binary operations and comparisons specialised for exact {@code int} and {@code float} operands.
+ * {@link org.python.compiler.CodeCompiler} emits a static call to one of these methods in place of
+ * the virtual call to the {@link PyObject} method of the same name (e.g. {@code BinOps._add(a, b)}
+ * for {@code a._add(b)}).
+ * <p>
+ * When both operands are exactly {@link PyInteger} or {@link PyFloat} (not {@code bool} and not a
+ * subclass, either of which may redefine the operation) the result is computed directly, with
+ * {@code int} results that overflow promoted to {@code long}, exactly as the type's own method
+ * would. Any other operands are passed to the generic {@link PyObject} method, which implements
+ * the full coercion and reflected-operand protocol.
+ */
+public class BinOps {
+
+    /** Result of {@link #operands(PyObject, PyObject)}: neither fast path applies. */
+    private static final int OTHER = 0;
+    /** Result of {@link #operands(PyObject, PyObject)}: both operands are exact {@code int}. */
+    private static final int INTS = 1;
+    /** Result of {@link #operands(PyObject, PyObject)}: exact {@code float} and/or {@code int}. */
+    private static final int FLOATS = 2;
+
+    private BinOps() {}
+
+    /** Classify a pair of operands as {@link #INTS}, {@link #FLOATS} or {@link #OTHER}. */
+    private static int operands(PyObject a, PyObject b) {
+        Class<?> ca = a.getClass(), cb = b.getClass();
+        if (ca == PyInteger.class) {
+            return cb == PyInteger.class ? INTS : cb == PyFloat.class ? FLOATS : OTHER;
+        } else if (ca == PyFloat.class && (cb == PyFloat.class || cb == PyInteger.class)) {
+            return FLOATS;
+        }
+        return OTHER;
+    }
+
+    /** The value of an exact {@code int} or {@code float}, as a {@code double}. */
+    private static double doubleValue(PyObject v) {
+        return v.getClass() == PyFloat.class ? ((PyFloat)v).getValue()
+                : ((PyInteger)v).getValue();
+    }
+
+    private static int intValue(PyObject v) {
+        return ((PyInteger)v).getValue();
+    }
+
+    /*
+     * Each of the following returns the result of the operation, or null if the operands are not
+     * a pair handled here.
+     */
+
+    private static PyObject add(PyObject a, PyObject b) {
+        switch (operands(a, b)) {
+            case INTS:
+                return Py.newInteger((long)intValue(a) + intValue(b));
+            case FLOATS:
+                return new PyFloat(doubleValue(a) + doubleValue(b));
+            default:
+                return null;
+        }
+    }
+
+    private static PyObject sub(PyObject a, PyObject b) {
+        switch (operands(a, b)) {
+            case INTS:
+                return Py.newInteger((long)intValue(a) - intValue(b));
+            case FLOATS:
+                return new PyFloat(doubleValue(a) - doubleValue(b));
+            default:
+                return null;
+        }
+    }
+
+    private static PyObject mul(PyObject a, PyObject b) {
+        switch (operands(a, b)) {
+            case INTS:
+                return Py.newInteger((long)intValue(a) * intValue(b));
+            case FLOATS:
+                return new PyFloat(doubleValue(a) * doubleValue(b));
+            default:
+                return null;
+        }
+    }
+
+    private static PyObject div(PyObject a, PyObject b) {
+        switch (operands(a, b)) {
+            case INTS:
+                // Leave the warning (and its possible conversion to an error) to int.__div__
+                return Options.division_warning > 0 ? null
+                        : ((PyInteger)a).int___floordiv__(b);
+            case FLOATS:
+                return Options.division_warning >= 2 ? null : truediv(a, b);
+            default:
+                return null;
+        }
+    }
+
+    private static PyObject truediv(PyObject a, PyObject b) {
+        if (operands(a, b) == OTHER) {
+            return null;
+        }
+        double y = doubleValue(b);
+        if (y == 0) {
+            throw Py.ZeroDivisionError("float division");
+        }
+        return new PyFloat(doubleValue(a) / y);
+    }
+
+    private static PyObject floordiv(PyObject a, PyObject b) {
+        switch (operands(a, b)) {
+            case INTS:
+                return ((PyInteger)a).int___floordiv__(b);
+            case FLOATS:
+                double y = doubleValue(b);
+                if (y == 0) {
+                    throw Py.ZeroDivisionError("float division");
+                }
+                return new PyFloat(Math.floor(doubleValue(a) / y));
+            default:
+                return null;
+        }
+    }
+
+    private static PyObject mod(PyObject a, PyObject b) {
+        switch (operands(a, b)) {
+            case INTS:
+                return ((PyInteger)a).int___mod__(b);
+            case FLOATS:
+                return new PyFloat(PyFloat.modulo(doubleValue(a), doubleValue(b)));
+            default:
+                return null;
+        }
+    }
+
+    /** Equivalent to {@code a._add(b)}. */
+    public static PyObject _add(PyObject a, PyObject b) {
+        PyObject r = add(a, b);
+        return r != null ? r : a._add(b);
+    }
+
+    /** Equivalent to {@code a._sub(b)}. */
+    public static PyObject _sub(PyObject a, PyObject b) {
+        PyObject r = sub(a, b);
+        return r != null ? r : a._sub(b);
+    }
+
+    /** Equivalent to {@code a._mul(b)}. */
+    public static PyObject _mul(PyObject a, PyObject b) {
+        PyObject r = mul(a, b);
+        return r != null ? r : a._mul(b);
+    }
+
+    /** Equivalent to {@code a._div(b)}. */
+    public static PyObject _div(PyObject a, PyObject b) {
+        PyObject r = div(a, b);
+        return r != null ? r : a._div(b);
+    }
+
+    /** Equivalent to {@code a._truediv(b)}. */
+    public static PyObject _truediv(PyObject a, PyObject b) {
+        PyObject r = truediv(a, b);
+        return r != null ? r : a._truediv(b);
+    }
+
+    /** Equivalent to {@code a._floordiv(b)}. */
+    public static PyObject _floordiv(PyObject a, PyObject b) {
+        PyObject r = floordiv(a, b);
+        return r != null ? r : a._floordiv(b);
+    }
+
+    /** Equivalent to {@code a._mod(b)}. */
+    public static PyObject _mod(PyObject a, PyObject b) {
+        PyObject r = mod(a, b);
+        return r != null ? r : a._mod(b);
+    }
+
+    /*
+     * int and float are immutable and do not define the in-place operations, so for them the
+     * in-place form has the same result as the plain one.
+     */
+
+    /** Equivalent to {@code a._iadd(b)}. */
+    public static PyObject _iadd(PyObject a, PyObject b) {
+        PyObject r = add(a, b);
+        return r != null ? r : a._iadd(b);
+    }
+
+    /** Equivalent to {@code a._isub(b)}. */
+    public static PyObject _isub(PyObject a, PyObject b) {
+        PyObject r = sub(a, b);
+        return r != null ? r : a._isub(b);
+    }
+
+    /** Equivalent to {@code a._imul(b)}. */
+    public static PyObject _imul(PyObject a, PyObject b) {
+        PyObject r = mul(a, b);
+        return r != null ? r : a._imul(b);
+    }
+
+    /** Equivalent to {@code a._idiv(b)}. */
+    public static PyObject _idiv(PyObject a, PyObject b) {
+        PyObject r = div(a, b);
+        return r != null ? r : a._idiv(b);
+    }
+
+    /** Equivalent to {@code a._itruediv(b)}. */
+    public static PyObject _itruediv(PyObject a, PyObject b) {
+        PyObject r = truediv(a, b);
+        return r != null ? r : a._itruediv(b);
+    }
+
+    /** Equivalent to {@code a._ifloordiv(b)}. */
+    public static PyObject _ifloordiv(PyObject a, PyObject b) {
+        PyObject r = floordiv(a, b);
+        return r != null ? r : a._ifloordiv(b);
+    }
+
+    /** Equivalent to {@code a._imod(b)}. */
+    public static PyObject _imod(PyObject a, PyObject b) {
+        PyObject r = mod(a, b);
+        return r != null ? r : a._imod(b);
+    }
+
+    /*
+     * Comparisons. An int converts exactly to double, and float comparison follows IEEE 754
+     * (every comparison involving a NaN is false, except !=), as the generic path does.
+     */
+
+    /** Equivalent to {@code a._eq(b)}. */
+    public static PyObject _eq(PyObject a, PyObject b) {
+        switch (operands(a, b)) {
+            case INTS:
+                return Py.newBoolean(intValue(a) == intValue(b));
+            case FLOATS:
+                return Py.newBoolean(doubleValue(a) == doubleValue(b));
+            default:
+                return a._eq(b);
+        }
+    }
+
+    /** Equivalent to {@code a._ne(b)}. */
+    public static PyObject _ne(PyObject a, PyObject b) {
+        switch (operands(a, b)) {
+            case INTS:
+                return Py.newBoolean(intValue(a) != intValue(b));
+            case FLOATS:
+                return Py.newBoolean(doubleValue(a) != doubleValue(b));
+            default:
+                return a._ne(b);
+        }
+    }
+
+    /** Equivalent to {@code a._lt(b)}. */
+    public static PyObject _lt(PyObject a, PyObject b) {
+        switch (operands(a, b)) {
+            case INTS:
+                return Py.newBoolean(intValue(a) < intValue(b));
+            case FLOATS:
+                return Py.newBoolean(doubleValue(a) < doubleValue(b));
+            default:
+                return a._lt(b);
+        }
+    }
+
+    /** Equivalent to {@code a._le(b)}. */
+    public static PyObject _le(PyObject a, PyObject b) {
+        switch (operands(a, b)) {
+            case INTS:
+                return Py.newBoolean(intValue(a) <= intValue(b));
+            case FLOATS:
+                return Py.newBoolean(doubleValue(a) <= doubleValue(b));
+            default:
+                return a._le(b);
+        }
+    }
+
+    /** Equivalent to {@code a._gt(b)}. */
+    public static PyObject _gt(PyObject a, PyObject b) {
+        switch (operands(a, b)) {
+            case INTS:
+                return Py.newBoolean(intValue(a) > intValue(b));
+            case FLOATS:
+                return Py.newBoolean(doubleValue(a) > doubleValue(b));
+            default:
+                return a._gt(b);
+        }
+    }
+
+    /** Equivalent to {@code a._ge(b)}. */
+    public static PyObject _ge(PyObject a, PyObject b) {
+        switch (operands(a, b)) {
+            case INTS:
+                return Py.newBoolean(intValue(a) >= intValue(b));
+            case FLOATS:
+                return Py.newBoolean(doubleValue(a) >= doubleValue(b));
+            default:
+                return a._ge(b);
+        }
+    }
+
+    /**
+     * Equivalent to {@code a._in(items)}, where {@code items} is a literal list or tuple of
+     * constants searched by {@code in}, and {@code set} holds the same items (see
+     * {@link #contains(PyObject, PyFrozenSet, PyTuple)}).
+     */
+    public static PyObject _in(PyObject a, PyFrozenSet set, PyTuple items) {
+        return Py.newBoolean(contains(a, set, items));
+    }
+
+    /** Equivalent to {@code a._notin(items)}, as {@link #_in(PyObject, PyFrozenSet, PyTuple)}. */
+    public static PyObject _notin(PyObject a, PyFrozenSet set, PyTuple items) {
+        return Py.newBoolean(!contains(a, set, items));
+    }
+
+    /**
+     * Whether {@code items} contains {@code a}, found by a hash lookup in {@code set} when
+     * {@code a} is exactly a number or {@code str}, for which the hash and equality the set relies
+     * on agree with the comparisons a search of {@code items} makes.
+     */
+    private static boolean contains(PyObject a, PyFrozenSet set, PyTuple items) {
+        Class<?> c = a.getClass();
+        if (c == PyInteger.class || c == PyFloat.class || c == PyLong.class
+                || c == PyBoolean.class || c == PyString.class) {
+            return set.__contains__(a);
+        }
+        return items.__contains__(a);
+    }
+}
@@ -0,0 +1,281 @@
+package org.python.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.python.Version;
+
+/**
+ * An on-disk cache of the classes compiled from Python source given as a string, such as the
+ * scripts passed to {@code PythonInterpreter.exec} and {@code compile}, and so to the JSR-223
+ * engine. It spares a process that runs the same scripts after every restart the cost of parsing
+ * and compiling them again. (Modules imported from files are cached as {@code $py.class} files by
+ * {@link imp} and do not use this cache.)
+ * <p>
+ * An entry is keyed by a SHA-256 digest of the source text, the file name and mode it is compiled
+ * with, the compiler flags, the options that change the code generated, and the version and build
+ * of Jython, so that an entry is never used by a runtime that would compile the source
+ * differently. The entry holds the compiled class and the compiler flags as they were after
+ * compiling it, since a {@code from __future__} import or an encoding declaration in the source
+ * sets them for code compiled later with the same flags.
+ * <p>
+ * The cache is off unless {@link Options#codeCache} is set, when it is the directory
+ * {@code code} in the package cache directory (see {@code python.cachedir}), or a directory is
+ * given to {@link #setDirectory(File)}. Entries are written to a temporary file and renamed into
+ * place, so processes may share a directory. A cache that cannot be read or written is ignored.
+ * <p>
+ * Scripts shorter than {@link Options#codeCacheMinLength} characters, and expressions compiled
+ * by {@code eval}, are not kept: they cost little to compile again, and are often made up by the
+ * program, so that each is compiled only once. Loading an entry updates the modification time of
+ * its file, and when the entries written bring the size of the directory beyond
+ * {@link Options#codeCacheMaxSize} kilobytes, those least recently used are deleted until it is
+ * down to three quarters of that. The size is counted from the entries this process writes, and
+ * from a listing of the directory when it first writes one and each time it deletes entries, so
+ * processes sharing the directory may let it grow beyond the limit until one of them trims it.
+ */
+public final class CodeCache {
+
+    private static final Logger logger = Logger.getLogger("org.python.compiler");
+
+    /** Identifies an entry written by {@link #store(String, CompilerFlags, byte[])}. */
+    private static final int MAGIC = 0x4a794343;
+
+    /** Suffix of the files holding entries. */
+    private static final String SUFFIX = ".jyc";
+
+    /** The directory of the cache, or {@code null} if it is off. */
+    private static volatile File directory;
+
+    /**
+     * The size in bytes of the entries in {@link #directory}, as last listed plus those written
+     * since, or -1 if not yet listed (guarded by {@code CodeCache.class}).
+     */
+    private static long size = -1;
+
+    private CodeCache() {}
+
+    /** Use the given directory for the cache (created when first written), or turn it off. */
+    public static void setDirectory(File dir) {
+        synchronized (CodeCache.class) {
+            directory = dir;
+            size = -1;
+        }
+    }
+
+    /** The directory of the cache, or {@code null} if it is off. */
+    public static File getDirectory() {
+        return directory;
+    }
+
+    public static boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * The key of source compiled with the given file name, mode and flags, or {@code null} if the
+     * cache is off or does not keep such source (it is short, or an expression for {@code eval}).
+     *
+     * @param mode the {@link CompileMode} or other description of how the source is parsed
+     */
+    public static String key(String source, String filename, String mode, CompilerFlags cflags) {
+        if (directory == null || source.length() < Options.codeCacheMinLength
+                || CompileMode.eval.name().equals(mode)) {
+            return null;
+        }
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+        StringBuilder header = new StringBuilder();
+        header.append(Version.PY_VERSION).append('\0').append(Version.getBuildInfo()).append('\0')
+                .append(imp.getAPIVersion()).append('\0').append(Options.indyAttributes)
+                .append(Options.indyGlobals).append(Options.lazyFrames).append(Options.optimizeAst)
+                .append('\0').append(mode).append('\0').append(filename).append('\0');
+        if (cflags != null) {
+            header.append(cflags.toBits()).append('\0').append(cflags.encoding);
+        }
+        header.append('\0');
+        md.update(header.toString().getBytes(StandardCharsets.UTF_8));
+        md.update(source.getBytes(StandardCharsets.UTF_8));
+        StringBuilder key = new StringBuilder(64);
+        for (byte b : md.digest()) {
+            key.append(Character.forDigit((b >> 4) & 0xf, 16))
+                    .append(Character.forDigit(b & 0xf, 16));
+        }
+        return key.toString();
+    }
+
+    /** The name of the class compiled for an entry. */
+    static String className(String key) {
+        return "org.python.pycode._pyc" + key.substring(0, 32);
+    }
+
+    /**
+     * The code of the entry with the given key, or {@code null} if there is none or the key is
+     * {@code null}. On a hit, the flags of the entry are added to {@code cflags}.
+     */
+    public static PyCode load(String key, String filename, CompilerFlags cflags) {
+        File dir = directory;
+        if (dir == null || key == null) {
+            return null;
+        }
+        File file = new File(dir, key + SUFFIX);
+        byte[] data;
+        int flags;
+        String encoding;
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            DataInputStream din = new DataInputStream(in);
+            if (din.readInt() != MAGIC) {
+                return null;
+            }
+            flags = din.readInt();
+            encoding = din.readUTF();
+            data = new byte[din.readInt()];
+            din.readFully(data);
+        } catch (IOException e) {
+            // Most often, there is no entry
+            return null;
+        }
+        // Mark the entry as recently used, so that it is among the last deleted
+        file.setLastModified(System.currentTimeMillis());
+        PyCode code;
+        try {
+            code = BytecodeLoader.makeCode(className(key), data, filename);
+        } catch (PyException e) {
+            logger.log(Level.WARNING, "ignoring unloadable code cache entry {0}", file);
+            return null;
+        }
+        if (cflags != null) {
+            for (CodeFlag flag : CodeFlag.parse(flags)) {
+                cflags.setFlag(flag);
+            }
+            if ((flags & CompilerFlags.PyCF_SOURCE_IS_UTF8) != 0) {
+                cflags.source_is_utf8 = true;
+            }
+            cflags.encoding = encoding.isEmpty() ? null : encoding;
+        }
+        return code;
+    }
+
+    /**
+     * Store the class compiled for an entry, with the compiler flags as they are after compiling
+     * it. The entry is the magic number, the flags, the source encoding (empty if none), the length
+     * of the class and the class itself.
+     */
+    static void store(String key, CompilerFlags cflags, byte[] classBytes) {
+        File dir = directory;
+        if (dir == null || key == null) {
+            return;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(classBytes.length + 12);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(cflags == null ? 0 : cflags.toBits());
+            out.writeUTF(cflags == null || cflags.encoding == null ? "" : cflags.encoding);
+            out.writeInt(classBytes.length);
+            out.write(classBytes);
+        } catch (IOException e) {
+            return; // Not possible with a ByteArrayOutputStream
+        }
+        File tmp = null;
+        try {
+            if (!dir.isDirectory() && !dir.mkdirs() && !dir.isDirectory()) {
+                throw new IOException("cannot create " + dir);
+            }
+            tmp = File.createTempFile(key.substring(0, 16), ".tmp", dir);
+            try (FileOutputStream out = new FileOutputStream(tmp)) {
+                bytes.writeTo(out);
+            }
+            Files.move(tmp.toPath(), new File(dir, key + SUFFIX).toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            tmp = null;
+            written(dir, bytes.size());
+        } catch (IOException | SecurityException e) {
+            logger.log(Level.FINE, "cannot write code cache entry: {0}", e);
+        } finally {
+            if (tmp != null) {
+                tmp.delete();
+            }
+        }
+    }
+
+    /** The files of the entries in a directory (empty if it cannot be listed). */
+    private static File[] entries(File dir) {
+        File[] files = dir.listFiles(new FilenameFilter() {
+
+            @Override
+            public boolean accept(File d, String name) {
+                return name.endsWith(SUFFIX);
+            }
+        });
+        return files == null ? new File[0] : files;
+    }
+
+    /**
+     * Count an entry of the given size written to the directory, and if the entries are now
+     * beyond {@link Options#codeCacheMaxSize}, delete those least recently used.
+     */
+    private static synchronized void written(File dir, long bytes) {
+        if (dir != directory) {
+            return;
+        }
+        if (size < 0) {
+            size = 0;
+            for (File f : entries(dir)) {
+                size += f.length();
+            }
+        } else {
+            size += bytes;
+        }
+        long max = Options.codeCacheMaxSize * 1024L;
+        if (size > max) {
+            trim(dir, max / 4 * 3);
+        }
+    }
+
+    /** Delete the entries least recently used until their size is no more than {@code target}. */
+    private static void trim(File dir, long target) {
+        File[] files = entries(dir);
+        final long[] modified = new long[files.length];
+        Integer[] order = new Integer[files.length];
+        size = 0;
+        for (int i = 0; i < files.length; i++) {
+            // Read the times once, as they may change while we sort
+            modified[i] = files[i].lastModified();
+            order[i] = i;
+            size += files[i].length();
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+
+            @Override
+            public int compare(Integer a, Integer b) {
+                return Long.compare(modified[a], modified[b]);
+            }
+        });
+        for (int i = 0; i < order.length && size > target; i++) {
+            File f = files[order[i]];
+            long length = f.length();
+            if (f.delete()) {
+                size -= length;
+            }
+        }
+        logger.log(Level.FINE, "code cache trimmed to {0} bytes", size);
+    }
+}
@@ -0,0 +1,540 @@
+/* Copyright (c) Jython Developers */
+package org.python.core;
+
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The default map behind a {@link PyDictionary}: a compact, insertion-ordered hash table in the
+ * manner of CPython 3.6, with a dense array of entries (key, value and hash) in the order they
+ * were added, and a sparse index of entry numbers probed by hash. An entry costs two references
+ * and two or three ints, where a {@code ConcurrentHashMap} allocates a node of several words for
+ * each, and iteration is a walk along the dense array.
+ * <p>
+ * Lookups take no lock. Changes synchronize on the map, which also makes them safe if comparing
+ * keys runs Python code that changes the same map. A writer stores the hash and value of a new
+ * entry before its key, and the key before the index slot that refers to it, so a reader that
+ * finds an entry through the index sees it whole, or sees a null key and carries on probing as
+ * if the slot were empty. Deletion clears the entry and marks its index slot as a dummy, which
+ * probing passes over. When the entries are used up, the map copies the live ones into a new
+ * {@link Table}, and publishes that through a volatile field, so a reader works throughout on a
+ * table that is only ever added to. Iterators are weakly consistent, like those of a
+ * {@code ConcurrentHashMap}.
+ */
+final class CompactDictMap extends AbstractMap<PyObject, PyObject>
+        implements ConcurrentMap<PyObject, PyObject>, Serializable {
+
+    /** Marks an index slot whose entry has been deleted. (An empty slot holds zero.) */
+    private static final int DUMMY = -1;
+
+    /**
+     * The entries and index of a map. Key {@code e} is at {@code 2*e} and its value at
+     * {@code 2*e+1}. The first {@code mask+1} ints of {@link #index} are the index slots, each
+     * holding {@code e+1}, zero when empty, or {@link #DUMMY}, and the hash of entry {@code e}
+     * follows them at {@code mask+1+e}.
+     */
+    private static final class Table extends AtomicReferenceArray<Object> {
+
+        /** The table of a map that has never held an entry, with no room for one. */
+        static final Table EMPTY = new Table(1, 0);
+
+        final int mask;
+        final int[] index;
+
+        /** The number of entries used, including deleted ones (guarded by the map). */
+        int next;
+
+        /**
+         * The number of index slots that are not empty, including {@link #DUMMY} ones (guarded by
+         * the map). This may exceed {@link #next} once {@link CompactDictMap#popLast()} has
+         * reclaimed deleted entries, whose slots stay {@code DUMMY}.
+         */
+        int filled;
+
+        Table(int indexSize, int capacity) {
+            super(2 * capacity);
+            mask = indexSize - 1;
+            index = new int[indexSize + capacity];
+        }
+
+        /** A table for at least {@code n} entries, leaving a third of the index empty. */
+        static Table forSize(int n) {
+            int indexSize = 8;
+            while (3 * n > 2 * indexSize) {
+                indexSize <<= 1;
+            }
+            return new Table(indexSize, 2 * indexSize / 3);
+        }
+
+        int capacity() {
+            return length() >> 1;
+        }
+
+        int hash(int e) {
+            return index[mask + 1 + e];
+        }
+
+        PyObject key(int e) {
+            return (PyObject)get(2 * e);
+        }
+
+        PyObject value(int e) {
+            return (PyObject)get(2 * e + 1);
+        }
+
+        /**
+         * The index slot referring to the entry for {@code key}, or where it is absent,
+         * {@code -1-i} where {@code i} is the empty slot that ended the search.
+         */
+        int find(Object key, int h) {
+            for (int i = spread(h) & mask;; i = (i + 1) & mask) {
+                int ix = index[i];
+                if (ix == 0) {
+                    return -1 - i;
+                } else if (ix > 0) {
+                    Object k = get(2 * (ix - 1));
+                    if (k != null && (k == key || hash(ix - 1) == h && k.equals(key))) {
+                        return i;
+                    }
+                }
+            }
+        }
+
+        /** Append an entry for a key known to be absent, in a table known to have room. */
+        void add(PyObject key, PyObject value, int h) {
+            int e = next++;
+            index[mask + 1 + e] = h;
+            lazySet(2 * e + 1, value);
+            lazySet(2 * e, key);
+            int i = spread(h) & mask;
+            while (index[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            index[i] = e + 1;
+            filled++;
+        }
+
+        /** Whether there is room to {@link #add(PyObject, PyObject, int)} an entry. */
+        boolean isFull() {
+            return next == capacity() || filled == capacity();
+        }
+
+        /** A new table holding the live entries of this one in order, with room for n. */
+        Table rebuild(int n) {
+            Table t = forSize(n);
+            for (int e = 0; e < next; e++) {
+                PyObject k = key(e);
+                if (k != null) {
+                    t.add(k, value(e), hash(e));
+                }
+            }
+            return t;
+        }
+    }
+
+    private volatile Table table;
+
+    /** The number of entries. Written only while holding the lock on this map. */
+    private volatile int size;
+
+    /** Count of structural changes, to detect reentrant change (guarded by the map). */
+    private transient int modCount;
+
+    CompactDictMap() {
+        table = Table.EMPTY;
+    }
+
+    CompactDictMap(int capacity) {
+        table = capacity <= 0 ? Table.EMPTY : Table.forSize(capacity);
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    /** A copy of this map, with the same entries in the same order. */
+    CompactDictMap copy() {
+        CompactDictMap copy = new CompactDictMap();
+        synchronized (this) {
+            copy.table = table.rebuild(size);
+            copy.size = size;
+        }
+        return copy;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public PyObject get(Object key) {
+        if (!(key instanceof PyObject)) {
+            return null;
+        }
+        Table t = table;
+        int h = key.hashCode();
+        int i = t.find(key, h);
+        if (i < 0) {
+            return null;
+        }
+        int ix = t.index[i];
+        // The entry may have been deleted since find() looked at it
+        return ix > 0 ? t.value(ix - 1) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public PyObject put(PyObject key, PyObject value) {
+        if (value == null) {
+            throw new NullPointerException();
+        }
+        return put(key, value, false, key.hashCode());
+    }
+
+    @Override
+    public PyObject putIfAbsent(PyObject key, PyObject value) {
+        if (value == null) {
+            throw new NullPointerException();
+        }
+        return put(key, value, true, key.hashCode());
+    }
+
+    @Override
+    public PyObject remove(Object key) {
+        if (!(key instanceof PyObject)) {
+            return null;
+        }
+        return put((PyObject)key, null, false, key.hashCode());
+    }
+
+    /**
+     * Set the value for a key with the given hash, or remove the key if the value is null,
+     * returning the previous value, or null if there was none. If {@code onlyIfAbsent}, an
+     * existing value is left as it is.
+     */
+    private synchronized PyObject put(PyObject key, PyObject value, boolean onlyIfAbsent,
+            int h) {
+        Table t;
+        int i;
+        do {
+            // Comparing keys runs Python code, which might change this map.
+            int m = modCount;
+            t = table;
+            i = t.find(key, h);
+            if (m == modCount) {
+                break;
+            }
+        } while (true);
+
+        if (i >= 0) {
+            int e = t.index[i] - 1;
+            PyObject old = t.value(e);
+            if (onlyIfAbsent) {
+                return old;
+            } else if (value != null) {
+                t.lazySet(2 * e + 1, value);
+            } else {
+                t.index[i] = DUMMY;
+                t.lazySet(2 * e, null);
+                t.lazySet(2 * e + 1, null);
+                modCount++;
+                size--;
+            }
+            return old;
+        } else if (value == null) {
+            return null;
+        }
+
+        if (t.isFull()) {
+            table = t = t.rebuild(Math.max(2 * size, size + 1));
+        }
+        t.add(key, value, h);
+        modCount++;
+        size++;
+        return null;
+    }
+
+    /**
+     * Remove and return the entry added last, or return null if the map is empty. Entries left
+     * deleted at the end of the table are reclaimed, so that emptying a map this way takes time
+     * in proportion to its size.
+     */
+    synchronized Entry<PyObject, PyObject> popLast() {
+        Table t = table;
+        while (t.next > 0) {
+            int e = --t.next;
+            PyObject k = t.key(e);
+            if (k != null) {
+                PyObject v = t.value(e);
+                int i = spread(t.hash(e)) & t.mask;
+                while (t.index[i] != e + 1) {
+                    i = (i + 1) & t.mask;
+                }
+                // The slot was empty when this, the latest live entry, was added, so no search
+                // for a live entry passes through it, and it may be emptied again.
+                t.index[i] = 0;
+                t.filled--;
+                t.lazySet(2 * e, null);
+                t.lazySet(2 * e + 1, null);
+                modCount++;
+                size--;
+                return new AbstractMap.SimpleImmutableEntry<PyObject, PyObject>(k, v);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void putAll(Map<? extends PyObject, ? extends PyObject> m) {
+        if (m instanceof CompactDictMap) {
+            // Reuse the hashes, which may be costly to compute again
+            Table t = ((CompactDictMap)m).table;
+            synchronized (this) {
+                for (int e = 0; e < t.capacity(); e++) {
+                    PyObject k = t.key(e);
+                    PyObject v = t.value(e);
+                    if (k != null && v != null) {
+                        put(k, v, false, t.hash(e));
+                    }
+                }
+            }
+        } else {
+            super.putAll(m);
+        }
+    }
+
+    @Override
+    public synchronized boolean remove(Object key, Object value) {
+        PyObject old = get(key);
+        if (old != null && old.equals(value)) {
+            remove(key);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public synchronized boolean replace(PyObject key, PyObject oldValue, PyObject newValue) {
+        if (newValue == null) {
+            throw new NullPointerException();
+        }
+        PyObject old = get(key);
+        if (old != null && old.equals(oldValue)) {
+            put(key, newValue);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public synchronized PyObject replace(PyObject key, PyObject value) {
+        if (value == null) {
+            throw new NullPointerException();
+        }
+        return get(key) == null ? null : put(key, value);
+    }
+
+    @Override
+    public synchronized void clear() {
+        table = Table.EMPTY;
+        modCount++;
+        size = 0;
+    }
+
+    @Override
+    public Set<Entry<PyObject, PyObject>> entrySet() {
+        return new AbstractSet<Entry<PyObject, PyObject>>() {
+
+            @Override
+            public Iterator<Entry<PyObject, PyObject>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                if (!(o instanceof Entry)) {
+                    return false;
+                }
+                Entry<?, ?> entry = (Entry<?, ?>)o;
+                PyObject value = get(entry.getKey());
+                return value != null && value.equals(entry.getValue());
+            }
+
+            @Override
+            public boolean remove(Object o) {
+                return o instanceof Entry && CompactDictMap.this
+                        .remove(((Entry<?, ?>)o).getKey(), ((Entry<?, ?>)o).getValue());
+            }
+
+            @Override
+            public void clear() {
+                CompactDictMap.this.clear();
+            }
+        };
+    }
+
+    @Override
+    public Set<PyObject> keySet() {
+        return new AbstractSet<PyObject>() {
+
+            @Override
+            public Iterator<PyObject> iterator() {
+                return new TableIterator<PyObject>() {
+
+                    @Override
+                    PyObject item(PyObject key, PyObject value) {
+                        return key;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return containsKey(o);
+            }
+
+            @Override
+            public boolean remove(Object o) {
+                return CompactDictMap.this.remove(o) != null;
+            }
+
+            @Override
+            public void clear() {
+                CompactDictMap.this.clear();
+            }
+        };
+    }
+
+    @Override
+    public Collection<PyObject> values() {
+        return new AbstractCollection<PyObject>() {
+
+            @Override
+            public Iterator<PyObject> iterator() {
+                return new TableIterator<PyObject>() {
+
+                    @Override
+                    PyObject item(PyObject key, PyObject value) {
+                        return value;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public void clear() {
+                CompactDictMap.this.clear();
+            }
+        };
+    }
+
+    /** An entry returned by iteration, which writes through to the map. */
+    private final class MapEntry extends AbstractMap.SimpleEntry<PyObject, PyObject> {
+
+        MapEntry(PyObject key, PyObject value) {
+            super(key, value);
+        }
+
+        @Override
+        public PyObject setValue(PyObject value) {
+            put(getKey(), value);
+            return super.setValue(value);
+        }
+    }
+
+    /**
+     * Iterates in insertion order over the entries of the table current when it was created,
+     * including those added to it since, returning an item made from each.
+     */
+    private abstract class TableIterator<T> implements Iterator<T> {
+
+        private final Table t = table;
+        private int e;
+        private PyObject nextKey, lastKey;
+        private T next;
+
+        TableIterator() {
+            advance();
+        }
+
+        private void advance() {
+            nextKey = null;
+            while (nextKey == null && e < t.capacity()) {
+                PyObject k = t.key(e);
+                PyObject v = t.value(e++);
+                if (k != null && v != null) {
+                    nextKey = k;
+                    next = item(k, v);
+                }
+            }
+        }
+
+        abstract T item(PyObject key, PyObject value);
+
+        @Override
+        public boolean hasNext() {
+            return nextKey != null;
+        }
+
+        @Override
+        public T next() {
+            if (nextKey == null) {
+                throw new NoSuchElementException();
+            }
+            T item = next;
+            lastKey = nextKey;
+            advance();
+            return item;
+        }
+
+        @Override
+        public void remove() {
+            if (lastKey == null) {
+                throw new IllegalStateException();
+            }
+            CompactDictMap.this.remove(lastKey);
+            lastKey = null;
+        }
+    }
+
+    private final class EntryIterator extends TableIterator<Entry<PyObject, PyObject>> {
+
+        @Override
+        Entry<PyObject, PyObject> item(PyObject key, PyObject value) {
+            return new MapEntry(key, value);
+        }
+    }
+}
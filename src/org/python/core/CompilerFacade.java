@@ -1,5 +1,7 @@
 package org.python.core;
 
+import java.io.ByteArrayOutputStream;
+
 import org.python.antlr.base.mod;
 import org.python.compiler.LegacyCompiler;
 
@@ -27,12 +29,39 @@ public class CompilerFacade {
 
     public static PyCode compile(mod node, String name, String filename,
             boolean linenumbers, boolean printResults, CompilerFlags cflags) {
+        long start = System.nanoTime();
         try {
             PythonCodeBundle bundle = compiler.compile(node, name, filename,
                     linenumbers, printResults, cflags);
             return bundle.loadCode();
         } catch (Throwable t) {
             throw ParserFacade.fixParseError(null, t, filename);
+        } finally {
+            RuntimeMetrics.recordCompile(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Compile as {@link #compile(mod, String, String, boolean, boolean, CompilerFlags)} does, and
+     * store the class produced in the {@link CodeCache} under the given key.
+     */
+    public static PyCode compile(mod node, String cacheKey, String filename,
+            boolean printResults, CompilerFlags cflags) {
+        long start = System.nanoTime();
+        try {
+            String name = CodeCache.className(cacheKey);
+            PythonCodeBundle bundle = compiler.compile(node, name, filename,
+                    true, printResults, cflags);
+            ByteArrayOutputStream ostream = new ByteArrayOutputStream();
+            bundle.writeTo(ostream);
+            byte[] bytes = ostream.toByteArray();
+            PyCode code = BytecodeLoader.makeCode(name, bytes, filename);
+            CodeCache.store(cacheKey, cflags, bytes);
+            return code;
+        } catch (Throwable t) {
+            throw ParserFacade.fixParseError(null, t, filename);
+        } finally {
+            RuntimeMetrics.recordCompile(System.nanoTime() - start);
         }
     }
 }
@@ -20,6 +20,12 @@ public class CompilerFlags implements Serializable {
     public boolean dont_imply_dedent;
     public boolean source_is_utf8;
 
+    /**
+     * Whether the AST compiled was given by the caller, who may use it again, so that the compiler
+     * must not rewrite it (see {@link Options#optimizeAst}).
+     */
+    public boolean ast_is_given;
+
     public String encoding;
     private final Set<CodeFlag> flags = Version.getDefaultCodeFlags();
 
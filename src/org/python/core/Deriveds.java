@@ -11,13 +11,65 @@ public class Deriveds {
     private static final PyObject objectGetattribute =
             PyObject.TYPE.__findattr__("__getattribute__");
 
+    /**
+     * Call a special method found on the type of self, as {@code impl.__get__(self,
+     * type).__call__()} would. When impl is a plain Python function, the function is called with
+     * self prepended instead, avoiding the bound method that {@code __get__} would create.
+     *
+     * @param impl the special method, as returned by {@link PyType#lookupSpecial(String)}
+     * @param self the instance (of a Derived class)
+     * @param type the type of self
+     * @return the result of the call
+     */
+    public static PyObject callSpecial(PyObject impl, PyObject self, PyType type) {
+        if (impl instanceof PyFunction) {
+            return impl.__call__(self);
+        }
+        return impl.__get__(self, type).__call__();
+    }
+
+    /** As {@link #callSpecial(PyObject, PyObject, PyType)} with one argument. */
+    public static PyObject callSpecial(PyObject impl, PyObject self, PyType type, PyObject arg0) {
+        if (impl instanceof PyFunction) {
+            return impl.__call__(self, arg0);
+        }
+        return impl.__get__(self, type).__call__(arg0);
+    }
+
+    /** As {@link #callSpecial(PyObject, PyObject, PyType)} with two arguments. */
+    public static PyObject callSpecial(PyObject impl, PyObject self, PyType type, PyObject arg0,
+            PyObject arg1) {
+        if (impl instanceof PyFunction) {
+            return impl.__call__(self, arg0, arg1);
+        }
+        return impl.__get__(self, type).__call__(arg0, arg1);
+    }
+
+    /** As {@link #callSpecial(PyObject, PyObject, PyType)} with three arguments. */
+    public static PyObject callSpecial(PyObject impl, PyObject self, PyType type, PyObject arg0,
+            PyObject arg1, PyObject arg2) {
+        if (impl instanceof PyFunction) {
+            return impl.__call__(self, arg0, arg1, arg2);
+        }
+        return impl.__get__(self, type).__call__(arg0, arg1, arg2);
+    }
+
+    /** As {@link #callSpecial(PyObject, PyObject, PyType)} with arbitrary arguments. */
+    public static PyObject callSpecial(PyObject impl, PyObject self, PyType type, PyObject[] args,
+            String[] keywords) {
+        if (impl instanceof PyFunction) {
+            return impl.__call__(self, args, keywords);
+        }
+        return impl.__get__(self, type).__call__(args, keywords);
+    }
+
     public static void dispatch__init__(PyObject self, PyObject[] args, String[] keywords) {
         PyType type = self.getType();
-        PyObject init = type.lookup("__init__");
+        PyObject init = type.lookupSpecial("__init__");
         if (init == null) {
             return;
         }
-        PyObject result = init.__get__(self, type).__call__(args, keywords);
+        PyObject result = callSpecial(init, self, type, args, keywords);
         if (result != Py.None) {
             throw Py.TypeError(String.format("__init__() should return None, not '%.200s'",
                                              result.getType().fastGetName()));
@@ -46,7 +98,7 @@ public class Deriveds {
                 }
                 // pass through to __getattr__
             } else {
-                PyObject getattribute = type.lookup("__getattribute__");
+                PyObject getattribute = type.lookupSpecial("__getattribute__");
                 if (getattribute == null) {
                     // This shouldn't happen (and isn't always to do with bjo #2487 when it does).
                     throw Py.SystemError(
@@ -56,7 +108,7 @@ public class Deriveds {
                     type.setUsesObjectGetattribute(true);
                 }
                 pyName = PyString.fromInterned(name);
-                return getattribute.__get__(self, type).__call__(pyName);
+                return callSpecial(getattribute, self, type, pyName);
             }
         } catch (PyException pye) {
             if (!pye.match(Py.AttributeError)) {
@@ -68,10 +120,10 @@ public class Deriveds {
             }
         }
 
-        PyObject getattr = type.lookup("__getattr__");
+        PyObject getattr = type.lookupSpecial("__getattr__");
         if (getattr != null) {
-            return getattr.__get__(self, type).__call__(pyName != null
-                                                        ? pyName : PyString.fromInterned(name));
+            return callSpecial(getattr, self, type,
+                               pyName != null ? pyName : PyString.fromInterned(name));
         }
         if (firstAttributeError != null) {
             throw firstAttributeError;
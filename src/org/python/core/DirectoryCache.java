@@ -0,0 +1,127 @@
+package org.python.core;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.python.core.util.PlatformUtil;
+
+/**
+ * A cache of the names in the directories searched for modules, so that an import may learn
+ * without consulting the file system that a module is not in a directory on {@code sys.path} or a
+ * package {@code __path__}. Without it, every import probes each entry for a package directory, a
+ * source file and a compiled file, which on a long path, or a network file system, makes for
+ * thousands of calls at startup.
+ * <p>
+ * A listing is used while the modification time of its directory is unchanged, which costs one
+ * call in place of those probes. A directory modified within {@link #GRACE} milliseconds of being
+ * listed is not cached, since a file added in the same tick of its modification time would go
+ * unnoticed. A directory that does not exist is cached as empty, until it is created. The names
+ * are only a guide to whether a file may exist: when one is listed, the import proceeds to examine
+ * the file as before. {@link #invalidate()}, called by {@code imp.invalidate_caches()}, discards
+ * all listings, for a program that writes modules and imports them at once.
+ * <p>
+ * The cache may be turned off with {@link Options#importDirectoryCache}. The probes saved are
+ * counted by {@link RuntimeMetrics}.
+ */
+public final class DirectoryCache {
+
+    /** The time (ms) after its last modification before a directory is cached. */
+    static final long GRACE = 2000;
+
+    /** The number of directories above which the cache is emptied. */
+    private static final int MAX_LISTINGS = 4096;
+
+    /** The names in a directory at a modification time. */
+    private static final class Listing {
+
+        final long mtime;
+        final Set<String> names;
+
+        Listing(long mtime, Set<String> names) {
+            this.mtime = mtime;
+            this.names = names;
+        }
+    }
+
+    /** Listings by the path of their directory. */
+    private static final Map<String, Listing> listings = new ConcurrentHashMap<>();
+
+    private DirectoryCache() {}
+
+    /**
+     * Whether a file or directory with any of the given names may be in the directory. The answer
+     * is {@code false} only if a current listing of the directory holds none of them, and
+     * {@code true} if it holds one or there is no such listing.
+     *
+     * @param dir the directory, as a path
+     * @param names of the entries sought
+     * @return whether any of the names may be present
+     */
+    public static boolean mayContain(String dir, String... names) {
+        if (!Options.importDirectoryCache) {
+            return true;
+        }
+        File file = new File(dir);
+        long mtime = file.lastModified();
+        Listing listing = listings.get(dir);
+        if (listing == null || listing.mtime != mtime) {
+            listing = list(dir, file, mtime);
+            if (listing == null) {
+                return true;
+            }
+        }
+        boolean fold = PlatformUtil.isCaseInsensitive();
+        for (String name : names) {
+            if (listing.names.contains(fold ? name.toLowerCase(Locale.ROOT) : name)) {
+                return true;
+            }
+        }
+        // Each name would have been probed, at the cost of the one call made here
+        RuntimeMetrics.importStatsSaved.add(names.length - 1);
+        return false;
+    }
+
+    /**
+     * List the directory and cache the listing, or return {@code null} if it was modified too
+     * recently to be cached.
+     */
+    private static Listing list(String dir, File file, long mtime) {
+        if (mtime != 0L && System.currentTimeMillis() - mtime < GRACE) {
+            listings.remove(dir);
+            return null;
+        }
+        String[] entries = mtime == 0L ? null : file.list();
+        Set<String> names;
+        if (entries == null) {
+            if (mtime != 0L && file.isDirectory()) {
+                // A directory we may not list: leave it to the probes
+                return null;
+            }
+            // Missing, or not a directory: nothing may be imported from it
+            names = Collections.emptySet();
+        } else {
+            names = new HashSet<>(entries.length * 2);
+            boolean fold = PlatformUtil.isCaseInsensitive();
+            for (String name : entries) {
+                names.add(fold ? name.toLowerCase(Locale.ROOT) : name);
+            }
+        }
+        RuntimeMetrics.importDirectoryListings.increment();
+        Listing listing = new Listing(mtime, names);
+        if (listings.size() >= MAX_LISTINGS) {
+            listings.clear();
+        }
+        listings.put(dir, listing);
+        return listing;
+    }
+
+    /** Discard all the listings, so that directories are listed again when next searched. */
+    public static void invalidate() {
+        listings.clear();
+    }
+}
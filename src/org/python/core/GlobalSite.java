@@ -0,0 +1,121 @@
+// Copyright (c)2026 Jython Developers.
+// Licensed to PSF under a Contributor Agreement.
+package org.python.core;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.ConstantCallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
+
+/**
+ * An inline cache for one load of a global name in compiled Python code. When
+ * {@link Options#indyGlobals} is set, {@link org.python.compiler.CodeCompiler} emits an
+ * {@code invokedynamic} instruction in place of each call to {@link PyFrame#getglobal(String)},
+ * bootstrapped by {@link #bootstrap}. Each call site binds to its own {@code GlobalSite}, which
+ * remembers the value found by the last lookup.
+ * <p>
+ * The value is guarded by the identity and {@link PyStringMap#getVersion() version} of the
+ * frame's globals and, if the name was found among the builtins, of the builtins too, so it is
+ * reused exactly as long as the dictionaries it was found in (or not found in) are unmodified.
+ * Frames whose globals or builtins are not a {@link PyStringMap} always take the slow path.
+ */
+public class GlobalSite {
+
+    /** The global name (interned). */
+    private final String name;
+
+    /** The result of the last successful lookup, replaced (never modified) on a miss. */
+    private volatile Binding binding;
+
+    GlobalSite(String name) {
+        this.name = name.intern();
+    }
+
+    /**
+     * Bootstrap a global load site of type {@code (PyFrame)PyObject}.
+     *
+     * @param lookup of the calling class
+     * @param opName ignored (always {@code "getglobal"})
+     * @param type of the call site
+     * @param name of the global
+     * @return the call site
+     */
+    public static CallSite bootstrap(MethodHandles.Lookup lookup, String opName, MethodType type,
+            String name) throws ReflectiveOperationException {
+        MethodHandle mh =
+                MethodHandles.lookup().findVirtual(GlobalSite.class, "getglobal", type);
+        return new ConstantCallSite(mh.bindTo(new GlobalSite(name)));
+    }
+
+    /** Equivalent to {@code frame.getglobal(name)}. */
+    public PyObject getglobal(PyFrame frame) {
+        Binding b = binding;
+        if (b != null && b.get() == frame.f_globals && b.isValid(frame)) {
+            return b.value;
+        }
+        return lookup(frame);
+    }
+
+    private PyObject lookup(PyFrame frame) {
+        PyObject globals = frame.f_globals;
+        if (!(globals instanceof PyStringMap)) {
+            return frame.getglobal(name);
+        }
+        // Read each version before the lookup it guards, so a concurrent change invalidates us
+        PyStringMap g = (PyStringMap)globals;
+        int globalsVersion = g.getVersion();
+        PyObject value = g.__finditem__(name);
+        if (value != null) {
+            binding = new Binding(g, globalsVersion, null, 0, value);
+            return value;
+        }
+        PyObject builtins = frame.getBuiltins();
+        if (builtins instanceof PyStringMap) {
+            PyStringMap b = (PyStringMap)builtins;
+            int builtinsVersion = b.getVersion();
+            value = b.__finditem__(name);
+            if (value != null) {
+                binding = new Binding(g, globalsVersion, b, builtinsVersion, value);
+                return value;
+            }
+        }
+        // Not cacheable, or not found: let the frame deal with it (or raise the NameError)
+        return frame.getglobal(name);
+    }
+
+    /**
+     * The value of the name and the state of the dictionaries it was looked up in. The globals are
+     * referenced weakly, so that a site in code run against many namespaces does not keep the last
+     * one alive.
+     */
+    private static final class Binding extends WeakReference<PyStringMap> {
+
+        final int globalsVersion;
+        /** The builtins if the value came from there, otherwise {@code null}. */
+        final WeakReference<PyStringMap> builtins;
+        final int builtinsVersion;
+        final PyObject value;
+
+        Binding(PyStringMap globals, int globalsVersion, PyStringMap builtins,
+                int builtinsVersion, PyObject value) {
+            super(globals);
+            this.globalsVersion = globalsVersion;
+            this.builtins = builtins == null ? null : new WeakReference<PyStringMap>(builtins);
+            this.builtinsVersion = builtinsVersion;
+            this.value = value;
+        }
+
+        /** Whether the binding holds for the frame, given that its globals are ours. */
+        boolean isValid(PyFrame frame) {
+            if (((PyStringMap)frame.f_globals).getVersion() != globalsVersion) {
+                return false;
+            } else if (builtins == null) {
+                return true;
+            }
+            PyStringMap b = builtins.get();
+            return b != null && frame.getBuiltins() == b && b.getVersion() == builtinsVersion;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.python.core;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A cache of the code of compiled modules, shared by all the {@link PySystemState}s of the JVM, so
+ * that an application hosting many interpreters defines the class of a module once, rather than
+ * once for each interpreter that imports it. Only the code is shared: each import still creates
+ * its own module, and runs the module body in its own globals.
+ * <p>
+ * An entry is keyed by the class name, the file name given to the code, and a SHA-256 digest of
+ * the class file, so that only identical compiled code is shared. Entries are held weakly: the
+ * class of a module may be unloaded once no interpreter holds a function or other code from it.
+ * <p>
+ * The cache is off unless {@link Options#shareModuleCode} is set. The classes found in it are
+ * counted by {@link RuntimeMetrics}.
+ */
+public final class ModuleCodeCache {
+
+    /** A weak reference to code, that knows its key. */
+    private static final class CodeRef extends WeakReference<PyCode> {
+
+        final String key;
+
+        CodeRef(String key, PyCode code, ReferenceQueue<PyCode> queue) {
+            super(code, queue);
+            this.key = key;
+        }
+    }
+
+    private static final Map<String, CodeRef> entries = new ConcurrentHashMap<>();
+
+    private static final ReferenceQueue<PyCode> cleared = new ReferenceQueue<>();
+
+    private ModuleCodeCache() {}
+
+    /**
+     * Turn the Java class file data for a compiled Python module into a {@code PyCode} object, as
+     * {@link BytecodeLoader#makeCode(String, byte[], String)} does, or return the code made before
+     * from the same data and file name if the cache is on.
+     *
+     * @param name fully-qualified binary name of the class
+     * @param data a class file as a byte array
+     * @param filename to provide to the constructor of the named class
+     * @return the {@code PyCode} object of the module
+     */
+    public static PyCode makeCode(String name, byte[] data, String filename) {
+        if (!Options.shareModuleCode) {
+            return BytecodeLoader.makeCode(name, data, filename);
+        }
+        expunge();
+        String key = key(name, data, filename);
+        if (key == null) {
+            return BytecodeLoader.makeCode(name, data, filename);
+        }
+        CodeRef ref = entries.get(key);
+        PyCode code = ref == null ? null : ref.get();
+        if (code != null) {
+            RuntimeMetrics.sharedModuleCodeHits.increment();
+            return code;
+        }
+        code = BytecodeLoader.makeCode(name, data, filename);
+        entries.put(key, new CodeRef(key, code, cleared));
+        return code;
+    }
+
+    /** Discard all the entries, so that modules imported after are defined afresh. */
+    public static void clear() {
+        entries.clear();
+    }
+
+    /** The number of entries, including any whose code has been collected. */
+    static int size() {
+        expunge();
+        return entries.size();
+    }
+
+    /** Remove the entries whose code has been collected. */
+    private static void expunge() {
+        CodeRef ref;
+        while ((ref = (CodeRef) cleared.poll()) != null) {
+            entries.remove(ref.key, ref);
+        }
+    }
+
+    /** The key of an entry, or {@code null} if the digest is not available. */
+    private static String key(String name, byte[] data, String filename) {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder(name.length() + 128);
+        key.append(name).append('\0');
+        for (byte b : md.digest(data)) {
+            key.append(Character.forDigit((b >> 4) & 0xf, 16))
+                    .append(Character.forDigit(b & 0xf, 16));
+        }
+        return key.append('\0').append(filename).toString();
+    }
+}
@@ -0,0 +1,294 @@
+/* Copyright (c) Jython Developers */
+package org.python.core;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The default list behind a {@link PyList}: an array list that may be read without locking by
+ * {@link #getIfStable(int)} and {@link #sizeIfStable()}, while changes are made holding the lock
+ * of the {@code PyList} as before.
+ * <p>
+ * This is a sequence lock. Every change is bracketed by {@link #beginChange()} and
+ * {@link #endChange()}, which advance {@link #stamp} to an odd and then an even value. A reader
+ * takes the stamp, reads the size and element, and reads the stamp again: if the stamp is odd
+ * or has moved, a change overlapped the read, and the caller falls back to reading under the
+ * lock. A {@code PyList} also brackets the changes it makes in several steps (slice assignment,
+ * sorting, reversal), so an optimistic reader sees the list before or after such a change,
+ * never part way through it. The stamp and elements are written with ordered stores and read
+ * with volatile loads, which is what a sequence lock needs, and costs no more than plain access
+ * on common hardware; the elements are held in an {@code AtomicReferenceArray} because the
+ * build targets Java 8, which has no {@code VarHandle}.
+ */
+final class OptimisticArrayList extends AbstractList<PyObject>
+        implements RandomAccess, Serializable {
+
+    private static final AtomicIntegerFieldUpdater<OptimisticArrayList> SIZE =
+            AtomicIntegerFieldUpdater.newUpdater(OptimisticArrayList.class, "size");
+
+    private static final AtomicIntegerFieldUpdater<OptimisticArrayList> STAMP =
+            AtomicIntegerFieldUpdater.newUpdater(OptimisticArrayList.class, "stamp");
+
+    private static final AtomicReferenceArray<PyObject> EMPTY =
+            new AtomicReferenceArray<PyObject>(0);
+
+    private volatile AtomicReferenceArray<PyObject> elements;
+
+    private volatile int size;
+
+    /** Odd while a change is in progress, and advanced at the start and end of each. */
+    private volatile int stamp;
+
+    /** Depth of nested {@link #beginChange()} (guarded by the lock of the owning list). */
+    private transient int depth;
+
+    OptimisticArrayList() {
+        elements = EMPTY;
+    }
+
+    OptimisticArrayList(int capacity) {
+        elements = capacity > 0 ? new AtomicReferenceArray<PyObject>(capacity) : EMPTY;
+    }
+
+    OptimisticArrayList(PyObject[] items) {
+        elements = new AtomicReferenceArray<PyObject>(Arrays.copyOf(items, items.length));
+        size = items.length;
+    }
+
+    OptimisticArrayList(Collection<? extends PyObject> c) {
+        this(c.toArray(Py.EmptyObjects));
+    }
+
+    /**
+     * Mark the start of a change, after which optimistic readers fall back to locking until the
+     * matching {@link #endChange()}. Calls may be nested.
+     */
+    void beginChange() {
+        if (depth++ == 0) {
+            STAMP.lazySet(this, stamp + 1);
+        }
+    }
+
+    /** Mark the end of a change begun with {@link #beginChange()}. */
+    void endChange() {
+        if (--depth == 0) {
+            STAMP.lazySet(this, stamp + 1);
+        }
+    }
+
+    /**
+     * The element at the given index, counting from the end if it is negative, read without
+     * locking, or null if the index is out of range or a change overlapped the read. The caller
+     * should then read the element holding the lock, which resolves both cases.
+     */
+    PyObject getIfStable(int index) {
+        int s = stamp;
+        AtomicReferenceArray<PyObject> a = elements;
+        int n = size;
+        if (index < 0) {
+            index += n;
+        }
+        if ((s & 1) != 0 || index < 0 || index >= n || index >= a.length()) {
+            return null;
+        }
+        PyObject item = a.get(index);
+        return stamp == s ? item : null;
+    }
+
+    /** The size, read without locking, or -1 if a change was in progress. */
+    int sizeIfStable() {
+        int s = stamp;
+        int n = size;
+        return (s & 1) == 0 && stamp == s ? n : -1;
+    }
+
+    private void checkIndex(int index, int n) {
+        if (index < 0 || index >= n) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + n);
+        }
+    }
+
+    /** Make room for n elements, copying them to a larger array if necessary. */
+    void ensureCapacity(int n) {
+        AtomicReferenceArray<PyObject> a = elements;
+        int capacity = a.length();
+        if (n > capacity) {
+            int newCapacity = Math.max(Math.max(n, capacity + (capacity >> 1)), 8);
+            AtomicReferenceArray<PyObject> b = new AtomicReferenceArray<PyObject>(newCapacity);
+            for (int i = 0, m = size; i < m; i++) {
+                b.lazySet(i, a.get(i));
+            }
+            elements = b;
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public PyObject get(int index) {
+        checkIndex(index, size);
+        return elements.get(index);
+    }
+
+    @Override
+    public PyObject set(int index, PyObject element) {
+        checkIndex(index, size);
+        beginChange();
+        PyObject old = elements.getAndSet(index, element);
+        endChange();
+        return old;
+    }
+
+    @Override
+    public boolean add(PyObject element) {
+        beginChange();
+        int n = size;
+        ensureCapacity(n + 1);
+        elements.lazySet(n, element);
+        SIZE.lazySet(this, n + 1);
+        endChange();
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void add(int index, PyObject element) {
+        int n = size;
+        if (index != n) {
+            checkIndex(index, n);
+        }
+        beginChange();
+        ensureCapacity(n + 1);
+        AtomicReferenceArray<PyObject> a = elements;
+        for (int i = n; i > index; i--) {
+            a.lazySet(i, a.get(i - 1));
+        }
+        a.lazySet(index, element);
+        SIZE.lazySet(this, n + 1);
+        endChange();
+        modCount++;
+    }
+
+    @Override
+    public PyObject remove(int index) {
+        int n = size;
+        checkIndex(index, n);
+        beginChange();
+        AtomicReferenceArray<PyObject> a = elements;
+        PyObject old = a.get(index);
+        for (int i = index + 1; i < n; i++) {
+            a.lazySet(i - 1, a.get(i));
+        }
+        a.lazySet(n - 1, null);
+        SIZE.lazySet(this, n - 1);
+        endChange();
+        modCount++;
+        return old;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        int n = size, gap = toIndex - fromIndex;
+        if (gap <= 0) {
+            return;
+        }
+        beginChange();
+        AtomicReferenceArray<PyObject> a = elements;
+        for (int i = toIndex; i < n; i++) {
+            a.lazySet(i - gap, a.get(i));
+        }
+        for (int i = n - gap; i < n; i++) {
+            a.lazySet(i, null);
+        }
+        SIZE.lazySet(this, n - gap);
+        endChange();
+        modCount++;
+    }
+
+    @Override
+    public void clear() {
+        beginChange();
+        elements = EMPTY;
+        SIZE.lazySet(this, 0);
+        endChange();
+        modCount++;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends PyObject> c) {
+        return addAll(size, c);
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends PyObject> c) {
+        int n = size;
+        if (index != n) {
+            checkIndex(index, n);
+        }
+        // Copy first, in case c is this list
+        Object[] items = c.toArray();
+        int m = items.length;
+        if (m == 0) {
+            return false;
+        }
+        beginChange();
+        ensureCapacity(n + m);
+        AtomicReferenceArray<PyObject> a = elements;
+        for (int i = n - 1; i >= index; i--) {
+            a.lazySet(i + m, a.get(i));
+        }
+        for (int i = 0; i < m; i++) {
+            a.lazySet(index + i, (PyObject)items[i]);
+        }
+        SIZE.lazySet(this, n + m);
+        endChange();
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public Object[] toArray() {
+        return toArray(new Object[size]);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T[] toArray(T[] a) {
+        AtomicReferenceArray<PyObject> e = elements;
+        int n = size;
+        if (a.length < n) {
+            a = Arrays.copyOf(a, n);
+        } else if (a.length > n) {
+            a[n] = null;
+        }
+        for (int i = 0; i < n; i++) {
+            a[i] = (T)e.get(i);
+        }
+        return a;
+    }
+
+    @Override
+    public void sort(Comparator<? super PyObject> c) {
+        PyObject[] items = toArray(new PyObject[size]);
+        beginChange();
+        try {
+            Arrays.sort(items, c);
+            AtomicReferenceArray<PyObject> a = elements;
+            for (int i = 0; i < items.length; i++) {
+                a.lazySet(i, items[i]);
+            }
+        } finally {
+            endChange();
+        }
+        modCount++;
+    }
+}
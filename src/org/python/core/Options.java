@@ -166,6 +166,100 @@ public class Options {
             "weakKeys,concurrencyLevel=4,maximumWeight=2621440,expireAfterAccess=30s";
     public static String sreCacheSpec = sreCacheSpecDefault;
 
+    /**
+     * Compile attribute access and method calls to {@code invokedynamic} sites with inline caches
+     * (see {@link AttributeSite}).
+     *
+     * @see org.python.core.RegistryKey#PYTHON_COMPILER_INDY_ATTRIBUTES
+     */
+    public static boolean indyAttributes = false;
+
+    /**
+     * Compile loads of global and builtin names to {@code invokedynamic} sites that cache the
+     * value found (see {@link GlobalSite}).
+     *
+     * @see org.python.core.RegistryKey#PYTHON_COMPILER_INDY_GLOBALS
+     */
+    public static boolean indyGlobals = false;
+
+    /**
+     * Compile functions that provably need no frame so that, when called without tracing or
+     * profiling active, they keep their local variables in JVM locals and build a
+     * {@link PyFrame} only if an exception escapes them (see {@link PyTableCode#jy_leaf}).
+     *
+     * @see org.python.core.RegistryKey#PYTHON_COMPILER_LAZY_FRAMES
+     */
+    public static boolean lazyFrames = false;
+
+    /**
+     * Simplify the AST of Python source before generating code for it: fold constant
+     * expressions, drop branches and statements that cannot run, and load literal tuples, and the
+     * literal lists searched by {@code in}, from constants built once per module.
+     *
+     * @see org.python.core.RegistryKey#PYTHON_COMPILER_OPTIMIZE_AST
+     */
+    public static boolean optimizeAst = false;
+
+    /**
+     * Answer, from the {@link DirectoryCache}, the searches of directories on the import path that
+     * will not find a module.
+     *
+     * @see org.python.core.RegistryKey#PYTHON_IMPORT_DIRECTORY_CACHE
+     */
+    public static boolean importDirectoryCache = true;
+
+    /**
+     * Share the code of compiled modules between all the interpreters of the JVM, through the
+     * {@link ModuleCodeCache}.
+     *
+     * @see org.python.core.RegistryKey#PYTHON_IMPORT_SHARE_CODE
+     */
+    public static boolean shareModuleCode = false;
+
+    /**
+     * Keep the classes compiled from scripts given as strings in the {@link CodeCache}.
+     *
+     * @see org.python.core.RegistryKey#PYTHON_COMPILER_CODE_CACHE
+     */
+    public static boolean codeCache = false;
+
+    /**
+     * The length in characters below which a script is not kept in the {@link CodeCache}.
+     *
+     * @see org.python.core.RegistryKey#PYTHON_COMPILER_CODE_CACHE_MIN_LENGTH
+     */
+    public static int codeCacheMinLength = 200;
+
+    /**
+     * The size in kilobytes beyond which the {@link CodeCache} deletes its least recently used
+     * entries.
+     *
+     * @see org.python.core.RegistryKey#PYTHON_COMPILER_CODE_CACHE_MAX_SIZE
+     */
+    public static int codeCacheMaxSize = 64 * 1024;
+
+    /**
+     * Register {@link RuntimeMetrics} with the platform MBean server.
+     *
+     * @see org.python.core.RegistryKey#PYTHON_METRICS_JMX
+     */
+    public static boolean metricsJmx = false;
+
+    /**
+     * The file to which the {@link SamplingProfiler}, started with the runtime, writes its profile
+     * when the JVM exits, or {@code null} not to start it.
+     *
+     * @see org.python.core.RegistryKey#PYTHON_PROFILE_SAMPLING_FILE
+     */
+    public static String profileFile = null;
+
+    /**
+     * The interval in milliseconds between samples of the profiler started with the runtime.
+     *
+     * @see org.python.core.RegistryKey#PYTHON_PROFILE_SAMPLING_INTERVAL
+     */
+    public static int profileInterval = SamplingProfiler.DEFAULT_INTERVAL;
+
     //
     // ####### END OF OPTIONS
     //
@@ -188,6 +282,26 @@ public class Options {
         return prop;
     }
 
+    /** The value of an integer option no less than {@code min}, warning of any other value. */
+    private static int getIntOption(String name, int defaultValue, int min) {
+        String prop = getStringOption(name, null);
+        if (prop == null) {
+            return defaultValue;
+        }
+        int n = min - 1;
+        try {
+            n = Integer.parseInt(prop.trim());
+        } catch (NumberFormatException e) {
+            // Treated as invalid below
+        }
+        if (n >= min) {
+            return n;
+        }
+        Py.writeWarning("options",
+                "ignoring " + name + " = " + prop + ": not an integer of at least " + min);
+        return defaultValue;
+    }
+
     /** Initialize the static fields from the registry options. */
     public static void setFromRegistry() {
 
@@ -214,6 +328,21 @@ public class Options {
         inspect |= getStringOption(PYTHON_INSPECT, "").length() > 0;
         importSite = getBooleanOption(PYTHON_IMPORT_SITE, importSite);
         no_site = !importSite;
+
+        indyAttributes = getBooleanOption(PYTHON_COMPILER_INDY_ATTRIBUTES, indyAttributes);
+        indyGlobals = getBooleanOption(PYTHON_COMPILER_INDY_GLOBALS, indyGlobals);
+        lazyFrames = getBooleanOption(PYTHON_COMPILER_LAZY_FRAMES, lazyFrames);
+        optimizeAst = getBooleanOption(PYTHON_COMPILER_OPTIMIZE_AST, optimizeAst);
+        codeCache = getBooleanOption(PYTHON_COMPILER_CODE_CACHE, codeCache);
+        codeCacheMinLength =
+                getIntOption(PYTHON_COMPILER_CODE_CACHE_MIN_LENGTH, codeCacheMinLength, 0);
+        codeCacheMaxSize = getIntOption(PYTHON_COMPILER_CODE_CACHE_MAX_SIZE, codeCacheMaxSize, 1);
+        importDirectoryCache =
+                getBooleanOption(PYTHON_IMPORT_DIRECTORY_CACHE, importDirectoryCache);
+        shareModuleCode = getBooleanOption(PYTHON_IMPORT_SHARE_CODE, shareModuleCode);
+        metricsJmx = getBooleanOption(PYTHON_METRICS_JMX, metricsJmx);
+        profileFile = getStringOption(PYTHON_PROFILE_SAMPLING_FILE, profileFile);
+        profileInterval = getIntOption(PYTHON_PROFILE_SAMPLING_INTERVAL, profileInterval, 1);
     }
 
     /**
@@ -2294,12 +2294,21 @@ public final class Py extends PrePy {
         if (data.contains("\0")) {
             throw Py.TypeError("compile() expected string without null bytes");
         }
+        String cacheKey = CodeCache.key(data, filename, kind.name(), cflags);
+        PyCode code = CodeCache.load(cacheKey, filename, cflags);
+        if (code != null) {
+            return code;
+        }
         if (cflags != null && cflags.dont_imply_dedent) {
             data += "\n";
         } else {
             data += "\n\n";
         }
         mod node = ParserFacade.parse(data, kind, filename, cflags);
+        if (cacheKey != null) {
+            return CompilerFacade.compile(node, cacheKey, filename, kind == CompileMode.single,
+                    cflags);
+        }
         return Py.compile_flags(node, filename, kind, cflags);
     }
 
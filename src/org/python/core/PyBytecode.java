@@ -49,6 +49,42 @@ public class PyBytecode extends PyBaseCode implements Traverseproc {
     private final static int CALL_FLAG_VAR = 1;
     private final static int CALL_FLAG_KW = 2;
 
+    /*
+     * Quickening. Once this code has been entered, or has jumped backwards in a loop,
+     * QUICKEN_THRESHOLD times, we make a copy of co_code (co_code itself is visible to Python and
+     * is never changed) in which some instructions are replaced by specialised forms, numbered
+     * above the CPython opcodes. The copy has the same layout, so jump targets, f_lasti and line
+     * numbers are unaffected, and we may switch between the two at any instruction: we run
+     * co_code whenever a trace function is set. A specialised instruction that finds its
+     * assumption does not hold changes itself back to the generic form.
+     */
+
+    /** Entries and backward jumps after which the code is quickened. */
+    private static final int QUICKEN_THRESHOLD = 8;
+
+    /** LOAD_GLOBAL, with a {@link GlobalSite} in {@link #sites}. */
+    static final int LOAD_GLOBAL_CACHED = 200;
+    /** LOAD_ATTR, with an {@link AttributeSite} in {@link #sites}. */
+    static final int LOAD_ATTR_CACHED = 201;
+    /** COMPARE_OP (one of {@code < <= == != > >=}) expecting two {@code int}s. */
+    static final int COMPARE_OP_INT = 202;
+    /** COMPARE_OP_INT fused with the POP_JUMP_IF_FALSE that follows it. */
+    static final int COMPARE_OP_INT_POP_JUMP_IF_FALSE = 203;
+    /** LOAD_FAST fused with the LOAD_FAST that follows it. */
+    static final int LOAD_FAST_LOAD_FAST = 204;
+
+    /** Count of entries and backward jumps towards {@link #QUICKEN_THRESHOLD} (racy). */
+    private transient int warmth;
+
+    /** The quickened copy of {@link #co_code}, once made. */
+    private transient volatile byte[] quickened;
+
+    /**
+     * The inline caches of the quickened code, indexed by the offset of the instruction that uses
+     * each. Written before {@link #quickened} is published.
+     */
+    private transient Object[] sites;
+
     // follows new.code's interface
     public PyBytecode(int argcount, int nlocals, int stacksize, int flags,
             String codestring, PyObject[] constants, String[] names, String varnames[],
@@ -272,9 +308,135 @@ public class PyBytecode extends PyBaseCode implements Traverseproc {
         }
     }
 
+    /**
+     * The instructions to run: the quickened code if there is some (or if this call makes the code
+     * hot enough to quicken), otherwise {@link #co_code}.
+     */
+    private byte[] warmCode() {
+        byte[] q = quickened;
+        if (q != null) {
+            return q;
+        }
+        return ++warmth >= QUICKEN_THRESHOLD ? quicken() : co_code;
+    }
+
+    /** Make (once) and return the quickened copy of {@link #co_code}. */
+    private synchronized byte[] quicken() {
+        if (quickened != null) {
+            return quickened;
+        }
+        byte[] q = co_code.clone();
+        Object[] s = new Object[q.length];
+        int prev = NOP;
+        for (int i = 0; i < q.length;) {
+            int op = getUnsigned(q, i);
+            int len = op >= HAVE_ARGUMENT ? 3 : 1;
+            if (i + len > q.length) {
+                break;
+            }
+            // Leave alone an instruction extended by EXTENDED_ARG, which decodes from co_code.
+            if (prev != EXTENDED_ARG && len == 3) {
+                int arg = (getUnsigned(q, i + 2) << 8) + getUnsigned(q, i + 1);
+                int next = i + 6 <= q.length ? getUnsigned(q, i + 3) : NOP;
+                switch (op) {
+                    case LOAD_GLOBAL:
+                        s[i] = new GlobalSite(co_names[arg]);
+                        q[i] = (byte)LOAD_GLOBAL_CACHED;
+                        break;
+                    case LOAD_ATTR:
+                        s[i] = new AttributeSite(co_names[arg]);
+                        q[i] = (byte)LOAD_ATTR_CACHED;
+                        break;
+                    case LOAD_FAST:
+                        if (next == LOAD_FAST) {
+                            q[i] = (byte)LOAD_FAST_LOAD_FAST;
+                            // The second is left as it is, in case it is a jump target.
+                            prev = next;
+                            i += 6;
+                            continue;
+                        }
+                        break;
+                    case COMPARE_OP:
+                        if (arg <= PyCmp_GE) {
+                            if (next == POP_JUMP_IF_FALSE) {
+                                q[i] = (byte)COMPARE_OP_INT_POP_JUMP_IF_FALSE;
+                                prev = next;
+                                i += 6;
+                                continue;
+                            }
+                            q[i] = (byte)COMPARE_OP_INT;
+                        }
+                        break;
+                }
+            }
+            prev = op;
+            i += len;
+        }
+        sites = s;
+        quickened = q;
+        return q;
+    }
+
+    /** The result of COMPARE_OP with oparg op on the given ints. */
+    private static boolean compareInts(int op, int a, int b) {
+        switch (op) {
+            case PyCmp_LT:
+                return a < b;
+            case PyCmp_LE:
+                return a <= b;
+            case PyCmp_EQ:
+                return a == b;
+            case PyCmp_NE:
+                return a != b;
+            case PyCmp_GT:
+                return a > b;
+            default:
+                return a >= b;
+        }
+    }
+
+    /** The result of COMPARE_OP with oparg op, in general. */
+    private static PyObject compare(int op, PyObject a, PyObject b) {
+        switch (op) {
+
+            case PyCmp_LT:
+                return a._lt(b);
+            case PyCmp_LE:
+                return a._le(b);
+            case PyCmp_EQ:
+                return a._eq(b);
+            case PyCmp_NE:
+                return a._ne(b);
+            case PyCmp_GT:
+                return a._gt(b);
+            case PyCmp_GE:
+                return a._ge(b);
+            case PyCmp_IN:
+                return a._in(b);
+            case PyCmp_NOT_IN:
+                return a._notin(b);
+            case PyCmp_IS:
+                return a._is(b);
+            case PyCmp_IS_NOT:
+                return a._isnot(b);
+            case PyCmp_EXC_MATCH:
+                // Todo: Review this regarding Python 2.7-update
+                if (a instanceof PyStackException) {
+                    PyException pye = ((PyStackException) a).exception;
+                    return Py.newBoolean(pye.match(b));
+                } else {
+                    return Py.newBoolean(new PyException(a).match(b));
+                }
+            default:
+                // As CPython, which treats PyCmp_BAD as a SystemError
+                throw Py.SystemError("bad COMPARE_OP oparg");
+        }
+    }
+
     @Override
     protected PyObject interpret(PyFrame f, ThreadState ts) {
         final PyStack stack = new PyStack(co_stacksize);
+        byte[] bytecode = warmCode();
         int next_instr = -1;
         int opcode;    /* Current opcode */
         int oparg = 0; /* Current opcode argument, if any */
@@ -343,14 +505,19 @@ public class PyBytecode extends PyBaseCode implements Traverseproc {
                     stack.push((PyObject) generatorInput);
                 }
 
-                opcode = getUnsigned(co_code, next_instr);
+                // Run the original code while tracing, so that every instruction is seen.
+                final byte[] instrs = f.tracefunc != null || debug ? co_code : bytecode;
+                final int instr = next_instr;
+                opcode = getUnsigned(instrs, next_instr);
                 if (opcode >= HAVE_ARGUMENT) {
                     next_instr += 2;
-                    oparg = (getUnsigned(co_code, next_instr) << 8) + getUnsigned(co_code, next_instr - 1);
+                    oparg = (getUnsigned(instrs, next_instr) << 8) + getUnsigned(instrs, next_instr - 1);
                 }
                 print_debug(count, next_instr, line, opcode, oparg, stack, f);
 
-                count += 1;
+                if (debug) {
+                    count += 1;
+                }
                 next_instr += 1;
                 f.f_lasti = next_instr;
 
@@ -362,6 +529,15 @@ public class PyBytecode extends PyBaseCode implements Traverseproc {
                         stack.push(f.getlocal(oparg));
                         break;
 
+                    case LOAD_FAST_LOAD_FAST:
+                        stack.push(f.getlocal(oparg));
+                        // Now the second LOAD_FAST, which follows this instruction.
+                        next_instr = instr + 6;
+                        f.f_lasti = next_instr;
+                        stack.push(f.getlocal((getUnsigned(instrs, instr + 5) << 8)
+                                + getUnsigned(instrs, instr + 4)));
+                        break;
+
                     case LOAD_CONST:
                         stack.push(co_consts[oparg]);
                         break;
@@ -832,6 +1008,10 @@ public class PyBytecode extends PyBaseCode implements Traverseproc {
                         stack.push(f.getglobal(co_names[oparg]));
                         break;
 
+                    case LOAD_GLOBAL_CACHED:
+                        stack.push(((GlobalSite) sites[instr]).getglobal(f));
+                        break;
+
                     case DELETE_FAST:
                         f.dellocal(oparg);
                         break;
@@ -946,52 +1126,47 @@ public class PyBytecode extends PyBaseCode implements Traverseproc {
                         break;
                     }
 
+                    case LOAD_ATTR_CACHED:
+                        stack.set_top(((AttributeSite) sites[instr]).getattr(stack.top()));
+                        break;
+
                     case COMPARE_OP: {
                         PyObject b = stack.pop();
                         PyObject a = stack.pop();
+                        stack.push(compare(oparg, a, b));
+                        break;
+                    }
 
-                        switch (oparg) {
-
-                            case PyCmp_LT:
-                                stack.push(a._lt(b));
-                                break;
-                            case PyCmp_LE:
-                                stack.push(a._le(b));
-                                break;
-                            case PyCmp_EQ:
-                                stack.push(a._eq(b));
-                                break;
-                            case PyCmp_NE:
-                                stack.push(a._ne(b));
-                                break;
-                            case PyCmp_GT:
-                                stack.push(a._gt(b));
-                                break;
-                            case PyCmp_GE:
-                                stack.push(a._ge(b));
-                                break;
-                            case PyCmp_IN:
-                                stack.push(a._in(b));
-                                break;
-                            case PyCmp_NOT_IN:
-                                stack.push(a._notin(b));
-                                break;
-                            case PyCmp_IS:
-                                stack.push(a._is(b));
-                                break;
-                            case PyCmp_IS_NOT:
-                                stack.push(a._isnot(b));
-                                break;
-                            case PyCmp_EXC_MATCH:
-                                // Todo: Review this regarding Python 2.7-update
-                                if (a instanceof PyStackException) {
-                                    PyException pye = ((PyStackException) a).exception;
-                                    stack.push(Py.newBoolean(pye.match(b)));
-                                } else {
-                                    stack.push(Py.newBoolean(new PyException(a).match(b)));
-                                }
-                                break;
+                    case COMPARE_OP_INT: {
+                        PyObject b = stack.pop();
+                        PyObject a = stack.pop();
+                        if (a.getClass() == PyInteger.class && b.getClass() == PyInteger.class) {
+                            stack.push(Py.newBoolean(compareInts(oparg,
+                                    ((PyInteger) a).getValue(), ((PyInteger) b).getValue())));
+                        } else {
+                            bytecode[instr] = (byte) COMPARE_OP;
+                            stack.push(compare(oparg, a, b));
+                        }
+                        break;
+                    }
 
+                    case COMPARE_OP_INT_POP_JUMP_IF_FALSE: {
+                        PyObject b = stack.pop();
+                        PyObject a = stack.pop();
+                        if (a.getClass() == PyInteger.class && b.getClass() == PyInteger.class) {
+                            // The POP_JUMP_IF_FALSE that follows this instruction
+                            if (compareInts(oparg, ((PyInteger) a).getValue(),
+                                    ((PyInteger) b).getValue())) {
+                                next_instr = instr + 6;
+                            } else {
+                                next_instr = (getUnsigned(instrs, instr + 5) << 8)
+                                        + getUnsigned(instrs, instr + 4);
+                            }
+                            f.f_lasti = instr + 6;
+                        } else {
+                            // Go on to the POP_JUMP_IF_FALSE as a separate instruction
+                            bytecode[instr] = (byte) COMPARE_OP;
+                            stack.push(compare(oparg, a, b));
                         }
                         break;
                     }
@@ -1068,6 +1243,10 @@ public class PyBytecode extends PyBaseCode implements Traverseproc {
                         break;
 
                     case JUMP_ABSOLUTE:
+                        if (oparg < next_instr && bytecode == co_code) {
+                            // A loop warms the code as a call does
+                            bytecode = warmCode();
+                        }
                         next_instr = oparg;
                         break;
 
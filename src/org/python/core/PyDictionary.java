@@ -13,7 +13,6 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.ConcurrentHashMap;
 
 import org.python.core.AbstractDict.ValuesIter;
 import org.python.core.AbstractDict.KeysIter;
@@ -23,7 +22,6 @@ import org.python.expose.ExposedMethod;
 import org.python.expose.ExposedNew;
 import org.python.expose.ExposedType;
 import org.python.expose.MethodType;
-import org.python.util.Generic;
 
 
 /**
@@ -56,8 +54,7 @@ public class PyDictionary extends AbstractDict implements ConcurrentMap, Travers
      */
     public PyDictionary(PyType type, int capacity) {
         super(type);
-        internalMap = new ConcurrentHashMap<PyObject,PyObject>(capacity, Generic.CHM_LOAD_FACTOR,
-                                                               Generic.CHM_CONCURRENCY_LEVEL);
+        internalMap = new CompactDictMap(capacity);
     }
 
     /**
@@ -65,7 +62,7 @@ public class PyDictionary extends AbstractDict implements ConcurrentMap, Travers
      */
     public PyDictionary(PyType type) {
         super(type);
-        internalMap = Generic.concurrentMap();
+        internalMap = new CompactDictMap();
     }
 
     /**
@@ -89,8 +86,7 @@ public class PyDictionary extends AbstractDict implements ConcurrentMap, Travers
      * Create a new dictionary which is populated with entries the given map.
      */
     public PyDictionary(PyType type, Map<PyObject, PyObject> map) {
-        this(type, Math.max((int) (map.size() / Generic.CHM_LOAD_FACTOR) + 1,
-                            Generic.CHM_INITIAL_CAPACITY));
+        this(type, map.size());
         getMap().putAll(map);
     }
 
@@ -102,7 +98,7 @@ public class PyDictionary extends AbstractDict implements ConcurrentMap, Travers
     protected PyDictionary(PyType type, boolean initializeBacking) {
         super(type);
         if (initializeBacking) {
-            internalMap = Generic.concurrentMap();
+            internalMap = new CompactDictMap();
         } else {
             internalMap = null; /* for later initialization */
         }
@@ -116,7 +112,7 @@ public class PyDictionary extends AbstractDict implements ConcurrentMap, Travers
      *            are keys, odd numbered elements are values.
      */
     public PyDictionary(PyObject elements[]) {
-        this();
+        this(TYPE, elements.length / 2);
         ConcurrentMap<PyObject, PyObject> map = getMap();
         for (int i = 0; i < elements.length; i += 2) {
             map.put(elements[i], elements[i + 1]);
@@ -448,7 +444,11 @@ public class PyDictionary extends AbstractDict implements ConcurrentMap, Travers
 
     @ExposedMethod(doc = BuiltinDocs.dict_copy_doc)
     final PyDictionary dict_copy() {
-        return new PyDictionary(getMap()); /* no need to clone() */
+        ConcurrentMap<PyObject, PyObject> map = getMap();
+        if (map instanceof CompactDictMap) {
+            return new PyDictionary(((CompactDictMap)map).copy(), true);
+        }
+        return new PyDictionary(map); /* no need to clone() */
     }
 
     /**
@@ -705,13 +705,14 @@ public class PyDictionary extends AbstractDict implements ConcurrentMap, Travers
 
     @ExposedMethod(defaults = "null", doc = BuiltinDocs.dict_pop_doc)
     final PyObject dict_pop(PyObject key, PyObject defaultValue) {
-        if (!getMap().containsKey(key)) {
+        PyObject value = getMap().remove(key);
+        if (value == null) {
             if (defaultValue == null) {
                 throw Py.KeyError(key);
             }
             return defaultValue;
         }
-        return getMap().remove(key);
+        return value;
     }
 
 
@@ -725,6 +726,14 @@ public class PyDictionary extends AbstractDict implements ConcurrentMap, Travers
 
     @ExposedMethod(doc = BuiltinDocs.dict_popitem_doc)
     final PyObject dict_popitem() {
+        ConcurrentMap<PyObject, PyObject> map = getMap();
+        if (map instanceof CompactDictMap) {
+            Entry<PyObject, PyObject> entry = ((CompactDictMap)map).popLast();
+            if (entry == null) {
+                throw Py.KeyError("popitem(): dictionary is empty");
+            }
+            return new PyTuple(entry.getKey(), entry.getValue());
+        }
         Iterator<Entry<PyObject, PyObject>> it = getMap().entrySet().iterator();
         if (!it.hasNext()) {
             throw Py.KeyError("popitem(): dictionary is empty");
@@ -640,7 +640,7 @@ public class PyFloat extends PyObject {
      * @param y divisor
      * @return <code>x % y</code>
      */
-    private static double modulo(double x, double y) {
+    static double modulo(double x, double y) {
         if (y == 0.0) {
             throw Py.ZeroDivisionError("float modulo");
         } else {
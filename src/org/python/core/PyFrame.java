@@ -65,9 +65,9 @@ public class PyFrame extends PyObject implements Traverseproc {
 
     private static final String NAME_ERROR_MSG = "name '%.200s' is not defined";
 
-    private static final String GLOBAL_NAME_ERROR_MSG = "global name '%.200s' is not defined";
+    static final String GLOBAL_NAME_ERROR_MSG = "global name '%.200s' is not defined";
 
-    private static final String UNBOUNDLOCAL_ERROR_MSG =
+    static final String UNBOUNDLOCAL_ERROR_MSG =
             "local variable '%.200s' referenced before assignment";
 
     public PyFrame(PyBaseCode code, PyObject locals, PyObject globals, PyObject builtins) {
@@ -270,12 +270,15 @@ public class PyFrame extends PyObject implements Traverseproc {
         if (ret != null) {
             return ret;
         }
+        return getBuiltins().__finditem__(index);
+    }
 
-        // Set up f_builtins if not already set
+    /** Return {@link #f_builtins}, first setting it from the system state if necessary. */
+    PyObject getBuiltins() {
         if (f_builtins == null) {
             f_builtins = Py.getThreadState().getSystemState().builtins;
         }
-        return f_builtins.__finditem__(index);
+        return f_builtins;
     }
 
     public void setlocal(int index, PyObject value) {
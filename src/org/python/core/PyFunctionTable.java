@@ -13,4 +13,21 @@ import java.io.Serializable;
 
 public abstract class PyFunctionTable implements Serializable {
     abstract public PyObject call_function(int index, PyFrame frame, ThreadState ts);
+
+    /**
+     * Call the frameless form of a function compiled with {@link Options#lazyFrames}. Only
+     * called for a {@link PyTableCode} marked {@link PyTableCode#jy_leaf}, and overridden in
+     * every compiled class that contains one. A class that does not override it has no frameless
+     * functions, and the call is made through {@link #call_function(int, PyFrame, ThreadState)}
+     * instead.
+     *
+     * @param index of the function
+     * @param ts the current thread state
+     * @param globals of the function
+     * @param args exactly the positional arguments of the function
+     * @return result of the call, or {@code null} if there is no frameless form of the function
+     */
+    public PyObject call_leaf(int index, ThreadState ts, PyObject globals, PyObject[] args) {
+        return null;
+    }
 }
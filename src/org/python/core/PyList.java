@@ -40,7 +40,7 @@ public class PyList extends PySequenceList {
 
     public PyList(PyType type) {
         super(type);
-        list = Generic.list();
+        list = new OptimisticArrayList();
     }
 
     private PyList(List<?> list, boolean convert) {
@@ -48,7 +48,7 @@ public class PyList extends PySequenceList {
         if (!convert) {
             this.list = (List<PyObject>) list;
         } else {
-            this.list = Generic.list();
+            this.list = new OptimisticArrayList(list.size());
             for (Object o : list) {
                 add(o);
             }
@@ -57,12 +57,12 @@ public class PyList extends PySequenceList {
 
     public PyList(PyType type, PyObject[] elements) {
         super(type);
-        list = new ArrayList<PyObject>(Arrays.asList(elements));
+        list = new OptimisticArrayList(elements);
     }
 
     public PyList(PyType type, Collection c) {
         super(type);
-        list = new ArrayList<PyObject>(c.size());
+        list = new OptimisticArrayList(c.size());
         for (Object o : c) {
             add(o);
         }
@@ -91,6 +91,31 @@ public class PyList extends PySequenceList {
         return Collections.unmodifiableList(list);
     }
 
+    /**
+     * Begin a change made in several steps, part of which readers that do not lock should not see
+     * (see {@link OptimisticArrayList}). Called holding the lock on this list, and always followed
+     * by {@link #endChange()}.
+     */
+    private void beginChange() {
+        if (list instanceof OptimisticArrayList) {
+            ((OptimisticArrayList)list).beginChange();
+        }
+    }
+
+    private void endChange() {
+        if (list instanceof OptimisticArrayList) {
+            ((OptimisticArrayList)list).endChange();
+        }
+    }
+
+    private void ensureCapacity(int n) {
+        if (list instanceof OptimisticArrayList) {
+            ((OptimisticArrayList)list).ensureCapacity(n);
+        } else if (list instanceof ArrayList) {
+            ((ArrayList<PyObject>)list).ensureCapacity(n);
+        }
+    }
+
     private static List<PyObject> listify(Iterator<PyObject> iter) {
         List<PyObject> list = Generic.list();
         while (iter.hasNext()) {
@@ -156,7 +181,7 @@ public class PyList extends PySequenceList {
     }
 
     @ExposedMethod(doc = BuiltinDocs.list___len___doc)
-    final synchronized int list___len__() {
+    final int list___len__() {
         return size();
     }
 
@@ -176,10 +201,20 @@ public class PyList extends PySequenceList {
         if (stop < start) {
             stop = start;
         }
+        if (value == this) { // copy
+            value = new PyList((PySequence) value);
+        }
+        beginChange();
+        try {
+            setsliceAny(start, stop, step, value);
+        } finally {
+            endChange();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void setsliceAny(int start, int stop, int step, PyObject value) {
         if (value instanceof PyList) {
-            if (value == this) { // copy
-                value = new PyList((PySequence) value);
-            }
             setslicePyList(start, stop, step, (PyList) value);
         } else if (value instanceof PySequence) {
             setsliceIterator(start, stop, step, value.asIterable().iterator());
@@ -334,12 +369,15 @@ public class PyList extends PySequenceList {
         }
 
         int newSize = size * count;
-        if (list instanceof ArrayList) {
-            ((ArrayList<PyObject>) list).ensureCapacity(newSize);
-        }
-        List<PyObject> oldList = new ArrayList<PyObject>(list);
-        for (int i = 1; i < count; i++) {
-            list.addAll(oldList);
+        beginChange();
+        try {
+            ensureCapacity(newSize);
+            List<PyObject> oldList = new ArrayList<PyObject>(list);
+            for (int i = 1; i < count; i++) {
+                list.addAll(oldList);
+            }
+        } finally {
+            endChange();
         }
         gListAllocatedStatus = list.size(); // now omit?
         return this;
@@ -382,7 +420,8 @@ public class PyList extends PySequenceList {
         if (o instanceof PySequenceList && !(o instanceof PyTuple)) {
             if (o instanceof PyList) {
                 List<PyObject> oList = ((PyList) o).list;
-                ArrayList<PyObject> newList = new ArrayList<>(list.size() + oList.size());
+                OptimisticArrayList newList =
+                        new OptimisticArrayList(list.size() + oList.size());
                 newList.addAll(list);
                 newList.addAll(oList);
                 sum = fromList(newList);
@@ -443,14 +482,49 @@ public class PyList extends PySequenceList {
     }
 
     @ExposedMethod(doc = BuiltinDocs.list___getitem___doc)
-    final synchronized PyObject list___getitem__(PyObject o) {
-        PyObject ret = seq___finditem__(o);
+    final PyObject list___getitem__(PyObject o) {
+        PyObject ret = getIfStable(o);
+        if (ret != null) {
+            return ret;
+        }
+        synchronized (this) {
+            ret = seq___finditem__(o);
+        }
         if (ret == null) {
             throw Py.IndexError("index out of range: " + o);
         }
         return ret;
     }
 
+    @Override
+    public PyObject __getitem__(PyObject index) {
+        PyObject ret = getIfStable(index);
+        return ret != null ? ret : super.__getitem__(index);
+    }
+
+    /**
+     * The item at an {@code int} index, read without locking, or null if the index is of another
+     * type or out of range, or a change overlapped the read.
+     */
+    private PyObject getIfStable(PyObject index) {
+        if (index.getClass() == PyInteger.class && list instanceof OptimisticArrayList) {
+            return ((OptimisticArrayList)list).getIfStable(((PyInteger)index).getValue());
+        }
+        return null;
+    }
+
+    /**
+     * The item at an index, counting from the end if it is negative, read without locking, or
+     * null if the index is out of range or a change overlapped the read. The caller should then
+     * read the item holding the lock on this list.
+     */
+    PyObject getIfStable(int index) {
+        if (list instanceof OptimisticArrayList) {
+            return ((OptimisticArrayList)list).getIfStable(index);
+        }
+        return null;
+    }
+
     @Override
     public PyObject __iter__() {
         return list___iter__();
@@ -532,8 +606,11 @@ public class PyList extends PySequenceList {
 
     @ExposedMethod(doc = BuiltinDocs.list_append_doc)
     final synchronized void list_append(PyObject o) {
-        pyadd(o);
-        gListAllocatedStatus = list.size();
+        list.add(o);
+        if (gListAllocatedStatus < 0) {
+            // Only a sort in progress needs to know
+            gListAllocatedStatus = list.size();
+        }
     }
 
     /**
@@ -668,7 +745,12 @@ public class PyList extends PySequenceList {
 
     @ExposedMethod(doc = BuiltinDocs.list_reverse_doc)
     final synchronized void list_reverse() {
-        Collections.reverse(list);
+        beginChange();
+        try {
+            Collections.reverse(list);
+        } finally {
+            endChange();
+        }
         gListAllocatedStatus = list.size();
     }
 
@@ -721,8 +803,13 @@ public class PyList extends PySequenceList {
         if (o instanceof PyList) {
             list.addAll(((PyList) o).list);
         } else {
-            for (PyObject item : o.asIterable()) {
-                list.add(item);
+            beginChange();
+            try {
+                for (PyObject item : o.asIterable()) {
+                    list.add(item);
+                }
+            } finally {
+                endChange();
             }
         }
         gListAllocatedStatus = list.size();
@@ -798,6 +885,15 @@ public class PyList extends PySequenceList {
     }
 
     private synchronized void sort(boolean reverse) {
+        beginChange();
+        try {
+            sortDefault(reverse);
+        } finally {
+            endChange();
+        }
+    }
+
+    private void sortDefault(boolean reverse) {
         gListAllocatedStatus = -1;
         if (reverse) {
             Collections.reverse(list); // maintain stability of sort by reversing first
@@ -867,6 +963,15 @@ public class PyList extends PySequenceList {
     }
 
     private synchronized void sort(PyObject compare, boolean reverse) {
+        beginChange();
+        try {
+            sortCompare(compare, reverse);
+        } finally {
+            endChange();
+        }
+    }
+
+    private void sortCompare(PyObject compare, boolean reverse) {
         gListAllocatedStatus = -1;
         if (reverse) {
             Collections.reverse(list); // maintain stability of sort by reversing first
@@ -983,6 +1088,15 @@ public class PyList extends PySequenceList {
     }
 
     private synchronized void sort(PyObject cmp, PyObject key, boolean reverse) {
+        beginChange();
+        try {
+            sortKey(cmp, key, reverse);
+        } finally {
+            endChange();
+        }
+    }
+
+    private void sortKey(PyObject cmp, PyObject key, boolean reverse) {
         gListAllocatedStatus = -1;
 
         int size = list.size();
@@ -999,9 +1113,7 @@ public class PyList extends PySequenceList {
         if (reverse) {
             Collections.reverse(decorated);
         }
-        if (list instanceof ArrayList) {
-            ((ArrayList<PyObject>) list).ensureCapacity(size);
-        }
+        ensureCapacity(size);
         for (KV kv : decorated) {
             list.add(kv.value);
         }
@@ -1190,8 +1302,16 @@ public class PyList extends PySequenceList {
     }
 
     @Override
-    public synchronized PyObject pyget(int index) {
-        return list.get(index);
+    public PyObject pyget(int index) {
+        if (index >= 0) {
+            PyObject item = getIfStable(index);
+            if (item != null) {
+                return item;
+            }
+        }
+        synchronized (this) {
+            return list.get(index);
+        }
     }
 
     public synchronized void pyset(int index, PyObject element) {
@@ -1232,8 +1352,16 @@ public class PyList extends PySequenceList {
     }
 
     @Override
-    public synchronized int size() {
-        return list.size();
+    public int size() {
+        if (list instanceof OptimisticArrayList) {
+            int n = ((OptimisticArrayList)list).sizeIfStable();
+            if (n >= 0) {
+                return n;
+            }
+        }
+        synchronized (this) {
+            return list.size();
+        }
     }
 
     @Override
@@ -1275,9 +1403,9 @@ public class PyList extends PySequenceList {
         int n = sliceLength(start, stop, step);
         List<PyObject> newList;
         if (step == 1) {
-            newList = new ArrayList<PyObject>(list.subList(start, stop));
+            newList = new OptimisticArrayList(list.subList(start, stop));
         } else {
-            newList = new ArrayList<PyObject>(n);
+            newList = new OptimisticArrayList(n);
             for (int i = start, j = 0; j < n; i += step, j++) {
                 newList.add(list.get(i));
             }
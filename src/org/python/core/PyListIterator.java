@@ -1,32 +1,57 @@
 package org.python.core;
 
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
 import org.python.expose.ExposedType;
 
 @ExposedType(name = "listiterator", base = PyIterator.class, isBaseType = false)
 public class PyListIterator extends PyIterator {
 
     public static final PyType TYPE = PyType.fromClass(PyListIterator.class);
+
+    private static final AtomicIntegerFieldUpdater<PyListIterator> INDEX =
+            AtomicIntegerFieldUpdater.newUpdater(PyListIterator.class, "index");
+
+    /** The value of {@link #index} once the iterator has stopped. */
+    private static final int STOPPED = -1;
+
     private PyList list;
-    private boolean stopped = false;
-    private int index = 0;
+
+    /**
+     * The index of the next item, or {@link #STOPPED}. Threads sharing the iterator each take an
+     * item by advancing it with a compare-and-set, so that no item is returned twice or skipped.
+     */
+    private volatile int index = 0;
 
     public PyListIterator(PyList list) {
         this.list = list;
     }
 
     public PyObject __iternext__() {
+        int i = index;
+        if (i != STOPPED) {
+            // Most often the item may be read without locking the list
+            PyObject item = list.getIfStable(i);
+            if (item != null && INDEX.compareAndSet(this, i, i + 1)) {
+                return item;
+            }
+        }
         synchronized (list) {
-            if (stopped) {
-                // Need to prevent the iteration from restarting, even after a StopIteration,
-                // due to the list subsequently growing.
-                // Keeping track of this flag ensures that next(it) will throw StopIteration
-                // exceptions on all subsequent invocations.
-                return null;
-            } else if (index >= list.size()) {
-                stopped = true;
-                return null;
-            } else {
-                return list.pyget(index++);
+            while (true) {
+                i = index;
+                if (i == STOPPED) {
+                    // Need to prevent the iteration from restarting, even after a StopIteration,
+                    // due to the list subsequently growing.
+                    // Keeping track of this ensures that next(it) will throw StopIteration
+                    // exceptions on all subsequent invocations.
+                    return null;
+                } else if (i >= list.size()) {
+                    if (INDEX.compareAndSet(this, i, STOPPED)) {
+                        return null;
+                    }
+                } else if (INDEX.compareAndSet(this, i, i + 1)) {
+                    return list.pyget(i);
+                }
             }
         }
     }
@@ -19,7 +19,9 @@ import org.python.expose.ExposedType;
 import org.python.expose.MethodType;
 
 /**
- * A builtin python long. This is implemented as a java.math.BigInteger.
+ * A builtin python long. A value that fits in 64 bits is held as a Java {@code long}, and
+ * arithmetic on such values is done in {@code long} arithmetic, with the {@code Math.*Exact}
+ * methods detecting overflow. Only larger values are held as a {@code java.math.BigInteger}.
  */
 @Untraversable
 @ExposedType(name = "long", doc = BuiltinDocs.long_doc)
@@ -42,15 +44,60 @@ public class PyLong extends PyObject {
     @Deprecated
     public static final BigInteger maxULong = MAX_ULONG;
 
+    /**
+     * The value if it does not fit in a Java long, otherwise null. It is also used (and
+     * {@link #longValue} is not) in a subclass that overrides {@link #getValue()}, in which case
+     * only {@code getValue()} gives the true value.
+     */
     private final BigInteger value;
 
+    /** The value when {@link #value} is null. */
+    private final long longValue;
+
     public BigInteger getValue() {
-        return value;
+        return value != null ? value : BigInteger.valueOf(longValue);
     }
 
     public PyLong(PyType subType, BigInteger v) {
         super(subType);
-        value = v;
+        if (v.bitLength() < 64 && !overridesGetValue(getClass())) {
+            value = null;
+            longValue = v.longValue();
+        } else {
+            value = v;
+            longValue = 0;
+        }
+    }
+
+    public PyLong(PyType subType, long v) {
+        super(subType);
+        if (overridesGetValue(getClass())) {
+            value = BigInteger.valueOf(v);
+        } else {
+            value = null;
+        }
+        longValue = v;
+    }
+
+    /** Whether a subclass overrides {@link #getValue()}, and so must not be held as a long. */
+    private static boolean overridesGetValue(Class<?> c) {
+        return c != PyLong.class && GetValueOverride.overrides.get(c);
+    }
+
+    /** Holds the {@code ClassValue} behind {@link #overridesGetValue(Class)}. */
+    private static class GetValueOverride {
+
+        static final ClassValue<Boolean> overrides = new ClassValue<Boolean>() {
+
+            @Override
+            protected Boolean computeValue(Class<?> c) {
+                try {
+                    return c.getMethod("getValue").getDeclaringClass() != PyLong.class;
+                } catch (NoSuchMethodException e) {
+                    return false;
+                }
+            }
+        };
     }
 
     public PyLong(BigInteger v) {
@@ -62,7 +109,7 @@ public class PyLong extends PyObject {
     }
 
     public PyLong(long v) {
-        this(BigInteger.valueOf(v));
+        this(TYPE, v);
     }
 
     public PyLong(String s) {
@@ -193,6 +240,9 @@ public class PyLong extends PyObject {
 
     @ExposedMethod(names = "__repr__", doc = BuiltinDocs.long___repr___doc)
     final String long_toString() {
+        if (value == null) {
+            return Long.toString(longValue) + "L";
+        }
         return getValue().toString() + "L";
     }
 
@@ -203,9 +253,24 @@ public class PyLong extends PyObject {
 
     @ExposedMethod(doc = BuiltinDocs.long___hash___doc)
     final int long___hash__() {
+        if (value == null) {
+            return hashCode(longValue);
+        }
         return getValue().hashCode();
     }
 
+    /**
+     * The same hash as {@code BigInteger.valueOf(v).hashCode()}, on which the hashes of equal
+     * {@code int} and {@code float} values also agree.
+     */
+    private static int hashCode(long v) {
+        long mag = Math.abs(v); // Long.MIN_VALUE is right as an unsigned magnitude
+        int high = (int)(mag >>> 32);
+        int low = (int)mag;
+        int h = high != 0 ? 31 * high + low : low;
+        return v < 0 ? -h : h;
+    }
+
     @Override
     public boolean __nonzero__() {
         return long___nonzero__();
@@ -213,10 +278,16 @@ public class PyLong extends PyObject {
 
     @ExposedMethod(doc = BuiltinDocs.long___nonzero___doc)
     public boolean long___nonzero__() {
-        return !getValue().equals(BigInteger.ZERO);
+        if (value == null) {
+            return longValue != 0;
+        }
+        return getValue().signum() != 0;
     }
 
     public double doubleValue() {
+        if (value == null) {
+            return longValue;
+        }
         double v = getValue().doubleValue();
         if (Double.isInfinite(v)) {
             throw Py.OverflowError("long int too large to convert to float");
@@ -256,12 +327,24 @@ public class PyLong extends PyObject {
         return scaledDoubleValue(getValue(), exp);
     }
 
+    /**
+     * Whether the value is held as a Java long, which (unless a subclass overrides
+     * {@link #getValue()}) is whenever it fits in one.
+     */
+    boolean isJavaLong() {
+        return value == null;
+    }
+
     public long getLong(long min, long max) {
         return getLong(min, max, "long int too large to convert");
     }
 
     public long getLong(long min, long max, String overflowMsg) {
-        if (getValue().compareTo(MAX_LONG) <= 0 && getValue().compareTo(MIN_LONG) >= 0) {
+        if (value == null) {
+            if (longValue >= min && longValue <= max) {
+                return longValue;
+            }
+        } else if (getValue().compareTo(MAX_LONG) <= 0 && getValue().compareTo(MIN_LONG) >= 0) {
             long v = getValue().longValue();
             if (v >= min && v <= max) {
                 return v;
@@ -296,7 +379,7 @@ public class PyLong extends PyObject {
     public Object __tojava__(Class<?> c) {
         try {
             if (c == Boolean.TYPE || c == Boolean.class) {
-                return Boolean.valueOf(!getValue().equals(BigInteger.ZERO));
+                return Boolean.valueOf(long___nonzero__());
             }
             if (c == Byte.TYPE || c == Byte.class) {
                 return Byte.valueOf((byte)getLong(Byte.MIN_VALUE, Byte.MAX_VALUE));
@@ -332,6 +415,8 @@ public class PyLong extends PyObject {
     final int long___cmp__(PyObject other) {
         if (!canCoerce(other)) {
             return -2;
+        } else if (value == null && isLong(other)) {
+            return Long.compare(longValue, longValueOf(other));
         }
         return getValue().compareTo(coerce(other));
     }
@@ -364,6 +449,20 @@ public class PyLong extends PyObject {
         return other instanceof PyLong || other instanceof PyInteger;
     }
 
+    /** Whether other is an int, or a long held as a Java long. */
+    private static final boolean isLong(PyObject other) {
+        return other instanceof PyInteger || other instanceof PyLong
+                && ((PyLong)other).value == null;
+    }
+
+    /** The value of an other for which {@link #isLong(PyObject)} is true. */
+    private static final long longValueOf(PyObject other) {
+        if (other instanceof PyInteger) {
+            return ((PyInteger)other).getValue();
+        }
+        return ((PyLong)other).longValue;
+    }
+
     private static final BigInteger coerce(PyObject other) {
         if (other instanceof PyLong) {
             return ((PyLong)other).getValue();
@@ -383,6 +482,12 @@ public class PyLong extends PyObject {
     final PyObject long___add__(PyObject right) {
         if (!canCoerce(right)) {
             return null;
+        } else if (value == null && isLong(right)) {
+            try {
+                return Py.newLong(Math.addExact(longValue, longValueOf(right)));
+            } catch (ArithmeticException e) {
+                // Overflow: fall through to BigInteger
+            }
         }
         return Py.newLong(getValue().add(coerce(right)));
     }
@@ -406,6 +511,12 @@ public class PyLong extends PyObject {
     final PyObject long___sub__(PyObject right) {
         if (!canCoerce(right)) {
             return null;
+        } else if (value == null && isLong(right)) {
+            try {
+                return Py.newLong(Math.subtractExact(longValue, longValueOf(right)));
+            } catch (ArithmeticException e) {
+                // Overflow: fall through to BigInteger
+            }
         }
         return Py.newLong(getValue().subtract(coerce(right)));
     }
@@ -417,6 +528,13 @@ public class PyLong extends PyObject {
 
     @ExposedMethod(type = MethodType.BINARY, doc = BuiltinDocs.long___rsub___doc)
     final PyObject long___rsub__(PyObject left) {
+        if (value == null && isLong(left)) {
+            try {
+                return Py.newLong(Math.subtractExact(longValueOf(left), longValue));
+            } catch (ArithmeticException e) {
+                // Overflow: fall through to BigInteger
+            }
+        }
         return Py.newLong(coerce(left).subtract(getValue()));
     }
 
@@ -433,6 +551,12 @@ public class PyLong extends PyObject {
 
         if (!canCoerce(right)) {
             return null;
+        } else if (value == null && isLong(right)) {
+            try {
+                return Py.newLong(Math.multiplyExact(longValue, longValueOf(right)));
+            } catch (ArithmeticException e) {
+                // Overflow: fall through to BigInteger
+            }
         }
         return Py.newLong(getValue().multiply(coerce(right)));
     }
@@ -449,10 +573,24 @@ public class PyLong extends PyObject {
         }
         if (!canCoerce(left)) {
             return null;
+        } else if (value == null && isLong(left)) {
+            try {
+                return Py.newLong(Math.multiplyExact(longValueOf(left), longValue));
+            } catch (ArithmeticException e) {
+                // Overflow: fall through to BigInteger
+            }
         }
         return Py.newLong(coerce(left).multiply(getValue()));
     }
 
+    /**
+     * Whether x // y and x % y may be computed in long arithmetic: y is not zero, and the
+     * quotient, unlike Long.MIN_VALUE // -1, fits in a long.
+     */
+    private static boolean canFloorDivide(long x, long y) {
+        return y != 0 && (y != -1 || x != Long.MIN_VALUE);
+    }
+
     // Getting signs correct for integer division
     // This convention makes sense when you consider it in tandem with modulo
     private BigInteger divide(BigInteger x, BigInteger y) {
@@ -486,6 +624,9 @@ public class PyLong extends PyObject {
         if (Options.division_warning > 0) {
             Py.warning(Py.DeprecationWarning, "classic long division");
         }
+        if (value == null && isLong(right) && canFloorDivide(longValue, longValueOf(right))) {
+            return Py.newLong(Math.floorDiv(longValue, longValueOf(right)));
+        }
         return Py.newLong(divide(getValue(), coerce(right)));
     }
 
@@ -502,6 +643,9 @@ public class PyLong extends PyObject {
         if (Options.division_warning > 0) {
             Py.warning(Py.DeprecationWarning, "classic long division");
         }
+        if (value == null && isLong(left) && canFloorDivide(longValueOf(left), longValue)) {
+            return Py.newLong(Math.floorDiv(longValueOf(left), longValue));
+        }
         return Py.newLong(divide(coerce(left), getValue()));
     }
 
@@ -514,6 +658,8 @@ public class PyLong extends PyObject {
     final PyObject long___floordiv__(PyObject right) {
         if (!canCoerce(right)) {
             return null;
+        } else if (value == null && isLong(right) && canFloorDivide(longValue, longValueOf(right))) {
+            return Py.newLong(Math.floorDiv(longValue, longValueOf(right)));
         }
         return Py.newLong(divide(getValue(), coerce(right)));
     }
@@ -527,6 +673,8 @@ public class PyLong extends PyObject {
     final PyObject long___rfloordiv__(PyObject left) {
         if (!canCoerce(left)) {
             return null;
+        } else if (value == null && isLong(left) && canFloorDivide(longValueOf(left), longValue)) {
+            return Py.newLong(Math.floorDiv(longValueOf(left), longValue));
         }
         return Py.newLong(divide(coerce(left), getValue()));
     }
@@ -600,6 +748,8 @@ public class PyLong extends PyObject {
     final PyObject long___mod__(PyObject right) {
         if (!canCoerce(right)) {
             return null;
+        } else if (value == null && isLong(right) && canFloorDivide(longValue, longValueOf(right))) {
+            return Py.newLong(Math.floorMod(longValue, longValueOf(right)));
         }
         BigInteger rightv = coerce(right);
         return Py.newLong(modulo(getValue(), rightv, divide(getValue(), rightv)));
@@ -614,6 +764,8 @@ public class PyLong extends PyObject {
     final PyObject long___rmod__(PyObject left) {
         if (!canCoerce(left)) {
             return null;
+        } else if (value == null && isLong(left) && canFloorDivide(longValueOf(left), longValue)) {
+            return Py.newLong(Math.floorMod(longValueOf(left), longValue));
         }
         BigInteger leftv = coerce(left);
         return Py.newLong(modulo(leftv, getValue(), divide(leftv, getValue())));
@@ -628,6 +780,10 @@ public class PyLong extends PyObject {
     final PyObject long___divmod__(PyObject right) {
         if (!canCoerce(right)) {
             return null;
+        } else if (value == null && isLong(right) && canFloorDivide(longValue, longValueOf(right))) {
+            long y = longValueOf(right);
+            return new PyTuple(Py.newLong(Math.floorDiv(longValue, y)),
+                    Py.newLong(Math.floorMod(longValue, y)));
         }
         BigInteger rightv = coerce(right);
 
@@ -644,6 +800,10 @@ public class PyLong extends PyObject {
     final PyObject long___rdivmod__(PyObject left) {
         if (!canCoerce(left)) {
             return null;
+        } else if (value == null && isLong(left) && canFloorDivide(longValueOf(left), longValue)) {
+            long x = longValueOf(left);
+            return new PyTuple(Py.newLong(Math.floorDiv(x, longValue)),
+                    Py.newLong(Math.floorMod(x, longValue)));
         }
         BigInteger leftv = coerce(left);
 
@@ -754,6 +914,11 @@ public class PyLong extends PyObject {
         int rightv = coerceInt(right);
         if (rightv < 0) {
             throw Py.ValueError("negative shift count");
+        } else if (value == null && rightv < 64) {
+            long shifted = longValue << rightv;
+            if (shifted >> rightv == longValue) {
+                return Py.newLong(shifted);
+            }
         }
         return Py.newLong(getValue().shiftLeft(rightv));
     }
@@ -782,6 +947,8 @@ public class PyLong extends PyObject {
         int rightv = coerceInt(right);
         if (rightv < 0) {
             throw Py.ValueError("negative shift count");
+        } else if (value == null) {
+            return Py.newLong(longValue >> Math.min(rightv, 63));
         }
         return Py.newLong(getValue().shiftRight(rightv));
     }
@@ -806,6 +973,8 @@ public class PyLong extends PyObject {
     final PyObject long___and__(PyObject right) {
         if (!canCoerce(right)) {
             return null;
+        } else if (value == null && isLong(right)) {
+            return Py.newLong(longValue & longValueOf(right));
         }
         return Py.newLong(getValue().and(coerce(right)));
     }
@@ -819,6 +988,8 @@ public class PyLong extends PyObject {
     final PyObject long___rand__(PyObject left) {
         if (!canCoerce(left)) {
             return null;
+        } else if (value == null && isLong(left)) {
+            return Py.newLong(longValueOf(left) & longValue);
         }
         return Py.newLong(coerce(left).and(getValue()));
     }
@@ -832,6 +1003,8 @@ public class PyLong extends PyObject {
     final PyObject long___xor__(PyObject right) {
         if (!canCoerce(right)) {
             return null;
+        } else if (value == null && isLong(right)) {
+            return Py.newLong(longValue ^ longValueOf(right));
         }
         return Py.newLong(getValue().xor(coerce(right)));
     }
@@ -845,6 +1018,8 @@ public class PyLong extends PyObject {
     final PyObject long___rxor__(PyObject left) {
         if (!canCoerce(left)) {
             return null;
+        } else if (value == null && isLong(left)) {
+            return Py.newLong(longValueOf(left) ^ longValue);
         }
         return Py.newLong(coerce(left).xor(getValue()));
     }
@@ -858,6 +1033,8 @@ public class PyLong extends PyObject {
     final PyObject long___or__(PyObject right) {
         if (!canCoerce(right)) {
             return null;
+        } else if (value == null && isLong(right)) {
+            return Py.newLong(longValue | longValueOf(right));
         }
         return Py.newLong(getValue().or(coerce(right)));
     }
@@ -871,6 +1048,8 @@ public class PyLong extends PyObject {
     final PyObject long___ror__(PyObject left) {
         if (!canCoerce(left)) {
             return null;
+        } else if (value == null && isLong(left)) {
+            return Py.newLong(longValueOf(left) | longValue);
         }
         return Py.newLong(coerce(left).or(getValue()));
     }
@@ -882,6 +1061,9 @@ public class PyLong extends PyObject {
 
     @ExposedMethod(doc = BuiltinDocs.long___neg___doc)
     final PyObject long___neg__() {
+        if (value == null && longValue != Long.MIN_VALUE) {
+            return Py.newLong(-longValue);
+        }
         return Py.newLong(getValue().negate());
     }
 
@@ -902,7 +1084,7 @@ public class PyLong extends PyObject {
 
     @ExposedMethod(doc = BuiltinDocs.long___abs___doc)
     final PyObject long___abs__() {
-        if (getValue().signum() == -1) {
+        if (value == null ? longValue < 0 : getValue().signum() == -1) {
             return long___neg__();
         }
         return long___long__();
@@ -915,6 +1097,9 @@ public class PyLong extends PyObject {
 
     @ExposedMethod(doc = BuiltinDocs.long___invert___doc)
     final PyObject long___invert__() {
+        if (value == null) {
+            return Py.newLong(~longValue);
+        }
         return Py.newLong(getValue().not());
     }
 
@@ -925,7 +1110,11 @@ public class PyLong extends PyObject {
 
     @ExposedMethod(doc = BuiltinDocs.long___int___doc)
     final PyObject long___int__() {
-        if (getValue().compareTo(PyInteger.MAX_INT) <= 0
+        if (value == null) {
+            if (longValue == (int)longValue) {
+                return Py.newInteger((int)longValue);
+            }
+        } else if (getValue().compareTo(PyInteger.MAX_INT) <= 0
                 && getValue().compareTo(PyInteger.MIN_INT) >= 0) {
             return Py.newInteger(getValue().intValue());
         }
@@ -939,7 +1128,10 @@ public class PyLong extends PyObject {
 
     @ExposedMethod(doc = BuiltinDocs.long___long___doc)
     final PyObject long___long__() {
-        return getType() == TYPE ? this : Py.newLong(getValue());
+        if (getType() == TYPE) {
+            return this;
+        }
+        return value == null ? Py.newLong(longValue) : Py.newLong(getValue());
     }
 
     @Override
@@ -1012,12 +1204,15 @@ public class PyLong extends PyObject {
     private PyString formatImpl(Spec spec) {
         // Traditional formatter (%-format) because #o means "-0123" not "-0o123".
         IntegerFormatter f = new IntegerFormatter.Traditional(spec);
-        f.format(value).append('L');
+        f.format(getValue()).append('L');
         return new PyString(f.getResult());
     }
 
     @ExposedMethod(doc = BuiltinDocs.long___str___doc)
     public PyString long___str__() {
+        if (value == null) {
+            return Py.newString(Long.toString(longValue));
+        }
         return Py.newString(getValue().toString());
     }
 
@@ -1028,12 +1223,12 @@ public class PyLong extends PyObject {
 
     @Override
     public PyUnicode __unicode__() {
-        return new PyUnicode(getValue().toString());
+        return new PyUnicode(long___str__().getString());
     }
 
     @ExposedMethod(doc = BuiltinDocs.long___getnewargs___doc)
     final PyTuple long___getnewargs__() {
-        return new PyTuple(new PyLong(this.getValue()));
+        return new PyTuple(value == null ? new PyLong(longValue) : new PyLong(getValue()));
     }
 
     @Override
@@ -1058,7 +1253,11 @@ public class PyLong extends PyObject {
 
     @ExposedMethod(doc = BuiltinDocs.long_bit_length_doc)
     final int long_bit_length() {
-        BigInteger v = value;
+        if (value == null) {
+            // Long.MIN_VALUE is right as an unsigned magnitude
+            return 64 - Long.numberOfLeadingZeros(Math.abs(longValue));
+        }
+        BigInteger v = getValue();
         if (v.compareTo(BigInteger.ZERO) == -1) {
             v = v.negate();
         }
@@ -1083,7 +1282,7 @@ public class PyLong extends PyObject {
             // Bytes mode if formatSpec argument is not unicode.
             fi.setBytes(!(formatSpec instanceof PyUnicode));
             // Convert as per specification.
-            fi.format(value);
+            fi.format(getValue());
             f = fi;
 
         } else {
@@ -1093,7 +1292,7 @@ public class PyLong extends PyObject {
                 // Bytes mode if formatSpec argument is not unicode.
                 ff.setBytes(!(formatSpec instanceof PyUnicode));
                 // Convert as per specification.
-                ff.format(value.doubleValue());
+                ff.format(getValue().doubleValue());
                 f = ff;
 
             } else {
@@ -1113,6 +1312,9 @@ public class PyLong extends PyObject {
 
     @Override
     public int asIndex(PyObject err) {
+        if (value == null && longValue == (int)longValue) {
+            return (int)longValue;
+        }
         boolean tooLow = getValue().compareTo(PyInteger.MIN_INT) < 0;
         boolean tooHigh = getValue().compareTo(PyInteger.MAX_INT) > 0;
         if (tooLow || tooHigh) {
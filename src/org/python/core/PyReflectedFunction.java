@@ -5,7 +5,11 @@ package org.python.core;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.python.util.Generic;
 
@@ -24,6 +28,16 @@ public class PyReflectedFunction extends PyObject implements Traverseproc {
     /** Whether __call__ should act as if this is called as a static method. */
     private boolean calledStatically;
 
+    /**
+     * The overload chosen for each combination of argument types seen so far by
+     * {@link #__call__(PyObject, PyObject[], String[])}, when that choice depends only on the
+     * types. It is shared with copies made before a method is added, and replaced when one is.
+     */
+    private ConcurrentHashMap<CallKey, ReflectedArgs> overloads;
+
+    /** The most combinations of argument types {@link #overloads} will remember. */
+    private static final int MAX_OVERLOADS = 64;
+
     protected PyReflectedFunction(String name) {
         __name__ = name;
     }
@@ -72,6 +86,11 @@ public class PyReflectedFunction extends PyObject implements Traverseproc {
         func.nargs = nargs;
         func.argslist = new ReflectedArgs[nargs];
         System.arraycopy(argslist, 0, func.argslist, 0, nargs);
+        // Copies (as made on every attribute access to a static method) share what we learn.
+        if (overloads == null) {
+            overloads = new ConcurrentHashMap<>();
+        }
+        func.overloads = overloads;
         return func;
     }
 
@@ -133,6 +152,7 @@ public class PyReflectedFunction extends PyObject implements Traverseproc {
     }
 
     protected void addArgs(ReflectedArgs args) {
+        overloads = null;
         int i;
         for (i = 0; i < nargs; i++) {
             int cmp = args.compareTo(argslist[i]);
@@ -162,6 +182,18 @@ public class PyReflectedFunction extends PyObject implements Traverseproc {
     public PyObject __call__(PyObject self, PyObject[] args, String[] keywords) {
         ReflectedCallData callData = new ReflectedCallData();
         ReflectedArgs match = null;
+        CallKey key = null;
+        if (nargs > 1 && keywords.length == 0) {
+            key = CallKey.of(self, args);
+            if (key != null) {
+                ConcurrentHashMap<CallKey, ReflectedArgs> chosen = overloads;
+                ReflectedArgs known = chosen == null ? null : chosen.get(key);
+                if (known != null && known.matches(self, args, keywords, callData)) {
+                    return call(self, known, callData);
+                }
+                callData = new ReflectedCallData();
+            }
+        }
         // varargs methods should always have lower precedence than a non-varargs
         // method that also applies but as they will always have <= arguments than an
         // alternative non-vararg method, they will appear first in the list of options.
@@ -187,30 +219,131 @@ public class PyReflectedFunction extends PyObject implements Traverseproc {
             match = varargMatch;
             callData = varargData;
         }
-        Object cself = callData.self;
-        Method m = (Method)match.method;
-
-        // If this is a direct call to a Java class instance method with a PyProxy instance as the
-        // arg, use the super__ version to actually route this through the method on the class.
-        if (self == null && cself != null && cself instanceof PyProxy
-                && !__name__.startsWith("super__")
-                && match.declaringClass != cself.getClass()) {
-            String mname = ("super__" + __name__);
-            try {
-                m = cself.getClass().getMethod(mname, m.getParameterTypes());
-            } catch (Exception e) {
-                throw Py.JavaError(e);
-            }
+        if (key != null) {
+            RuntimeMetrics.overloadResolutions.increment();
+            remember(key, match);
         }
+        return call(self, match, callData);
+    }
+
+    /** Record that calls with arguments like those giving key resolve to match. */
+    private void remember(CallKey key, ReflectedArgs match) {
+        ConcurrentHashMap<CallKey, ReflectedArgs> chosen = overloads;
+        if (chosen == null) {
+            overloads = chosen = new ConcurrentHashMap<>();
+        }
+        if (chosen.size() < MAX_OVERLOADS) {
+            chosen.put(key, match);
+        }
+    }
+
+    /** Call the method match, for which callData holds the converted arguments. */
+    private PyObject call(PyObject self, ReflectedArgs match, ReflectedCallData callData) {
+        Object cself = callData.self;
         Object o;
         try {
-            o = m.invoke(cself, callData.getArgsArray());
+            // If this is a direct call to a Java class instance method with a PyProxy instance as
+            // the arg, use the super__ version to route this through the method on the class.
+            if (self == null && cself != null && cself instanceof PyProxy
+                    && !__name__.startsWith("super__")
+                    && match.declaringClass != cself.getClass()) {
+                Method m = (Method)match.method;
+                String mname = ("super__" + __name__);
+                try {
+                    m = cself.getClass().getMethod(mname, m.getParameterTypes());
+                } catch (Exception e) {
+                    throw Py.JavaError(e);
+                }
+                o = m.invoke(cself, callData.getArgsArray());
+            } else {
+                o = match.invoke(cself, callData.getArgsArray());
+            }
         } catch (Throwable t) {
             throw Py.JavaError(t);
         }
         return Py.java2py(o);
     }
 
+    /**
+     * The types of the arguments (and self) of a call, in enough detail to determine which
+     * overload {@link ReflectedArgs#matches(PyObject, PyObject[], String[], ReflectedCallData)}
+     * chooses. This is only possible for arguments whose conversion by {@code __tojava__} depends
+     * on nothing else: int, bool, float and None, str and unicode (with whether the length is 1,
+     * for {@code char}), long (with the smallest Java integer type that holds it), and instances of
+     * Java classes other than collections, which would convert to an array according to their
+     * contents.
+     */
+    private static final class CallKey {
+
+        /** Pairs of the class of an argument and any detail of its value that matters. */
+        private final Object[] types;
+        private final int hash;
+
+        private CallKey(Object[] types) {
+            this.types = types;
+            this.hash = Arrays.hashCode(types);
+        }
+
+        /** The key for a call with these arguments, or {@code null} if there can't be one. */
+        static CallKey of(PyObject self, PyObject[] args) {
+            Object[] types = new Object[2 * args.length + 2];
+            if (self != null && !describe(self, types, 0)) {
+                return null;
+            }
+            for (int i = 0; i < args.length; i++) {
+                if (!describe(args[i], types, 2 * i + 2)) {
+                    return null;
+                }
+            }
+            return new CallKey(types);
+        }
+
+        /**
+         * Store the type of arg and detail of its value at types[i] and types[i+1], returning
+         * {@code false} if its conversion may depend on more than that.
+         */
+        private static boolean describe(PyObject arg, Object[] types, int i) {
+            Class<?> c = arg.getClass();
+            Object detail = null;
+            if (c == PyString.class || c == PyUnicode.class) {
+                detail = ((PyString)arg).getString().length() == 1;
+            } else if (c == PyLong.class) {
+                PyLong v = (PyLong)arg;
+                if (!v.isJavaLong()) {
+                    return false;
+                }
+                long x = v.getLong(Long.MIN_VALUE, Long.MAX_VALUE);
+                detail = x == (byte)x ? Byte.TYPE : x == (short)x ? Short.TYPE
+                        : x == (int)x ? Integer.TYPE : Long.TYPE;
+            } else if (c == PyObject.class
+                    || c == PyObjectDerived.class && arg.getType() instanceof PyJavaType) {
+                // A Java object (not an instance of a Python subclass, that could define
+                // __tojava__)
+                Object proxy = arg.getJavaProxy();
+                if (proxy == null || proxy instanceof Collection || proxy instanceof Map) {
+                    return false;
+                }
+                detail = proxy.getClass();
+            } else if (c != PyInteger.class && c != PyBoolean.class && c != PyFloat.class
+                    && c != PyNone.class) {
+                return false;
+            }
+            types[i] = c;
+            types[i + 1] = detail;
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof CallKey && Arrays.equals(types, ((CallKey)other).types);
+        }
+    }
+
     @Override
     public PyObject __call__(PyObject[] args, String[] keywords) {
         PyObject self;
@@ -4,25 +4,23 @@
  */
 package org.python.core;
 
-import java.util.Collection;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.Iterator;
 import java.util.Map;
-import java.util.Set;
-import java.util.AbstractSet;
 import java.util.Map.Entry;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
-import org.python.core.AbstractDict.ValuesIter;
-import org.python.core.AbstractDict.KeysIter;
-import org.python.core.AbstractDict.ItemsIter;
-import org.python.core.PyMapSet.PySetIter;
 import org.python.expose.ExposedClassMethod;
 import org.python.expose.ExposedMethod;
 import org.python.expose.ExposedNew;
 import org.python.expose.ExposedType;
 import org.python.expose.MethodType;
-import org.python.util.Generic;
 
 /**
  * Special fast dict implementation for __dict__ instances. Allows interned String keys in addition
@@ -37,35 +35,272 @@ public class PyStringMap extends AbstractDict implements Traverseproc {
      */
     private static PyType lazyType;
 
-    private final ConcurrentMap<Object, PyObject> table;
+    /**
+     * The entries of the map. Readers take the current table without locking; writers hold the
+     * lock on this map, and replace the table when it is full (see {@link Table}).
+     */
+    private volatile Table table;
+
+    /** The number of entries. Written only while holding the lock on this map. */
+    private volatile int size;
 
+    /**
+     * Modification count, advanced after every change made through this object. Caches of
+     * lookups in the map (see {@link GlobalSite}) remain valid while it is unchanged.
+     */
+    volatile int version;
+
+    /**
+     * A live view of the map, in which a {@code str} key appears as its interned {@code String}
+     * and any other key as itself. Changes made through the view advance {@link #getVersion()}.
+     */
     public ConcurrentMap<Object, PyObject> getMap() {
-        return table;
+        return new MapView();
+    }
+
+    /**
+     * The modification count of this map. A caller that reads the version before a lookup may
+     * reuse the result of that lookup as long as the version stays the same.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Advance the modification count, invalidating cached lookups in this map. Called after each
+     * change to the table.
+     */
+    public void modified() {
+        VersionUpdater.VERSION.incrementAndGet(this);
+    }
+
+    /**
+     * Holds the updater for {@link #version}. PyStringMap is in use before its own static
+     * initialisation completes (see {@link #lazyType}), so the updater is initialised separately.
+     */
+    private static class VersionUpdater {
+
+        static final AtomicIntegerFieldUpdater<PyStringMap> VERSION =
+                AtomicIntegerFieldUpdater.newUpdater(PyStringMap.class, "version");
+    }
+
+    /**
+     * An open-addressed hash table with linear probing, in which the key of slot {@code i} is at
+     * {@code 2*i} and its value at {@code 2*i+1}. A key is either a {@code String}, the interned
+     * value of a {@code str} key, or an {@link ObjectKey}. Once written, a {@code String} key
+     * stays in its slot for the life of the table (it is interned, so keeping it costs nothing),
+     * and deleting the entry only clears the value, so that the slot is used again if the name
+     * is set again. Deleting the entry of an {@code ObjectKey} clears the value and then puts
+     * {@link #DELETED} in place of the key, so that the key object may be collected. A writer
+     * publishes the value of a new entry before its key, so a reader that finds the key without
+     * locking also finds the value (or the null of a deleted entry). When there is no room for
+     * another key, the map copies the entries that have values into a larger table, and
+     * publishes that through the volatile {@link PyStringMap#table}.
+     */
+    private static final class Table extends AtomicReferenceArray<Object> {
+
+        /**
+         * The table of a map that has never held an entry. It has no room, so the first insertion
+         * replaces it.
+         */
+        static final Table EMPTY = new Table(1);
+
+        /** The number of slots less one (a power of two less one). */
+        final int mask;
+
+        /** The number of slots holding a key, whether or not it has a value. */
+        int used;
+
+        /**
+         * The slot at which {@link PyStringMap#stringmap_popitem()} starts its search (guarded by
+         * the lock on the map), so that emptying the map with {@code popitem} takes linear time.
+         */
+        int popFrom;
+
+        Table(int capacity) {
+            super(2 * capacity);
+            mask = capacity - 1;
+        }
+
+        /** Whether another key may be added while leaving a third of the slots empty. */
+        boolean hasRoom() {
+            return 3 * (used + 1) <= 2 * (mask + 1);
+        }
+
+        /** The number of slots needed to hold {@code n} keys. */
+        static int capacityFor(int n) {
+            int capacity = 8;
+            while (3 * n > 2 * capacity) {
+                capacity <<= 1;
+            }
+            return capacity;
+        }
+
+        static int spread(int h) {
+            return h ^ (h >>> 16);
+        }
+
+        /**
+         * The slot holding {@code key} (a {@code String}, or a {@code PyObject} that is not a
+         * {@code PyString}), or where it is absent, {@code -1-i} where {@code i} is the empty slot
+         * that ended the search. Names are nearly always interned, so that identity of the key
+         * is the usual match.
+         */
+        int find(Object key, int h) {
+            for (int i = spread(h) & mask;; i = (i + 1) & mask) {
+                Object k = get(2 * i);
+                if (k == key) {
+                    return i;
+                } else if (k == null) {
+                    return -1 - i;
+                } else if (key instanceof String) {
+                    if (k instanceof String && key.equals(k)) {
+                        return i;
+                    }
+                } else if (k instanceof ObjectKey) {
+                    ObjectKey other = (ObjectKey)k;
+                    if (other.key == key || other.hash == h && other.key.equals(key)) {
+                        return i;
+                    }
+                }
+            }
+        }
+
+        PyObject value(int i) {
+            return (PyObject)get(2 * i + 1);
+        }
+
+        /** Let go of the key of slot {@code i}, whose value has been cleared, unless a name. */
+        void clearKey(int i) {
+            if (get(2 * i) instanceof ObjectKey) {
+                lazySet(2 * i, Deleted.KEY);
+            }
+        }
+
+        /** Add a key known to be absent, in a table known to have room for it. */
+        void add(int i, Object k, PyObject value) {
+            lazySet(2 * i + 1, value);
+            lazySet(2 * i, k);
+            used++;
+        }
+
+        /** A new table holding the entries of this one that have values, and room for n. */
+        Table rebuild(int n) {
+            Table t = new Table(capacityFor(n));
+            for (int j = 0; j <= mask; j++) {
+                Object k = get(2 * j);
+                PyObject v;
+                if (k != null && (v = value(j)) != null) {
+                    int h = k instanceof ObjectKey ? ((ObjectKey)k).hash : k.hashCode();
+                    t.add(-1 - t.find(k, h), k, v);
+                }
+            }
+            return t;
+        }
+    }
+
+    /** Takes the place of a deleted {@link ObjectKey} in its slot, matching no key. */
+    private enum Deleted {
+        KEY
+    }
+
+    /** A key that is not a {@code str}, with its hash, which may be costly to compute again. */
+    private static final class ObjectKey implements Serializable {
+
+        final PyObject key;
+        final int hash;
+
+        ObjectKey(PyObject key, int hash) {
+            this.key = key;
+            this.hash = hash;
+        }
     }
 
     public PyStringMap() {
-        this(4);
+        this(0);
     }
 
     public PyStringMap(int capacity) {
         super(getLazyType());
-        table = new ConcurrentHashMap<Object, PyObject>(capacity, Generic.CHM_LOAD_FACTOR,
-                                                        Generic.CHM_CONCURRENCY_LEVEL);
+        table = capacity <= 0 ? Table.EMPTY : new Table(Table.capacityFor(capacity));
     }
 
     public PyStringMap(Map<Object, PyObject> map) {
-        this(Math.max((int) (map.size() / Generic.CHM_LOAD_FACTOR) + 1,
-                      Generic.CHM_INITIAL_CAPACITY));
-        table.putAll(map);
+        this(map.size());
+        for (Entry<Object, PyObject> entry : map.entrySet()) {
+            put(toKey(entry.getKey()), entry.getValue(), false);
+        }
     }
 
     public PyStringMap(PyObject elements[]) {
-        this(elements.length);
+        this(elements.length / 2);
         for (int i = 0; i < elements.length; i += 2) {
             __setitem__(elements[i], elements[i + 1]);
         }
     }
 
+    /** The value for a key (as from {@link #toKey(Object)}), or null if it is absent. */
+    private PyObject lookup(Object key) {
+        Table t = table;
+        int i = t.find(key, key.hashCode());
+        return i < 0 ? null : t.value(i);
+    }
+
+    /**
+     * Set the value for a key (as from {@link #toKey(Object)}), or remove the key if the value is
+     * null, returning the previous value, or null if there was none. If {@code onlyIfAbsent}, an
+     * existing value is left as it is.
+     */
+    private synchronized PyObject put(Object key, PyObject value, boolean onlyIfAbsent) {
+        int h = key.hashCode();
+        Table t;
+        int i;
+        do {
+            // Comparing with an object key runs Python code, which might change this map.
+            int v = version;
+            t = table;
+            i = t.find(key, h);
+            if (v == version) {
+                break;
+            }
+        } while (true);
+
+        if (i >= 0) {
+            PyObject old = t.value(i);
+            if (old != null && onlyIfAbsent) {
+                return old;
+            }
+            t.lazySet(2 * i + 1, value);
+            if (old == null) {
+                if (value == null) {
+                    return null;
+                }
+                size++;
+            } else if (value == null) {
+                t.clearKey(i);
+                size--;
+            }
+            modified();
+            return old;
+        } else if (value == null) {
+            return null;
+        }
+
+        if (!t.hasRoom()) {
+            table = t = t.rebuild(size + 1);
+            i = t.find(key, h);
+        }
+        t.add(-1 - i, key instanceof String ? key : new ObjectKey((PyObject)key, h), value);
+        size++;
+        modified();
+        return null;
+    }
+
+    /** Remove a key (as from {@link #toKey(Object)}), returning its value or null. */
+    private PyObject remove(Object key) {
+        return put(key, null, false);
+    }
+
     private static PyType getLazyType() {
         if (lazyType == null) {
             lazyType = PyType.fromClass(PyStringMap.class);
@@ -105,12 +340,12 @@ public class PyStringMap extends AbstractDict implements Traverseproc {
 
     @ExposedMethod(doc = BuiltinDocs.dict___len___doc)
     final int stringmap___len__() {
-        return table.size();
+        return size;
     }
 
     @Override
     public boolean __nonzero__() {
-        return table.size() != 0;
+        return size != 0;
     }
 
     @Override
@@ -118,7 +353,7 @@ public class PyStringMap extends AbstractDict implements Traverseproc {
         if (key == null) {
             return null;
         }
-        return table.get(key);
+        return lookup(key);
     }
 
     @Override
@@ -126,7 +361,7 @@ public class PyStringMap extends AbstractDict implements Traverseproc {
         if (key instanceof PyString) {
             return __finditem__(((PyString)key).internedString());
         }
-        return table.get(key);
+        return lookup(key);
     }
 
     public PyObject __getitem__(String key) {
@@ -169,11 +404,7 @@ public class PyStringMap extends AbstractDict implements Traverseproc {
 
     @Override
     public void __setitem__(String key, PyObject value) {
-        if (value == null) {
-            table.remove(key);
-        } else {
-            table.put(key, value);
-        }
+        put(key, value, false);
     }
 
     @Override
@@ -183,19 +414,12 @@ public class PyStringMap extends AbstractDict implements Traverseproc {
 
     @ExposedMethod(doc = BuiltinDocs.dict___setitem___doc)
     final void stringmap___setitem__(PyObject key, PyObject value) {
-        if (value == null) {
-            table.remove(pyToKey(key));
-        } else if (key instanceof PyString) {
-            __setitem__(((PyString)key).internedString(), value);
-        } else {
-            table.put(key, value);
-        }
+        put(pyToKey(key), value, false);
     }
 
     @Override
     public void __delitem__(String key) {
-        Object ret = table.remove(key);
-        if (ret == null) {
+        if (remove(key) == null) {
             throw Py.KeyError(key);
         }
     }
@@ -210,8 +434,7 @@ public class PyStringMap extends AbstractDict implements Traverseproc {
         if (key instanceof PyString) {
             __delitem__(((PyString)key).internedString());
         } else {
-            Object ret = table.remove(key);
-            if (ret == null) {
+            if (remove(key) == null) {
                 throw Py.KeyError(key);
             }
         }
@@ -225,8 +448,10 @@ public class PyStringMap extends AbstractDict implements Traverseproc {
     }
 
     @ExposedMethod(doc = BuiltinDocs.dict_clear_doc)
-    final void stringmap_clear() {
-        table.clear();
+    final synchronized void stringmap_clear() {
+        table = Table.EMPTY;
+        size = 0;
+        modified();
     }
 
     @Override
@@ -241,17 +466,21 @@ public class PyStringMap extends AbstractDict implements Traverseproc {
             return "{...}";
         }
         StringBuilder buf = new StringBuilder("{");
-        for (Entry<Object, PyObject> entry : table.entrySet()) {
-            Object key = entry.getKey();
-            if (key instanceof String) {
+        Table t = table;
+        for (int i = 0; i <= t.mask; i++) {
+            Object key = t.get(2 * i);
+            PyObject value = t.value(i);
+            if (key == null || value == null) {
+                continue;
+            } else if (key instanceof String) {
                 /* This is a bit complicated, but prevents us to duplicate
                    PyString#__repr__ logic here. */
                 buf.append(new PyString((String)key).__repr__().toString());
             } else {
-                buf.append(((PyObject)key).__repr__().toString());
+                buf.append(((ObjectKey)key).key.__repr__().toString());
             }
             buf.append(": ");
-            buf.append(entry.getValue().__repr__().toString());
+            buf.append(value.__repr__().toString());
             buf.append(", ");
         }
         if (buf.length() > 1) {
@@ -305,7 +534,7 @@ public class PyStringMap extends AbstractDict implements Traverseproc {
      * Return true if the key exist in the dictionary.
      */
     public boolean has_key(String key) {
-        return table.containsKey(key);
+        return lookup(key) != null;
     }
 
     public boolean has_key(PyObject key) {
@@ -314,7 +543,7 @@ public class PyStringMap extends AbstractDict implements Traverseproc {
 
     @ExposedMethod(doc = BuiltinDocs.dict_has_key_doc)
     final boolean stringmap_has_key(PyObject key) {
-        return table.containsKey(pyToKey(key));
+        return lookup(pyToKey(key)) != null;
     }
 
     @Override
@@ -364,7 +593,12 @@ public class PyStringMap extends AbstractDict implements Traverseproc {
 
     @ExposedMethod(doc = BuiltinDocs.dict_copy_doc)
     final PyStringMap stringmap_copy() {
-        return new PyStringMap(table);
+        PyStringMap copy = new PyStringMap();
+        synchronized (this) {
+            copy.table = table.rebuild(size);
+            copy.size = size;
+        }
+        return copy;
     }
 
     public void update(PyObject other) {
@@ -401,7 +635,14 @@ public class PyStringMap extends AbstractDict implements Traverseproc {
      */
     private void merge(PyObject other) {
         if (other instanceof PyStringMap) {
-            table.putAll(((PyStringMap)other).table);
+            Table t = ((PyStringMap)other).table;
+            for (int i = 0; i <= t.mask; i++) {
+                Object key = t.get(2 * i);
+                PyObject value = t.value(i);
+                if (key != null && value != null) {
+                    put(key instanceof ObjectKey ? ((ObjectKey)key).key : key, value, false);
+                }
+            }
         } else if (other instanceof PyDictionary) {
             mergeFromKeys(other, ((PyDictionary)other).keys());
         } else {
@@ -417,16 +658,18 @@ public class PyStringMap extends AbstractDict implements Traverseproc {
      * @param override if true, the value from other is used on key-collision
      */
     public void merge(PyObject other, boolean override) {
-        synchronized(table) {
+        synchronized(this) {
             if (override) {
                 merge(other);
             } else {
                 if (other instanceof PyStringMap) {
-                    Set<Map.Entry<Object, PyObject>> entrySet =
-                            ((PyStringMap)other).table.entrySet();
-                    for (Map.Entry<Object, PyObject> ent: entrySet) {
-                        if (!table.containsKey(ent.getKey())) {
-                            table.put(ent.getKey(), ent.getValue());
+                    Table t = ((PyStringMap)other).table;
+                    for (int i = 0; i <= t.mask; i++) {
+                        Object key = t.get(2 * i);
+                        PyObject value = t.value(i);
+                        if (key != null && value != null) {
+                            put(key instanceof ObjectKey ? ((ObjectKey)key).key : key, value,
+                                true);
                         }
                     }
                 } else if (other instanceof PyDictionary) {
@@ -458,7 +701,7 @@ public class PyStringMap extends AbstractDict implements Traverseproc {
      * @param override if true, the value from other is used on key-collision
      */
     public void mergeFromKeys(PyObject other, PyObject keys, boolean override) {
-        synchronized(table) {
+        synchronized(this) {
             if (override) {
                 mergeFromKeys(other, keys);
             } else {
@@ -508,7 +751,7 @@ public class PyStringMap extends AbstractDict implements Traverseproc {
      * @param override if true, the value from other is used on key-collision
      */
     public void mergeFromSeq(PyObject other, boolean override) {
-        synchronized(table) {
+        synchronized(this) {
             if (override) {
                 mergeFromSeq(other);
             } else {
@@ -563,8 +806,7 @@ public class PyStringMap extends AbstractDict implements Traverseproc {
 
     @ExposedMethod(defaults = "Py.None", doc = BuiltinDocs.dict_setdefault_doc)
     final PyObject stringmap_setdefault(PyObject key, PyObject failobj) {
-        Object internedKey = (key instanceof PyString) ? ((PyString)key).internedString() : key;
-        PyObject oldValue = table.putIfAbsent(internedKey, failobj);
+        PyObject oldValue = put(pyToKey(key), failobj, true);
         return oldValue == null ? failobj : oldValue;
     }
 
@@ -576,19 +818,29 @@ public class PyStringMap extends AbstractDict implements Traverseproc {
     }
 
     @ExposedMethod(doc = BuiltinDocs.dict_popitem_doc)
-    final PyObject stringmap_popitem() {
-        Iterator<Entry<Object, PyObject>> it = table.entrySet().iterator();
-        if (!it.hasNext()) {
-            throw Py.KeyError("popitem(): dictionary is empty");
+    final synchronized PyObject stringmap_popitem() {
+        Table t = table;
+        if (size > 0) {
+            // Search on from the slot last emptied, as entries before it are most likely gone
+            for (int n = 0, i = t.popFrom; n <= t.mask; n++, i = (i + 1) & t.mask) {
+                Object key = t.get(2 * i);
+                PyObject value = t.value(i);
+                if (key != null && value != null) {
+                    t.lazySet(2 * i + 1, null);
+                    t.clearKey(i);
+                    t.popFrom = i;
+                    size--;
+                    modified();
+                    return new PyTuple(keyToPy(key), value);
+                }
+            }
         }
-        PyTuple tuple = itemTuple(it.next());
-        it.remove();
-        return tuple;
+        throw Py.KeyError("popitem(): dictionary is empty");
     }
 
     /* not correct - we need to determine size and remove at the same time! */
     public PyObject pop(PyObject key) {
-        if (table.size() == 0) {
+        if (size == 0) {
             throw Py.KeyError("pop(): dictionary is empty");
         }
         return stringmap_pop(key, null);
@@ -600,7 +852,7 @@ public class PyStringMap extends AbstractDict implements Traverseproc {
 
     @ExposedMethod(defaults = "null", doc = BuiltinDocs.dict_pop_doc)
     final PyObject stringmap_pop(PyObject key, PyObject failobj) {
-        PyObject value = table.remove(pyToKey(key));
+        PyObject value = remove(pyToKey(key));
         if (value == null) {
             if (failobj == null) {
                 throw Py.KeyError(key);
@@ -620,11 +872,7 @@ public class PyStringMap extends AbstractDict implements Traverseproc {
 
     @ExposedMethod(doc = BuiltinDocs.dict_items_doc)
     final PyList stringmap_items() {
-        return new PyList(stringmap_iteritems());
-    }
-
-    private PyTuple itemTuple(Entry<Object, PyObject> entry) {
-        return new PyTuple(keyToPy(entry.getKey()), entry.getValue());
+        return new PyList(new StringMapItemsIter());
     }
 
     /**
@@ -637,13 +885,7 @@ public class PyStringMap extends AbstractDict implements Traverseproc {
 
     @ExposedMethod(doc = BuiltinDocs.dict_keys_doc)
     final PyList stringmap_keys() {
-        Object[] keys = table.keySet().toArray();
-        PyObject[] keyArray = new PyObject[keys.length];
-        int i = 0;
-        for (Object key : keys) {
-            keyArray[i++] = keyToPy(key);
-        }
-        return new PyList(keyArray);
+        return new PyList(new StringMapKeysIter());
     }
 
     /**
@@ -655,7 +897,7 @@ public class PyStringMap extends AbstractDict implements Traverseproc {
 
     @ExposedMethod(doc = BuiltinDocs.dict_values_doc)
     final PyList stringmap_values() {
-        return new PyList(table.values());
+        return new PyList(new StringMapValuesIter());
     }
 
     /**
@@ -667,7 +909,7 @@ public class PyStringMap extends AbstractDict implements Traverseproc {
 
     @ExposedMethod(doc = BuiltinDocs.dict_iteritems_doc)
     final PyObject stringmap_iteritems() {
-        return new StringMapItemsIter(table.entrySet());
+        return new StringMapItemsIter();
     }
 
     /**
@@ -679,9 +921,7 @@ public class PyStringMap extends AbstractDict implements Traverseproc {
 
     @ExposedMethod(doc = BuiltinDocs.dict_iterkeys_doc)
     final PyObject stringmap_iterkeys() {
-        /* Python allows one to change the dict while iterating over it, including
-           deletion. Java does not. Can we resolve with CHM? */
-        return new StringMapKeysIter(table.keySet());
+        return new StringMapKeysIter();
     }
 
     /**
@@ -693,7 +933,7 @@ public class PyStringMap extends AbstractDict implements Traverseproc {
 
     @ExposedMethod(doc = BuiltinDocs.dict_itervalues_doc)
     final PyObject stringmap_itervalues() {
-        return new StringMapValuesIter(table.values());
+        return new StringMapValuesIter();
     }
 
     @Override
@@ -716,59 +956,64 @@ public class PyStringMap extends AbstractDict implements Traverseproc {
         return false;
     }
 
-    private class StringMapValuesIter extends ValuesIter {
+    /**
+     * Iterates over the entries of the table current when it was created, raising
+     * {@code RuntimeError} if the size of the map changes meanwhile.
+     */
+    private abstract class StringMapIter extends PyIterator {
 
-        public StringMapValuesIter(Collection<PyObject> c) {
-            super(c);
-        }
+        private final Table t = table;
+        private final int startSize = size;
+        private int i;
 
         @Override
         public PyObject __iternext__() {
-            check(table.size());
-            if (!iterator.hasNext()) {
-                return null;
+            if (size != startSize) {
+                throw Py.RuntimeError("dictionary changed size during iteration");
+            }
+            while (i <= t.mask) {
+                Object key = t.get(2 * i);
+                PyObject value = t.value(i++);
+                if (key != null && value != null) {
+                    return item(key, value);
+                }
             }
-            return iterator.next();
+            return null;
         }
-    }
 
-    private class StringMapKeysIter extends KeysIter<Object> {
+        abstract PyObject item(Object key, PyObject value);
+    }
 
-        public StringMapKeysIter(Set<Object> s) {
-            super(s);
-        }
+    private class StringMapValuesIter extends StringMapIter {
 
         @Override
-        public PyObject __iternext__() {
-            check(table.size());
-            if (!iterator.hasNext()) {
-                return null;
-            }
-            return keyToPy(iterator.next());
+        PyObject item(Object key, PyObject value) {
+            return value;
         }
     }
 
-    private class StringMapItemsIter extends ItemsIter<Object> {
+    private class StringMapKeysIter extends StringMapIter {
 
-        public StringMapItemsIter(Set<Entry<Object, PyObject>> s) {
-            super(s);
+        @Override
+        PyObject item(Object key, PyObject value) {
+            return keyToPy(key);
         }
+    }
+
+    private class StringMapItemsIter extends StringMapIter {
 
         @Override
-        public PyObject __iternext__() {
-            check(table.size());
-            if (!iterator.hasNext()) {
-                return null;
-            }
-            return itemTuple(iterator.next());
+        PyObject item(Object key, PyObject value) {
+            return new PyTuple(keyToPy(key), value);
         }
     }
 
+    /** The Python key for a key in the table (a {@code String} or an {@link ObjectKey}). */
     private static PyObject keyToPy(Object objKey){
         if (objKey instanceof String) {
             return PyString.fromInterned((String)objKey);
         } else {
-            return (PyObject)objKey;
+            return ((ObjectKey)objKey).key;
         }
     }
 
@@ -780,47 +1025,227 @@ public class PyStringMap extends AbstractDict implements Traverseproc {
         }
     }
 
-    private static class PyStringMapKeySetWrapper extends AbstractSet<PyObject>
-    {
-        Set<Object> backend;
+    /** The key for a key given through the {@code Map} interface. */
+    private static Object toKey(Object key) {
+        if (key instanceof PyObject) {
+            return pyToKey((PyObject)key);
+        } else if (key instanceof String) {
+            return key;
+        } else {
+            throw new IllegalArgumentException("key must be a String or PyObject");
+        }
+    }
+
+    /** An entry of the {@link MapView}, writing through to the map. */
+    private class MapEntry extends AbstractMap.SimpleEntry<Object, PyObject> {
+
+        MapEntry(Object key, PyObject value) {
+            super(key, value);
+        }
+
+        @Override
+        public PyObject setValue(PyObject value) {
+            if (value == null) {
+                throw new NullPointerException();
+            }
+            put(toKey(getKey()), value, false);
+            return super.setValue(value);
+        }
+    }
+
+    /** The view returned by {@link #getMap()}. */
+    private class MapView extends AbstractMap<Object, PyObject>
+            implements ConcurrentMap<Object, PyObject> {
 
-        PyStringMapKeySetWrapper(Set<Object> backend) {
-            this.backend = backend;
+        @Override
+        public int size() {
+            return size;
         }
 
-        class PyStringMapKeySetIter implements Iterator<PyObject> {
-            Iterator<Object> itr;
+        @Override
+        public boolean isEmpty() {
+            return size == 0;
+        }
 
-            PyStringMapKeySetIter(Iterator<Object> itr) {
-                this.itr = itr;
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public PyObject get(Object key) {
+            if (key instanceof String || key instanceof PyObject) {
+                return lookup(toKey(key));
             }
+            return null;
+        }
 
-            public boolean hasNext() {
-                return itr.hasNext();
+        @Override
+        public PyObject put(Object key, PyObject value) {
+            if (value == null) {
+                throw new NullPointerException();
             }
+            return PyStringMap.this.put(toKey(key), value, false);
+        }
 
-            public PyObject next() {
-                return keyToPy(itr.next());
+        @Override
+        public PyObject putIfAbsent(Object key, PyObject value) {
+            if (value == null) {
+                throw new NullPointerException();
             }
+            return PyStringMap.this.put(toKey(key), value, true);
+        }
 
-            public void remove() {
-                itr.remove();
+        @Override
+        public PyObject remove(Object key) {
+            if (key instanceof String || key instanceof PyObject) {
+                return PyStringMap.this.remove(toKey(key));
             }
+            return null;
         }
 
         @Override
-        public Iterator<PyObject> iterator() {
-            return new PyStringMapKeySetIter(backend.iterator());
+        public boolean remove(Object key, Object value) {
+            synchronized (PyStringMap.this) {
+                PyObject old = get(key);
+                if (old != null && old.equals(value)) {
+                    PyStringMap.this.remove(toKey(key));
+                    return true;
+                }
+                return false;
+            }
         }
 
         @Override
-        public int size() {
-            return backend.size();
+        public boolean replace(Object key, PyObject oldValue, PyObject newValue) {
+            if (newValue == null) {
+                throw new NullPointerException();
+            }
+            synchronized (PyStringMap.this) {
+                PyObject old = get(key);
+                if (old != null && old.equals(oldValue)) {
+                    PyStringMap.this.put(toKey(key), newValue, false);
+                    return true;
+                }
+                return false;
+            }
+        }
+
+        @Override
+        public PyObject replace(Object key, PyObject value) {
+            if (value == null) {
+                throw new NullPointerException();
+            }
+            synchronized (PyStringMap.this) {
+                return get(key) == null ? null : PyStringMap.this.put(toKey(key), value, false);
+            }
+        }
+
+        @Override
+        public void clear() {
+            stringmap_clear();
+        }
+
+        @Override
+        public Set<Entry<Object, PyObject>> entrySet() {
+            return new AbstractSet<Entry<Object, PyObject>>() {
+
+                @Override
+                public Iterator<Entry<Object, PyObject>> iterator() {
+                    return new MapViewIterator();
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+    }
+
+    /**
+     * Iterates over the entries of the table current when it was created, for the {@link MapView}.
+     * Unlike {@link StringMapIter}, it tolerates changes to the map as the iterators of a
+     * {@code ConcurrentMap} do.
+     */
+    private class MapViewIterator implements Iterator<Entry<Object, PyObject>> {
+
+        private final Table t = table;
+        private int i;
+        private MapEntry next, last;
+
+        MapViewIterator() {
+            advance();
+        }
+
+        private void advance() {
+            next = null;
+            while (next == null && i <= t.mask) {
+                Object key = t.get(2 * i);
+                PyObject value = t.value(i++);
+                if (key != null && value != null) {
+                    next = new MapEntry(key instanceof String ? key : ((ObjectKey)key).key, value);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<Object, PyObject> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            advance();
+            return last;
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+            PyStringMap.this.remove(toKey(last.getKey()));
+            last = null;
         }
     }
 
     public Set<PyObject> pyKeySet() {
-        return new PyStringMapKeySetWrapper(table.keySet());
+        return new AbstractSet<PyObject>() {
+
+            @Override
+            public Iterator<PyObject> iterator() {
+                final Iterator<Entry<Object, PyObject>> entries = new MapViewIterator();
+                return new Iterator<PyObject>() {
+
+                    @Override
+                    public boolean hasNext() {
+                        return entries.hasNext();
+                    }
+
+                    @Override
+                    public PyObject next() {
+                        Object key = entries.next().getKey();
+                        return key instanceof String ? PyString.fromInterned((String)key)
+                                : (PyObject)key;
+                    }
+
+                    @Override
+                    public void remove() {
+                        entries.remove();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
     }
 
     /** @see java.util.Map#entrySet() */
@@ -857,25 +1282,37 @@ public class PyStringMap extends AbstractDict implements Traverseproc {
     @Override
     public int traverse(Visitproc visit, Object arg) {
         int retVal;
-        Object key;
-        PyObject value;
-        for (Map.Entry<Object, PyObject> ent: table.entrySet()) {
-            key = ent.getKey();
-            value = ent.getValue();
-            if (key instanceof PyObject) {
-                retVal = visit.visit((PyObject) key, arg);
-                if (retVal != 0) return retVal;
+        Table t = table;
+        for (int i = 0; i <= t.mask; i++) {
+            Object key = t.get(2 * i);
+            PyObject value = t.value(i);
+            if (key == null || value == null) {
+                continue;
             }
-            if (value != null) {
-                retVal = visit.visit(value, arg);
+            if (key instanceof ObjectKey) {
+                retVal = visit.visit(((ObjectKey)key).key, arg);
                 if (retVal != 0) return retVal;
             }
+            retVal = visit.visit(value, arg);
+            if (retVal != 0) return retVal;
         }
         return 0;
     }
 
     @Override
     public boolean refersDirectlyTo(PyObject ob) {
-        return ob != null && (table.containsKey(ob) || table.containsValue(ob));
+        if (ob == null) {
+            return false;
+        }
+        Table t = table;
+        for (int i = 0; i <= t.mask; i++) {
+            Object key = t.get(2 * i);
+            PyObject value = t.value(i);
+            if (value != null && (value == ob
+                    || key instanceof ObjectKey && ((ObjectKey)key).key == ob)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
@@ -1277,6 +1277,13 @@ public class PySystemState extends PyObject
         // Make sure that Exception classes have been loaded
         new PySyntaxError("", 1, 1, "", "");
 
+        if (Options.metricsJmx) {
+            RuntimeMetrics.register();
+        }
+        if (Options.profileFile != null) {
+            SamplingProfiler.startFromRegistry();
+        }
+
         // Cause sys to export the console handler that was installed
         Py.defaultSystemState.__setattr__("_jy_console", Py.java2py(Py.getConsole()));
 
@@ -1329,6 +1336,9 @@ public class PySystemState extends PyObject
         File pkgdir;
         if (cachedir != null) {
             pkgdir = new File(cachedir, "packages");
+            if (Options.codeCache && !CodeCache.isEnabled()) {
+                CodeCache.setDirectory(new File(cachedir, "code"));
+            }
         } else {
             pkgdir = null;
         }
@@ -1690,6 +1700,11 @@ public class PySystemState extends PyObject
         return ThreadStateMapping._current_frames();
     }
 
+    /** The counts and times kept by {@link RuntimeMetrics}, as a dictionary. */
+    public static PyDictionary _jython_metrics() {
+        return RuntimeMetrics.getInstance().asDictionary();
+    }
+
     public void registerCloser(Callable<Void> resourceCloser) {
         closer.registerCloser(resourceCloser);
     }
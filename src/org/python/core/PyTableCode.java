@@ -13,6 +13,14 @@ public class PyTableCode extends PyBaseCode
     int func_id;
     public String co_code = ""; // only used by inspect
 
+    /**
+     * Whether the function also has a frameless form, compiled with {@link Options#lazyFrames},
+     * that {@link PyFunctionTable#call_leaf(int, ThreadState, PyObject, PyObject[])} will run.
+     * Such a function takes exactly {@link #co_argcount} positional arguments, has no cell or
+     * free variables, and makes no calls. (Internal: set by the compiled class.)
+     */
+    public boolean jy_leaf;
+
     public PyTableCode(int argcount, String varnames[],
                        String filename, String name,
                        int firstlineno,
@@ -128,6 +136,173 @@ public class PyTableCode extends PyBaseCode
         return super.__findattr_ex__(name);
     }
 
+    /**
+     * Whether a call with {@code nargs} positional arguments (and no keywords) may use the
+     * frameless form. This requires that nothing is tracing or profiling the call, and that there
+     * is a calling frame, from which the function gets its builtins if its globals have none.
+     */
+    private boolean canCallLeaf(ThreadState ts, int nargs) {
+        return jy_leaf && nargs == co_argcount && ts.frame != null && ts.tracefunc == null
+                && ts.profilefunc == null;
+    }
+
+    /**
+     * Call the frameless form of the function, or return {@code null} if the function table has
+     * none (it was not compiled with the frameless forms it is marked as having), in which case
+     * the caller makes the call with a frame, as will later calls.
+     */
+    private PyObject callLeaf(ThreadState ts, PyObject globals, PyObject[] args) {
+        PyObject ret = funcs.call_leaf(func_id, ts, globals, args);
+        if (ret == null) {
+            jy_leaf = false;
+        }
+        return ret;
+    }
+
+    @Override
+    public PyObject call(ThreadState state, PyObject globals, PyObject[] defaults,
+            PyObject closure) {
+        if (canCallLeaf(state, 0)) {
+            PyObject ret = callLeaf(state, globals, Py.EmptyObjects);
+            if (ret != null) {
+                return ret;
+            }
+        }
+        return super.call(state, globals, defaults, closure);
+    }
+
+    @Override
+    public PyObject call(ThreadState state, PyObject arg1, PyObject globals, PyObject[] defaults,
+            PyObject closure) {
+        if (canCallLeaf(state, 1)) {
+            PyObject ret = callLeaf(state, globals, new PyObject[] {arg1});
+            if (ret != null) {
+                return ret;
+            }
+        }
+        return super.call(state, arg1, globals, defaults, closure);
+    }
+
+    @Override
+    public PyObject call(ThreadState state, PyObject arg1, PyObject arg2, PyObject globals,
+            PyObject[] defaults, PyObject closure) {
+        if (canCallLeaf(state, 2)) {
+            PyObject ret = callLeaf(state, globals, new PyObject[] {arg1, arg2});
+            if (ret != null) {
+                return ret;
+            }
+        }
+        return super.call(state, arg1, arg2, globals, defaults, closure);
+    }
+
+    @Override
+    public PyObject call(ThreadState state, PyObject arg1, PyObject arg2, PyObject arg3,
+            PyObject globals, PyObject[] defaults, PyObject closure) {
+        if (canCallLeaf(state, 3)) {
+            PyObject ret = callLeaf(state, globals, new PyObject[] {arg1, arg2, arg3});
+            if (ret != null) {
+                return ret;
+            }
+        }
+        return super.call(state, arg1, arg2, arg3, globals, defaults, closure);
+    }
+
+    @Override
+    public PyObject call(ThreadState state, PyObject arg1, PyObject arg2, PyObject arg3,
+            PyObject arg4, PyObject globals, PyObject[] defaults, PyObject closure) {
+        if (canCallLeaf(state, 4)) {
+            PyObject ret = callLeaf(state, globals, new PyObject[] {arg1, arg2, arg3, arg4});
+            if (ret != null) {
+                return ret;
+            }
+        }
+        return super.call(state, arg1, arg2, arg3, arg4, globals, defaults, closure);
+    }
+
+    @Override
+    public PyObject call(ThreadState state, PyObject args[], String kws[], PyObject globals,
+            PyObject[] defs, PyObject closure) {
+        if (kws.length == 0 && canCallLeaf(state, args.length)) {
+            PyObject ret = callLeaf(state, globals, args);
+            if (ret != null) {
+                return ret;
+            }
+        }
+        return super.call(state, args, kws, globals, defs, closure);
+    }
+
+    /**
+     * Load a global or builtin name in the frameless form of a function: the equivalent of
+     * {@link PyFrame#getglobal(String)}, taking the builtins from the function's globals (see
+     * {@link #leafBuiltins(ThreadState, PyObject)}).
+     *
+     * @param ts the current thread state
+     * @param globals of the function
+     * @param name to look up (interned)
+     * @return the value found
+     */
+    public static PyObject leafGlobal(ThreadState ts, PyObject globals, String name) {
+        PyObject ret = globals.__finditem__(name);
+        if (ret == null && (ret = leafBuiltins(ts, globals).__finditem__(name)) == null) {
+            throw Py.NameError(String.format(PyFrame.GLOBAL_NAME_ERROR_MSG, name));
+        }
+        return ret;
+    }
+
+    /**
+     * The builtins of a function run in its frameless form: the {@code __builtins__} of its
+     * globals (the dictionary of a module, or a mapping), or if they have none, those of the
+     * calling frame.
+     */
+    private static PyObject leafBuiltins(ThreadState ts, PyObject globals) {
+        PyObject builtins = globals.__finditem__("__builtins__");
+        if (builtins instanceof PyModule) {
+            return ((PyModule)builtins).__dict__;
+        } else if (builtins != null) {
+            return builtins;
+        }
+        return ts.frame.getBuiltins();
+    }
+
+    /**
+     * Raise the error for a load of a local variable not yet assigned, in the frameless form of
+     * a function.
+     *
+     * @param name of the variable
+     * @return never returns normally
+     */
+    public static PyObject leafUnboundLocal(String name) {
+        throw Py.UnboundLocalError(String.format(PyFrame.UNBOUNDLOCAL_ERROR_MSG, name));
+    }
+
+    /**
+     * Handle an exception escaping the frameless form of a function, creating the frame it did
+     * not have so that it may be recorded in the traceback, as
+     * {@link #call(ThreadState, PyFrame, PyObject)} would have done.
+     *
+     * @param t the exception
+     * @param ts the current thread state
+     * @param globals of the function
+     * @param code of the function
+     * @param line being executed when the exception occurred
+     * @param locals values of the local variables (by index, {@code null} if unbound)
+     * @return the exception to throw
+     */
+    public static PyException leafException(Throwable t, ThreadState ts, PyObject globals,
+            PyTableCode code, int line, PyObject[] locals) {
+        PyException pye = Py.JavaError(t);
+        PyFrame frame = new PyFrame(code, globals);
+        frame.f_back = ts.frame;
+        frame.f_builtins = leafBuiltins(ts, globals);
+        if (frame.f_fastlocals != null) {
+            System.arraycopy(locals, 0, frame.f_fastlocals, 0, locals.length);
+        }
+        frame.f_lineno = line;
+        frame.f_lasti = -1;
+        pye.tracebackHere(frame);
+        return pye;
+    }
+
     @Override
     public PyObject call(ThreadState ts, PyFrame frame, PyObject closure) {
 //         System.err.println("tablecode call: "+co_name);
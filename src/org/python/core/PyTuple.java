@@ -26,6 +26,12 @@ public class PyTuple extends PySequenceList {
 
     private volatile List<PyObject> cachedList = null;
 
+    /**
+     * The hash of this tuple once computed, if every element has a hash that cannot change, or 0
+     * (see {@link #tuple___hash__()}).
+     */
+    private transient int cachedHash;
+
     public PyTuple() {
         this(TYPE, Py.EmptyObjects);
     }
@@ -34,10 +40,34 @@ public class PyTuple extends PySequenceList {
         this(TYPE, elements);
     }
 
+    /*
+     * Constructors for the commonest small tuples, which Java chooses over the variable arity
+     * constructor, so that the elements are stored without copying the array made for the call.
+     */
+
+    public PyTuple(PyObject e0) {
+        this(TYPE, new PyObject[] {e0}, false);
+    }
+
+    public PyTuple(PyObject e0, PyObject e1) {
+        this(TYPE, new PyObject[] {e0, e1}, false);
+    }
+
+    public PyTuple(PyObject e0, PyObject e1, PyObject e2) {
+        this(TYPE, new PyObject[] {e0, e1, e2}, false);
+    }
+
+    public PyTuple(PyObject e0, PyObject e1, PyObject e2, PyObject e3) {
+        this(TYPE, new PyObject[] {e0, e1, e2, e3}, false);
+    }
+
     public PyTuple(PyType subtype, PyObject[] elements) {
         super(subtype);
         if (elements == null) {
             array = new PyObject[0];
+        } else if (elements.length == 0) {
+            // An empty array cannot be changed, so it may be shared
+            array = elements;
         } else {
             array = new PyObject[elements.length];
             System.arraycopy(elements, 0, array, 0, elements.length);
@@ -278,20 +308,53 @@ public class PyTuple extends PySequenceList {
         return tuple___hash__();
     }
 
+    /**
+     * The hash of the tuple, combined from the hashes of its elements. If every element is of a
+     * type whose instances are immutable and hash by value (or is a tuple of such), the result is
+     * kept and returned by later calls without visiting the elements again. As with
+     * {@code String.hashCode}, a race to compute it does no harm, since every thread computes the
+     * same value.
+     */
     @ExposedMethod(doc = BuiltinDocs.tuple___hash___doc)
     final int tuple___hash__() {
+        int h = cachedHash;
+        if (h != 0) {
+            return h;
+        }
         // strengthened hash to avoid common collisions. from CPython
         // tupleobject.tuplehash. See http://bugs.python.org/issue942952
         int y;
         int len = size();
         int mult = 1000003;
         int x = 0x345678;
+        boolean fixed = true;
         while (--len >= 0) {
-            y = array[len].hashCode();
+            PyObject item = array[len];
+            y = item.hashCode();
             x = (x ^ y) * mult;
             mult += 82520 + len + len;
+            fixed = fixed && hasFixedHash(item);
         }
-        return x + 97531;
+        h = x + 97531;
+        if (fixed) {
+            cachedHash = h;
+        }
+        return h;
+    }
+
+    /**
+     * Whether the hash of an object (already computed) cannot change: true for the immutable
+     * built-in types that hash by value, but not for their subclasses, which may define
+     * {@code __hash__}.
+     */
+    private static boolean hasFixedHash(PyObject item) {
+        Class<?> c = item.getClass();
+        if (c == PyTuple.class) {
+            return ((PyTuple)item).cachedHash != 0;
+        }
+        return c == PyString.class || c == PyInteger.class || c == PyLong.class
+                || c == PyUnicode.class || c == PyFloat.class || c == PyBoolean.class
+                || c == PyNone.class || c == PyComplex.class;
     }
 
     private String subobjRepr(PyObject o) {
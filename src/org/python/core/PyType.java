@@ -15,6 +15,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.python.antlr.ast.cmpopType;
 import org.python.expose.ExposeAsSuperclass;
@@ -106,6 +107,15 @@ public class PyType extends PyObject implements Serializable, Traverseproc {
     /** The real, internal __dict__. */
     protected PyObject dict;
 
+    /**
+     * The builder of an exposed type whose {@link #dict} has not yet been built, or
+     * <code>null</code>. See {@link #fastGetDict()}.
+     */
+    private volatile TypeBuilder pendingBuilder;
+
+    /** Whether {@link #exposeDict()} is building the dict of this type. */
+    private boolean exposing;
+
     /** __mro__, the method resolution. order */
     protected PyObject[] mro;
 
@@ -148,6 +158,9 @@ public class PyType extends PyObject implements Serializable, Traverseproc {
     /** MethodCacheEntry version tag. */
     private volatile Object versionTag = new Object();
 
+    /** Results of {@link #lookupSpecial(String)}, replaced (never modified) on a miss. */
+    private volatile SpecialMethods specialMethods = SpecialMethods.EMPTY;
+
     /** The number of __slots__ defined by this type + bases. */
     private int numSlots;
 
@@ -766,7 +779,7 @@ public class PyType extends PyObject implements Serializable, Traverseproc {
             findSlottedAncestors(tp.base, dest, slotsMap);
         }
         baseEnd = dest.size();
-        PyObject slots = tp.dict.__finditem__("__slots__");
+        PyObject slots = tp.fastGetDict().__finditem__("__slots__");
         if (slots != null) {
             dest.add(tp); // to keep track of order
             slotsMap.put(tp, slots);
@@ -1177,27 +1190,93 @@ public class PyType extends PyObject implements Serializable, Traverseproc {
 
             // The builder supplies the name and collection of exposed methods and properties
             name = builder.getName();
-            dict = builder.getDict(this);
-            String doc = builder.getDoc();
-
-            // Create a doc string if we don't have one already.
-            if (dict.__finditem__("__doc__") == null) {
-                PyObject docObj;
-                if (doc != null) {
-                    // Not PyString(doc) as PyString.TYPE may be null during bootstrapping.
-                    docObj = new PyString(Constant.PYSTRING, doc);
-                } else {
-                    // Not Py.None to avoid load & init of Py module and all its constants.
-                    docObj = PyNone.getInstance();
+            setIsBaseType(builder.getIsBaseType());
+            String[] names = builder.getNames();
+            if (names == null) {
+                dict = buildDict(builder);
+                needs_userdict = dict.__finditem__("__dict__") != null;
+                instantiable = dict.__finditem__("__new__") != null;
+            } else {
+                /*
+                 * The builder knows the names it will expose, which is all we need for now: the
+                 * dict (and the classes exposing its methods and properties) waits until it is
+                 * first consulted. Many types are never looked into from Python.
+                 */
+                List<String> exposed = Arrays.asList(names);
+                needs_userdict = exposed.contains("__dict__");
+                instantiable = exposed.contains("__new__");
+                pendingBuilder = builder;
+            }
+            cacheDescrBinds();
+        }
+    }
+
+    /** Build the dict of an exposed type with the given builder. */
+    private PyObject buildDict(TypeBuilder builder) {
+        PyObject dict = builder.getDict(this);
+        String doc = builder.getDoc();
+
+        // Create a doc string if we don't have one already.
+        if (dict.__finditem__("__doc__") == null) {
+            PyObject docObj;
+            if (doc != null) {
+                // Not PyString(doc) as PyString.TYPE may be null during bootstrapping.
+                docObj = new PyString(Constant.PYSTRING, doc);
+            } else {
+                // Not Py.None to avoid load & init of Py module and all its constants.
+                docObj = PyNone.getInstance();
+            }
+            dict.__setitem__("__doc__", docObj);
+        }
+        return dict;
+    }
+
+    /**
+     * Build the dict of this type from {@link #pendingBuilder}, if that has not been done. The lock
+     * is that of the registry, since building the dict may create further types. If the building
+     * calls back here, the dict is still <code>null</code>, as it would be during {@link #init}.
+     *
+     * @return the dict
+     */
+    private PyObject exposeDict() {
+        synchronized (Registry.class) {
+            TypeBuilder builder = pendingBuilder;
+            if (builder != null && !exposing) {
+                exposing = true;
+                try {
+                    dict = buildDict(builder);
+                    pendingBuilder = null;
+                } finally {
+                    exposing = false;
                 }
-                dict.__setitem__("__doc__", docObj);
             }
+            return dict;
+        }
+    }
 
-            setIsBaseType(builder.getIsBaseType());
-            needs_userdict = dict.__finditem__("__dict__") != null;
-            instantiable = dict.__finditem__("__new__") != null;
-            cacheDescrBinds();
+    /**
+     * Whether the dict of a type in the MRO of this type defines the given name. Unlike
+     * {@link #lookup_mro(String)}, this does not build the dicts of exposed types.
+     */
+    private boolean mroDefines(String name) {
+        PyObject[] mro = this.mro;
+        if (mro == null) {
+            return false;
+        }
+        for (PyObject t : mro) {
+            TypeBuilder builder = t instanceof PyType ? ((PyType) t).pendingBuilder : null;
+            if (builder != null) {
+                if (Arrays.asList(builder.getNames()).contains(name)) {
+                    return true;
+                }
+            } else {
+                PyObject dict = t.fastGetDict();
+                if (dict != null && dict.__finditem__(name) != null) {
+                    return true;
+                }
+            }
         }
+        return false;
     }
 
     /**
@@ -1222,9 +1301,9 @@ public class PyType extends PyObject implements Serializable, Traverseproc {
      * Determine if this type is a descriptor, and if so what kind.
      */
     private void cacheDescrBinds() {
-        hasGet = lookup_mro("__get__") != null;
-        hasSet = lookup_mro("__set__") != null;
-        hasDelete = lookup_mro("__delete__") != null;
+        hasGet = mroDefines("__get__");
+        hasSet = mroDefines("__set__");
+        hasDelete = mroDefines("__delete__");
     }
 
     public PyObject getStatic() {
@@ -1970,6 +2049,29 @@ public class PyType extends PyObject implements Serializable, Traverseproc {
         return lookup_where(name, null);
     }
 
+    /**
+     * Attribute lookup for the name of a special method, such as {@code __add__}, through mro
+     * objects' dicts. The result is cached on this type until it or one of its bases is modified,
+     * which spares the Derived classes a trip through the global method cache on each operator.
+     *
+     * @param name special method name (must be interned)
+     * @return found object or null
+     */
+    public PyObject lookupSpecial(String name) {
+        Object tag = versionTag;
+        SpecialMethods cache = specialMethods;
+        if (cache.versionTag == tag) {
+            int index = cache.indexOf(name);
+            if (index >= 0) {
+                return cache.values[index];
+            }
+        }
+        // Cache by the version before the lookup, so a concurrent change leaves a stale entry
+        PyObject value = lookup_where_mro(name, null);
+        specialMethods = cache.with(tag, name, value);
+        return value;
+    }
+
     /**
      * Attribute lookup for name directly through mro objects' dicts. This isn't cached, and should
      * generally only be used during the bootstrapping of a type.
@@ -2379,6 +2481,7 @@ public class PyType extends PyObject implements Serializable, Traverseproc {
             @Override
             public boolean onType(PyType type) {
                 type.versionTag = new Object();
+                type.specialMethods = SpecialMethods.EMPTY;
                 return false;
             }
         });
@@ -2464,13 +2567,13 @@ public class PyType extends PyObject implements Serializable, Traverseproc {
      */
     @Override
     public PyObject fastGetDict() {
-        return dict;
+        return pendingBuilder == null ? dict : exposeDict();
     }
 
     @ExposedGet(name = "__dict__")
     @Override
     public PyObject getDict() {
-        return new PyDictProxy(dict);
+        return new PyDictProxy(fastGetDict());
     }
 
     @Override
@@ -2493,7 +2596,7 @@ public class PyType extends PyObject implements Serializable, Traverseproc {
      */
     @ExposedGet(name = "__doc__")
     public PyObject getDoc() {
-        PyObject doc = dict.__finditem__("__doc__");
+        PyObject doc = fastGetDict().__finditem__("__doc__");
         if (doc == null) {
             return Py.None;
         }
@@ -2508,6 +2611,14 @@ public class PyType extends PyObject implements Serializable, Traverseproc {
         this.usesObjectGetattribute = usesObjectGetattribute;
     }
 
+    /**
+     * The current version tag of this type, replaced by {@link #invalidateMethodCache()}. Caches
+     * of lookups on this type (see {@link AttributeSite}) remain valid while it is unchanged.
+     */
+    Object getVersionTag() {
+        return versionTag;
+    }
+
     @Override
     public Object __tojava__(Class<?> c) {
         if (underlying_class != null
@@ -2536,7 +2647,7 @@ public class PyType extends PyObject implements Serializable, Traverseproc {
 
     @ExposedGet(name = "__abstractmethods__")
     public PyObject getAbstractmethods() {
-        PyObject result = dict.__finditem__("__abstractmethods__");
+        PyObject result = fastGetDict().__finditem__("__abstractmethods__");
         if (result == null || result instanceof PyDataDescr) {
             noAttributeError("__abstractmethods__");
         }
@@ -2549,7 +2660,7 @@ public class PyType extends PyObject implements Serializable, Traverseproc {
          * __abstractmethods__ should only be set once on a type, in abc.ABCMeta.__new__, so this
          * function doesn't do anything special to update subclasses
          */
-        dict.__setitem__("__abstractmethods__", value);
+        fastGetDict().__setitem__("__abstractmethods__", value);
         postSetattr("__abstractmethods__");
         tp_flags = value.__nonzero__() ? tp_flags | Py.TPFLAGS_IS_ABSTRACT
                 : tp_flags & ~Py.TPFLAGS_IS_ABSTRACT;
@@ -2768,6 +2879,14 @@ public class PyType extends PyObject implements Serializable, Traverseproc {
         /** Size of the cache exponent (2 ** SIZE_EXP). */
         private static final int SIZE_EXP = 12;
 
+        /** Whether lookups are counted (see {@link RegistryKey#PYTHON_METRICS_METHOD_CACHE}). */
+        static final boolean COUNTED = Boolean.parseBoolean(
+                PrePy.getSystemProperty(RegistryKey.PYTHON_METRICS_METHOD_CACHE, "false"));
+
+        /** Counts of lookups, for {@link RuntimeMetrics}, kept if {@link #COUNTED}. */
+        static final LongAdder hits = new LongAdder(), misses = new LongAdder(),
+                collisions = new LongAdder();
+
         public MethodCache() {
             table = new AtomicReferenceArray<MethodCacheEntry>(1 << SIZE_EXP);
             clear();
@@ -2786,8 +2905,17 @@ public class PyType extends PyObject implements Serializable, Traverseproc {
             MethodCacheEntry entry = table.get(index);
 
             if (entry.isValid(versionTag, name)) {
+                if (COUNTED) {
+                    hits.increment();
+                }
                 return entry.get(where);
             }
+            if (COUNTED) {
+                misses.increment();
+                if (entry != MethodCacheEntry.EMPTY) {
+                    collisions.increment();
+                }
+            }
 
             // Always cache where
             if (where == null) {
@@ -2862,6 +2990,86 @@ public class PyType extends PyObject implements Serializable, Traverseproc {
         }
     }
 
+    /**
+     * A small open-addressed table of special method lookups, valid for one version tag of a type.
+     * Values may be null, recording that the name was not found.
+     */
+    static final class SpecialMethods {
+
+        static final SpecialMethods EMPTY = new SpecialMethods(null, 0);
+
+        /** The PyType.versionTag of the type when the values were looked up. */
+        final Object versionTag;
+
+        /** Interned names, indexed by hash; at least half of the slots are empty. */
+        final String[] names;
+
+        final PyObject[] values;
+
+        private final int size;
+
+        private SpecialMethods(Object versionTag, int capacity) {
+            this.versionTag = versionTag;
+            this.names = new String[capacity];
+            this.values = new PyObject[capacity];
+            this.size = 0;
+        }
+
+        private SpecialMethods(Object versionTag, SpecialMethods from, String name,
+                PyObject value) {
+            int capacity = 8;
+            while (capacity < (from.size + 1) * 2) {
+                capacity <<= 1;
+            }
+            this.versionTag = versionTag;
+            this.names = new String[capacity];
+            this.values = new PyObject[capacity];
+            for (int i = 0; i < from.names.length; i++) {
+                if (from.names[i] != null) {
+                    put(from.names[i], from.values[i]);
+                }
+            }
+            put(name, value);
+            this.size = from.size + 1;
+        }
+
+        /** The index of name in the table, or -1 if it is absent. */
+        int indexOf(String name) {
+            String[] names = this.names;
+            if (names.length == 0) {
+                return -1;
+            }
+            int mask = names.length - 1;
+            for (int i = name.hashCode() & mask;; i = (i + 1) & mask) {
+                String n = names[i];
+                if (n == name) {
+                    return i;
+                } else if (n == null) {
+                    return -1;
+                }
+            }
+        }
+
+        /** A copy of this table (or an empty one if the version differs) with name added. */
+        SpecialMethods with(Object versionTag, String name, PyObject value) {
+            SpecialMethods from = this.versionTag == versionTag ? this : EMPTY;
+            if (from.indexOf(name) >= 0) {
+                return from;
+            }
+            return new SpecialMethods(versionTag, from, name, value);
+        }
+
+        private void put(String name, PyObject value) {
+            int mask = names.length - 1;
+            int i = name.hashCode() & mask;
+            while (names[i] != null) {
+                i = (i + 1) & mask;
+            }
+            names[i] = name;
+            values[i] = value;
+        }
+    }
+
     /* Traverseproc implementation */
     @Override
     public int traverse(Visitproc visit, Object arg) {
@@ -3,7 +3,12 @@
 // Licensed to PSF under a Contributor Agreement.
 package org.python.core;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 
 /** Map the signature of a method to the {@code Method} itself, within the context of a given simple name. This is used in support of signature polymorphism in Java methods and constructors reflected into Python. **/
 public class ReflectedArgs {
@@ -22,6 +27,23 @@ public class ReflectedArgs {
 
     public int flags;
 
+    /**
+     * Calls {@link #method} (when it is a {@code Method}) with the signature
+     * {@code (Object self, Object[] args)Object}. Created on first use by {@link #invoke}.
+     */
+    private MethodHandle invoker;
+
+    /** {@code Method.invoke} as a handle, used for methods we may not access by a lookup. */
+    private static final MethodHandle METHOD_INVOKE;
+    static {
+        try {
+            METHOD_INVOKE = MethodHandles.lookup().findVirtual(Method.class, "invoke",
+                    MethodType.methodType(Object.class, Object.class, Object[].class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     public static final int StandardCall = 0;
 
     public static final int PyArgsCall = 1;
@@ -157,6 +179,43 @@ public class ReflectedArgs {
         return true;
     }
 
+    /**
+     * Call the method this signature describes, which must be a {@code Method}, with arguments
+     * already converted by {@link #matches(PyObject, PyObject[], String[], ReflectedCallData)}.
+     * The call is made through a {@code MethodHandle} where the method is accessible to one, and
+     * otherwise by reflection, when exceptions from the method arrive wrapped in an
+     * {@code InvocationTargetException}.
+     *
+     * @param self the target (ignored if the method is static)
+     * @param javaArgs the arguments
+     * @return the result, or {@code null} if the method is {@code void}
+     * @throws Throwable anything the method throws
+     */
+    Object invoke(Object self, Object[] javaArgs) throws Throwable {
+        MethodHandle mh = invoker;
+        if (mh == null) {
+            invoker = mh = makeInvoker((Method)method);
+        }
+        return mh.invokeExact(self, javaArgs);
+    }
+
+    private static MethodHandle makeInvoker(Method m) {
+        MethodHandle mh;
+        try {
+            mh = MethodHandles.lookup().unreflect(m).asFixedArity();
+        } catch (IllegalAccessException | RuntimeException e) {
+            return METHOD_INVOKE.bindTo(m);
+        }
+        int n = m.getParameterTypes().length;
+        if (Modifier.isStatic(m.getModifiers())) {
+            mh = MethodHandles.dropArguments(mh.asType(MethodType.genericMethodType(n)), 0,
+                    Object.class);
+        } else {
+            mh = mh.asType(MethodType.genericMethodType(n + 1));
+        }
+        return mh.asSpreader(Object[].class, n);
+    }
+
     /* Boxes argument in the varargs position if not already boxed */
     private PyObject[] ensureBoxedVarargs(PyObject[] pyArgs, int n) {
         if (pyArgs.length == 0) {
@@ -43,6 +43,97 @@ public class RegistryKey {
      */
     public static final String PYTHON_DIVISION_WARNING = "python.division.warning";
 
+    /**
+     * If {@code python.compiler.indyAttributes} is true, Python source is compiled so that
+     * attribute access and method calls ({@code obj.attr}, {@code obj.attr = v},
+     * {@code obj.method(...)}) use {@code invokedynamic} call sites with inline caches guarded by
+     * the receiver's type. Boolean, false by default.
+     */
+    public static final String PYTHON_COMPILER_INDY_ATTRIBUTES = "python.compiler.indyAttributes";
+
+    /**
+     * If {@code python.compiler.indyGlobals} is true, Python source is compiled so that each load
+     * of a global or builtin name uses an {@code invokedynamic} call site that caches the value
+     * until the module's globals or the builtins change. Boolean, false by default.
+     */
+    public static final String PYTHON_COMPILER_INDY_GLOBALS = "python.compiler.indyGlobals";
+
+    /**
+     * If {@code python.compiler.lazyFrames} is true, Python source is compiled so that
+     * functions that make no calls, and have no nested scopes, exception handlers or
+     * {@code exec}, run without a frame object unless one is needed for a traceback. Such a
+     * function does not appear in {@code sys._getframe()} or the {@code f_back} chain while it
+     * runs. Boolean, false by default.
+     */
+    public static final String PYTHON_COMPILER_LAZY_FRAMES = "python.compiler.lazyFrames";
+
+    /**
+     * If {@code python.compiler.optimizeAst} is true, Python source is simplified before code is
+     * generated for it: constant arithmetic and string expressions are folded, {@code if 0:} and
+     * {@code if __debug__:} are resolved at compile time, statements after a {@code return},
+     * {@code raise}, {@code break} or {@code continue} are dropped, and tuples of constants, and
+     * the literal lists or tuples searched by {@code in}, are built once per module. Code that
+     * cannot run is kept if it may be a syntax error (a {@code return} or {@code yield} outside a
+     * function, or a {@code break} outside a loop, for example), so that the error is reported as
+     * without this option. Boolean, false by default.
+     */
+    public static final String PYTHON_COMPILER_OPTIMIZE_AST = "python.compiler.optimizeAst";
+
+    /**
+     * If {@code python.compiler.codeCache} is true, the classes compiled from scripts given as
+     * strings (to {@code PythonInterpreter.exec} and {@code compile}, the JSR-223 engine,
+     * {@code exec} and {@code compile()}) are kept in the directory {@code code} under
+     * {@link #PYTHON_CACHEDIR}, and used again by later runs that compile the same script (see
+     * {@link CodeCache}). Boolean, false by default.
+     */
+    public static final String PYTHON_COMPILER_CODE_CACHE = "python.compiler.codeCache";
+
+    /**
+     * {@code python.compiler.codeCache.minLength} is the length in characters below which a
+     * script is not kept in the {@link CodeCache}, as it costs little to compile again. Scripts
+     * compiled as expressions (by {@code eval}) are never kept. Integer, 200 by default.
+     */
+    public static final String PYTHON_COMPILER_CODE_CACHE_MIN_LENGTH =
+            "python.compiler.codeCache.minLength";
+
+    /**
+     * {@code python.compiler.codeCache.maxSize} is the size in kilobytes beyond which the
+     * {@link CodeCache} deletes the entries least recently used, until it is down to three
+     * quarters of the size. Integer, 65536 (64MB) by default.
+     */
+    public static final String PYTHON_COMPILER_CODE_CACHE_MAX_SIZE =
+            "python.compiler.codeCache.maxSize";
+
+    /**
+     * If {@code python.metrics.jmx} is true, the counts and times kept by {@link RuntimeMetrics}
+     * are published to the platform MBean server as {@value RuntimeMetrics#OBJECT_NAME} when the
+     * runtime is initialised. Boolean, false by default.
+     */
+    public static final String PYTHON_METRICS_JMX = "python.metrics.jmx";
+
+    /**
+     * If {@code python.metrics.methodCache} is true, {@link RuntimeMetrics} counts the hits, misses
+     * and collisions of the method cache of {@link PyType}, which otherwise read as zero. Counting
+     * adds to every attribute lookup on a type, and the cache is in use before the registry is
+     * read, so this is only read from the Java system properties. Boolean, false by default.
+     */
+    public static final String PYTHON_METRICS_METHOD_CACHE = "python.metrics.methodCache";
+
+    /**
+     * If {@code python.profile.sampling.file} is set, the {@link SamplingProfiler} is started when
+     * the runtime is initialised, and the stacks it sampled are written to the named file, in
+     * collapsed-stack form, when the JVM exits. Not set by default.
+     */
+    public static final String PYTHON_PROFILE_SAMPLING_FILE = "python.profile.sampling.file";
+
+    /**
+     * {@code python.profile.sampling.interval} is the interval in milliseconds between the samples
+     * taken by the profiler started through {@link #PYTHON_PROFILE_SAMPLING_FILE}. Integer, 10 by
+     * default.
+     */
+    public static final String PYTHON_PROFILE_SAMPLING_INTERVAL =
+            "python.profile.sampling.interval";
+
     /**
      * {@code python.console} names the class used for the Jython console. Jython ships with a JLine
      * console (http://jline.sourceforge.net/) out of the box. This is selected by default in the
@@ -78,6 +169,21 @@ public class RegistryKey {
      */
     public static final String PYTHON_IMPORT_SITE = "python.import.site";
 
+    /**
+     * If {@code python.import.directoryCache} is true, the names in the directories searched for
+     * modules are cached, so that an import that will not find a module in a directory does not
+     * have to probe it for each form the module might take (see {@link DirectoryCache}). Boolean,
+     * true by default.
+     */
+    public static final String PYTHON_IMPORT_DIRECTORY_CACHE = "python.import.directoryCache";
+
+    /**
+     * If {@code python.import.shareCode} is true, a module compiled to the same class, from the
+     * same file, is defined once for all the interpreters in the JVM, which share its code but not
+     * the module (see {@link ModuleCodeCache}). Boolean, false by default.
+     */
+    public static final String PYTHON_IMPORT_SHARE_CODE = "python.import.shareCode";
+
     /**
      * When {@code python.inspect} is set, and a script given on the command line finishes, start an
      * interactive interpreter. Any non-empty string value will enable this behaviour.
@@ -0,0 +1,183 @@
+package org.python.core;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.python.core.finalization.FinalizeTrigger;
+
+/**
+ * Counts and times of work done inside the runtime, for diagnosing where an application spends
+ * its time without attaching a profiler. The values may be read from Python as a dictionary
+ * returned by {@code sys._jython_metrics()}, and, if {@link Options#metricsJmx} is set, from a
+ * JMX client as the attributes of the MBean {@value #OBJECT_NAME}.
+ * <p>
+ * The counters are {@code LongAdder}s, so that threads counting at the same time do not contend.
+ * Most of them are kept here and incremented by the code they measure. Those of the method cache,
+ * of thread states and of finalize triggers are kept by the classes concerned and only read here.
+ */
+public final class RuntimeMetrics implements RuntimeMetricsMBean {
+
+    /** The name under which the MBean is registered. */
+    public static final String OBJECT_NAME = "org.python:type=RuntimeMetrics";
+
+    private static final RuntimeMetrics INSTANCE = new RuntimeMetrics();
+
+    static final LongAdder imports = new LongAdder();
+    static final LongAdder importNanos = new LongAdder();
+    static final LongAdder compiles = new LongAdder();
+    static final LongAdder compileNanos = new LongAdder();
+    static final LongAdder overloadResolutions = new LongAdder();
+    static final LongAdder importStatsSaved = new LongAdder();
+    static final LongAdder importDirectoryListings = new LongAdder();
+    static final LongAdder sharedModuleCodeHits = new LongAdder();
+
+    /** Depth of imports in progress on each thread, so that only the outermost is timed. */
+    private static final ThreadLocal<int[]> importDepth = new ThreadLocal<int[]>() {
+
+        @Override
+        protected int[] initialValue() {
+            return new int[1];
+        }
+    };
+
+    /** Returned by {@link #startImport()} for an import within another. */
+    private static final long NESTED = Long.MIN_VALUE;
+
+    private RuntimeMetrics() {}
+
+    /** The single instance, which reads the counters of the whole runtime. */
+    public static RuntimeMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Register the MBean with the platform MBean server, unless it is registered already (for
+     * example by another Jython runtime in the same JVM).
+     *
+     * @return whether the MBean is now registered
+     */
+    public static boolean register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+            return true;
+        } catch (InstanceAlreadyExistsException e) {
+            return true;
+        } catch (JMException | SecurityException e) {
+            Py.writeWarning("metrics", "cannot register " + OBJECT_NAME + ": " + e);
+            return false;
+        }
+    }
+
+    /**
+     * Note the start of an import, returning a value to pass to {@link #endImport(long)} when it
+     * completes, normally or not.
+     */
+    static long startImport() {
+        return importDepth.get()[0]++ == 0 ? System.nanoTime() : NESTED;
+    }
+
+    /** Count an import begun with {@link #startImport()} and, if outermost, add its time. */
+    static void endImport(long start) {
+        importDepth.get()[0]--;
+        imports.increment();
+        if (start != NESTED) {
+            importNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /** Record a compilation that took the given time, measured with {@code System.nanoTime()}. */
+    static void recordCompile(long nanos) {
+        compiles.increment();
+        compileNanos.add(nanos);
+    }
+
+    @Override
+    public long getMethodCacheHits() {
+        return PyType.MethodCache.hits.sum();
+    }
+
+    @Override
+    public long getMethodCacheMisses() {
+        return PyType.MethodCache.misses.sum();
+    }
+
+    @Override
+    public long getMethodCacheCollisions() {
+        return PyType.MethodCache.collisions.sum();
+    }
+
+    @Override
+    public int getLiveThreadStates() {
+        return ThreadStateMapping.liveCount();
+    }
+
+    @Override
+    public long getImports() {
+        return imports.sum();
+    }
+
+    @Override
+    public long getImportTimeNanos() {
+        return importNanos.sum();
+    }
+
+    @Override
+    public long getCompiles() {
+        return compiles.sum();
+    }
+
+    @Override
+    public long getCompileTimeNanos() {
+        return compileNanos.sum();
+    }
+
+    @Override
+    public long getOverloadResolutions() {
+        return overloadResolutions.sum();
+    }
+
+    @Override
+    public long getImportStatsSaved() {
+        return importStatsSaved.sum();
+    }
+
+    @Override
+    public long getImportDirectoryListings() {
+        return importDirectoryListings.sum();
+    }
+
+    @Override
+    public long getSharedModuleCodeHits() {
+        return sharedModuleCodeHits.sum();
+    }
+
+    @Override
+    public long getPendingFinalizeTriggers() {
+        return FinalizeTrigger.pendingCount();
+    }
+
+    /** The current values, keyed by the attribute names of the MBean, as a Python dictionary. */
+    public PyDictionary asDictionary() {
+        PyDictionary d = new PyDictionary();
+        d.__setitem__("MethodCacheHits", Py.newInteger(getMethodCacheHits()));
+        d.__setitem__("MethodCacheMisses", Py.newInteger(getMethodCacheMisses()));
+        d.__setitem__("MethodCacheCollisions", Py.newInteger(getMethodCacheCollisions()));
+        d.__setitem__("LiveThreadStates", Py.newInteger(getLiveThreadStates()));
+        d.__setitem__("Imports", Py.newInteger(getImports()));
+        d.__setitem__("ImportTimeNanos", Py.newInteger(getImportTimeNanos()));
+        d.__setitem__("Compiles", Py.newInteger(getCompiles()));
+        d.__setitem__("CompileTimeNanos", Py.newInteger(getCompileTimeNanos()));
+        d.__setitem__("OverloadResolutions", Py.newInteger(getOverloadResolutions()));
+        d.__setitem__("ImportStatsSaved", Py.newInteger(getImportStatsSaved()));
+        d.__setitem__("ImportDirectoryListings", Py.newInteger(getImportDirectoryListings()));
+        d.__setitem__("SharedModuleCodeHits", Py.newInteger(getSharedModuleCodeHits()));
+        d.__setitem__("PendingFinalizeTriggers", Py.newInteger(getPendingFinalizeTriggers()));
+        return d;
+    }
+}
@@ -0,0 +1,59 @@
+package org.python.core;
+
+/**
+ * The attributes of {@link RuntimeMetrics} published through JMX. Counts and times are totals
+ * since the runtime started; times are in nanoseconds.
+ */
+public interface RuntimeMetricsMBean {
+
+    /**
+     * Lookups of a type attribute answered by the method cache. This and the other method cache
+     * counts are zero unless {@link RegistryKey#PYTHON_METRICS_METHOD_CACHE} is set.
+     */
+    long getMethodCacheHits();
+
+    /** Lookups of a type attribute that had to search the MRO. */
+    long getMethodCacheMisses();
+
+    /** Misses that found the cache slot holding an entry for another type or name. */
+    long getMethodCacheCollisions();
+
+    /** ThreadStates whose thread is alive and whose system state has not been collected. */
+    int getLiveThreadStates();
+
+    /** Imports not satisfied from {@code sys.modules}. */
+    long getImports();
+
+    /**
+     * Time spent in the imports counted by {@link #getImports()}, counting an import made while
+     * another is in progress on the same thread only as part of the outer one.
+     */
+    long getImportTimeNanos();
+
+    /**
+     * File system probes made unnecessary by the {@link DirectoryCache}, net of the checks of
+     * directory modification times that replaced them.
+     */
+    long getImportStatsSaved();
+
+    /** Directories listed by the {@link DirectoryCache}. */
+    long getImportDirectoryListings();
+
+    /** Modules whose code was found in the {@link ModuleCodeCache}, rather than defined again. */
+    long getSharedModuleCodeHits();
+
+    /** Parse trees compiled to code by {@link CompilerFacade}. */
+    long getCompiles();
+
+    /** Time spent in the compilations counted by {@link #getCompiles()}. */
+    long getCompileTimeNanos();
+
+    /**
+     * Calls of overloaded Java methods for which an overload was chosen among several and
+     * remembered for later calls with arguments of the same types.
+     */
+    long getOverloadResolutions();
+
+    /** Finalize triggers made whose object has not yet been finalized. */
+    long getPendingFinalizeTriggers();
+}
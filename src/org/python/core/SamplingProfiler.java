@@ -0,0 +1,260 @@
+package org.python.core;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A profiler that attributes time to Python functions by sampling, rather than by a hook on every
+ * call as {@code sys.setprofile} does. While it runs, a daemon thread wakes at a fixed interval and
+ * walks the frame chain of each live {@link ThreadState}, counting how often each distinct stack is
+ * seen. The threads being profiled do no extra work, so the profiler may be left running in
+ * production. (A Java profiler sees only the frames of the interpreter and of compiled code, and
+ * so cannot tell which Python function is running.)
+ * <p>
+ * The counts are reported in the collapsed-stack format read by flame graph tools: one line per
+ * stack, the frames from outermost to innermost separated by {@code ;}, then a space and the
+ * number of samples. A frame is written as {@code name (filename:line)}.
+ * <p>
+ * A frame is read without synchronising with the thread that runs it, so a sample may show a line
+ * number that is slightly out of date. Functions compiled with {@link Options#lazyFrames} have no
+ * frame unless they need one, and are counted against their caller.
+ * <p>
+ * From Python, the profiler is controlled through the module {@code _jyprofiler}. Setting the
+ * registry key {@code python.profile.sampling.file} starts it with the runtime and writes the
+ * stacks to that file when the JVM exits.
+ */
+public final class SamplingProfiler {
+
+    /** The interval between samples, in milliseconds, if none is given. */
+    public static final int DEFAULT_INTERVAL = 10;
+
+    /** Frames of a stack deeper than this are not recorded (the innermost are dropped). */
+    private static final int MAX_DEPTH = 256;
+
+    /** Guards {@link #sampler} and {@link #counts}. */
+    private static final Object lock = new Object();
+
+    /** The sampling thread, or {@code null} if not running. */
+    private static Sampler sampler;
+
+    /** Samples of each collapsed stack since the profile was last cleared. */
+    private static final Map<String, long[]> counts = new HashMap<String, long[]>();
+
+    /** The number of samples taken since the profile was last cleared. */
+    private static long samples;
+
+    private SamplingProfiler() {}
+
+    /**
+     * Start sampling every {@code interval} milliseconds, adding to any profile already collected.
+     * If the profiler is running already, only its interval changes.
+     */
+    public static void start(int interval) {
+        if (interval <= 0) {
+            throw Py.ValueError("sampling interval must be positive");
+        }
+        synchronized (lock) {
+            if (sampler != null) {
+                sampler.interval = interval;
+                return;
+            }
+            sampler = new Sampler(interval);
+            sampler.start();
+        }
+    }
+
+    /** Stop sampling, keeping the profile collected so far. */
+    public static void stop() {
+        Sampler s;
+        synchronized (lock) {
+            s = sampler;
+            sampler = null;
+        }
+        if (s != null) {
+            s.interrupt();
+            try {
+                s.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public static boolean isRunning() {
+        synchronized (lock) {
+            return sampler != null;
+        }
+    }
+
+    /** Discard the profile collected so far. */
+    public static void clear() {
+        synchronized (lock) {
+            counts.clear();
+            samples = 0;
+        }
+    }
+
+    /** The number of stacks sampled since the profile was last cleared. */
+    public static long getSampleCount() {
+        synchronized (lock) {
+            return samples;
+        }
+    }
+
+    /** The profile collected so far, as collapsed stacks in order of the stack. */
+    public static String collapsed() {
+        Map<String, long[]> sorted;
+        synchronized (lock) {
+            sorted = new TreeMap<String, long[]>(counts);
+        }
+        StringBuilder out = new StringBuilder();
+        for (Map.Entry<String, long[]> e : sorted.entrySet()) {
+            out.append(e.getKey()).append(' ').append(e.getValue()[0]).append('\n');
+        }
+        return out.toString();
+    }
+
+    /** Write the profile collected so far, as collapsed stacks, to the named file. */
+    public static void write(String filename) throws IOException {
+        try (Writer w = new OutputStreamWriter(new FileOutputStream(new File(filename)),
+                StandardCharsets.UTF_8)) {
+            w.write(collapsed());
+        }
+    }
+
+    /**
+     * Start the profiler as the registry asks, arranging for the profile to be written when the
+     * JVM exits. Called when the runtime is initialised.
+     */
+    static void startFromRegistry() {
+        final String filename = Options.profileFile;
+        if (filename == null || isRunning()) {
+            return;
+        }
+        start(Options.profileInterval);
+        try {
+            Runtime.getRuntime().addShutdownHook(new Thread("Jython Profile Writer") {
+
+                @Override
+                public void run() {
+                    SamplingProfiler.stop();
+                    try {
+                        write(filename);
+                    } catch (IOException e) {
+                        Py.writeWarning("profiler",
+                                "cannot write profile to " + filename + ": " + e);
+                    }
+                }
+            });
+        } catch (SecurityException e) {
+            Py.writeDebug("profiler", "cannot register hook to write the profile");
+        }
+    }
+
+    /** Take one sample of every thread running Python code, other than the caller. */
+    static void sample() {
+        Thread self = Thread.currentThread();
+        List<String> stacks = new ArrayList<String>();
+        StringBuilder buf = new StringBuilder();
+        List<PyFrame> chain = new ArrayList<PyFrame>();
+        for (ThreadState ts : ThreadStateMapping.liveThreadStates(self)) {
+            PyFrame f = ts.frame;
+            if (f == null) {
+                continue;
+            }
+            chain.clear();
+            for (; f != null && chain.size() < MAX_DEPTH; f = f.f_back) {
+                chain.add(f);
+            }
+            buf.setLength(0);
+            for (int i = chain.size() - 1; i >= 0; i--) {
+                appendFrame(buf, chain.get(i));
+                if (i > 0) {
+                    buf.append(';');
+                }
+            }
+            stacks.add(buf.toString());
+        }
+        synchronized (lock) {
+            for (String stack : stacks) {
+                long[] n = counts.get(stack);
+                if (n == null) {
+                    counts.put(stack, new long[] {1});
+                } else {
+                    n[0]++;
+                }
+            }
+            samples += stacks.size();
+        }
+    }
+
+    private static void appendFrame(StringBuilder buf, PyFrame f) {
+        PyCode code = f.f_code;
+        if (code == null) {
+            buf.append('?');
+            return;
+        }
+        String filename = code instanceof PyBaseCode ? ((PyBaseCode) code).co_filename : null;
+        int line;
+        try {
+            line = f.getline();
+        } catch (RuntimeException e) {
+            // The frame changed under us
+            line = 0;
+        }
+        buf.append(clean(code.co_name)).append(" (").append(clean(filename)).append(':')
+                .append(line).append(')');
+    }
+
+    /** Replace the characters that separate frames and counts in the output. */
+    private static String clean(String s) {
+        if (s == null) {
+            return "?";
+        }
+        return s.replace(';', ':').replace('\n', ' ');
+    }
+
+    /** The thread that takes the samples. */
+    private static final class Sampler extends Thread {
+
+        volatile int interval;
+
+        Sampler(int interval) {
+            super("Jython Sampling Profiler");
+            this.interval = interval;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!isInterrupted()) {
+                    Thread.sleep(interval);
+                    try {
+                        sample();
+                    } catch (RuntimeException e) {
+                        // A frame changed under us: lose this sample, not the profiler.
+                        Py.writeDebug("profiler", "sample failed: " + e);
+                    }
+                }
+            } catch (InterruptedException e) {
+                // stop() was called
+            } finally {
+                synchronized (lock) {
+                    if (sampler == this) {
+                        sampler = null;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -4,11 +4,19 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
 
 @Untraversable
 public class SyspathArchive extends PyString {
-    private ZipFile zipFile;
+    private final File archiveFile;
+
+    /**
+     * The directory of the archive, shared with other readers of it, to answer misses, and
+     * through which the archive is opened when an entry is first found in it.
+     */
+    private final ZipDirectory directory;
+
+    /** Prefix to the name of an entry in the folder of the archive this represents. */
+    private final String entryPrefix;
 
     public SyspathArchive(String archiveName) throws IOException {
         // As a string-like object (on sys.path) an FS-encoded bytes object is expected
@@ -17,19 +25,23 @@ public class SyspathArchive extends PyString {
         if(archiveName == null) {
             throw new IOException("path '" + archiveName + "' not an archive");
         }
-        this.zipFile = new ZipFile(new File(archiveName));
+        this.archiveFile = new File(archiveName);
+        this.directory = ZipDirectory.get(archiveFile);
+        this.entryPrefix = makeEntryPrefix(super.toString());
         if(PySystemState.isPackageCacheEnabled()) {
             PySystemState.packageManager.addJar(archiveName, true);
         }
     }
 
-    SyspathArchive(ZipFile zipFile, String path) {
+    SyspathArchive(File archiveFile, ZipDirectory directory, String path) {
         // As a string-like object (on sys.path) an FS-encoded bytes object is expected
         // Equivalent to Py.fileSystemEncode(path) with super instead of PyString
         super(TYPE,
                 PyString.charsFitWidth(path, 7) ? path : codecs.PyUnicode_EncodeUTF8(path, null),
                 true);
-        this.zipFile = zipFile;
+        this.archiveFile = archiveFile;
+        this.directory = directory;
+        this.entryPrefix = makeEntryPrefix(super.toString());
     }
 
     /**
@@ -49,11 +61,12 @@ public class SyspathArchive extends PyString {
         if (archiveName == null) {
             throw new IOException(path);
         } else {
-            ZipFile zipFile = new ZipFile(new File(archiveName));
+            File archiveFile = new File(archiveName);
+            ZipDirectory directory = ZipDirectory.get(archiveFile);
             if (PySystemState.isPackageCacheEnabled()) {
                 PySystemState.packageManager.addJar(archiveName, true);
             }
-            return new SyspathArchive(zipFile, path);
+            return new SyspathArchive(archiveFile, directory, path);
         }
     }
 
@@ -91,21 +104,29 @@ public class SyspathArchive extends PyString {
     }
 
     public SyspathArchive makeSubfolder(String folder) {
-        return new SyspathArchive(this.zipFile, super.toString() + "/" + folder);
+        return new SyspathArchive(archiveFile, directory, super.toString() + "/" + folder);
     }
 
-    private String makeEntry(String entry) {
-        String archive = super.toString();
-        String folder = getArchiveName(super.toString());
+    /** The prefix to the name of an entry: "" for the archive itself, or "b/c/" in folder b/c. */
+    private static String makeEntryPrefix(String archive) {
+        String folder = getArchiveName(archive);
         if (archive.length() == folder.length()) {
-            return entry;
+            return "";
         } else {
-            return archive.substring(folder.length()+1) + "/" + entry;
+            return archive.substring(folder.length()+1) + "/";
         }
     }
 
     ZipEntry getEntry(String entryName) {
-        return this.zipFile.getEntry(makeEntry(entryName));
+        String name = directory.findEntry(entryPrefix + entryName);
+        if (name == null) {
+            return null;
+        }
+        try {
+            return directory.getZipFile().getEntry(name);
+        } catch (IOException ioe) {
+            return null;
+        }
     }
 
     public String asUriCompatibleString() {
@@ -117,7 +138,7 @@ public class SyspathArchive extends PyString {
     }
 
     InputStream getInputStream(ZipEntry entry) throws IOException {
-        InputStream istream = this.zipFile.getInputStream(entry);
+        InputStream istream = directory.getZipFile().getInputStream(entry);
 
         // Some jdk1.1 VMs have problems with detecting the end of a zip
         // stream correctly. If you read beyond the end, you get a
@@ -39,9 +39,21 @@ public class ThreadState {
         }
     }
 
+    /** Whether the PySystemState this ThreadState was given has since been garbage collected. */
+    boolean isSystemStateCollected() {
+        return systemStateRef != null && systemStateRef.get() == null;
+    }
+
     public PySystemState getSystemState() {
         PySystemState systemState = systemStateRef == null ? null : systemStateRef.get();
-        return systemState == null ? Py.defaultSystemState : systemState;
+        if (systemState == null) {
+            // Still in use, so bind to the default, and the thread's registration stays live.
+            systemState = Py.defaultSystemState;
+            if (systemStateRef != null && systemState != null) {
+                setSystemState(systemState);
+            }
+        }
+        return systemState;
     }
 
     public boolean enterRepr(PyObject obj) {
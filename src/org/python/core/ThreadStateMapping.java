@@ -1,7 +1,12 @@
 package org.python.core;
 
-import com.google.common.collect.MapMaker;
-import java.util.Map;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A ThreadState augments a standard java.lang.Thread to support Python semantics. The ThreadStateMapping utility class
@@ -14,9 +19,14 @@ import java.util.Map;
  * Because ThreadState itself has a weak reference to PySystemState, we also need to ensure a hard reference to it is
  * separately maintained in the call stack.
  *
- * The ThreadState to Thread relationship also need to be maintained so long as the PySystemState for a ThreadState (shared by
- * N ThreadState objects) is referenced. This relationship is maintained by the bijective mapping provided by
- * globalThreadStates and inverseGlobalThreadStates.
+ * The ThreadState to Thread relationship also need to be maintained so long as the Thread is alive and the
+ * PySystemState for a ThreadState (shared by N ThreadState objects) is referenced. The same thread-local array holds a
+ * weak reference to the thread's ThreadState, so that finding it outside a call is also a thread-local lookup, and the
+ * registrations set holds the ThreadState strongly while its Thread is alive, whatever becomes of its PySystemState
+ * (a ThreadState that outlives it goes on with the default). A registration holds its Thread weakly, so that a thread
+ * that has ended may be collected before it is swept. Registrations for threads that have ended are removed in
+ * batches, each time the number of registrations has doubled since the last sweep, so the cost is proportional to the
+ * number of threads started, however short-lived (e.g. virtual threads).
  *
  * See discussion here: http://bugs.jython.org/issue2321
  * and: http://bugs.jython.org/issue1327
@@ -28,24 +38,59 @@ import java.util.Map;
  */
 
 class ThreadStateMapping {
-    private static final Map<Thread, ThreadState> globalThreadStates =
-            new MapMaker().weakKeys().makeMap();
-    private static final Map<ThreadState, Thread> inverseGlobalThreadStates =
-            new MapMaker().weakValues().makeMap();
+
+    /** Indices in the array held by {@link #inCallThreadState}. */
+    private static final int IN_CALL = 0, IN_CALL_SYS = 1, REGISTERED = 2;
+
     private static final ThreadLocal<Object[]> inCallThreadState = new ThreadLocal<Object[]>() {
         @Override
         protected Object[] initialValue() {
-            return new Object[2]; // ThreadState, hard ref to the ThreadState's PySystemState
+            // ThreadState, hard ref to the ThreadState's PySystemState, WeakReference<ThreadState>
+            return new Object[3];
         }
     };
 
+    /** A ThreadState and the Thread it belongs to, kept while {@link #isLive()}. */
+    private static final class Registration {
+
+        final WeakReference<Thread> thread;
+        final ThreadState ts;
+
+        Registration(Thread thread, ThreadState ts) {
+            this.thread = new WeakReference<Thread>(thread);
+            this.ts = ts;
+        }
+
+        /** The thread, if it is alive, or null. */
+        Thread liveThread() {
+            Thread t = thread.get();
+            return t != null && t.isAlive() ? t : null;
+        }
+
+        boolean isLive() {
+            return liveThread() != null;
+        }
+    }
+
+    /** The number of registrations below which we do not sweep. */
+    private static final int MIN_SWEEP = 64;
+
+    private static final Set<Registration> registrations = ConcurrentHashMap.newKeySet();
+    /** Size of {@link #registrations}, maintained separately as it is cheaper to read. */
+    private static final AtomicInteger registered = new AtomicInteger();
+    /** Sweep when {@link #registered} exceeds this. */
+    private static volatile int sweepThreshold = MIN_SWEEP;
+    /** Set while a thread sweeps, so that others do not. */
+    private static final AtomicBoolean sweeping = new AtomicBoolean();
+
     public ThreadState getThreadState(PySystemState newSystemState) {
         Object[] scoped = inCallThreadState.get();
-        if (scoped[0] != null) {
-            return (ThreadState)scoped[0];
+        if (scoped[IN_CALL] != null) {
+            return (ThreadState)scoped[IN_CALL];
         }
-        Thread currentThread = Thread.currentThread();
-        ThreadState ts = globalThreadStates.get(currentThread);
+        @SuppressWarnings("unchecked")
+        WeakReference<ThreadState> ref = (WeakReference<ThreadState>)scoped[REGISTERED];
+        ThreadState ts = ref == null ? null : ref.get();
         if (ts != null) {
             return ts;
         }
@@ -58,22 +103,74 @@ class ThreadStateMapping {
             newSystemState = Py.defaultSystemState;
         }
 
-        PySystemStateRef freedRef = (PySystemStateRef)PySystemStateRef.referenceQueue.poll();
-        while (freedRef != null ) {
-            globalThreadStates.remove(inverseGlobalThreadStates.remove(freedRef.getThreadState()));
-            freedRef = (PySystemStateRef)PySystemStateRef.referenceQueue.poll();
-        }
         ts = new ThreadState(newSystemState);
-        globalThreadStates.put(currentThread, ts);
-        inverseGlobalThreadStates.put(ts, currentThread);
+        scoped[REGISTERED] = new WeakReference<ThreadState>(ts);
+        registrations.add(new Registration(Thread.currentThread(), ts));
+        if (registered.incrementAndGet() > sweepThreshold) {
+            sweep();
+        }
         return ts;
     }
 
+    /**
+     * Remove the registrations that are no longer live. The caller that finds the threshold
+     * exceeded does this, unless another thread is already sweeping.
+     */
+    static void sweep() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            // The references are only of interest as a prompt to sweep, which we are doing.
+            while (PySystemStateRef.referenceQueue.poll() != null) {}
+            int removed = 0;
+            for (Registration r : registrations) {
+                if (!r.isLive() && registrations.remove(r)) {
+                    removed++;
+                }
+            }
+            int remaining = registered.addAndGet(-removed);
+            sweepThreshold = Math.max(MIN_SWEEP, 2 * remaining);
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    /** The number of ThreadStates currently registered (for testing). */
+    static int registeredCount() {
+        return registered.get();
+    }
+
+    /** The number of registered ThreadStates that are still live (for {@link RuntimeMetrics}). */
+    static int liveCount() {
+        int live = 0;
+        for (Registration r : registrations) {
+            if (r.isLive()) {
+                live++;
+            }
+        }
+        return live;
+    }
+
+    /**
+     * The ThreadStates of live threads other than {@code except} (for {@link SamplingProfiler}).
+     */
+    static List<ThreadState> liveThreadStates(Thread except) {
+        List<ThreadState> states = new ArrayList<ThreadState>();
+        for (Registration r : registrations) {
+            Thread t = r.liveThread();
+            if (t != null && t != except) {
+                states.add(r.ts);
+            }
+        }
+        return states;
+    }
+
     public static void enterCall(ThreadState ts) {
         if (ts.call_depth == 0) {
             Object[] scoped = inCallThreadState.get();
-            scoped[0] = ts;
-            scoped[1] = ts.getSystemState();
+            scoped[IN_CALL] = ts;
+            scoped[IN_CALL_SYS] = ts.getSystemState();
         } else if (ts.call_depth > ts.getSystemState().getrecursionlimit()) {
             throw Py.RuntimeError("maximum recursion depth exceeded");
         }
@@ -84,29 +181,21 @@ class ThreadStateMapping {
         ts.call_depth--;
         if (ts.call_depth == 0) {
             Object[] scoped = inCallThreadState.get();
-            scoped[0] = null; // allow ThreadState to be GCed
-            scoped[1] = null; // allow corresponding PySystemState to be GCed
+            scoped[IN_CALL] = null; // allow ThreadState to be GCed
+            scoped[IN_CALL_SYS] = null; // allow corresponding PySystemState to be GCed
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private static Map.Entry<Thread, ThreadState>[] entriesPrototype = new Map.Entry[0];
     public static PyDictionary _current_frames() {
-        Map.Entry<Thread, ThreadState>[] entries = globalThreadStates.entrySet().toArray(entriesPrototype);
-        int i = 0;
-        for (Map.Entry<Thread, ThreadState> entry: entries) {
-            if (entry.getValue().frame != null) {
-                ++i;
-            }
-        }
-        PyObject elements[] = new PyObject[i*2];
-        i = 0;
-        for (Map.Entry<Thread, ThreadState> entry: entries) {
-            if (entry.getValue().frame != null) {
-                elements[i++] = Py.newInteger(entry.getKey().getId());
-                elements[i++] = entry.getValue().frame;
+        List<PyObject> elements = new ArrayList<PyObject>();
+        for (Registration r : registrations) {
+            PyFrame frame = r.ts.frame;
+            Thread t = r.liveThread();
+            if (frame != null && t != null) {
+                elements.add(Py.newInteger(t.getId()));
+                elements.add(frame);
             }
         }
-        return new PyDictionary(elements);
+        return new PyDictionary(elements.toArray(new PyObject[elements.size()]));
     }
 }
@@ -0,0 +1,351 @@
+package org.python.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+import jnr.posix.util.Platform;
+
+/**
+ * The central directory of a ZIP archive, read once and shared by every importer of the process
+ * that searches the archive, whatever interpreter or {@link PySystemState} it belongs to. The
+ * directory is read from the end of the archive, which is mapped into memory for the purpose (or
+ * read on Windows, where a mapped file may not be deleted), and indexed by entry name, and by the
+ * name of each module and package the archive holds, so that a module may be found, or found not
+ * to be there, with one lookup in place of one for each suffix a module may have.
+ * <p>
+ * {@link #get(File)} returns the shared directory while the modification time and length of the
+ * archive are unchanged, and {@link #read(File)} reads it afresh. An archive the index cannot
+ * describe (for example one in the ZIP64 format) is read through {@link ZipFile}.
+ */
+public final class ZipDirectory {
+
+    /** An entry in the central directory. */
+    public static final class Entry {
+
+        /** The name in the archive, with "/" as separator. */
+        public final String name;
+
+        /** The compression method: 0 for uncompressed. */
+        public final int method;
+
+        public final long compressedSize;
+        public final long size;
+        public final long crc;
+
+        /** Time and date last modified in DOS format. */
+        public final int dosTime, dosDate;
+
+        Entry(String name, int method, long compressedSize, long size, long crc, int dosTime,
+                int dosDate) {
+            this.name = name;
+            this.method = method;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.crc = crc;
+            this.dosTime = dosTime;
+            this.dosDate = dosDate;
+        }
+    }
+
+    /** Signature of the end of central directory record. */
+    private static final int END_SIG = 0x06054b50;
+
+    /** Signature of the ZIP64 end of central directory locator. */
+    private static final int ZIP64_LOCATOR_SIG = 0x07064b50;
+
+    /** Signature of a central directory header. */
+    private static final int CEN_SIG = 0x02014b50;
+
+    private static final int END_LEN = 22;
+    private static final int CEN_LEN = 46;
+
+    /** Directories by the absolute path of their archive. */
+    private static final Map<String, ZipDirectory> directories = new ConcurrentHashMap<>();
+
+    /** The archive. */
+    private final File file;
+
+    private final long mtime;
+    private final long length;
+
+    /** The archive opened to read entries, shared by its readers (see {@link #getZipFile()}). */
+    private ZipFile zipFile;
+
+    /** The entries by name, in the order of the central directory. */
+    private final Map<String, Entry> entries;
+
+    /** Names of the modules and packages, as paths without the suffix. */
+    private final Set<String> modules;
+
+    private ZipDirectory(File file, long mtime, long length, Map<String, Entry> entries) {
+        this.file = file;
+        this.mtime = mtime;
+        this.length = length;
+        this.entries = entries;
+        this.modules = new HashSet<>(entries.size() * 2);
+        for (String name : entries.keySet()) {
+            String stem;
+            if (name.endsWith("$py.class")) {
+                stem = name.substring(0, name.length() - 9);
+            } else if (name.endsWith(".py")) {
+                stem = name.substring(0, name.length() - 3);
+            } else {
+                continue;
+            }
+            modules.add(stem);
+            if (stem.endsWith("/__init__")) {
+                modules.add(stem.substring(0, stem.length() - 9));
+            }
+        }
+    }
+
+    /**
+     * Return the shared directory of an archive, reading it if it has not been read or the archive
+     * has changed since.
+     *
+     * @param file the archive
+     * @return its directory
+     * @throws IOException if the archive cannot be read
+     */
+    public static ZipDirectory get(File file) throws IOException {
+        ZipDirectory directory = directories.get(file.getAbsolutePath());
+        if (directory != null && directory.mtime == file.lastModified()
+                && directory.length == file.length()) {
+            return directory;
+        }
+        return read(file);
+    }
+
+    /**
+     * Read the directory of an archive and share it in place of any read before.
+     *
+     * @param file the archive
+     * @return its directory
+     * @throws IOException if the archive cannot be read
+     */
+    public static ZipDirectory read(File file) throws IOException {
+        long mtime = file.lastModified();
+        long length = file.length();
+        Map<String, Entry> entries;
+        try (FileChannel channel = FileChannel.open(file.toPath())) {
+            entries = readCentralDirectory(channel);
+        }
+        if (entries == null) {
+            entries = readZipFile(file);
+        }
+        ZipDirectory directory = new ZipDirectory(file, mtime, length, entries);
+        directories.put(file.getAbsolutePath(), directory);
+        return directory;
+    }
+
+    /** Discard the shared directories, so that each archive is read again when next searched. */
+    public static void invalidate() {
+        directories.clear();
+    }
+
+    /**
+     * Return the entry of the given name.
+     *
+     * @param name in the archive, with "/" as separator
+     * @return the entry or {@code null} if there is none
+     */
+    public Entry getEntry(String name) {
+        return entries.get(name);
+    }
+
+    /**
+     * Return the entry of the given name, or if there is none, of a directory of that name (as
+     * {@link ZipFile#getEntry(String)} does).
+     *
+     * @param name in the archive, with "/" as separator
+     * @return the name of the entry found, or {@code null} if there is none
+     */
+    public String findEntry(String name) {
+        if (entries.containsKey(name)) {
+            return name;
+        }
+        String dirName = name + "/";
+        return entries.containsKey(dirName) ? dirName : null;
+    }
+
+    /**
+     * Return the archive opened as a {@link ZipFile}, to read the entries found in this
+     * directory. It is opened when first asked for, and then shared by every reader of the
+     * directory, so that the process has the archive open at most once while it is unchanged.
+     *
+     * @return the archive
+     * @throws IOException if the archive cannot be opened
+     */
+    public synchronized ZipFile getZipFile() throws IOException {
+        if (zipFile == null) {
+            zipFile = new ZipFile(file);
+        }
+        return zipFile;
+    }
+
+    /** The entries, in the order of the central directory. */
+    public Collection<Entry> entries() {
+        return Collections.unmodifiableCollection(entries.values());
+    }
+
+    /**
+     * Whether the archive holds a module or package of the given path, that is, an entry that is
+     * the path with the suffix ".py" or "$py.class", or with "/__init__" and one of these.
+     *
+     * @param path of the module, with "/" as separator and without a suffix
+     * @return whether there is such an entry
+     */
+    public boolean hasModule(String path) {
+        return modules.contains(path);
+    }
+
+    /**
+     * Read the central directory through a mapping of the end of the archive, or return
+     * {@code null} if the archive is in a form we leave to {@link ZipFile}.
+     */
+    private static Map<String, Entry> readCentralDirectory(FileChannel channel)
+            throws IOException {
+        long size = channel.size();
+        if (size < END_LEN) {
+            throw new ZipException("zip file is empty");
+        }
+
+        // The end record is followed by a comment of at most 0xffff bytes
+        int tailLength = (int) Math.min(size, END_LEN + 0xffff);
+        ByteBuffer tail = region(channel, size - tailLength, tailLength);
+        int end = tailLength - END_LEN;
+        while (end >= 0 && tail.getInt(end) != END_SIG) {
+            end--;
+        }
+        if (end < 0) {
+            throw new ZipException("zip END header not found");
+        } else if (end >= 20 && tail.getInt(end - 20) == ZIP64_LOCATOR_SIG) {
+            return null;
+        }
+
+        int total = tail.getShort(end + 10) & 0xffff;
+        long cenLength = tail.getInt(end + 12) & 0xffffffffL;
+        long cenOffset = tail.getInt(end + 16) & 0xffffffffL;
+        if (total == 0xffff || cenLength == 0xffffffffL || cenOffset == 0xffffffffL) {
+            return null;
+        }
+
+        // Data may precede the archive (as in a self-extracting one): offsets are relative to it
+        long endPosition = size - tailLength + end;
+        long archiveOffset = endPosition - cenLength - cenOffset;
+        if (archiveOffset < 0) {
+            throw new ZipException("invalid END header (bad central directory offset)");
+        }
+
+        ByteBuffer cen = region(channel, archiveOffset + cenOffset, (int) cenLength);
+        Map<String, Entry> entries = new LinkedHashMap<>(total * 2);
+        int pos = 0;
+        while (pos + CEN_LEN <= cenLength) {
+            if (cen.getInt(pos) != CEN_SIG) {
+                throw new ZipException("invalid CEN header (bad signature)");
+            }
+            int method = cen.getShort(pos + 10) & 0xffff;
+            int dosTime = cen.getShort(pos + 12) & 0xffff;
+            int dosDate = cen.getShort(pos + 14) & 0xffff;
+            long crc = cen.getInt(pos + 16) & 0xffffffffL;
+            long compressedSize = cen.getInt(pos + 20) & 0xffffffffL;
+            long entrySize = cen.getInt(pos + 24) & 0xffffffffL;
+            int nameLength = cen.getShort(pos + 28) & 0xffff;
+            int extraLength = cen.getShort(pos + 30) & 0xffff;
+            int commentLength = cen.getShort(pos + 32) & 0xffff;
+            if (compressedSize == 0xffffffffL || entrySize == 0xffffffffL) {
+                return null;
+            } else if (pos + CEN_LEN + nameLength > cenLength) {
+                throw new ZipException("invalid CEN header (bad entry name)");
+            }
+            byte[] nameBytes = new byte[nameLength];
+            ByteBuffer name = cen.duplicate();
+            name.position(pos + CEN_LEN);
+            name.get(nameBytes);
+            Entry entry = new Entry(new String(nameBytes, StandardCharsets.UTF_8), method,
+                    compressedSize, entrySize, crc, dosTime, dosDate);
+            entries.put(entry.name, entry);
+            pos += CEN_LEN + nameLength + extraLength + commentLength;
+        }
+        return entries;
+    }
+
+    /** A little-endian buffer of part of the archive, mapped or (on Windows) read. */
+    private static ByteBuffer region(FileChannel channel, long position, int length)
+            throws IOException {
+        ByteBuffer buf;
+        if (Platform.IS_WINDOWS) {
+            buf = ByteBuffer.allocate(length);
+            while (buf.hasRemaining()) {
+                if (channel.read(buf, position + buf.position()) < 0) {
+                    throw new ZipException("zip file is truncated");
+                }
+            }
+            buf.clear();
+        } else {
+            buf = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        }
+        return buf.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /** Read the directory through {@link ZipFile}. */
+    private static Map<String, Entry> readZipFile(File file) throws IOException {
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        try (ZipFile zipFile = new ZipFile(file)) {
+            for (Enumeration<? extends ZipEntry> e = zipFile.entries(); e.hasMoreElements();) {
+                ZipEntry zipEntry = e.nextElement();
+                Entry entry = new Entry(zipEntry.getName(), zipEntry.getMethod(),
+                        zipEntry.getCompressedSize(), zipEntry.getSize(), zipEntry.getCrc(),
+                        epochToDosTime(zipEntry.getTime()), epochToDosDate(zipEntry.getTime()));
+                entries.put(entry.name, entry);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Convert a time in milliseconds since epoch to DOS date format
+     *
+     * @param time in milliseconds, a long value
+     * @return an int, dos style date value
+     */
+    @SuppressWarnings("deprecation")
+    private static int epochToDosDate(long time) {
+        // This and the other conversion method are cut and pasted from
+        // java.util.zip.ZipEntry: hence the use deprecated Date APIs
+        Date d = new Date(time);
+        int year = d.getYear() + 1900;
+        if (year < 1980) {
+            return (1 << 21) | (1 << 16);
+        }
+        return (year - 1980) << 9 | (d.getMonth() + 1) << 5 | d.getDate() << 0;
+    }
+
+    /**
+     * Convert a time in milliseconds since epoch to DOS time format
+     *
+     * @param time in milliseconds, a long value
+     * @return an int, dos style time value
+     */
+    @SuppressWarnings("deprecation")
+    private static int epochToDosTime(long time) {
+        Date d = new Date(time);
+        return d.getHours() << 11 | d.getMinutes() << 5 | d.getSeconds() >> 1;
+    }
+}
@@ -1675,6 +1675,9 @@ class CompileFunction extends PyBuiltinFunction {
                 data += "\n\n";
             }
             ast = ParserFacade.parse(data, kind, filename, cflags);
+        } else {
+            cflags = cflags.combine(0);
+            cflags.ast_is_given = true;
         }
 
         if (cflags.only_ast) {
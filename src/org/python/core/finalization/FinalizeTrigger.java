@@ -1,5 +1,7 @@
 package org.python.core.finalization;
 
+import java.util.concurrent.atomic.LongAdder;
+
 import org.python.core.PyObject;
 import org.python.core.JyAttribute;
 import org.python.core.PySystemState;
@@ -43,6 +45,17 @@ public class FinalizeTrigger {
      */
     public static FinalizeTriggerFactory factory;
 
+    /** Triggers made and not yet finalized by the JVM. */
+    private static final LongAdder pending = new LongAdder();
+
+    /**
+     * The number of triggers made whose {@code finalize()} has not yet run, that is, of objects
+     * with a finalizer that are alive or awaiting finalization.
+     */
+    public static long pendingCount() {
+        return pending.sum();
+    }
+
     public static FinalizeTrigger makeTrigger(PyObject toFinalize) {
         if (factory != null) {
             return factory.makeTrigger(toFinalize);
@@ -125,6 +138,7 @@ public class FinalizeTrigger {
 
     protected FinalizeTrigger(PyObject toFinalize) {
         this.toFinalize = toFinalize;
+        pending.increment();
     }
 
     protected boolean isCyclic() {
@@ -196,6 +210,7 @@ public class FinalizeTrigger {
     }
 
     protected void finalize() throws Throwable {
+        pending.decrement();
         flags |= FINALIZED_FLAG;
         gc.notifyPreFinalization();
         if (gc.delayedFinalizationEnabled() && toFinalize != null) {
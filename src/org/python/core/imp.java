@@ -313,7 +313,7 @@ public class imp {
         try {
             // Choose which file name to provide to the module-class constructor
             String display = source == CodeImport.compiled_only ? data.getFilename() : sourceName;
-            code = BytecodeLoader.makeCode(name + "$py", data.getBytes(), display);
+            code = ModuleCodeCache.makeCode(name + "$py", data.getBytes(), display);
         } catch (Throwable t) {
             if (testing) {
                 return null;
@@ -601,7 +601,7 @@ public class imp {
 
         logger.log(Level.CONFIG, "import {0} # from {1}", new Object[]{name, filename});
 
-        PyCode code = BytecodeLoader.makeCode(name + "$py", bytes, filename);
+        PyCode code = ModuleCodeCache.makeCode(name + "$py", bytes, filename);
         return createFromCode(name, code, filename);
     }
 
@@ -880,6 +880,12 @@ public class imp {
              * loading in the second part of the process.
              */
             String dirName = sys.getPath(location);
+            String moduleSourceName = name + ".py";
+            if (!DirectoryCache.mayContain(dirName, name, moduleSourceName,
+                    makeCompiledFilename(moduleSourceName))) {
+                // Neither a package nor a module of that name is in the directory
+                return null;
+            }
             File dir = new File(dirName, name);
 
             if (dir.isDirectory()) {
@@ -1173,6 +1179,22 @@ public class imp {
             return ret;
         }
 
+        long start = RuntimeMetrics.startImport();
+        try {
+            return find_next(mod, modules, fullName, name, outerFullName, fromlist);
+        } finally {
+            RuntimeMetrics.endImport(start);
+        }
+    }
+
+    /**
+     * Find and load the module fullName, not in {@code sys.modules}: the part of
+     * {@link #import_next(PyObject, StringBuilder, String, String, PyObject)} that
+     * {@link RuntimeMetrics} times.
+     */
+    private static PyObject find_next(PyObject mod, PyObject modules, String fullName,
+            String name, String outerFullName, PyObject fromlist) {
+        PyObject ret;
         if (mod == null) {
             // We are looking for a top-level module
             ret = find_module(fullName, name, null);
@@ -1423,10 +1445,12 @@ public class imp {
      * This cache supports {@link #fileSystemDecode(PyObject)} and
      * {@link #fileSystemDecode(PyObject, boolean)}. Observation shows the import mechanism converts
      * the same file name hundreds of times during any use of Jython, so we use this to remember the
-     * conversions of recent file names.
+     * conversions of recent file names. Imports, and the compilation of modules on several threads
+     * by {@link BatchCompiler}, use it concurrently: the methods of {@link LimitedCache} are
+     * synchronized, and two threads that miss on the same name merely both decode it.
      */
     // 20 is plenty
-    private static LimitedCache<PyObject, String> fileSystemDecodeCache = new LimitedCache<>(20);
+    private static final LimitedCache<PyObject, String> fileSystemDecodeCache = new LimitedCache<>(20);
 
     /**
      * A wrapper for {@link Py#fileSystemDecode(PyObject)} for <b>project internal use</b> within
@@ -10,22 +10,30 @@ import org.python.util.Generic;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
-import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.lang.reflect.Modifier;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileVisitResult;
 import java.nio.file.FileVisitor;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.security.AccessControlException;
@@ -33,14 +41,29 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.logging.Logger;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
+import jnr.posix.util.Platform;
+
 /**
  * Abstract package manager that gathers info about statically known classes from a set of jars and
  * the Java runtime. This info can be cached, eventually. Off-the-shelf this class offers a local
- * file-system based cache implementation.
+ * file-system based cache implementation: a single index, mapped into memory when read, of the
+ * packages in each JAR with the time the JAR was last modified. JARs not in the index are scanned
+ * in parallel when they are added together (see {@link #addJarsToPackages(List, boolean)}).
+ * <p>
+ * The hooks for cache storage ({@link #inOpenIndex()}, {@link #inMapIndex()},
+ * {@link #outOpenIndex()} and those for the per-JAR files of earlier versions) and for messages are
+ * only called on the thread that adds the JARs or saves the cache. When several JARs are scanned in
+ * parallel, {@link #filterByName(String, boolean)} and {@link #filterByAccess(String, int)} are
+ * called concurrently on threads of the common fork-join pool, so a subclass that overrides them
+ * must make them safe to call from any thread.
  */
 public abstract class CachedJarsPackageManager extends PackageManager {
 
@@ -82,7 +105,8 @@ public abstract class CachedJarsPackageManager extends PackageManager {
      * Filter class/pkg by name helper method - hook. The default implementation is used by
      * {@link #addJarToPackages} in order to filter out classes whose name contains '$' (e.g. inner
      * classes). Should be used or overridden by derived classes too. Also to be used in
-     * {@link #doDir}.
+     * {@link #doDir}. This may be called concurrently on threads of the common fork-join pool
+     * while JARs are scanned.
      *
      * @param name class/pkg name
      * @param pkg if true, name refers to a pkg
@@ -96,7 +120,8 @@ public abstract class CachedJarsPackageManager extends PackageManager {
      * Filter class by access perms helper method - hook. The default implementation is used by
      * {@link #addJarToPackages} in order to filter out non-public classes. Should be used or
      * overridden by derived classes too. Also to be used in {@link #doDir}. Access permissions can
-     * be read with {@link #checkAccess}.
+     * be read with {@link #checkAccess}. Like {@link #filterByName(String, boolean)}, this may be
+     * called concurrently on threads of the common fork-join pool while JARs are scanned.
      *
      * @param name class name
      * @param acc class access permissions as int
@@ -112,11 +137,11 @@ public abstract class CachedJarsPackageManager extends PackageManager {
     private boolean indexModified;
 
     /**
-     * Map from some source of class definitions to the name of a file used to cache lists of
-     * classes in that source. {@code null} if cache is not operating. (This source must have a time
-     * last modified so we may check that the cache is valid).
+     * Map from some source of class definitions (the canonical path of a JAR, or the URL of a
+     * remote one) to the packages and classes found in it. {@code null} if cache is not operating.
+     * (This source must have a time last modified so we may check that the cache is valid).
      */
-    private Map<String, JarXEntry> index;
+    private Map<String, IndexEntry> index;
 
     /**
      * Process one entry from a JAR/ZIP, and if the entry is a (qualifying) Java class, add its name
@@ -235,7 +260,7 @@ public abstract class CachedJarsPackageManager extends PackageManager {
     /**
      * Gathers classes info from jar specified by a URL. Eventually just using previously cached
      * info. Eventually updated info is not cached. Persistent cache storage access goes through
-     * inOpenCacheFile() and outCreateCacheFile().
+     * {@link #inMapIndex()} and {@link #outOpenIndex()}.
      */
     public void addJarToPackages(java.net.URL jarurl) {
         addJarToPackages(jarurl, null, false);
@@ -244,7 +269,7 @@ public abstract class CachedJarsPackageManager extends PackageManager {
     /**
      * Gathers classes info from jar specified by URL. Eventually just using previously cached info.
      * Eventually updated info is (re-)cached if param cache is true. Persistent cache storage
-     * access goes through inOpenCacheFile() and outCreateCacheFile().
+     * access goes through {@link #inMapIndex()} and {@link #outOpenIndex()}.
      */
     public void addJarToPackages(URL jarurl, boolean cache) {
         addJarToPackages(jarurl, null, cache);
@@ -253,7 +278,7 @@ public abstract class CachedJarsPackageManager extends PackageManager {
     /**
      * Gathers classes info from jar specified by File jarfile. Eventually just using previously
      * cached info. Eventually updated info is not cached. Persistent cache storage access goes
-     * through inOpenCacheFile() and outCreateCacheFile().
+     * through {@link #inMapIndex()} and {@link #outOpenIndex()}.
      */
     public void addJarToPackages(File jarfile) {
         addJarToPackages(null, jarfile, false);
@@ -262,155 +287,133 @@ public abstract class CachedJarsPackageManager extends PackageManager {
     /**
      * Gathers package and class lists from a jar specified by a {@code File}. Eventually just using
      * previously cached info. Eventually updated info is (re-)cached if param cache is true.
-     * Persistent cache storage access goes through inOpenCacheFile() and outCreateCacheFile().
+     * Persistent cache storage access goes through {@link #inMapIndex()} and
+     * {@link #outOpenIndex()}.
      */
     public void addJarToPackages(File jarfile, boolean cache) {
         addJarToPackages(null, jarfile, cache);
     }
 
+    private void addJarToPackages(URL jarurl, File jarfile, boolean writeCache) {
+        List<JarSource> sources = new ArrayList<JarSource>(1);
+        sources.add(new JarSource(jarurl, jarfile));
+        addSourcesToPackages(sources, writeCache);
+    }
+
     /**
-     * Create (or ensure we have) a {@link PyJavaPackage}, descending from
-     * {@link PackageManager#topLevelPackage} in this {@link PackageManager} instance, for each
-     * package in a jar specified by a file or URL. Ensure that the class list in each package is
-     * updated with the classes this JAR supplies to it.
-     *
-     * The information concerning packages in the JAR and the classes they contain, may be read from
-     * from a previously cached account of the JAR, if the last-modified time of the JAR matches a
-     * cached value. If it is not read from a cache, it will be obtained by inspecting the JAR, and
-     * a new cache will be written (if requested).
-     *
-     * Access to persistent cache storage goes through {@link #inOpenCacheFile(String)} and
-     * {@link #outCreateCacheFile(JarXEntry, boolean)}.
+     * Gathers package and class lists from several jars, as {@link #addJarToPackages(File,
+     * boolean)} does for each, in order. The jars not described by the cache are scanned in
+     * parallel, on the common fork-join pool, before the packages of all of them are created in
+     * the order given.
      *
-     * @param jarurl identifying the JAR if {@code jarfile} is {@code null}
-     * @param jarfile identifying the JAR
-     * @param writeCache re-write the cache if it was out of date (and caching is active).
+     * @param jarfiles the jars
+     * @param cache re-write the cache of each jar that was out of date (if caching is active)
      */
-    private void addJarToPackages(URL jarurl, File jarfile, boolean writeCache) {
-        try {
-            // We try to read the cache (for this jar) if caching is in operation.
-            boolean readCache = this.index != null;
-            // We write a cache if caching is in operation AND writing has been requested.
-            writeCache &= readCache;
-
-            URLConnection jarconn = null;
-            boolean localfile = true;
-
-            // If a local JAR file was not given directly in jarfile, try to find one from the URL.
-            if (jarfile == null) {
-                // We were not given a File, so the URL must be reliable (but may not be a file)
-                jarconn = jarurl.openConnection();
-                // The following comment may be out of date. Also 2 reasons or just the bug?
-                /*
-                 * This is necessary because 'file:' url-connections always return 0 through
-                 * getLastModified (bug?). And in order to handle localfiles (from urls too)
-                 * uniformly.
-                 */
-                if (jarconn.getURL().getProtocol().equals("file")) {
-                    // Although given as a URL, this *is* a file.
-                    String jarfilename = jarurl.getFile();
-                    jarfilename = jarfilename.replace('/', File.separatorChar);
-                    jarfile = new File(jarfilename);
-                } else {
-                    // We can't find a local file
-                    localfile = false;
-                }
-            }
+    public void addJarsToPackages(List<File> jarfiles, boolean cache) {
+        List<JarSource> sources = new ArrayList<JarSource>(jarfiles.size());
+        for (File jarfile : jarfiles) {
+            sources.add(new JarSource(null, jarfile));
+        }
+        addSourcesToPackages(sources, cache);
+    }
 
-            if (localfile && !jarfile.exists()) {
-                // Local JAR file claimed or deduced does not exist. Silently ignore.
-                return;
-            }
+    /** A JAR, given by a file or URL, and what we find out about it in the course of indexing. */
+    private static class JarSource {
 
-            // The classes to discover are in a local JAR file. They go in this map:
-            Map<String, String> zipPackages = null;
+        final URL jarurl;
+        File jarfile;
+        URLConnection jarconn;
+        boolean localfile = true;
 
-            long mtime = 0;
-            String jarcanon = null;
-            JarXEntry entry = null;
-            boolean brandNew = false;
+        /** Key in {@link CachedJarsPackageManager#index}, if caching, and {@code __file__}. */
+        String jarcanon;
+        long mtime;
 
-            if (readCache) {
+        /** The packages in the JAR, from the index or by scanning it. */
+        Map<String, String> zipPackages;
 
-                // Get the name and last modified time of the actual JAR on disk.
-                if (localfile) {
-                    mtime = jarfile.lastModified();
-                    jarcanon = jarfile.getCanonicalPath();
-                } else {
-                    mtime = jarconn.getLastModified();
-                    jarcanon = jarurl.toString();
-                }
+        /** Whether the JAR exists and must be scanned for its packages. */
+        boolean toScan;
 
-                // The canonical name is our key in the (in memory) index to the cache file.
-                entry = this.index.get(jarcanon);
-
-                if (writeCache && (entry == null || !(new File(entry.cachefile).exists()))) {
-                    // We intend to use a cache but there is no valid existing file.
-                    comment("processing new jar ''{0}''", jarcanon);
-
-                    // Create a base-name for the cache file
-                    String jarname;
-                    if (localfile) {
-                        jarname = jarfile.getName();
-                    } else {
-                        jarname = jarurl.getFile();
-                        int slash = jarname.lastIndexOf('/');
-                        if (slash != -1) {
-                            jarname = jarname.substring(slash + 1);
-                        }
-                    }
-                    jarname = jarname.substring(0, jarname.length() - 4);
+        /** Result of scanning the JAR on the pool, if it was. */
+        ForkJoinTask<Map<String, String>> scan;
 
-                    // Create a new (or replacement) index entry. Remember to create the file.
-                    entry = new JarXEntry(jarname);
-                    this.index.put(jarcanon, entry);
-                    brandNew = true;
-                }
+        JarSource(URL jarurl, File jarfile) {
+            this.jarurl = jarurl;
+            this.jarfile = jarfile;
+        }
 
-                // If the source has a date and the cache matches, create the map we need from it.
-                if (entry != null && mtime != 0 && entry.mtime == mtime) {
-                    zipPackages = readCacheFile(entry, jarcanon);
+        /** Name for messages about this JAR. */
+        String describe() {
+            return (jarfile != null ? jarfile : jarurl).toString();
+        }
+    }
+
+    /**
+     * Create (or ensure we have) a {@link PyJavaPackage}, descending from
+     * {@link PackageManager#topLevelPackage} in this {@link PackageManager} instance, for each
+     * package in each of the jars specified by a file or URL. Ensure that the class list in each
+     * package is updated with the classes this JAR supplies to it.
+     *
+     * The information concerning packages in the JAR and the classes they contain, may be read from
+     * the index, if the last-modified time of the JAR matches the one recorded with it there. If it
+     * is not read from the index, it will be obtained by inspecting the JAR, which is done for all
+     * such JARs in parallel, and the index will be updated (if requested).
+     *
+     * @param sources identifying the JARs
+     * @param writeCache update the index for each JAR that was out of date (if caching is active).
+     */
+    private void addSourcesToPackages(List<JarSource> sources, boolean writeCache) {
+        // We try to read the cache (for this jar) if caching is in operation.
+        boolean readCache = this.index != null;
+        // We write a cache if caching is in operation AND writing has been requested.
+        writeCache &= readCache;
+
+        // Find each JAR, and its packages in the index if they are there.
+        List<JarSource> toScan = new ArrayList<JarSource>();
+        for (JarSource source : sources) {
+            try {
+                if (locate(source, readCache)) {
+                    source.toScan = true;
+                    toScan.add(source);
                 }
+            } catch (IOException ioe) {
+                // Skip the bad JAR with a message
+                warning("skipping bad jar ''{0}''", source.describe());
             }
+        }
 
-            /*
-             * At this point, we will have the package map from the cache if it was valid, and a
-             * cache is in use generally in this package manager.
-             */
-
-            if (zipPackages == null) {
-                // We'll have to read the actual JAR file
+        // Scan the JARs that were not in the index, in parallel if there are several.
+        if (toScan.size() > 1) {
+            for (final JarSource source : toScan) {
+                source.scan = ForkJoinPool.commonPool().submit(new Callable<Map<String, String>>() {
 
-                if (writeCache) {
-                    // Update the index entry for the cache file we shall eventually write.
-                    this.indexModified = true;
-                    if (entry.mtime != 0) {
-                        comment("processing modified jar ''{0}''", jarcanon);
+                    @Override
+                    public Map<String, String> call() throws IOException {
+                        return scan(source);
                     }
-                    entry.mtime = mtime;
-                }
+                });
+            }
+        }
 
-                // Create the package-to-class mapping from whatever stream.
-                InputStream jarin = null;
+        for (JarSource source : sources) {
+            if (source.zipPackages == null) {
+                if (!source.toScan) {
+                    continue; // Does not exist or could not be read
+                }
                 try {
-                    if (jarconn == null) {
-                        jarin = new BufferedInputStream(new FileInputStream(jarfile));
-                    } else {
-                        // We were given a URL originally so use that.
-                        jarin = jarconn.getInputStream();
-                    }
-
-                    zipPackages = getZipPackages(jarin);
-
-                } finally {
-                    if (jarin != null) {
-                        jarin.close();
-                    }
+                    source.zipPackages = source.scan == null ? scan(source) : join(source.scan);
+                } catch (IOException ioe) {
+                    warning("skipping bad jar ''{0}''", source.describe());
+                    continue;
                 }
-
                 if (writeCache) {
-                    // Write what we created out to a cache file (new or updated)
-                    writeCacheFile(entry, jarcanon, zipPackages, brandNew);
+                    // Record what we found in the index (new or updated)
+                    IndexEntry old = this.index.put(source.jarcanon,
+                            new IndexEntry(source.mtime, source.zipPackages));
+                    comment(old == null ? "processing new jar ''{0}''"
+                            : "processing modified jar ''{0}''", source.jarcanon);
+                    this.indexModified = true;
                 }
             }
 
@@ -419,127 +422,118 @@ public abstract class CachedJarsPackageManager extends PackageManager {
              * update corresponding package objects with the discovered classes (named, but not as
              * PyObjects).
              */
-            addPackages(zipPackages, jarcanon);
-
-        } catch (IOException ioe) {
-            // Skip the bad JAR with a message
-            warning("skipping bad jar ''{0}''", (jarfile != null ? jarfile : jarurl).toString());
+            addPackages(source.zipPackages, source.jarcanon);
         }
     }
 
     /**
-     * From a map of package name to comma/@-separated list of classes therein, relating to a
-     * particular JAR file, create a {@link PyJavaPackage} for each package.
+     * Find the JAR (file or URL) of a {@link JarSource}, and if caching, its key and time last
+     * modified, and its packages if the index describes them.
      *
-     * @param packageToClasses source of mappings
-     * @param jarfile becomes the __file__ attribute of the {@link PyJavaPackage}
+     * @return whether the JAR exists and has to be scanned
      */
-    private void addPackages(Map<String, String> packageToClasses, String jarfile) {
-        for (Entry<String, String> entry : packageToClasses.entrySet()) {
-            String pkg = entry.getKey();
-            String classes = entry.getValue();
-
-            int idx = classes.indexOf('@');
-            if (idx >= 0 && Options.respectJavaAccessibility) {
-                classes = classes.substring(0, idx);
+    private boolean locate(JarSource source, boolean readCache) throws IOException {
+        // If a local JAR file was not given directly in jarfile, try to find one from the URL.
+        if (source.jarfile == null) {
+            // We were not given a File, so the URL must be reliable (but may not be a file)
+            source.jarconn = source.jarurl.openConnection();
+            /*
+             * This is necessary because 'file:' url-connections always return 0 through
+             * getLastModified (bug?). And in order to handle localfiles (from urls too)
+             * uniformly.
+             */
+            if (source.jarconn.getURL().getProtocol().equals("file")) {
+                // Although given as a URL, this *is* a file.
+                String jarfilename = source.jarurl.getFile();
+                jarfilename = jarfilename.replace('/', File.separatorChar);
+                source.jarfile = new File(jarfilename);
+                source.jarconn = null;
+            } else {
+                // We can't find a local file
+                source.localfile = false;
             }
+        }
 
-            makeJavaPackage(pkg, classes, jarfile);
+        if (source.localfile && !source.jarfile.exists()) {
+            // Local JAR file claimed or deduced does not exist. Silently ignore.
+            return false;
         }
-    }
 
-    /**
-     * Read in cache file storing package info for a single jar. Return null and delete this cache
-     * file if it is invalid.
-     */
-    @SuppressWarnings("empty-statement")
-    private Map<String, String> readCacheFile(JarXEntry entry, String jarcanon) {
-        String cachefile = entry.cachefile;
-        long mtime = entry.mtime;
+        if (readCache) {
+            // Get the name and last modified time of the actual JAR on disk.
+            if (source.localfile) {
+                source.mtime = source.jarfile.lastModified();
+                source.jarcanon = source.jarfile.getCanonicalPath();
+            } else {
+                source.mtime = source.jarconn.getLastModified();
+                source.jarcanon = source.jarurl.toString();
+            }
 
-        debug("reading cache of ''{0}''", jarcanon);
+            // The canonical name is our key in the index.
+            IndexEntry entry = this.index.get(source.jarcanon);
 
-        DataInputStream istream = null;
-        try {
-            istream = inOpenCacheFile(cachefile);
-            String old_jarcanon = istream.readUTF();
-            long old_mtime = istream.readLong();
-            if ((!old_jarcanon.equals(jarcanon)) || (old_mtime != mtime)) {
-                comment("invalid cache file: {0} for new:{1}({3}), old:{2}({4})", cachefile, jarcanon,
-                        old_jarcanon, mtime, old_mtime);
-                deleteCacheFile(cachefile);
-                return null;
-            }
-            Map<String, String> packs = Generic.map();
-            try {
-                while (true) {
-                    String packageName = istream.readUTF();
-                    String classes = istream.readUTF();
-                    // XXX: Handle multiple chunks of classes and concatenate them
-                    // together. Multiple chunks were added in 2.5.2 (for #1595) in this
-                    // way to maintain compatibility with the pre 2.5.2 format. In the
-                    // future we should consider changing the cache format to prepend a
-                    // count of chunks to avoid this check
-                    if (packs.containsKey(packageName)) {
-                        classes = packs.get(packageName) + classes;
-                    }
-                    packs.put(packageName, classes);
+            // If the source has a date and the cache matches, create the map we need from it.
+            if (entry != null && source.mtime != 0 && entry.mtime == source.mtime) {
+                debug("reading cache of ''{0}''", source.jarcanon);
+                source.zipPackages = entry.getPackages();
+                if (source.zipPackages == null) {
+                    comment("invalid cache for ''{0}''", source.jarcanon);
                 }
-            } catch (EOFException eof) {
-                // ignore
             }
+        }
+        return source.zipPackages == null;
+    }
 
-            return packs;
-        } catch (IOException ioe) {
-            // if (cachefile.exists()) cachefile.delete();
-            return null;
-        } finally {
-            if (istream != null) {
-                try {
-                    istream.close();
-                } catch (IOException ignore) {
-                    // ignore
-                }
+    /** Read the packages in a JAR from the JAR itself. */
+    private Map<String, String> scan(JarSource source) throws IOException {
+        // Create the package-to-class mapping from whatever stream.
+        try (InputStream jarin = source.jarconn == null
+                ? new BufferedInputStream(new FileInputStream(source.jarfile))
+                // We were given a URL originally so use that.
+                : source.jarconn.getInputStream()) {
+            return getZipPackages(jarin);
+        }
+    }
+
+    /** The result of a scan made on the pool, re-throwing an {@code IOException} from it. */
+    private static Map<String, String> join(ForkJoinTask<Map<String, String>> scan)
+            throws IOException {
+        try {
+            return scan.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
             }
+            throw new IOException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while scanning jar");
         }
     }
 
     /**
-     * Write a cache file storing package info for a single JAR. *
+     * From a map of package name to comma/@-separated list of classes therein, relating to a
+     * particular JAR file, create a {@link PyJavaPackage} for each package.
      *
-     * @param entry in {@link #index} corresponding to the JAR
-     * @param jarcanon canonical name of the JAR (used as key into {@link #index})
-     * @param zipPackages a map from package name to class names for that pacjkage in the JAR
-     * @param brandNew if the cache file must be created (vs. being re-written)
-     */
-    private void writeCacheFile(JarXEntry entry, String jarcanon, Map<String, String> zipPackages,
-            boolean brandNew) {
-        DataOutputStream ostream = null;
-        try {
-            ostream = outCreateCacheFile(entry, brandNew);
-            ostream.writeUTF(jarcanon);
-            ostream.writeLong(entry.mtime);
-            comment("rewriting cache for ''{0}''", jarcanon);
-
-            for (Entry<String, String> kv : zipPackages.entrySet()) {
-                String classes = kv.getValue();
-                // Make sure each package is not larger than 64k
-                for (String part : splitString(classes, 65535)) {
-                    // For each chunk, write the package name followed by the classes.
-                    ostream.writeUTF(kv.getKey());
-                    ostream.writeUTF(part);
-                }
-            }
-        } catch (IOException ioe) {
-            warning("failed to write cache for ''{0}'' ({1})", jarcanon, ioe.getMessage());
-        } finally {
-            if (ostream != null) {
-                try {
-                    ostream.close();
-                } catch (IOException ignore) {
-                    // ignore
-                }
+     * @param packageToClasses source of mappings
+     * @param jarfile becomes the __file__ attribute of the {@link PyJavaPackage}
+     */
+    private void addPackages(Map<String, String> packageToClasses, String jarfile) {
+        for (Entry<String, String> entry : packageToClasses.entrySet()) {
+            String pkg = entry.getKey();
+            String classes = entry.getValue();
+
+            int idx = classes.indexOf('@');
+            if (idx >= 0 && Options.respectJavaAccessibility) {
+                classes = classes.substring(0, idx);
             }
+
+            makeJavaPackage(pkg, classes, jarfile);
         }
     }
 
@@ -623,76 +617,69 @@ public abstract class CachedJarsPackageManager extends PackageManager {
         return transformed;
     }
 
-    /**
-     * Split up a string into several chunks based on a certain size
-     *
-     * The writeCacheFile method will use the writeUTF method on a DataOutputStream which only
-     * allows writing 64k chunks, so use this utility method to split it up
-     *
-     * @param str - The string to split up into chunks
-     * @param maxLength - The max size a string should be
-     * @return - An array of strings, each of which will not be larger than maxLength
-     */
-    protected static String[] splitString(String str, int maxLength) {
-        if (str == null) {
-            return null;
-        }
-
-        int len = str.length();
-        if (len <= maxLength) {
-            return new String[] {str};
-        }
+    /** Identifies the index written by {@link #saveCache()}. */
+    private static final int INDEX_MAGIC = 0x4a795049;
 
-        int chunkCount = (int) Math.ceil((float) len / maxLength);
-        String[] chunks = new String[chunkCount];
-        for (int i = 0; i < chunkCount; i++) {
-            chunks[i] = str.substring(i * maxLength, Math.min(i * maxLength + maxLength, len));
-        }
-        return chunks;
-    }
+    /** Version of the format of the index. */
+    private static final int INDEX_VERSION = 1;
 
     /**
-     * Initialise the cache by reading the index from storage, through {@link #inOpenIndex()}, or by
-     * creating a new empty one.
+     * Initialise the cache by reading the index from storage, through {@link #inMapIndex()}, or by
+     * creating a new empty one. Only the table of JARs is read: the packages of a JAR are decoded
+     * when the JAR is added.
      */
     protected void initCache() {
         this.indexModified = false;
         this.index = Generic.map();
 
-        DataInputStream istream = null;
         try {
-            istream = inOpenIndex();
-            if (istream == null) {
+            ByteBuffer buf = inMapIndex();
+            if (buf == null) {
                 return;
             }
-
-            try {
-                while (true) {
-                    String jarcanon = istream.readUTF();
-                    String cachefile = istream.readUTF();
-                    long mtime = istream.readLong();
-                    this.index.put(jarcanon, new JarXEntry(cachefile, mtime));
-                }
-            } catch (EOFException eof) {
-                // ignore
+            if (buf.remaining() < 12 || buf.getInt() != INDEX_MAGIC
+                    || buf.getInt() != INDEX_VERSION) {
+                comment("ignoring index file in another format");
+                this.indexModified = true;
+                return;
             }
-        } catch (IOException ioe) {
-            warning("invalid index file");
-        } finally {
-            if (istream != null) {
-                try {
-                    istream.close();
-                } catch (IOException ignore) {
-                    // ignore
-                }
+            // Each JAR takes at least 16 bytes in the table (empty key, mtime and length)
+            int count = checkLength(buf, buf.getInt(), 16);
+            String[] keys = new String[count];
+            long[] mtimes = new long[count];
+            int[] lengths = new int[count];
+            for (int i = 0; i < count; i++) {
+                keys[i] = getString(buf);
+                mtimes[i] = buf.getLong();
+                lengths[i] = buf.getInt();
             }
+            for (int i = 0; i < count; i++) {
+                checkLength(buf, lengths[i], 1);
+                ByteBuffer packages = buf.slice();
+                packages.limit(lengths[i]);
+                buf.position(buf.position() + lengths[i]);
+                this.index.put(keys[i], new IndexEntry(mtimes[i], packages));
+            }
+        } catch (IOException | RuntimeException e) {
+            // RuntimeException includes the BufferUnderflowException of a truncated file
+            warning("invalid index file");
+            this.index.clear();
+            this.indexModified = true;
         }
     }
 
     /**
-     * Write back cache <b>index</b>. The index is a mapping from each source of class definitions
-     * to the file where the cache for that source is held. This list is accessed through
-     * outOpenIndex().
+     * Write back cache <b>index</b>, through {@link #outOpenIndex()}. The index is a mapping from
+     * each source of class definitions, with the time it was last modified, to the packages and
+     * classes found in it. It is written as:
+     * <ul>
+     * <li>a magic number and version (two {@code int}s),</li>
+     * <li>the number of sources ({@code int}), and for each, its key (a string), time last
+     * modified ({@code long}) and the length of its packages in bytes ({@code int}),</li>
+     * <li>the packages of each source in the same order: the number of packages ({@code int}),
+     * and for each, its name and classes (strings in the form {@code A,B,C[@D,E]}).</li>
+     * </ul>
+     * A string is its length in bytes ({@code int}) followed by its UTF-8 encoding.
      */
     public void saveCache() {
 
@@ -704,85 +691,284 @@ public abstract class CachedJarsPackageManager extends PackageManager {
 
         comment("writing modified index file");
 
-        DataOutputStream ostream = null;
+        // Encode every entry first, so that the (mapped) old index is not read while writing.
+        List<String> keys = new ArrayList<String>(index.keySet());
+        List<ByteBuffer> packages = new ArrayList<ByteBuffer>(keys.size());
         try {
-            ostream = outOpenIndex();
-            for (Entry<String, JarXEntry> entry : index.entrySet()) {
-                String jarcanon = entry.getKey();
-                JarXEntry xentry = entry.getValue();
-                ostream.writeUTF(jarcanon);
-                ostream.writeUTF(xentry.cachefile);
-                ostream.writeLong(xentry.mtime);
+            for (String key : keys) {
+                packages.add(index.get(key).getEncoded());
             }
         } catch (IOException ioe) {
             warning("failed to write index file ({0})", ioe.getMessage());
-        } finally {
-            if (ostream != null) {
-                try {
-                    ostream.close();
-                } catch (IOException ignore) {
-                    // ignore
-                }
+            return;
+        }
+
+        try (DataOutputStream ostream = outOpenIndex()) {
+            ostream.writeInt(INDEX_MAGIC);
+            ostream.writeInt(INDEX_VERSION);
+            ostream.writeInt(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                writeString(ostream, keys.get(i));
+                ostream.writeLong(index.get(keys.get(i)).mtime);
+                ostream.writeInt(packages.get(i).remaining());
+            }
+            for (ByteBuffer buf : packages) {
+                ostream.write(buf.array(), buf.arrayOffset() + buf.position(), buf.remaining());
             }
+        } catch (IOException ioe) {
+            warning("failed to write index file ({0})", ioe.getMessage());
         }
     }
 
-    // hooks for changing cache storage
+    /** Read a string written by {@link #writeString(DataOutputStream, String)}. */
+    private static String getString(ByteBuffer buf) {
+        byte[] bytes = new byte[checkLength(buf, buf.getInt(), 1)];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
 
     /**
-     * Class of object used to represent a cache file and last modification time, internally and to
-     * {@link CachedJarsPackageManager#outCreateCacheFile}. When caching, a {@code JarXEntry} is
-     * created for each JAR processed for classes, and corresponds to a file in the package cache
-     * directory. The name is based on the name of the JAR.
+     * Check a count read from the index against what remains of it, before anything is allocated
+     * for that many items of (at least) the given size in bytes. A count that cannot be right
+     * raises the same exception as reading past the end of a truncated index, so that the index,
+     * or the entry being decoded, is discarded and the JARs scanned again.
+     *
+     * @return {@code count}, if it is not negative and that many items could fit in {@code buf}
+     * @throws BufferUnderflowException otherwise
      */
-    public static class JarXEntry extends Object {
+    private static int checkLength(ByteBuffer buf, int count, int itemSize) {
+        if (count < 0 || count > buf.remaining() / itemSize) {
+            throw new BufferUnderflowException();
+        }
+        return count;
+    }
 
-        /** Specifies the actual cache file once that is created or opened. */
-        public String cachefile;
+    /** Write a string as its length in bytes and its UTF-8 encoding. */
+    private static void writeString(DataOutputStream ostream, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        ostream.writeInt(bytes.length);
+        ostream.write(bytes);
+    }
 
-        public long mtime;
+    /**
+     * The packages of one JAR recorded in the index, with the time the JAR was last modified. An
+     * entry read from the index keeps its packages encoded (in a slice of the mapped index) until
+     * the JAR is added, so that the entries of JARs not on the path are never decoded.
+     */
+    private static class IndexEntry {
 
-        public JarXEntry(String cachefile) {
-            this.cachefile = cachefile;
+        final long mtime;
+
+        /** The packages as in the index, or {@code null} if not yet encoded. */
+        private ByteBuffer encoded;
+
+        /** The packages by name, or {@code null} if not yet decoded. */
+        private Map<String, String> packages;
+
+        IndexEntry(long mtime, ByteBuffer encoded) {
+            this.mtime = mtime;
+            this.encoded = encoded;
         }
 
-        public JarXEntry(String cachefile, long mtime) {
-            this.cachefile = cachefile;
+        IndexEntry(long mtime, Map<String, String> packages) {
             this.mtime = mtime;
+            this.packages = packages;
         }
 
+        /** The packages by name, or {@code null} if the entry cannot be decoded. */
+        Map<String, String> getPackages() {
+            if (packages == null) {
+                try {
+                    ByteBuffer buf = encoded.duplicate();
+                    int count = buf.getInt();
+                    Map<String, String> map = Generic.map();
+                    for (int i = 0; i < count; i++) {
+                        String name = getString(buf);
+                        map.put(name, getString(buf));
+                    }
+                    packages = map;
+                } catch (RuntimeException e) {
+                    return null;
+                }
+            }
+            return packages;
+        }
+
+        /** The packages encoded for the index, in a buffer with an accessible array. */
+        ByteBuffer getEncoded() throws IOException {
+            if (encoded == null || !encoded.hasArray()) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                if (encoded == null) {
+                    DataOutputStream out = new DataOutputStream(bytes);
+                    out.writeInt(packages.size());
+                    for (Entry<String, String> kv : packages.entrySet()) {
+                        writeString(out, kv.getKey());
+                        writeString(out, kv.getValue());
+                    }
+                    out.flush();
+                } else {
+                    // Copy out of the mapped index
+                    byte[] b = new byte[encoded.remaining()];
+                    encoded.duplicate().get(b);
+                    bytes.write(b);
+                }
+                encoded = ByteBuffer.wrap(bytes.toByteArray());
+            }
+            return encoded.duplicate();
+        }
+    }
+
+    // hooks for changing cache storage
+
+    /** Name of the index in the cache directory. */
+    private static final String INDEX_FILE = "packages.jpi";
+
+    /** The stream {@link #inOpenIndex()} opens on the index in the cache directory. */
+    private static class IndexFileInputStream extends DataInputStream {
+
+        final File file;
+
+        IndexFileInputStream(File file) throws IOException {
+            super(new BufferedInputStream(new FileInputStream(file)));
+            this.file = file;
+        }
     }
 
     /**
      * Open cache index for reading from persistent storage &ndash; hook. Must Return null if this
      * is absent. This default implementation is part of the off-the-shelf local file-system cache
-     * implementation. Can be overridden.
+     * implementation. Can be overridden, in which case {@link #inMapIndex()} reads the whole index
+     * from the stream returned.
      */
     protected DataInputStream inOpenIndex() throws IOException {
-        File indexFile = new File(this.cachedir, "packages.idx");
+        File indexFile = new File(this.cachedir, INDEX_FILE);
         if (!indexFile.exists()) {
             return null;
         } else {
-            FileInputStream istream = new FileInputStream(indexFile);
-            return new DataInputStream(new BufferedInputStream(istream));
+            return new IndexFileInputStream(indexFile);
+        }
+    }
+
+    /**
+     * Map the cache index into memory from persistent storage &ndash; hook. Must return null if
+     * this is absent. This default implementation opens the index through {@link #inOpenIndex()}.
+     * When that is the file in the cache directory, the file is mapped (or on Windows, where a
+     * mapped file may not be replaced, read), and otherwise the stream is read to its end. Can be
+     * overridden.
+     */
+    protected ByteBuffer inMapIndex() throws IOException {
+        try (DataInputStream istream = inOpenIndex()) {
+            if (istream == null) {
+                return null;
+            } else if (!(istream instanceof IndexFileInputStream)) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                byte[] b = new byte[8192];
+                for (int n; (n = istream.read(b)) > 0;) {
+                    bytes.write(b, 0, n);
+                }
+                return ByteBuffer.wrap(bytes.toByteArray());
+            }
+            Path indexPath = ((IndexFileInputStream)istream).file.toPath();
+            if (Platform.IS_WINDOWS) {
+                return ByteBuffer.wrap(Files.readAllBytes(indexPath));
+            } else {
+                try (FileChannel channel = FileChannel.open(indexPath)) {
+                    return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+            }
         }
     }
 
     /**
      * Open cache index for writing back to persistent storage &ndash; hook. This default
-     * implementation is part of the off-the-shelf local file-system cache implementation. Can be
+     * implementation is part of the off-the-shelf local file-system cache implementation. It
+     * writes a temporary file that replaces the index when the stream is closed. Can be
      * overridden.
      */
     protected DataOutputStream outOpenIndex() throws IOException {
-        File indexFile = FileUtil.makePrivateRW(new File(this.cachedir, "packages.idx"));
-        FileOutputStream ostream = new FileOutputStream(indexFile);
+        final File indexFile = new File(this.cachedir, INDEX_FILE);
+        final File tmpFile = FileUtil.makePrivateRW(File.createTempFile("packages", ".tmp",
+                this.cachedir));
+        OutputStream ostream = new FilterOutputStream(new FileOutputStream(tmpFile)) {
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                    Files.move(tmpFile.toPath(), indexFile.toPath(),
+                            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    tmpFile.delete();
+                }
+            }
+        };
         return new DataOutputStream(new BufferedOutputStream(ostream));
     }
 
     /**
-     * Open a particular cache file for reading from persistent storage. This default implementation
-     * is part of the off-the-shelf local file-system cache implementation. Can be overridden.
+     * Describes a cache file of one JAR, in the layout of the cache before the index held the
+     * packages of every JAR.
+     *
+     * @deprecated The packages of every JAR are now held in the index, read through
+     *             {@link #inOpenIndex()} and written through {@link #outOpenIndex()}, so there
+     *             are no cache files for single JARs. This class is no longer used.
+     */
+    @Deprecated
+    public static class JarXEntry extends Object {
+
+        /** Specifies the actual cache file once that is created or opened. */
+        public String cachefile;
+
+        public long mtime;
+
+        public JarXEntry(String cachefile) {
+            this.cachefile = cachefile;
+        }
+
+        public JarXEntry(String cachefile, long mtime) {
+            this.cachefile = cachefile;
+            this.mtime = mtime;
+        }
+
+    }
+
+    /**
+     * Split up a string into several chunks based on a certain size.
+     *
+     * @deprecated No longer used: strings in the index are not limited in length.
      */
+    @Deprecated
+    protected static String[] splitString(String str, int maxLength) {
+        if (str == null) {
+            return null;
+        }
+
+        int len = str.length();
+        if (len <= maxLength) {
+            return new String[] {str};
+        }
+
+        int chunkCount = (int) Math.ceil((float) len / maxLength);
+        String[] chunks = new String[chunkCount];
+        for (int i = 0; i < chunkCount; i++) {
+            chunks[i] = str.substring(i * maxLength, Math.min(i * maxLength + maxLength, len));
+        }
+        return chunks;
+    }
+
+    /**
+     * Open a particular cache file for reading from persistent storage.
+     *
+     * @deprecated There are no longer cache files for single JARs, and this hook is not called:
+     *             override {@link #inOpenIndex()} (or {@link #inMapIndex()}) and
+     *             {@link #outOpenIndex()} to keep the cache elsewhere.
+     */
+    @Deprecated
     protected DataInputStream inOpenCacheFile(String cachefile) throws IOException {
         return new DataInputStream(new BufferedInputStream(new FileInputStream(cachefile)));
     }
@@ -790,25 +976,22 @@ public abstract class CachedJarsPackageManager extends PackageManager {
     /**
      * Delete (invalidated) cache file from persistent storage - hook. This default implementation
      * is part of the off-the-shelf local file-system cache implementation. Can be overridden.
+     *
+     * @deprecated There are no longer cache files for single JARs: this hook is only called to
+     *             delete those left in the cache directory by earlier versions.
      */
+    @Deprecated
     protected void deleteCacheFile(String cachefile) {
         new File(cachefile).delete();
     }
 
     /**
-     * Create/open cache file for rewriting back to persistent storage &ndash; hook. If
-     * {@code create} is {@code false}, the cache file is supposed to exist at
-     * {@code entry.cachefile} and will be opened for rewriting. If {@code create} is {@code true},
-     * {@code entry.cachefile} is the base name (e.g. JAR or module name) for a cache to be created,
-     * and the full name will be put in {@code entry.cachefile} on exit. This default implementation
-     * is part of the off-the-shelf local file-system cache implementation. It may be overridden to
-     * provide a different cache medium and use of {@code entry.cachefile}.
+     * Create/open cache file for rewriting back to persistent storage &ndash; hook.
      *
-     * @param entry cache file description
-     * @param create new or use existing file named in {@code entry.cachefile}
-     * @return stream on which to represent the package to class-list textually
-     * @throws IOException
+     * @deprecated There are no longer cache files for single JARs, and this hook is not called:
+     *             override {@link #outOpenIndex()} to keep the cache elsewhere.
      */
+    @Deprecated
     protected DataOutputStream outCreateCacheFile(JarXEntry entry, boolean create)
             throws IOException {
 
@@ -846,6 +1029,7 @@ public abstract class CachedJarsPackageManager extends PackageManager {
             if (cachedir != null) {
                 if (cachedir.isDirectory() || cachedir.mkdirs()) {
                     this.cachedir = cachedir;
+                    removeOldCache();
                     return true;
                 } else {
                     warning("failed to create cache dir ''{0}''", cachedir);
@@ -857,4 +1041,24 @@ public abstract class CachedJarsPackageManager extends PackageManager {
         return false;
     }
 
+    /**
+     * Delete the index and files of one cache file per JAR, written by versions before the index
+     * held the packages itself.
+     */
+    private void removeOldCache() {
+        File oldIndex = new File(this.cachedir, "packages.idx");
+        if (oldIndex.exists()) {
+            comment("removing cache files in the old format");
+            File[] files = this.cachedir.listFiles();
+            if (files != null) {
+                for (File f : files) {
+                    if (f.getName().endsWith(".pkc")) {
+                        deleteCacheFile(f.getPath());
+                    }
+                }
+            }
+            oldIndex.delete();
+        }
+    }
+
 }
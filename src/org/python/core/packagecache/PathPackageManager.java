@@ -8,6 +8,8 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Level;
 
 import org.python.core.Py;
@@ -197,15 +199,16 @@ public abstract class PathPackageManager extends CachedJarsPackageManager {
     /**
      * Scan a Java class-path that may be a mixture of directory and JAR specifiers, and within each
      * path entry index the packages. Calls {@link #addDirectory} if a path entry refers to a dir,
-     * {@link #addJarToPackages(java.io.File, boolean)} with param cache true if the path entry
-     * refers to a jar.
+     * and {@link #addJarsToPackages(List, boolean)} with param cache true for the path entries
+     * that refer to a jar.
      */
     public void addClassPath(String path) {
         String[] entries = path.split(java.io.File.pathSeparator);
+        List<File> jars = new ArrayList<File>();
         for (String entry : entries) {
             entry = entry.trim();
             if (entry.endsWith(".jar") || entry.endsWith(".zip")) {
-                addJarToPackages(new File(entry), true);
+                jars.add(new File(entry));
             } else {
                 File dir = new File(entry);
                 if (entry.length() == 0 || dir.isDirectory()) {
@@ -213,6 +216,7 @@ public abstract class PathPackageManager extends CachedJarsPackageManager {
                 }
             }
         }
+        addJarsToPackages(jars, true);
     }
 
     @Override
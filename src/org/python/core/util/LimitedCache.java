@@ -9,7 +9,8 @@ import java.util.Map.Entry;
  * Not for application use, a cache of recently given results from some costly function. This is
  * only public so we can reach it from the run-time. The user sets a nominal size for the cache. The
  * cache will grow to this size and a little more, but from time to time discard the "little more"
- * on the basis of a score that depends on recency of use.
+ * on the basis of a score that depends on recency of use. The cache may be used from several
+ * threads at once.
  */
 public class LimitedCache<K, V> {
 
@@ -158,7 +159,7 @@ public class LimitedCache<K, V> {
     }
 
     @Override
-    public String toString() {
+    public synchronized String toString() {
         StringBuilder b = new StringBuilder();
         b.append("LimitedCache [clock=").append(clock);
         b.append(", size=").append(map.size());
@@ -7,8 +7,8 @@ import java.util.EnumSet;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
-import org.python.core.BytecodeLoader;
 import org.python.core.Py;
+import org.python.core.ModuleCodeCache;
 import org.python.core.PyCode;
 import org.python.core.PyList;
 import org.python.core.PyModule;
@@ -77,6 +77,15 @@ public abstract class importer<T> extends PyObject {
      */
     protected abstract T makeEntry(String filenameAndSuffix);
 
+    /**
+     * Whether a module, given by a filename from makeFilename, may be present in this importer. An
+     * importer that can tell at once that it is not, without a makeEntry for each suffix in the
+     * search order, should override this.
+     */
+    protected boolean mayHaveModule(String filename) {
+        return true;
+    }
+
     /**
      * Returns a Bundle for fullFilename and entry, the result from a makeEntry call for
      * fullFilename.
@@ -169,6 +178,9 @@ public abstract class importer<T> extends PyObject {
      */
     protected final ModuleInfo getModuleInfo(String fullname) {
         String path = makeFilename(fullname);
+        if (!mayHaveModule(path)) {
+            return ModuleInfo.NOT_FOUND;
+        }
 
         for (SearchOrderEntry entry : searchOrder) {
             T importEntry = makeEntry(path + entry.suffix);
@@ -195,7 +207,7 @@ public abstract class importer<T> extends PyObject {
         String path = makeFilename(fullname);
         String fullPath = makeFilePath(fullname);
 
-        if (path.length() == 0) {
+        if (path.length() == 0 || !mayHaveModule(path)) {
             return null;
         }
 
@@ -237,7 +249,7 @@ public abstract class importer<T> extends PyObject {
                 bundle.close();
             }
 
-            PyCode code = BytecodeLoader.makeCode(fullname + "$py", codeBytes, fullSearchPath);
+            PyCode code = ModuleCodeCache.makeCode(fullname + "$py", codeBytes, fullSearchPath);
             return new ModuleCodeData(code, isPackage, fullSearchPath);
         }
         return null;
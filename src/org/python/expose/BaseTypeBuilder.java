@@ -8,6 +8,15 @@ import org.python.core.PyObject;
 import org.python.core.PyStringMap;
 import org.python.core.PyType;
 
+/**
+ * The base of the builders generated for exposed types. A builder is made with either the methods,
+ * data descriptors and <code>__new__</code> wrapper of the type, or with only the names they will
+ * be exposed under, in which case the builder creates them in
+ * {@link #createMethods()}, {@link #createDescrs()} and {@link #createNewWrapper()} when
+ * {@link #getDict(PyType)} is called. Builders generated by {@code TypeExposer} take the second
+ * form, so that the classes exposing the methods and attributes of a type are only loaded once
+ * its dict is needed.
+ */
 public class BaseTypeBuilder implements TypeBuilder {
 
     private PyNewWrapper newWrapper;
@@ -16,6 +25,8 @@ public class BaseTypeBuilder implements TypeBuilder {
 
     private PyDataDescr[] descrs;
 
+    private String[] names;
+
     private Class<? extends PyObject> typeClass;
 
     private Class<?> baseClass;
@@ -44,8 +55,49 @@ public class BaseTypeBuilder implements TypeBuilder {
         this.newWrapper = newWrapper;
     }
 
+    /**
+     * Make a builder that creates the methods, data descriptors and <code>__new__</code> wrapper
+     * of the type when its dict is built.
+     *
+     * @param names the names of all the entries of the dict, including <code>__new__</code> if
+     *            there is a wrapper for it
+     */
+    public BaseTypeBuilder(String name,
+                           Class<? extends PyObject> typeClass,
+                           Class<?> baseClass,
+                           boolean isBaseType,
+                           String doc,
+                           String[] names) {
+        this.typeClass = typeClass;
+        this.baseClass = baseClass;
+        this.isBaseType = isBaseType;
+        this.doc = doc;
+        this.name = name;
+        this.names = names;
+    }
+
+    /** Create the methods of the type, for a builder made with only their names. */
+    protected PyBuiltinMethod[] createMethods() {
+        return new PyBuiltinMethod[0];
+    }
+
+    /** Create the data descriptors of the type, for a builder made with only their names. */
+    protected PyDataDescr[] createDescrs() {
+        return new PyDataDescr[0];
+    }
+
+    /** Create the <code>__new__</code> wrapper of the type, or return <code>null</code>. */
+    protected PyNewWrapper createNewWrapper() {
+        return null;
+    }
+
     @Override
     public PyObject getDict(PyType type) {
+        if (meths == null) {
+            meths = createMethods();
+            descrs = createDescrs();
+            newWrapper = createNewWrapper();
+        }
         PyStringMap dict = new PyStringMap();
         for(PyBuiltinMethod func : meths) {
             PyMethodDescr pmd = func.makeDescriptor(type);
@@ -62,6 +114,11 @@ public class BaseTypeBuilder implements TypeBuilder {
         return dict;
     }
 
+    @Override
+    public String[] getNames() {
+        return names;
+    }
+
     @Override
     public String getName() {
         return name;
@@ -12,6 +12,15 @@ public interface TypeBuilder {
 
     public PyObject getDict(PyType type);
 
+    /**
+     * The names of the entries of the dict {@link #getDict(PyType)} will build, or
+     * <code>null</code> if they are not known without building it. When they are known, a
+     * <code>PyType</code> defers building its dict until the dict is first consulted.
+     */
+    default String[] getNames() {
+        return null;
+    }
+
     public Class<? extends PyObject> getTypeClass();
 
     public Class<?> getBase();
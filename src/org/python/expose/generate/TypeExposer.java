@@ -1,6 +1,9 @@
 package org.python.expose.generate;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 
 import org.python.core.BytecodeLoader;
@@ -103,6 +106,11 @@ public class TypeExposer extends Exposer {
         return name;
     }
 
+    /**
+     * Generates a builder that is made with only the names of the entries of the dict, and creates
+     * the methods, descriptors and <code>__new__</code> wrapper when the dict is built, so that
+     * their classes are not loaded until then.
+     */
     protected void generate() {
         startConstructor();
         mv.visitVarInsn(ALOAD, 0);
@@ -115,13 +123,35 @@ public class TypeExposer extends Exposer {
         } else {
             mv.visitLdcInsn(doc);
         }
+        List<String> names = new ArrayList<String>();
+        for (MethodExposer exposer : methods) {
+            names.addAll(Arrays.asList(exposer.getNames()));
+        }
+        for (DescriptorExposer desc : descriptors) {
+            names.add(desc.getName());
+        }
+        if (ne != null) {
+            names.add("__new__");
+        }
+        mv.visitLdcInsn(names.size());
+        mv.visitTypeInsn(ANEWARRAY, STRING.getInternalName());
+        int i = 0;
+        for (String name : names) {
+            mv.visitInsn(DUP);
+            mv.visitLdcInsn(i++);
+            mv.visitLdcInsn(name);
+            mv.visitInsn(AASTORE);
+        }
+        superConstructor(STRING, CLASS, CLASS, BOOLEAN, STRING, ASTRING);
+        endConstructor();
+
+        startMethod("createMethods", ABUILTIN_METHOD);
         mv.visitLdcInsn(numNames);
         mv.visitTypeInsn(ANEWARRAY, BUILTIN_METHOD.getInternalName());
-        mv.visitVarInsn(ASTORE, 1);
-        int i = 0;
-        for(MethodExposer exposer : methods) {
-            for(final String name : exposer.getNames()) {
-                mv.visitVarInsn(ALOAD, 1);
+        i = 0;
+        for (MethodExposer exposer : methods) {
+            for (final String name : exposer.getNames()) {
+                mv.visitInsn(DUP);
                 mv.visitLdcInsn(i++);
                 instantiate(exposer.getGeneratedType(), new Instantiator(STRING) {
 
@@ -132,25 +162,24 @@ public class TypeExposer extends Exposer {
                 mv.visitInsn(AASTORE);
             }
         }
-        mv.visitVarInsn(ALOAD, 1);
+        endMethod(ARETURN);
+
+        startMethod("createDescrs", ADATA_DESCR);
         mv.visitLdcInsn(descriptors.size());
         mv.visitTypeInsn(ANEWARRAY, DATA_DESCR.getInternalName());
-        mv.visitVarInsn(ASTORE, 2);
         i = 0;
-        for(DescriptorExposer desc : descriptors) {
-            mv.visitVarInsn(ALOAD, 2);
+        for (DescriptorExposer desc : descriptors) {
+            mv.visitInsn(DUP);
             mv.visitLdcInsn(i++);
             instantiate(desc.getGeneratedType());
             mv.visitInsn(AASTORE);
         }
-        mv.visitVarInsn(ALOAD, 2);
-        if(ne != null) {
+        endMethod(ARETURN);
+
+        if (ne != null) {
+            startMethod("createNewWrapper", PYNEWWRAPPER);
             instantiate(ne.getGeneratedType());
-        } else {
-            mv.visitInsn(ACONST_NULL);
+            endMethod(ARETURN);
         }
-        superConstructor(STRING, CLASS, CLASS, BOOLEAN, STRING, ABUILTIN_METHOD, ADATA_DESCR,
-                         PYNEWWRAPPER);
-        endConstructor();
     }
 }
@@ -37,6 +37,7 @@ public class Setup
         "_jyio:org.python.modules._io._jyio",
         "_json:org.python.modules._json._json",
         "_jythonlib:org.python.modules._jythonlib._jythonlib",
+        "_jyprofiler",
         "_marshal",
         "_py_compile",
         "_random:org.python.modules.random.RandomModule",
@@ -8,6 +8,7 @@ import java.io.InputStream;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.python.core.DirectoryCache;
 import org.python.core.Py;
 import org.python.core.PyFile;
 import org.python.core.PyList;
@@ -16,6 +17,7 @@ import org.python.core.PyObject;
 import org.python.core.PyString;
 import org.python.core.PySystemState;
 import org.python.core.PyTuple;
+import org.python.core.ZipDirectory;
 import org.python.core.__builtin__;
 import org.python.core.imp;
 
@@ -227,8 +229,15 @@ public class _imp {
         if (path == Py.None) {
             path = Py.getSystemState().path;
         }
+        String sourceName = name + ".py";
+        String compiledName = imp.makeCompiledFilename(sourceName);
         for (PyObject p : path.asIterable()) {
-            ModuleInfo mi = findFromSource(name, Py.fileSystemDecode(p), false, true);
+            String entry = Py.fileSystemDecode(p);
+            if (!DirectoryCache.mayContain(PySystemState.getPathLazy(entry), name, sourceName,
+                    compiledName)) {
+                continue;
+            }
+            ModuleInfo mi = findFromSource(name, entry, false, true);
             if(mi == null) {
                 continue;
             }
@@ -330,6 +339,15 @@ public class _imp {
         return false;
     }
 
+    /**
+     * Discard the listings of directories and the ZIP archive directories cached by the import
+     * system, so that modules written since they were made may be imported.
+     */
+    public static void invalidate_caches() {
+        DirectoryCache.invalidate();
+        ZipDirectory.invalidate();
+    }
+
     /**
      * Acquires the interpreter's import lock for the current thread.
      *
@@ -0,0 +1,62 @@
+package org.python.modules;
+
+import java.io.IOException;
+
+import org.python.core.Py;
+import org.python.core.PyString;
+import org.python.core.SamplingProfiler;
+
+/**
+ * The Python interface to the {@link SamplingProfiler}, which samples the Python stacks of all
+ * threads at an interval and reports them as collapsed stacks for flame graph tools.
+ */
+public class _jyprofiler {
+
+    public static PyString __doc__ = new PyString(
+        "Sampling profiler over Python frames.\n\n" +
+        "start([interval]) -- sample every thread's Python stack each interval ms\n" +
+        "stop() -- stop sampling, keeping the profile\n" +
+        "is_running() -- whether the profiler is sampling\n" +
+        "clear() -- discard the profile\n" +
+        "sample_count() -- number of stacks sampled\n" +
+        "collapsed() -- the profile as collapsed stacks, one per line\n" +
+        "write(filename) -- write the collapsed stacks to a file\n");
+
+    public static final int DEFAULT_INTERVAL = SamplingProfiler.DEFAULT_INTERVAL;
+
+    public static void start() {
+        SamplingProfiler.start(DEFAULT_INTERVAL);
+    }
+
+    public static void start(int interval) {
+        SamplingProfiler.start(interval);
+    }
+
+    public static void stop() {
+        SamplingProfiler.stop();
+    }
+
+    public static boolean is_running() {
+        return SamplingProfiler.isRunning();
+    }
+
+    public static void clear() {
+        SamplingProfiler.clear();
+    }
+
+    public static long sample_count() {
+        return SamplingProfiler.getSampleCount();
+    }
+
+    public static String collapsed() {
+        return SamplingProfiler.collapsed();
+    }
+
+    public static void write(String filename) {
+        try {
+            SamplingProfiler.write(filename);
+        } catch (IOException e) {
+            throw Py.IOError(e);
+        }
+    }
+}
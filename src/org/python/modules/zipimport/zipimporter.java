@@ -5,7 +5,6 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Date;
-import java.util.Enumeration;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.zip.ZipEntry;
@@ -24,6 +23,7 @@ import org.python.core.PyTuple;
 import org.python.core.PyType;
 import org.python.core.PyUnicode;
 import org.python.core.Traverseproc;
+import org.python.core.ZipDirectory;
 import org.python.core.Visitproc;
 import org.python.core.imp;
 import org.python.core.util.FileUtil;
@@ -71,6 +71,9 @@ public class zipimporter extends importer<PyObject> implements Traverseproc {
     @ExposedGet(name = "_files")
     public PyObject files;
 
+    /** The directory of the archive, shared with other importers of it */
+    private ZipDirectory directory;
+
     /** The PySystemState this zipimporter is associated with */
     private PySystemState sys;
 
@@ -127,8 +130,12 @@ public class zipimporter extends importer<PyObject> implements Traverseproc {
             PyUnicode archivePath = Py.newUnicode(archive);
             files = zipimport._zip_directory_cache.__finditem__(archivePath);
             if (files == null) {
-                files = readDirectory(archive);
+                // Not known to this process, or the cache was cleared: read the archive afresh
+                directory = readDirectory(archive, true);
+                files = makeFiles(directory);
                 zipimport._zip_directory_cache.__setitem__(archivePath, files);
+            } else {
+                directory = readDirectory(archive, false);
             }
         } else {
             throw zipimport.ZipImportError("not a Zip file: " + path);
@@ -349,43 +356,29 @@ public class zipimporter extends importer<PyObject> implements Traverseproc {
     }
 
     /**
-     * readDirectory(archive) -> files dict (new reference)
-     *
-     * Given a path to a Zip archive, build a dict, mapping file names
-     * (local to the archive, using SEP as a separator) to toc entries.
+     * Given a path to a Zip archive, return its directory, shared with other importers of the
+     * archive.
      *
-     * @param archive PyString path to the archive
-     * @return a PyDictionary of tocEntrys
-     * @see #readZipFile(ZipFile, PyObject)
+     * @param archive path to the archive
+     * @param fresh read the directory even if the shared one is up to date
+     * @return the directory
      */
-    private PyObject readDirectory(String archive) {
+    private ZipDirectory readDirectory(String archive, boolean fresh) {
         File file = new File(sys.getPath(archive));
         if (!file.canRead()) {
             throw zipimport.ZipImportError(String.format("can't open Zip file: '%s'", archive));
         }
 
-        ZipFile zipFile;
         try {
-            zipFile = new ZipFile(file);
+            return fresh ? ZipDirectory.read(file) : ZipDirectory.get(file);
         } catch (IOException ioe) {
             throw zipimport.ZipImportError(String.format("can't read Zip file: '%s'", archive));
         }
-
-        PyObject files = new PyDictionary();
-        try {
-            readZipFile(zipFile, files);
-        } finally {
-            try {
-                zipFile.close();
-            } catch (IOException ioe) {
-                throw Py.IOError(ioe);
-            }
-        }
-        return files;
     }
 
     /**
-     * Read ZipFile metadata into a dict of toc entries.
+     * Make a dict of toc entries from the directory of the archive, mapping file names (local to
+     * the archive, using SEP as a separator) to toc entries.
      *
      * A tocEntry is a tuple:
      *
@@ -402,32 +395,31 @@ public class zipimporter extends importer<PyObject> implements Traverseproc {
      * Directories can be recognized by the trailing SEP in the name, data_size and
      * file_offset are 0.
      *
-     * @param zipFile ZipFile to read
-     * @param files a dict-like PyObject
+     * @param directory of the archive
+     * @return a PyDictionary of tocEntrys
      */
-    private void readZipFile(ZipFile zipFile, PyObject files) {
-        for (Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
-             zipEntries.hasMoreElements();) {
-            ZipEntry zipEntry = zipEntries.nextElement();
-            String name = zipEntry.getName().replace('/', File.separatorChar);
+    private PyObject makeFiles(ZipDirectory directory) {
+        PyObject files = new PyDictionary();
+        for (ZipDirectory.Entry zipEntry : directory.entries()) {
+            String name = zipEntry.name.replace('/', File.separatorChar);
 
             // File names generally expected in the FS encoding at the Python level
             PyObject __file__ = Py.fileSystemEncode(archive + File.separator + name);
-            PyObject compress = Py.newInteger(zipEntry.getMethod());
-            PyObject data_size = new PyLong(zipEntry.getCompressedSize());
-            PyObject file_size = new PyLong(zipEntry.getSize());
+            PyObject compress = Py.newInteger(zipEntry.method);
+            PyObject data_size = new PyLong(zipEntry.compressedSize);
+            PyObject file_size = new PyLong(zipEntry.size);
             // file_offset is a CPython optimization; it's used to seek directly to the
-            // file when reading it later. Jython doesn't do this nor is the offset
-            // available
+            // file when reading it later. Jython doesn't do this.
             PyObject file_offset = Py.newInteger(-1);
-            PyObject time = new PyInteger(epochToDosTime(zipEntry.getTime()));
-            PyObject date = new PyInteger(epochToDosDate(zipEntry.getTime()));
-            PyObject crc = new PyLong(zipEntry.getCrc());
+            PyObject time = new PyInteger(zipEntry.dosTime);
+            PyObject date = new PyInteger(zipEntry.dosDate);
+            PyObject crc = new PyLong(zipEntry.crc);
 
             PyTuple entry = new PyTuple(__file__, compress, data_size, file_size, file_offset,
                                         time, date, crc);
             files.__setitem__(Py.newStringOrUnicode(name), entry);
         }
+        return files;
     }
 
     @Override
@@ -450,6 +442,11 @@ public class zipimporter extends importer<PyObject> implements Traverseproc {
         return makePackagePath(fullname);
     }
 
+    @Override
+    protected boolean mayHaveModule(String filename) {
+        return directory == null || directory.hasModule(filename.replace(File.separatorChar, '/'));
+    }
+
     @Override
     protected PyObject makeEntry(String fullFilename) {
         return files.__finditem__(fullFilename);
@@ -470,36 +467,6 @@ public class zipimporter extends importer<PyObject> implements Traverseproc {
         return fullname;
     }
 
-    /**
-     * Convert a time in milliseconds since epoch to DOS date format
-     *
-     * @param time in milliseconds, a long value
-     * @return an int, dos style date value
-     */
-    @SuppressWarnings("deprecation")
-    private int epochToDosDate(long time) {
-        // This and the other conversion methods are cut and pasted from
-        // java.util.zip.ZipEntry: hence the use deprecated Date APIs
-        Date d = new Date(time);
-        int year = d.getYear() + 1900;
-        if (year < 1980) {
-            return (1 << 21) | (1 << 16);
-        }
-        return (year - 1980) << 9 | (d.getMonth() + 1) << 5 | d.getDate() << 0;
-    }
-
-    /**
-     * Convert a time in milliseconds since epoch to DOS time format
-     *
-     * @param time in milliseconds, a long value
-     * @return an int, dos style time value
-     */
-    @SuppressWarnings("deprecation")
-    private int epochToDosTime(long time) {
-        Date d = new Date(time);
-        return d.getHours() << 11 | d.getMinutes() << 5 | d.getSeconds() >> 1;
-    }
-
     /**
      * Convert the date/time values found in the Zip archive to a long
      * time (in milliseconds) value.
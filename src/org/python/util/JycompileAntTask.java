@@ -1,10 +1,14 @@
 package org.python.util;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 import java.util.Set;
 
 import org.apache.tools.ant.BuildException;
+import org.apache.tools.ant.Project;
+import org.python.core.BatchCompiler;
 import org.python.core.PyException;
 import org.python.core.PySystemState;
 import org.python.core.RegistryKey;
@@ -17,6 +21,17 @@ import org.python.modules._py_compile;
  */
 public class JycompileAntTask extends GlobMatchingTask {
 
+    private int threads = 1;
+
+    /**
+     * Set the number of files compiled at once: 1 (the default) compiles them one at a time
+     * through {@link #compile(File, File, String)}, and any other number on a pool of that many
+     * threads by a {@link BatchCompiler}, where 0 means one thread for each processor.
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
     @Override
     public void process(Set<File> toCompile) throws BuildException {
         if (toCompile.size() == 0) {
@@ -29,19 +44,17 @@ public class JycompileAntTask extends GlobMatchingTask {
         Properties props = new Properties();
         props.setProperty(RegistryKey.PYTHON_CACHEDIR_SKIP, "true");
         PySystemState.initialize(System.getProperties(), props);
+        if (threads != 1) {
+            processInParallel(toCompile);
+            return;
+        }
         for (File src : toCompile) {
             try {
                 String name = _py_compile.getModuleName(src);
-                String compiledFilePath = name.replace('.', '/');
-                if (src.getName().endsWith("__init__.py")) {
-                    compiledFilePath += "/__init__.py";
-                } else {
-                    compiledFilePath += ".py";
-                    // so we can apply imp.makeCompiledFilename
-                }
-                File compiled = new File(destDir,
-                        imp.makeCompiledFilename(compiledFilePath));
-                compile(src, compiled, name);
+                long start = System.nanoTime();
+                compile(src, getCompiledFile(src, name), name);
+                log(String.format("%s (%.1f ms)", src, (System.nanoTime() - start) / 1e6),
+                        Project.MSG_VERBOSE);
             } catch (RuntimeException e) {
                 log("Could not compile " + src);
                 throw e;
@@ -49,10 +62,54 @@ public class JycompileAntTask extends GlobMatchingTask {
         }
     }
 
+    private void processInParallel(Set<File> toCompile) throws BuildException {
+        List<BatchCompiler.Task> tasks = new ArrayList<BatchCompiler.Task>(toCompile.size());
+        for (File src : toCompile) {
+            String name = _py_compile.getModuleName(src);
+            tasks.add(new BatchCompiler.Task(src, getCompiledFile(src, name), name, null));
+        }
+        BatchCompiler compiler = new BatchCompiler(threads);
+        log("Compiling on " + compiler.getThreads() + " threads", Project.MSG_VERBOSE);
+        List<BatchCompiler.Result> results;
+        try {
+            results = compiler.compile(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BuildException("Compilation interrupted", e);
+        }
+        int failed = 0;
+        for (BatchCompiler.Result result : results) {
+            log(result.toString(), Project.MSG_VERBOSE);
+            if (!result.isOk()) {
+                // Report every failure before failing the build, once all the files are done
+                log("Could not compile " + result.task.source + "\n" + result.error,
+                        Project.MSG_ERR);
+                failed++;
+            }
+        }
+        if (failed > 0) {
+            throw new BuildException("Compile failed for " + failed
+                    + " files; see the errors logged for details.");
+        }
+    }
+
+    /** The file in {@code destDir} to which the module of the given name is compiled. */
+    private File getCompiledFile(File src, String name) {
+        String compiledFilePath = name.replace('.', '/');
+        if (src.getName().endsWith("__init__.py")) {
+            compiledFilePath += "/__init__.py";
+        } else {
+            compiledFilePath += ".py";
+            // so we can apply imp.makeCompiledFilename
+        }
+        return new File(destDir, imp.makeCompiledFilename(compiledFilePath));
+    }
+
     /**
      * Compiles the python file <code>src</code> to bytecode filling in <code>moduleName</code> as
      * its name, and stores it in <code>compiled</code>. This is called by process for every file
-     * that's compiled, so subclasses can override this method to affect or track the compilation.
+     * that's compiled (when {@link #setThreads(int) threads} is 1), so subclasses can override this
+     * method to affect or track the compilation.
      */
     protected void compile(File src, File compiled, String moduleName) {
         byte[] bytes;
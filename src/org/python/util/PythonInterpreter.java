@@ -1,13 +1,16 @@
 package org.python.util;
 
 import java.io.Closeable;
+import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
 import java.util.Properties;
 
 import org.python.antlr.base.mod;
+import org.python.core.CodeCache;
 import org.python.core.CodeFlag;
 import org.python.core.CompileMode;
+import org.python.core.CompilerFacade;
 import org.python.core.CompilerFlags;
 import org.python.core.Options;
 import org.python.core.ParserFacade;
@@ -314,13 +317,63 @@ public class PythonInterpreter implements AutoCloseable, Closeable {
     }
 
     public PyCode compile(String script, String filename) {
-        return compile(new StringReader(script), filename);
+        if (!CodeCache.isEnabled()) {
+            return compile(new StringReader(script), filename);
+        }
+        CompilerFlags flags = new CompilerFlags(cflags.toBits());
+        // As parsing from a Reader will, so that the key is the same next time
+        flags.source_is_utf8 = true;
+        flags.encoding = "utf-8";
+        String cacheKey = CodeCache.key(script, filename, "expression_or_module", flags);
+        PyCode code = CodeCache.load(cacheKey, filename, flags);
+        if (code == null) {
+            mod node = ParserFacade.parseExpressionOrModule(new StringReader(script), filename,
+                    flags);
+            code = cacheKey == null ? Py.compile_flags(node, filename, CompileMode.eval, flags)
+                    : CompilerFacade.compile(node, cacheKey, filename, false, flags);
+        }
+        setSystemState();
+        keepFutureFeatures(flags);
+        return code;
     }
 
     public PyCode compile(Reader reader, String filename) {
-        mod node = ParserFacade.parseExpressionOrModule(reader, filename, cflags);
+        if (CodeCache.isEnabled()) {
+            // The cache is keyed by the text of the script
+            return compile(readScript(reader), filename);
+        }
+        CompilerFlags flags = new CompilerFlags(cflags.toBits());
+        mod node = ParserFacade.parseExpressionOrModule(reader, filename, flags);
         setSystemState();
-        return Py.compile_flags(node, filename, CompileMode.eval, cflags);
+        PyCode code = Py.compile_flags(node, filename, CompileMode.eval, flags);
+        keepFutureFeatures(flags);
+        return code;
+    }
+
+    /**
+     * Keep the future features a script compiled with a copy of {@link #cflags} imported, but not
+     * the encoding it was parsed with, so that {@code compile} does not change how later scripts
+     * are decoded.
+     */
+    private void keepFutureFeatures(CompilerFlags flags) {
+        for (CodeFlag flag : CodeFlag.values()) {
+            if (flags.isFlagSet(flag)) {
+                cflags.setFlag(flag);
+            }
+        }
+    }
+
+    private static String readScript(Reader reader) {
+        StringBuilder script = new StringBuilder();
+        char[] buf = new char[8192];
+        try {
+            for (int n; (n = reader.read(buf)) >= 0;) {
+                script.append(buf, 0, n);
+            }
+        } catch (IOException e) {
+            throw Py.IOError(e);
+        }
+        return script.toString();
     }
 
     public PyObject getLocals() {
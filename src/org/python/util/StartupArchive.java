@@ -0,0 +1,158 @@
+package org.python.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import org.python.core.Py;
+import org.python.core.PyObject;
+import org.python.core.PyType;
+import org.python.core.__builtin__;
+
+/**
+ * The training run for an AppCDS archive of the Jython runtime, made by the launcher option
+ * {@code --cds}. A JVM started with {@code -XX:ArchiveClassesAtExit} writes, when it exits, an
+ * archive of the classes it loaded from the class path, already parsed and verified, which later
+ * JVMs map instead of loading those classes again. The training run should therefore load the
+ * classes that most programs load at startup, and {@link #train()} does this by:
+ * <ul>
+ * <li>building the type of every exposed class in the runtime, and its dict (which is otherwise
+ * built on first use), so that each {@code TypeBuilder} and the exposers of its methods and
+ * attributes are loaded,</li>
+ * <li>loading every {@code *Derived} class (the classes of Python subclasses of built-in types),
+ * and</li>
+ * <li>importing the modules of the standard library that are most often imported.</li>
+ * </ul>
+ * Python modules themselves are not archived: they are defined by Jython's own class loaders,
+ * which a dynamic archive does not cover, so they continue to be loaded from {@code $py.class}
+ * files.
+ */
+public class StartupArchive {
+
+    /** Suffix of the classes generated for an exposed type (see {@code ExposeTask}). */
+    private static final String EXPOSER_SUFFIX = "$PyExposer.class";
+
+    /** Suffix of the classes of Python subclasses of built-in types. */
+    private static final String DERIVED_SUFFIX = "Derived.class";
+
+    /** Modules imported by the training run. */
+    private static final String[] MODULES = {"os", "re", "codecs", "encodings.utf_8",
+            "encodings.ascii", "encodings.latin_1", "collections", "functools", "itertools",
+            "types", "string", "struct", "traceback", "linecache", "warnings", "threading", "io",
+            "time", "datetime", "json", "random", "math", "operator", "copy", "weakref",
+            "logging", "optparse", "argparse", "glob", "fnmatch", "shutil", "tempfile",
+            "subprocess", "socket", "errno", "stat", "posixpath", "genericpath", "StringIO",
+            "cStringIO", "pickle", "cPickle", "hashlib", "base64", "binascii", "textwrap",
+            "inspect", "contextlib", "abc", "unittest"};
+
+    /** Load the classes of the runtime and the modules that most programs use at startup. */
+    public static void train() {
+        int types = exposeTypes();
+        int modules = importModules();
+        Py.writeComment("cds", "training loaded " + types + " exposed types and " + modules
+                + " modules");
+    }
+
+    /**
+     * Build the types of all the exposed classes, with their dicts, and load all the
+     * {@code *Derived} classes, in the JAR or directory holding the runtime.
+     *
+     * @return the number of types built
+     */
+    public static int exposeTypes() {
+        ClassLoader loader = PyObject.class.getClassLoader();
+        int count = 0;
+        for (String name : runtimeClasses()) {
+            try {
+                if (name.endsWith(EXPOSER_SUFFIX)) {
+                    String outer = name.substring(0, name.length() - EXPOSER_SUFFIX.length());
+                    PyType.fromClass(Class.forName(outer, true, loader)).fastGetDict();
+                    count++;
+                } else if (name.endsWith(DERIVED_SUFFIX)) {
+                    Class.forName(name.substring(0, name.length() - ".class".length()), false,
+                            loader);
+                }
+            } catch (Exception | LinkageError e) {
+                // Not usable in this environment (for example, a native library is missing)
+                Py.writeDebug("cds", "cannot load " + name + ": " + e);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Import the modules most often imported.
+     *
+     * @return the number imported
+     */
+    public static int importModules() {
+        int count = 0;
+        for (String module : MODULES) {
+            try {
+                __builtin__.__import__(module);
+                count++;
+            } catch (RuntimeException e) {
+                Py.writeDebug("cds", "cannot import " + module + ": " + e);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The names (with {@code .} separators and the {@code .class} suffix) of the classes that may
+     * need loading, in the JAR or directory holding the runtime.
+     */
+    private static List<String> runtimeClasses() {
+        List<String> names = new ArrayList<String>();
+        CodeSource source = PyObject.class.getProtectionDomain().getCodeSource();
+        if (source == null) {
+            return names;
+        }
+        File location;
+        try {
+            location = new File(source.getLocation().toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return names;
+        }
+        if (location.isDirectory()) {
+            addClasses(names, location, "");
+        } else {
+            try (JarFile jar = new JarFile(location)) {
+                Enumeration<JarEntry> entries = jar.entries();
+                while (entries.hasMoreElements()) {
+                    addClass(names, entries.nextElement().getName());
+                }
+            } catch (IOException e) {
+                Py.writeDebug("cds", "cannot read " + location + ": " + e);
+            }
+        }
+        return names;
+    }
+
+    private static void addClasses(List<String> names, File dir, String prefix) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File f : files) {
+            if (f.isDirectory()) {
+                addClasses(names, f, prefix + f.getName() + "/");
+            } else {
+                addClass(names, prefix + f.getName());
+            }
+        }
+    }
+
+    private static void addClass(List<String> names, String path) {
+        if (path.startsWith("org/python/")
+                && (path.endsWith(EXPOSER_SUFFIX) || path.endsWith(DERIVED_SUFFIX))) {
+            names.add(path.replace('/', '.'));
+        }
+    }
+}
@@ -101,6 +101,7 @@ def parse_launcher_args(args):
         pass
     parsed = Namespace()
     parsed.boot = False # --boot flag given
+    parsed.cds = False # --cds flag given
     parsed.jdb = False # --jdb flag given
     parsed.help = False # --help or -h flag given
     parsed.print_requested = False # --print flag given
@@ -144,7 +145,7 @@ def parse_launcher_args(args):
             i += 1
         elif arg in (u"-h", u"--help"):
             parsed.help = True
-        elif arg in (u"--boot", u"--jdb", u"--profile"):
+        elif arg in (u"--boot", u"--cds", u"--jdb", u"--profile"):
             setattr(parsed, arg[2:], True)
             i += 1
         elif len(arg) >= 2 and arg[0] == u'-' and arg[1] in u"BEisSuvV3":
@@ -396,6 +397,31 @@ setting JYTHON_HOME.""".format(self.jython_home))
         self._java_major_version = major
         return major
 
+    @property
+    def cds_archive(self):
+        return get_env("JYTHON_CDS_ARCHIVE",
+                       os.path.join(self.jython_home, u"jython.jsa"))
+
+    def cds_args(self):
+        """ Return the JVM arguments for --cds: map the classes loaded at startup
+            from an AppCDS archive, writing it at exit if there is none or the
+            Jython JAR is newer.
+        """
+        if self.java_major_version < 13:
+            print >> sys.stderr, (u"--cds needs Java 13 or later; starting without "
+                                  u"a class archive.")
+            return []
+        archive = self.cds_archive
+        jar = os.path.join(self.jython_home, u"jython-dev.jar")
+        if not os.path.exists(jar):
+            jar = os.path.join(self.jython_home, u"jython.jar")
+        if (os.path.exists(archive) and
+                os.path.getmtime(archive) >= os.path.getmtime(jar)):
+            archive_arg = u"-XX:SharedArchiveFile=%s" % self.convert_path(archive)
+        else:
+            archive_arg = u"-XX:ArchiveClassesAtExit=%s" % self.convert_path(archive)
+        return [archive_arg, u"-Xshare:auto", u"-Xlog:cds=off", u"-Xlog:cds+dynamic=off"]
+
     @property
     def java_profile_agent(self):
         return os.path.join(self.jython_home_for_java, "javalib", "profile.jar")
@@ -464,6 +490,10 @@ setting JYTHON_HOME.""".format(self.jython_home))
                 and not any(a.startswith(u"--sun-misc-unsafe-memory-access") for a in args)):
             append_java_arg(u"--sun-misc-unsafe-memory-access=allow")
 
+        if self.args.cds and not self.args.help:
+            for arg in self.cds_args():
+                append_java_arg(arg)
+
         # Get the class path right (depends on --boot)
         classpath = self.java_classpath
         jython_jars = self.jython_jars
@@ -531,6 +561,8 @@ Jython launcher-specific options:
 -Dname=value : pass name=value property to Java VM (e.g. -Dpython.path=/a/b/c)
 -Jarg    : pass argument through to Java VM (e.g. -J-Xmx512m)
 --boot   : speeds up launch performance by putting Jython jars on the boot classpath
+--cds    : speeds up launch by mapping the classes loaded at startup from an AppCDS
+           archive, written by the first run (Java 13 and later)
 --help   : this help message
 --jdb    : run under JDB java debugger
 --print  : print the Java command with args for launching Jython instead of executing it
@@ -543,6 +575,7 @@ JAVA_OPTS  : options to pass directly to Java
 JAVA_HOME  : Java installation directory
 JYTHON_HOME: Jython installation directory
 JYTHON_OPTS: default command line arguments
+JYTHON_CDS_ARCHIVE: archive used by --cds (default JYTHON_HOME/jython.jsa)
 """
 
 def support_java_opts(args):
@@ -0,0 +1,187 @@
+package org.python.compiler;
+
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.python.antlr.ast.Assign;
+import org.python.antlr.ast.BinOp;
+import org.python.antlr.ast.Expr;
+import org.python.antlr.ast.FunctionDef;
+import org.python.antlr.ast.If;
+import org.python.antlr.ast.Module;
+import org.python.antlr.ast.Name;
+import org.python.antlr.ast.Num;
+import org.python.antlr.ast.Pass;
+import org.python.antlr.ast.Str;
+import org.python.antlr.base.expr;
+import org.python.antlr.base.stmt;
+import org.python.core.CompileMode;
+import org.python.core.CompilerFlags;
+import org.python.core.Options;
+import org.python.core.ParserFacade;
+import org.python.core.Py;
+import org.python.core.PyException;
+import org.python.core.PyObject;
+import org.python.util.PythonInterpreter;
+
+/**
+ * Tests of the {@link AstOptimizer}, and of code compiled with {@link Options#optimizeAst}: the
+ * tree is simplified as expected, and the code behaves as it does when not optimised.
+ */
+public class AstOptimizerTest extends TestCase {
+
+    private static final String PROGRAM = "def f(x):\n" //
+            + "    if 0:\n" //
+            + "        y = 1\n" //
+            + "    if __debug__:\n" //
+            + "        z = 2\n" //
+            + "    else:\n" //
+            + "        z = 3\n" //
+            + "    return (x in [1, 2, 3.0, 2 ** 70], x not in ('a', 'b'), x in (1, 'a'), z)\n" //
+            + "def unbound():\n" //
+            + "    if 0:\n" //
+            + "        y = 1\n" //
+            + "    try:\n" //
+            + "        return y\n" //
+            + "    except UnboundLocalError:\n" //
+            + "        return 'unbound'\n" //
+            + "def gen():\n" //
+            + "    if 0:\n" //
+            + "        yield 1\n" //
+            + "    return\n" //
+            + "    yield 2\n" //
+            + "class Eq(object):\n" //
+            + "    def __eq__(self, other):\n" //
+            + "        return other == 2\n" //
+            + "result = [f(1), f(3.0), f(2 ** 70), f('a'), f(True), f([1]), f(Eq()),\n" //
+            + "          unbound(), list(gen()), 60 * 60 * 24, 'ab' * 2 + 'c', -(2 ** 2),\n" //
+            + "          1 / 2, 7 // 2, 2 ** -1, (1, (2, 'x')), 1 < 2 in [2, 3]]\n";
+
+    private boolean optimizeAst;
+
+    @Override
+    protected void setUp() throws Exception {
+        optimizeAst = Options.optimizeAst;
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        Options.optimizeAst = optimizeAst;
+    }
+
+    private static List<stmt> optimize(String source) throws Exception {
+        Module node = (Module)ParserFacade.parse(source, CompileMode.exec, "<test>",
+                new CompilerFlags());
+        AstOptimizer.optimize(node);
+        return node.getInternalBody();
+    }
+
+    private static expr value(stmt node) {
+        return ((Assign)node).getInternalValue();
+    }
+
+    private static PyObject run(boolean optimize) {
+        Options.optimizeAst = optimize;
+        PythonInterpreter interp = new PythonInterpreter();
+        try {
+            interp.exec(PROGRAM);
+            return interp.get("result");
+        } finally {
+            interp.cleanup();
+        }
+    }
+
+    public void testFolding() throws Exception {
+        List<stmt> body = optimize("a = 60 * 60 * 24\n" //
+                + "b = 'ab' * 2 + 'c'\n" //
+                + "c = -(2 ** 2)\n" //
+                + "d = 1 / 2\n" //
+                + "e = 1 // 0\n" //
+                + "f = 2 ** 100000\n" //
+                + "g = '%s' % 1\n");
+        assertEquals(Py.newInteger(86400), ((Num)value(body.get(0))).getInternalN());
+        assertEquals(Py.newString("ababc"), ((Str)value(body.get(1))).getInternalS());
+        assertEquals(Py.newInteger(-4), ((Num)value(body.get(2))).getInternalN());
+        // Division depends on __future__ and -Q, errors are left to run time, and large results
+        // and formatting are not folded
+        for (stmt node : body.subList(3, body.size())) {
+            assertTrue(value(node) instanceof BinOp);
+        }
+    }
+
+    public void testDeadBranches() throws Exception {
+        List<stmt> body = optimize("if 0:\n" //
+                + "    a = 1\n" //
+                + "elif __debug__:\n" //
+                + "    b = 2\n" //
+                + "else:\n" //
+                + "    c = 3\n" //
+                + "d = 4 if not 1 else 5\n");
+        assertEquals(2, body.size());
+        Name target = (Name)((Assign)body.get(0)).getInternalTargets().get(0);
+        assertEquals("b", target.getInternalId());
+        assertEquals(Py.newInteger(5), ((Num)value(body.get(1))).getInternalN());
+
+        // A string the branch begins with does not become a docstring
+        body = optimize("if 1:\n    'not a docstring'\n");
+        assertTrue(body.get(0) instanceof Pass);
+        assertTrue(body.get(1) instanceof Expr);
+    }
+
+    public void testUnreachable() throws Exception {
+        List<stmt> body = optimize("def f():\n" //
+                + "    return 1\n" //
+                + "    x = 2\n" //
+                + "def g():\n" //
+                + "    raise ValueError\n" //
+                + "    break\n");
+        assertEquals(1, ((FunctionDef)body.get(0)).getInternalBody().size());
+        // A statement the compiler would reject is kept
+        assertEquals(2, ((FunctionDef)body.get(1)).getInternalBody().size());
+    }
+
+    public void testErrorsInDeadBranches() throws Exception {
+        List<stmt> body = optimize("if 0:\n    return 1\n");
+        assertTrue(body.get(0) instanceof If);
+
+        String[] sources = {"if 0:\n    return 1\n", "if not __debug__:\n    yield 1\n",
+                "if 1:\n    pass\nelse:\n    break\n", "while 1:\n    pass\nif 0:\n    continue\n"};
+        for (String source : sources) {
+            assertEquals(source, syntaxError(source, false), syntaxError(source, true));
+        }
+    }
+
+    /** The message of the {@code SyntaxError} compiling the source raises, optimised or not. */
+    private static String syntaxError(String source, boolean optimize) {
+        Options.optimizeAst = optimize;
+        try {
+            Py.compile_flags(source, "<test>", CompileMode.exec, new CompilerFlags());
+        } catch (PyException e) {
+            assertTrue(e.match(Py.SyntaxError));
+            return e.value.__getitem__(0).toString();
+        }
+        fail("no SyntaxError compiling: " + source);
+        return null;
+    }
+
+    public void testSameResults() {
+        PyObject expected = run(false);
+        assertEquals(expected, run(true));
+    }
+
+    public void testGivenAstUnchanged() {
+        Options.optimizeAst = true;
+        PythonInterpreter interp = new PythonInterpreter();
+        try {
+            interp.exec("import ast\n" //
+                    + "tree = ast.parse('x = 1 + 2')\n" //
+                    + "exec compile(tree, '<test>', 'exec')\n" //
+                    + "folded = not isinstance(tree.body[0].value, ast.BinOp)\n");
+            assertEquals(Py.newInteger(3), interp.get("x"));
+            assertEquals(Py.False, interp.get("folded"));
+        } finally {
+            interp.cleanup();
+        }
+    }
+}
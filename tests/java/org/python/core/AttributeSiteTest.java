@@ -0,0 +1,152 @@
+package org.python.core;
+
+import junit.framework.TestCase;
+
+import org.python.util.PythonInterpreter;
+
+/**
+ * Tests that code compiled with {@link Options#indyAttributes} behaves as usual when the types
+ * behind its {@link AttributeSite}s change.
+ */
+public class AttributeSiteTest extends TestCase {
+
+    private boolean indyAttributes;
+    private PythonInterpreter interp;
+
+    @Override
+    protected void setUp() throws Exception {
+        indyAttributes = Options.indyAttributes;
+        Options.indyAttributes = true;
+        interp = new PythonInterpreter();
+        interp.exec("class P(object):\n" //
+                + "    def __init__(self, x):\n" //
+                + "        self.x = x\n" //
+                + "    def get(self, *args):\n" //
+                + "        return self.x + sum(args)\n" //
+                + "def getx(o):\n" //
+                + "    return o.x\n" //
+                + "def call(o):\n" //
+                + "    return o.get()\n" //
+                + "def setx(o, v):\n" //
+                + "    o.x = v\n");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        Options.indyAttributes = indyAttributes;
+        interp.cleanup();
+    }
+
+    private int eval(String expr) {
+        return Py.tojava(interp.eval(expr), Integer.class);
+    }
+
+    public void testMethodRedefined() {
+        interp.exec("p = P(1)");
+        assertEquals(1, eval("call(p)"));
+        interp.exec("P.get = lambda self: 2");
+        assertEquals(2, eval("call(p)"));
+        interp.exec("p.get = lambda: 3");
+        assertEquals(3, eval("call(p)"));
+        interp.exec("del p.get");
+        assertEquals(2, eval("call(p)"));
+    }
+
+    public void testArguments() {
+        interp.exec("p = P(1)");
+        assertEquals(3, eval("p.get(2)"));
+        assertEquals(11, eval("p.get(2, 3, 5)"));
+        assertEquals(22, eval("p.get(1, 2, 3, 4, 5, 6)"));
+    }
+
+    public void testDescriptorAdded() {
+        interp.exec("p = P(1)");
+        assertEquals(1, eval("getx(p)"));
+        interp.exec("P.x = property(lambda self: 5, lambda self, v: None)");
+        assertEquals(5, eval("getx(p)"));
+        interp.exec("setx(p, 7)");
+        assertEquals(5, eval("getx(p)"));
+        interp.exec("del P.x");
+        assertEquals(1, eval("getx(p)"));
+    }
+
+    public void testSpecialMethodsAdded() {
+        interp.exec("p = P(1)");
+        interp.exec("setx(p, 2)");
+        assertEquals(2, eval("getx(p)"));
+        interp.exec("P.__getattribute__ = lambda self, name: 10");
+        interp.exec("P.__setattr__ = lambda self, name, v: None");
+        assertEquals(10, eval("getx(p)"));
+        interp.exec("setx(p, 3)");
+        interp.exec("del P.__getattribute__");
+        assertEquals(2, eval("getx(p)"));
+    }
+
+    public void testMetaclassSetattr() {
+        interp.exec("class M(type): pass\n" //
+                + "C = M('C', (object,), {})\n" //
+                + "D = M('D', (C,), {})\n" //
+                + "setx(C, 1)\n" //
+                + "r = getx(D)\n" //
+                + "setx(C, 2)\n");
+        assertEquals(2, eval("getx(D)"));
+    }
+
+    public void testPolymorphicSite() {
+        interp.exec("class Q(object):\n" //
+                + "    x = 20\n" //
+                + "    def get(self): return 30\n" //
+                + "import types\n" //
+                + "m = types.ModuleType('m')\n" //
+                + "m.x = 40\n" //
+                + "m.get = lambda: 50\n" //
+                + "objs = [P(1), Q(), m, P(2)] * 3\n");
+        assertEquals(3 * (1 + 20 + 40 + 2), eval("sum(getx(o) for o in objs)"));
+        assertEquals(3 * (1 + 30 + 50 + 2), eval("sum(call(o) for o in objs)"));
+    }
+
+    public void testTwoPythonClasses() {
+        // Instances of both classes are PyObjectDerived, but each class keeps its own entry
+        interp.exec("class Q(object):\n" //
+                + "    x = 20\n" //
+                + "p, q = P(1), Q()\n");
+        AttributeSite site = new AttributeSite("x");
+        PyObject p = interp.get("p"), q = interp.get("q");
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Py.newInteger(1), site.getattr(p));
+            assertEquals(Py.newInteger(20), site.getattr(q));
+        }
+        assertEquals(2, site.cachedTypes());
+
+        // A new version of Q replaces its entry, and leaves that of P alone
+        interp.exec("Q.x = 30");
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Py.newInteger(1), site.getattr(p));
+            assertEquals(Py.newInteger(30), site.getattr(q));
+        }
+        assertEquals(2, site.cachedTypes());
+        interp.exec("Q.x = property(lambda self: 40)");
+        assertEquals(Py.newInteger(40), site.getattr(q));
+        assertEquals(Py.newInteger(1), site.getattr(p));
+        assertEquals(2, site.cachedTypes());
+    }
+
+    public void testLookupBeforeArguments() {
+        interp.exec("def f(o):\n" //
+                + "    try:\n" //
+                + "        o.missing(undefined)\n" //
+                + "    except AttributeError:\n" //
+                + "        return 1\n" //
+                + "    except NameError:\n" //
+                + "        return 2\n");
+        assertEquals(1, eval("f(P(1))"));
+    }
+
+    public void testYieldInArguments() {
+        interp.exec("def g(o):\n" //
+                + "    yield o.get(1, (yield 0))\n" //
+                + "it = g(P(1))\n" //
+                + "it.next()\n");
+        assertEquals(6, eval("it.send(4)"));
+    }
+}
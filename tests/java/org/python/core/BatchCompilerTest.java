@@ -0,0 +1,99 @@
+package org.python.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.python.util.PythonInterpreter;
+
+/**
+ * Tests of the {@link BatchCompiler}: sources compiled on several threads are written to their
+ * class files and can be imported, and a file that does not compile is reported in its place
+ * without stopping the others.
+ */
+public class BatchCompilerTest extends TestCase {
+
+    private static final int MODULES = 8;
+
+    private File dir;
+
+    private PythonInterpreter interp;
+
+    @Override
+    protected void setUp() throws Exception {
+        dir = Files.createTempDirectory("batchcompile").toFile();
+        interp = new PythonInterpreter(null, new PySystemState());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        interp.cleanup();
+        for (File f : dir.listFiles()) {
+            f.delete();
+        }
+        dir.delete();
+    }
+
+    private File write(String name, String source) throws IOException {
+        File f = new File(dir, name + ".py");
+        Files.write(f.toPath(), source.getBytes());
+        return f;
+    }
+
+    private List<BatchCompiler.Task> tasks() throws IOException {
+        List<BatchCompiler.Task> tasks = new ArrayList<BatchCompiler.Task>();
+        for (int i = 0; i < MODULES; i++) {
+            StringBuilder source = new StringBuilder("x = " + i + "\n");
+            // Make the sizes differ, so the compiler does not take them in order
+            for (int j = 0; j < (i * 7) % MODULES; j++) {
+                source.append("def f" + j + "(a):\n    return a + x\n");
+            }
+            tasks.add(new BatchCompiler.Task(write("batch" + i, source.toString())));
+        }
+        tasks.add(new BatchCompiler.Task(write("batchbad", "def f(:\n    pass\n")));
+        return tasks;
+    }
+
+    public void testCompile() throws Exception {
+        List<BatchCompiler.Task> tasks = tasks();
+        BatchCompiler compiler = new BatchCompiler(4);
+        assertEquals(4, compiler.getThreads());
+        List<BatchCompiler.Result> results = compiler.compile(tasks);
+
+        assertEquals(tasks.size(), results.size());
+        for (int i = 0; i < MODULES; i++) {
+            BatchCompiler.Result result = results.get(i);
+            assertSame(tasks.get(i), result.task);
+            assertTrue(result.toString(), result.isOk());
+            assertTrue(result.nanos > 0);
+            assertEquals("batch" + i, result.task.moduleName);
+            assertTrue(new File(dir, "batch" + i + "$py.class").isFile());
+        }
+        BatchCompiler.Result bad = results.get(MODULES);
+        assertFalse(bad.isOk());
+        assertTrue(bad.error.match(Py.SyntaxError));
+        assertFalse(new File(dir, "batchbad$py.class").exists());
+
+        // The modules import from the class files alone
+        for (int i = 0; i < MODULES; i++) {
+            new File(dir, "batch" + i + ".py").delete();
+        }
+        interp.set("d", dir.getPath());
+        interp.exec("import sys\nsys.path.insert(0, d)\n"
+                + "import batch3, batch5\nresult = batch3.x + batch5.x\n");
+        assertEquals(Py.newInteger(8), interp.get("result"));
+    }
+
+    public void testSequential() throws Exception {
+        List<BatchCompiler.Task> tasks = tasks();
+        List<BatchCompiler.Result> results = new BatchCompiler(1).compile(tasks);
+        for (int i = 0; i < MODULES; i++) {
+            assertTrue(results.get(i).isOk());
+        }
+        assertFalse(results.get(MODULES).isOk());
+    }
+}
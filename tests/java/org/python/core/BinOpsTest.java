@@ -0,0 +1,87 @@
+package org.python.core;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests that the number-specialised operations in {@link BinOps} have the same result as the
+ * generic {@link PyObject} methods they replace in compiled code.
+ */
+public class BinOpsTest extends TestCase {
+
+    private static final String[] NAMES = {"_add", "_sub", "_mul", "_div", "_truediv",
+            "_floordiv", "_mod", "_iadd", "_isub", "_imul", "_idiv", "_itruediv", "_ifloordiv",
+            "_imod", "_eq", "_ne", "_lt", "_le", "_gt", "_ge"};
+
+    @Override
+    protected void setUp() throws Exception {
+        PySystemState.initialize();
+    }
+
+    private static PyObject[] values() {
+        return new PyObject[] {Py.newInteger(0), Py.newInteger(1), Py.newInteger(-1),
+                Py.newInteger(7), Py.newInteger(-7), Py.newInteger(Integer.MAX_VALUE),
+                Py.newInteger(Integer.MIN_VALUE), Py.newFloat(0.0), Py.newFloat(-0.0),
+                Py.newFloat(2.5), Py.newFloat(-7.0), Py.newFloat(1e300),
+                Py.newFloat(Double.NaN), Py.newFloat(Double.POSITIVE_INFINITY),
+                Py.newFloat(Double.NEGATIVE_INFINITY), Py.True, Py.newLong(3),
+                Py.newLong(Long.MAX_VALUE), Py.None};
+    }
+
+    /** The result of the call as a string giving its type and repr, or the exception type. */
+    private static String outcome(Method m, Object target, Object... args) throws Exception {
+        try {
+            PyObject r = (PyObject)m.invoke(target, args);
+            return r.getType().fastGetName() + ":" + r.__repr__();
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof PyException) {
+                PyException pye = (PyException)e.getCause();
+                return ((PyType)pye.type).fastGetName();
+            }
+            throw e;
+        }
+    }
+
+    private void checkAll() throws Exception {
+        for (String name : NAMES) {
+            Method fast = BinOps.class.getMethod(name, PyObject.class, PyObject.class);
+            Method generic = PyObject.class.getMethod(name, PyObject.class);
+            for (PyObject a : values()) {
+                for (PyObject b : values()) {
+                    String expected = outcome(generic, a, b);
+                    String actual = outcome(fast, null, a, b);
+                    assertEquals(a.__repr__() + " " + name + " " + b.__repr__(), expected, actual);
+                }
+            }
+        }
+    }
+
+    public void testSameAsGeneric() throws Exception {
+        checkAll();
+    }
+
+    public void testSameAsGenericWithDivisionWarning() throws Exception {
+        int saved = Options.division_warning;
+        try {
+            Options.division_warning = 1;
+            checkAll();
+        } finally {
+            Options.division_warning = saved;
+        }
+    }
+
+    public void testIntOverflow() {
+        PyObject max = Py.newInteger(Integer.MAX_VALUE);
+        PyObject r = BinOps._add(max, Py.newInteger(1));
+        assertEquals(PyLong.class, r.getClass());
+        assertEquals(Integer.MAX_VALUE + 1L, ((PyLong)r).getLong(Long.MIN_VALUE, Long.MAX_VALUE));
+        r = BinOps._mul(max, max);
+        assertEquals((long)Integer.MAX_VALUE * Integer.MAX_VALUE,
+                ((PyLong)r).getLong(Long.MIN_VALUE, Long.MAX_VALUE));
+        r = BinOps._floordiv(Py.newInteger(Integer.MIN_VALUE), Py.newInteger(-1));
+        assertEquals(PyLong.class, r.getClass());
+        assertEquals(PyInteger.class, BinOps._sub(max, max).getClass());
+    }
+}
@@ -0,0 +1,215 @@
+package org.python.core;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import junit.framework.TestCase;
+
+import org.python.util.PythonInterpreter;
+
+/**
+ * Tests of the {@link CodeCache}: scripts compiled again are loaded from the cache, entries are
+ * specific to the source and file name, and the flags set by a cached script are restored.
+ */
+public class CodeCacheTest extends TestCase {
+
+    private File dir;
+    private File saved;
+    private int minLength, maxSize;
+
+    @Override
+    protected void setUp() throws Exception {
+        saved = CodeCache.getDirectory();
+        minLength = Options.codeCacheMinLength;
+        maxSize = Options.codeCacheMaxSize;
+        dir = Files.createTempDirectory("codecache").toFile();
+        CodeCache.setDirectory(dir);
+        // Most tests compile short scripts
+        Options.codeCacheMinLength = 0;
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        CodeCache.setDirectory(saved);
+        Options.codeCacheMinLength = minLength;
+        Options.codeCacheMaxSize = maxSize;
+        for (File f : dir.listFiles()) {
+            f.delete();
+        }
+        dir.delete();
+    }
+
+    private static long compiles() {
+        return RuntimeMetrics.getInstance().getCompiles();
+    }
+
+    public void testCompileAgain() {
+        PythonInterpreter interp = new PythonInterpreter();
+        try {
+            String script = "sum(range(10))";
+            PyCode first = interp.compile(script);
+            assertEquals(1, dir.list().length);
+            assertEquals(Py.newInteger(45), interp.eval(first));
+
+            long before = compiles();
+            PyCode second = interp.compile(script);
+            assertEquals("compiled again", before, compiles());
+            assertNotSame(first, second);
+            assertEquals(Py.newInteger(45), interp.eval(second));
+
+            // A different file name is a different entry
+            interp.compile(script, "other.py");
+            assertEquals(2, dir.list().length);
+            assertEquals(before + 1, compiles());
+        } finally {
+            interp.cleanup();
+        }
+    }
+
+    public void testExec() {
+        PythonInterpreter interp = new PythonInterpreter();
+        try {
+            interp.exec("a = [x * 2 for x in range(3)]");
+            long before = compiles();
+            interp.exec("a = [x * 2 for x in range(3)]");
+            assertEquals(before, compiles());
+            assertEquals("[0, 2, 4]", interp.get("a").toString());
+            interp.exec("a = [x * 3 for x in range(3)]");
+            assertEquals(before + 1, compiles());
+            assertEquals("[0, 3, 6]", interp.get("a").toString());
+        } finally {
+            interp.cleanup();
+        }
+    }
+
+    /** A future import in a script loaded from the cache applies to later scripts. */
+    public void testFutureFlags() {
+        String future = "from __future__ import division";
+        PythonInterpreter interp = new PythonInterpreter();
+        try {
+            interp.exec(future);
+        } finally {
+            interp.cleanup();
+        }
+        long before = compiles();
+        interp = new PythonInterpreter();
+        try {
+            interp.exec(future);
+            assertEquals(before, compiles());
+            interp.exec("x = 1 / 2");
+            assertEquals(new PyFloat(0.5), interp.get("x"));
+        } finally {
+            interp.cleanup();
+        }
+    }
+
+    /** Compiling, through the cache or not, does not change how later scripts are decoded. */
+    public void testFlagsUnchanged() {
+        String script = "n = len('\u00e9')";
+        PyObject expected = run(script, false);
+        assertEquals(expected, run(script, true));
+        CodeCache.setDirectory(null);
+        assertEquals(expected, run(script, true));
+    }
+
+    private static PyObject run(String script, boolean compileFirst) {
+        PythonInterpreter interp = new PythonInterpreter();
+        try {
+            if (compileFirst) {
+                interp.eval(interp.compile("1 + 1"));
+            }
+            interp.exec(script);
+            return interp.get("n");
+        } finally {
+            interp.cleanup();
+        }
+    }
+
+    /** Short scripts, and expressions for {@code eval}, are not kept. */
+    public void testNotKept() {
+        Options.codeCacheMinLength = minLength;
+        StringBuilder sum = new StringBuilder("0");
+        while (sum.length() < minLength) {
+            sum.append(" + 1");
+        }
+        PythonInterpreter interp = new PythonInterpreter();
+        try {
+            interp.exec("x = 1");
+            interp.eval(sum.toString());
+            assertEquals(0, dir.list().length);
+            interp.exec("x = " + sum);
+            assertEquals(1, dir.list().length);
+        } finally {
+            interp.cleanup();
+        }
+    }
+
+    /** Beyond the maximum size, the entries least recently used are deleted. */
+    public void testTrimmed() {
+        PythonInterpreter interp = new PythonInterpreter();
+        try {
+            long now = System.currentTimeMillis();
+            File[] first = new File[3];
+            for (int i = 0; i < first.length; i++) {
+                interp.exec("x = " + i);
+                first[i] = newest();
+                first[i].setLastModified(now - 10000 * (first.length - i));
+            }
+            // Using an entry makes it the most recently used
+            long before = compiles();
+            interp.exec("x = 0");
+            assertEquals(before, compiles());
+            assertTrue(first[0].lastModified() > first[2].lastModified());
+            // As it stays while the others are written, when file times are coarse
+            first[0].setLastModified(now + 3600000);
+
+            // Room for about 8 entries, trimmed to 6
+            Options.codeCacheMaxSize = (int)(8 * first[0].length() / 1024) + 1;
+            CodeCache.setDirectory(dir);
+            for (int i = 3; i < 20; i++) {
+                interp.exec("x = " + i);
+            }
+            long total = 0;
+            for (File f : dir.listFiles()) {
+                total += f.length();
+            }
+            assertTrue("cache holds " + total, total <= Options.codeCacheMaxSize * 1024L);
+            assertTrue(first[0].exists());
+            assertFalse(first[1].exists());
+            assertFalse(first[2].exists());
+        } finally {
+            interp.cleanup();
+        }
+    }
+
+    /** The entry written last. */
+    private File newest() {
+        File newest = null;
+        for (File f : dir.listFiles()) {
+            if (newest == null || f.lastModified() > newest.lastModified()) {
+                newest = f;
+            }
+        }
+        return newest;
+    }
+
+    /** An entry that cannot be read is ignored and replaced. */
+    public void testCorruptEntry() throws IOException {
+        PythonInterpreter interp = new PythonInterpreter();
+        try {
+            interp.compile("1 + 1");
+            File entry = dir.listFiles()[0];
+            try (FileOutputStream out = new FileOutputStream(entry)) {
+                out.write(new byte[] {1, 2, 3});
+            }
+            long before = compiles();
+            assertEquals(Py.newInteger(2), interp.eval(interp.compile("1 + 1")));
+            assertEquals(before + 1, compiles());
+            assertTrue(entry.length() > 3);
+        } finally {
+            interp.cleanup();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package org.python.core;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import junit.framework.TestCase;
+
+import org.python.util.PythonInterpreter;
+
+/**
+ * Tests of {@link CompactDictMap}, the map behind a {@link PyDictionary}: order of insertion,
+ * removal and reinsertion, keys with equal hashes, iteration while the map changes, and reads
+ * that do not lock while another thread writes.
+ */
+public class CompactDictMapTest extends TestCase {
+
+    private static final int N = 1000;
+
+    private static PyObject key(int i) {
+        return Py.newInteger(i);
+    }
+
+    public void testInsertionOrder() {
+        CompactDictMap map = new CompactDictMap();
+        for (int i = N; i > 0; i--) {
+            map.put(key(i), Py.newInteger(-i));
+        }
+        assertEquals(N, map.size());
+        int i = N;
+        for (Map.Entry<PyObject, PyObject> entry : map.entrySet()) {
+            assertEquals(key(i), entry.getKey());
+            assertEquals(Py.newInteger(-i), entry.getValue());
+            i--;
+        }
+        assertEquals(0, i);
+        // Replacing a value keeps the place of the entry
+        map.put(key(N), Py.None);
+        assertEquals(key(N), map.keySet().iterator().next());
+        assertEquals(Py.None, map.get(Py.newLong(N)));
+    }
+
+    public void testRemoveAndReinsert() {
+        CompactDictMap map = new CompactDictMap();
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < N; i++) {
+                map.put(key(i), Py.newInteger(i + round));
+            }
+            for (int i = 0; i < N; i += 2) {
+                assertEquals(Py.newInteger(i + round), map.remove(key(i)));
+            }
+            assertEquals(N / 2, map.size());
+            for (int i = 0; i < N; i++) {
+                assertEquals(i % 2 == 0 ? null : Py.newInteger(i + round), map.get(key(i)));
+            }
+        }
+        assertNull(map.remove(key(0)));
+        assertNull(map.remove("not a PyObject"));
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(key(1)));
+        map.put(key(1), Py.One);
+        assertEquals(Py.One, map.get(key(1)));
+    }
+
+    public void testEqualHashes() {
+        // -1 and -2 have the same Python hash
+        CompactDictMap map = new CompactDictMap();
+        map.put(key(-1), Py.One);
+        map.put(key(-2), Py.Zero);
+        assertEquals(Py.One, map.get(key(-1)));
+        assertEquals(Py.Zero, map.get(key(-2)));
+        map.remove(key(-1));
+        assertEquals(Py.Zero, map.get(key(-2)));
+    }
+
+    public void testPopLast() {
+        CompactDictMap map = new CompactDictMap();
+        assertNull(map.popLast());
+        for (int i = 0; i < N; i++) {
+            map.put(key(i), Py.newInteger(i));
+        }
+        map.remove(key(N - 1));
+        for (int i = N - 2; i >= 0; i--) {
+            Map.Entry<PyObject, PyObject> entry = map.popLast();
+            assertEquals(key(i), entry.getKey());
+            assertEquals(i, map.size());
+        }
+        assertNull(map.popLast());
+        map.put(key(7), Py.One);
+        assertEquals(Py.One, map.get(key(7)));
+    }
+
+    public void testCopy() {
+        CompactDictMap map = new CompactDictMap();
+        for (int i = 0; i < 10; i++) {
+            map.put(key(i), Py.newInteger(i));
+        }
+        map.remove(key(3));
+        CompactDictMap copy = map.copy();
+        map.put(key(3), Py.One);
+        map.remove(key(4));
+        assertEquals(9, copy.size());
+        assertNull(copy.get(key(3)));
+        assertEquals(Py.newInteger(4), copy.get(key(4)));
+        Iterator<PyObject> keys = copy.keySet().iterator();
+        assertEquals(key(0), keys.next());
+        assertEquals(key(1), keys.next());
+        assertEquals(key(2), keys.next());
+        assertEquals(key(4), keys.next());
+    }
+
+    public void testIterationWhileChanging() {
+        CompactDictMap map = new CompactDictMap();
+        for (int i = 0; i < N; i++) {
+            map.put(key(i), Py.newInteger(i));
+        }
+        int count = 0;
+        for (Iterator<Map.Entry<PyObject, PyObject>> it = map.entrySet().iterator(); it
+                .hasNext();) {
+            Map.Entry<PyObject, PyObject> entry = it.next();
+            if (count++ % 2 == 0) {
+                it.remove();
+            } else {
+                entry.setValue(Py.None);
+            }
+            map.remove(key(N - count));
+        }
+        // The iterator may return one entry removed after it looked ahead to it
+        assertTrue(count == N / 2 || count == N / 2 + 1);
+        for (PyObject value : map.values()) {
+            assertEquals(Py.None, value);
+        }
+    }
+
+    public void testDictionaryFromPython() {
+        PythonInterpreter interp = new PythonInterpreter();
+        try {
+            interp.exec("d = {}\n" //
+                    + "for c in 'hello world': d[c] = d.get(c, 0) + 1\n" //
+                    + "k = ''.join(d)\n" //
+                    + "p = d.popitem()\n");
+            assertEquals("helo wrd", interp.get("k").toString());
+            assertEquals("('d', 1)", interp.get("p").toString());
+        } finally {
+            interp.cleanup();
+        }
+    }
+
+    /** A reader that does not lock sees every entry present while another thread adds more. */
+    public void testConcurrentRead() throws InterruptedException {
+        final CompactDictMap map = new CompactDictMap();
+        final PyObject[] keys = new PyObject[20 * N];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = Py.newString("k" + i);
+        }
+        map.put(keys[0], Py.Zero);
+        final AtomicReference<String> failure = new AtomicReference<String>();
+        Thread writer = new Thread() {
+
+            @Override
+            public void run() {
+                for (int i = 1; i < keys.length; i++) {
+                    map.put(keys[i], Py.newInteger(i));
+                    if (i % 3 == 0) {
+                        map.remove(keys[i]);
+                    }
+                }
+            }
+        };
+        writer.start();
+        while (writer.isAlive()) {
+            if (map.get(keys[0]) != Py.Zero) {
+                failure.set(keys[0] + " missing");
+            }
+            int n = map.size();
+            for (int i = 1; i < n / 2; i++) {
+                // Entries not deleted up to about n/2 were added before the size was read
+                PyObject value = map.get(keys[i]);
+                if (i % 3 != 0 && (value == null || Py.py2int(value) != i)) {
+                    failure.set(keys[i] + " is " + value);
+                }
+            }
+        }
+        writer.join();
+        assertNull(failure.get());
+    }
+}
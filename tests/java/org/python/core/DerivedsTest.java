@@ -0,0 +1,101 @@
+package org.python.core;
+
+import junit.framework.TestCase;
+
+import org.python.util.PythonInterpreter;
+
+/**
+ * Tests that special methods of Python subclasses are dispatched through
+ * {@link PyType#lookupSpecial(String)} and {@link Deriveds#callSpecial} as through a bound method,
+ * and that the lookups are forgotten when the class changes.
+ */
+public class DerivedsTest extends TestCase {
+
+    private PythonInterpreter interp;
+
+    @Override
+    protected void setUp() throws Exception {
+        interp = new PythonInterpreter();
+        interp.exec("class V(object):\n" //
+                + "    def __init__(self, x):\n" //
+                + "        self.x = x\n" //
+                + "    def __add__(self, other):\n" //
+                + "        return V(self.x + other.x)\n" //
+                + "    def __len__(self):\n" //
+                + "        return self.x\n" //
+                + "class W(V): pass\n");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        interp.cleanup();
+    }
+
+    private int eval(String expr) {
+        return Py.tojava(interp.eval(expr), Integer.class);
+    }
+
+    public void testOperators() {
+        assertEquals(5, eval("(V(2) + V(3)).x"));
+        assertEquals(7, eval("len(W(7))"));
+        assertEquals(1, eval("int(bool(W(1)))"));
+        assertEquals(0, eval("int(bool(W(0)))"));
+    }
+
+    public void testMethodReplaced() {
+        assertEquals(5, eval("(W(2) + W(3)).x"));
+        interp.exec("V.__add__ = lambda self, other: V(self.x * other.x)");
+        assertEquals(6, eval("(W(2) + W(3)).x"));
+        interp.exec("W.__add__ = lambda self, other: V(-1)");
+        assertEquals(-1, eval("(W(2) + W(3)).x"));
+        interp.exec("del W.__add__");
+        assertEquals(6, eval("(W(2) + W(3)).x"));
+    }
+
+    public void testMethodAddedAndRemoved() {
+        interp.exec("w = W(1)");
+        assertEquals(0, eval("int(w == W(1))"));
+        interp.exec("V.__eq__ = lambda self, other: self.x == other.x");
+        assertEquals(1, eval("int(w == W(1))"));
+        interp.exec("del V.__eq__");
+        assertEquals(0, eval("int(w == W(1))"));
+    }
+
+    public void testBasesChanged() {
+        interp.exec("class X(object):\n" //
+                + "    def __len__(self): return 9\n" //
+                + "class Z(object): pass\n" //
+                + "class Y(Z): pass\n" //
+                + "y = Y()\n");
+        try {
+            interp.exec("len(y)");
+            fail("expected TypeError");
+        } catch (PyException e) {
+            assertTrue(e.match(Py.TypeError));
+        }
+        interp.exec("Y.__bases__ = (X,)");
+        assertEquals(9, eval("len(y)"));
+    }
+
+    public void testOtherCallables() {
+        interp.exec("class S(object):\n" //
+                + "    __len__ = staticmethod(lambda: 11)\n" //
+                + "    __neg__ = classmethod(lambda cls: cls.__name__)\n" //
+                + "class Call(object):\n" //
+                + "    def __call__(self, *args): return len(args)\n" //
+                + "class T(object):\n" //
+                + "    __getitem__ = Call()\n");
+        assertEquals(11, eval("len(S())"));
+        assertEquals("S", interp.eval("-S()").toString());
+        // A callable that is not a descriptor is called without self
+        assertEquals(1, eval("T()[0]"));
+    }
+
+    public void testBuiltinSubclass() {
+        interp.exec("class L(list):\n" //
+                + "    def __getitem__(self, i):\n" //
+                + "        return list.__getitem__(self, i) * 10\n");
+        assertEquals(20, eval("L([1, 2])[1]"));
+        assertEquals(2, eval("len(L([1, 2]))"));
+    }
+}
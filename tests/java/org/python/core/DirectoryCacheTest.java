@@ -0,0 +1,111 @@
+package org.python.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import junit.framework.TestCase;
+
+import org.python.util.PythonInterpreter;
+
+/**
+ * Tests of the {@link DirectoryCache}: misses answered from a listing, and listings renewed when a
+ * directory changes or the cache is invalidated.
+ */
+public class DirectoryCacheTest extends TestCase {
+
+    private File dir;
+
+    /** A modification time old enough for a directory to be cached. */
+    private long old;
+
+    @Override
+    protected void setUp() throws Exception {
+        DirectoryCache.invalidate();
+        dir = Files.createTempDirectory("dircache").toFile();
+        old = System.currentTimeMillis() - 10 * DirectoryCache.GRACE;
+        touch("present.py");
+        assertTrue(dir.setLastModified(old));
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        Options.importDirectoryCache = true;
+        DirectoryCache.invalidate();
+        for (File f : dir.listFiles()) {
+            f.delete();
+        }
+        dir.delete();
+    }
+
+    private void touch(String name) throws IOException {
+        assertTrue(new File(dir, name).createNewFile());
+    }
+
+    private boolean mayContain(String module) {
+        return DirectoryCache.mayContain(dir.getPath(), module, module + ".py",
+                module + "$py.class");
+    }
+
+    public void testMiss() {
+        RuntimeMetrics metrics = RuntimeMetrics.getInstance();
+        long listings = metrics.getImportDirectoryListings();
+        long saved = metrics.getImportStatsSaved();
+        assertTrue(mayContain("present"));
+        assertFalse(mayContain("absent"));
+        assertFalse(mayContain("other"));
+        assertEquals(listings + 1, metrics.getImportDirectoryListings());
+        assertEquals(saved + 4, metrics.getImportStatsSaved());
+    }
+
+    public void testModified() throws IOException {
+        assertFalse(mayContain("absent"));
+        touch("absent.py");
+        assertTrue(dir.setLastModified(old + 1000));
+        assertTrue(mayContain("absent"));
+    }
+
+    public void testRecentlyModified() throws IOException {
+        touch("recent.py");
+        assertTrue(mayContain("recent"));
+        assertTrue(mayContain("absent"));
+    }
+
+    public void testMissing() {
+        String missing = new File(dir, "missing").getPath();
+        assertFalse(DirectoryCache.mayContain(missing, "present", "present.py"));
+        assertTrue(new File(missing).mkdir());
+        assertTrue(DirectoryCache.mayContain(missing, "present", "present.py"));
+    }
+
+    /** A change the modification time does not reveal is seen after {@code invalidate()}. */
+    public void testInvalidate() throws IOException {
+        assertFalse(mayContain("absent"));
+        touch("absent.py");
+        assertTrue(dir.setLastModified(old));
+        assertFalse(mayContain("absent"));
+        DirectoryCache.invalidate();
+        assertTrue(mayContain("absent"));
+    }
+
+    public void testDisabled() {
+        Options.importDirectoryCache = false;
+        assertTrue(mayContain("absent"));
+    }
+
+    public void testImport() throws IOException {
+        PythonInterpreter interp = new PythonInterpreter();
+        try {
+            interp.set("d", dir.getPath());
+            interp.exec("import sys, imp\nsys.path.insert(0, d)\nimport present");
+            interp.exec("try:\n    import newmodule\nexcept ImportError:\n    missed = True");
+            assertEquals(Py.True, interp.get("missed"));
+            Files.write(new File(dir, "newmodule.py").toPath(), "x = 1\n".getBytes());
+            assertTrue(dir.setLastModified(old));
+            interp.exec("imp.invalidate_caches()\nimport newmodule\nx = newmodule.x");
+            assertEquals(Py.One, interp.get("x"));
+        } finally {
+            interp.cleanup();
+        }
+    }
+}
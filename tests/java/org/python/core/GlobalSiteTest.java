@@ -0,0 +1,98 @@
+package org.python.core;
+
+import junit.framework.TestCase;
+
+import org.python.util.PythonInterpreter;
+
+/**
+ * Tests that code compiled with {@link Options#indyGlobals} sees changes to the globals and
+ * builtins behind its {@link GlobalSite}s.
+ */
+public class GlobalSiteTest extends TestCase {
+
+    private boolean indyGlobals;
+    private PythonInterpreter interp;
+
+    @Override
+    protected void setUp() throws Exception {
+        indyGlobals = Options.indyGlobals;
+        Options.indyGlobals = true;
+        interp = new PythonInterpreter();
+        interp.exec("import __builtin__\n" //
+                + "def size(o):\n" //
+                + "    return len(o)\n" //
+                + "def getk():\n" //
+                + "    return k\n");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        Options.indyGlobals = indyGlobals;
+        interp.cleanup();
+    }
+
+    private int eval(String expr) {
+        return Py.tojava(interp.eval(expr), Integer.class);
+    }
+
+    public void testGlobalRebound() {
+        interp.exec("k = 1");
+        assertEquals(1, eval("getk()"));
+        interp.exec("k = 2");
+        assertEquals(2, eval("getk()"));
+        interp.exec("globals().update(k=3)");
+        assertEquals(3, eval("getk()"));
+    }
+
+    public void testGlobalDeleted() {
+        interp.exec("k = 1");
+        assertEquals(1, eval("getk()"));
+        interp.exec("del k");
+        try {
+            interp.eval("getk()");
+            fail("expected NameError");
+        } catch (PyException e) {
+            assertTrue(e.match(Py.NameError));
+        }
+        interp.exec("__builtin__.k = 4");
+        try {
+            assertEquals(4, eval("getk()"));
+        } finally {
+            interp.exec("del __builtin__.k");
+        }
+    }
+
+    public void testBuiltinShadowed() {
+        assertEquals(3, eval("size('abc')"));
+        interp.exec("len = lambda o: 10");
+        assertEquals(10, eval("size('abc')"));
+        interp.exec("del len");
+        assertEquals(3, eval("size('abc')"));
+    }
+
+    public void testBuiltinReplaced() {
+        assertEquals(3, eval("size('abc')"));
+        interp.exec("saved = __builtin__.len\n" //
+                + "__builtin__.len = lambda o: 20\n");
+        try {
+            assertEquals(20, eval("size('abc')"));
+        } finally {
+            interp.exec("__builtin__.len = saved");
+        }
+        assertEquals(3, eval("size('abc')"));
+    }
+
+    public void testOtherNamespaces() {
+        interp.exec("code = compile('k', '<k>', 'eval')\n" //
+                + "ns = [{'k': 5}, {}, {'k': 6}]\n" //
+                + "import types\n" //
+                + "m = types.ModuleType('m')\n" //
+                + "m.k = 7\n" //
+                + "__builtin__.k = 8\n");
+        try {
+            assertEquals(5 + 8 + 6 + 7, eval("sum(eval(code, d) for d in ns + [m.__dict__])"));
+        } finally {
+            interp.exec("del __builtin__.k");
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.python.core;
+
+import junit.framework.TestCase;
+
+import org.python.expose.BaseTypeBuilder;
+import org.python.expose.ExposedType;
+import org.python.util.PythonInterpreter;
+
+/**
+ * Tests that the dict of an exposed type whose builder knows the names it exposes is built when
+ * first consulted, and not when the type is created.
+ */
+public class LazyExposureTest extends TestCase {
+
+    /** A type exposed by a {@link CountingBuilder}. */
+    @ExposedType(name = "lazy")
+    public static class Lazy extends PyObject {}
+
+    /** Exposes a read-only attribute {@code answer}, counting the dicts it builds. */
+    static class CountingBuilder extends BaseTypeBuilder {
+
+        int built;
+
+        CountingBuilder() {
+            super("lazy", Lazy.class, Object.class, false, "A lazily exposed type",
+                    new String[] {"answer"});
+        }
+
+        @Override
+        protected PyDataDescr[] createDescrs() {
+            built++;
+            return new PyDataDescr[] {new PyDataDescr("answer", Integer.class, null) {
+
+                @Override
+                public Object invokeGet(PyObject obj) {
+                    return 42;
+                }
+
+                @Override
+                public boolean implementsDescrGet() {
+                    return true;
+                }
+
+                @Override
+                public boolean implementsDescrSet() {
+                    return false;
+                }
+
+                @Override
+                public boolean implementsDescrDelete() {
+                    return false;
+                }
+            }};
+        }
+    }
+
+    public void testBuiltOnFirstUse() {
+        CountingBuilder builder = new CountingBuilder();
+        PyType.addBuilder(Lazy.class, builder);
+        PyType type = PyType.fromClass(Lazy.class);
+        assertEquals("lazy", type.getName());
+        assertEquals("built with the type", 0, builder.built);
+        assertFalse(type.needs_userdict);
+        assertFalse(type.hasGet);
+
+        PythonInterpreter interp = new PythonInterpreter();
+        try {
+            interp.set("obj", new Lazy());
+            interp.exec("answer = obj.answer\ndoc = type(obj).__doc__");
+            assertEquals(1, builder.built);
+            assertEquals(Py.newInteger(42), interp.get("answer"));
+            assertEquals("A lazily exposed type", interp.get("doc").toString());
+            interp.exec("names = sorted(type(obj).__dict__)");
+            assertEquals("['__doc__', 'answer']", interp.get("names").toString());
+            assertEquals(1, builder.built);
+        } finally {
+            interp.cleanup();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.python.core;
+
+import junit.framework.TestCase;
+
+import org.python.util.PythonInterpreter;
+
+/**
+ * Tests that functions compiled with {@link Options#lazyFrames} in their frameless form behave
+ * as they would with a frame, including when an exception escapes them, that they find builtins
+ * through their globals, and that a function table without frameless forms is called with a
+ * frame.
+ */
+public class LazyFramesTest extends TestCase {
+
+    private boolean lazyFrames;
+    private PythonInterpreter interp;
+
+    @Override
+    protected void setUp() throws Exception {
+        lazyFrames = Options.lazyFrames;
+        Options.lazyFrames = true;
+        interp = new PythonInterpreter();
+        interp.exec("K = 10\n" //
+                + "def scale(a, b=2):\n" //
+                + "    c = a * b\n" //
+                + "    return c * K\n" //
+                + "def div(a, b):\n" //
+                + "    q = a\n" //
+                + "    return q // b\n" //
+                + "def unbound(a):\n" //
+                + "    if a:\n" //
+                + "        z = 1\n" //
+                + "    return z\n" //
+                + "def calls(a):\n" //
+                + "    return len(a)\n" //
+                + "def caller(a, b):\n" //
+                + "    return div(a, b)\n");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        Options.lazyFrames = lazyFrames;
+        interp.cleanup();
+    }
+
+    private PyTableCode code(String name) {
+        return (PyTableCode)interp.get(name).__getattr__("func_code");
+    }
+
+    private int eval(String expr) {
+        return Py.tojava(interp.eval(expr), Integer.class);
+    }
+
+    public void testLeafDetected() {
+        assertTrue(code("scale").jy_leaf);
+        assertTrue(code("div").jy_leaf);
+        assertFalse(code("calls").jy_leaf);
+        assertFalse(code("caller").jy_leaf);
+    }
+
+    public void testCalls() {
+        assertEquals(60, eval("scale(3, 2)"));
+        // Defaults and keywords take the path with a frame
+        assertEquals(60, eval("scale(3)"));
+        assertEquals(60, eval("scale(b=3, a=2)"));
+        interp.exec("K = 1");
+        assertEquals(6, eval("scale(3, 2)"));
+    }
+
+    public void testUnboundLocal() {
+        assertEquals(1, eval("unbound(True)"));
+        try {
+            interp.eval("unbound(False)");
+            fail("expected UnboundLocalError");
+        } catch (PyException e) {
+            assertTrue(e.match(Py.UnboundLocalError));
+        }
+    }
+
+    public void testTraceback() {
+        try {
+            interp.eval("caller(7, 0)");
+            fail("expected ZeroDivisionError");
+        } catch (PyException e) {
+            assertTrue(e.match(Py.ZeroDivisionError));
+            PyTraceback tb = (PyTraceback)e.traceback;
+            while (tb.tb_next instanceof PyTraceback) {
+                tb = (PyTraceback)tb.tb_next;
+            }
+            PyFrame frame = tb.tb_frame;
+            assertEquals("div", frame.f_code.co_name);
+            assertEquals(7, tb.tb_lineno);
+            assertEquals(Py.newInteger(7), frame.getLocals().__finditem__("q"));
+            assertEquals("caller", frame.f_back.f_code.co_name);
+        }
+    }
+
+    public void testBuiltinsOfGlobals() {
+        interp.exec("d = {'__builtins__': {'X': 5}}\n" //
+                + "exec 'def f(a):\\n    return a + X\\n' in d\n" //
+                + "f = d['f']\n");
+        assertTrue(code("f").jy_leaf);
+        assertEquals(6, eval("f(1)"));
+    }
+
+    public void testTableWithoutLeaf() {
+        // A function table compiled without frameless forms is called with a frame
+        PyFunctionTable table = new PyFunctionTable() {
+
+            @Override
+            public PyObject call_function(int index, PyFrame frame, ThreadState ts) {
+                return frame.getlocal(0)._add(Py.newInteger(index));
+            }
+        };
+        PyTableCode code = new PyTableCode(1, new String[] {"a"}, "<test>", "g", 1, false, false,
+                table, 3);
+        code.jy_leaf = true;
+        interp.set("g", new PyFunction(new PyStringMap(), null, code));
+        assertEquals(5, eval("g(2)"));
+        assertFalse(code.jy_leaf);
+        assertEquals(6, eval("g(3)"));
+    }
+}
@@ -0,0 +1,86 @@
+package org.python.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import junit.framework.TestCase;
+
+import org.python.util.PythonInterpreter;
+
+/**
+ * Tests of the {@link ModuleCodeCache}: interpreters with their own {@link PySystemState} that
+ * import the same module share its code, but not the module or its globals.
+ */
+public class ModuleCodeCacheTest extends TestCase {
+
+    private File dir;
+
+    private PythonInterpreter first, second;
+
+    @Override
+    protected void setUp() throws Exception {
+        ModuleCodeCache.clear();
+        dir = Files.createTempDirectory("sharedcode").toFile();
+        Files.write(new File(dir, "sharedmod.py").toPath(),
+                "x = 1\ndef f():\n    return x\n".getBytes());
+        first = interpreter();
+        second = interpreter();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        Options.shareModuleCode = false;
+        ModuleCodeCache.clear();
+        first.cleanup();
+        second.cleanup();
+        for (File f : dir.listFiles()) {
+            f.delete();
+        }
+        dir.delete();
+    }
+
+    private PythonInterpreter interpreter() {
+        PythonInterpreter interp = new PythonInterpreter(null, new PySystemState());
+        interp.set("d", dir.getPath());
+        interp.exec("import sys\nsys.path.insert(0, d)");
+        return interp;
+    }
+
+    private static PyObject importShared(PythonInterpreter interp) {
+        interp.exec("import sharedmod\ncode = sharedmod.f.func_code");
+        return interp.get("code");
+    }
+
+    public void testShared() throws IOException {
+        Options.shareModuleCode = true;
+        long hits = RuntimeMetrics.getInstance().getSharedModuleCodeHits();
+        PyObject code = importShared(first);
+        assertSame(code, importShared(second));
+        assertEquals(hits + 1, RuntimeMetrics.getInstance().getSharedModuleCodeHits());
+
+        // Each interpreter has its own module
+        first.exec("sharedmod.x = 2\ny = sharedmod.f()");
+        second.exec("y = sharedmod.f()");
+        assertEquals(Py.newInteger(2), first.get("y"));
+        assertEquals(Py.newInteger(1), second.get("y"));
+        assertNotSame(first.get("sharedmod"), second.get("sharedmod"));
+    }
+
+    public void testChanged() throws IOException {
+        Options.shareModuleCode = true;
+        PyObject code = importShared(first);
+        Files.write(new File(dir, "sharedmod.py").toPath(),
+                "x = 3\ndef f():\n    return x + 1\n".getBytes());
+        new File(dir, "sharedmod$py.class").delete();
+        PyObject other = importShared(second);
+        assertNotSame(code, other);
+        second.exec("y = sharedmod.f()");
+        assertEquals(Py.newInteger(4), second.get("y"));
+    }
+
+    public void testOff() throws IOException {
+        assertNotSame(importShared(first), importShared(second));
+        assertEquals(0, ModuleCodeCache.size());
+    }
+}
@@ -0,0 +1,172 @@
+package org.python.core;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import junit.framework.TestCase;
+
+import org.python.util.PythonInterpreter;
+
+/**
+ * Tests of {@link OptimisticArrayList}, the list behind a {@link PyList}: the {@code List}
+ * operations, reads that do not lock refused while a change is in progress, such reads while
+ * another thread changes the list, and an iterator shared between threads.
+ */
+public class OptimisticArrayListTest extends TestCase {
+
+    private static final int N = 1000;
+
+    private static PyObject item(int i) {
+        return Py.newInteger(i);
+    }
+
+    public void testListOperations() {
+        OptimisticArrayList list = new OptimisticArrayList();
+        for (int i = 0; i < N; i++) {
+            list.add(item(i));
+        }
+        assertEquals(N, list.size());
+        list.add(0, item(-1));
+        assertEquals(item(-1), list.get(0));
+        assertEquals(item(-1), list.remove(0));
+        list.subList(10, N - 10).clear();
+        assertEquals(20, list.size());
+        assertEquals(item(9), list.get(9));
+        assertEquals(item(N - 10), list.get(10));
+        list.addAll(10, list);
+        assertEquals(40, list.size());
+        assertEquals(item(0), list.get(10));
+        assertEquals(item(N - 10), list.get(30));
+        assertEquals(item(9), list.set(9, Py.None));
+        assertEquals(Py.None, list.get(9));
+        Object[] array = list.toArray();
+        assertEquals(Object[].class, array.getClass());
+        assertEquals(40, array.length);
+        list.clear();
+        assertTrue(list.isEmpty());
+        try {
+            list.get(0);
+            fail("expected IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+
+    public void testReadIfStable() {
+        OptimisticArrayList list = new OptimisticArrayList(new PyObject[] {item(0), item(1)});
+        assertEquals(item(1), list.getIfStable(1));
+        assertEquals(item(1), list.getIfStable(-1));
+        assertNull(list.getIfStable(2));
+        assertNull(list.getIfStable(-3));
+        assertEquals(2, list.sizeIfStable());
+        list.beginChange();
+        list.beginChange();
+        list.add(item(2));
+        list.endChange();
+        // Still within the outer change
+        assertNull(list.getIfStable(0));
+        assertEquals(-1, list.sizeIfStable());
+        list.endChange();
+        assertEquals(item(2), list.getIfStable(2));
+        assertEquals(3, list.sizeIfStable());
+    }
+
+    public void testListFromPython() {
+        PythonInterpreter interp = new PythonInterpreter();
+        try {
+            interp.exec("a = range(10)\n" //
+                    + "a[2:5] = 'xy'\n" //
+                    + "a.sort(reverse=True)\n" //
+                    + "a *= 2\n" //
+                    + "s = sum(x for x in a if isinstance(x, int))\n" //
+                    + "t = [a[i] for i in range(-len(a), 0)][:9]\n");
+            assertEquals(Py.newInteger(2 * (0 + 1 + 5 + 6 + 7 + 8 + 9)), interp.get("s"));
+            assertEquals("['y', 'x', 9, 8, 7, 6, 5, 1, 0]", interp.get("t").toString());
+        } finally {
+            interp.cleanup();
+        }
+    }
+
+    /**
+     * A reader that does not lock sees a consistent list while another thread reverses and
+     * extends it: the first item is always 0 or N - 1, and an item is never missing.
+     */
+    public void testConcurrentRead() throws InterruptedException {
+        final PyList list = new PyList();
+        for (int i = 0; i < N; i++) {
+            list.append(item(i));
+        }
+        final AtomicReference<String> failure = new AtomicReference<String>();
+        Thread writer = new Thread() {
+
+            @Override
+            public void run() {
+                for (int round = 0; round < 200; round++) {
+                    list.reverse();
+                    list.append(Py.None);
+                    list.pop();
+                }
+            }
+        };
+        writer.start();
+        while (writer.isAlive()) {
+            PyObject first = list.pyget(0);
+            if (!first.equals(item(0)) && !first.equals(item(N - 1))) {
+                failure.set("first item is " + first);
+            }
+            int n = list.size();
+            for (int i = 0; i < n && i < N; i++) {
+                if (list.pyget(i) == null) {
+                    failure.set("item " + i + " missing");
+                }
+            }
+        }
+        writer.join();
+        assertNull(failure.get());
+    }
+
+    /** Threads sharing one iterator over a list take each item exactly once between them. */
+    public void testSharedIterator() throws InterruptedException {
+        final int size = 10 * N;
+        PyList list = new PyList();
+        for (int i = 0; i < size; i++) {
+            list.append(item(i));
+        }
+        for (int round = 0; round < 50; round++) {
+            final PyObject iter = list.__iter__();
+            final AtomicIntegerArray seen = new AtomicIntegerArray(size);
+            final CountDownLatch start = new CountDownLatch(1);
+            Thread[] threads = new Thread[4];
+            for (int t = 0; t < threads.length; t++) {
+                threads[t] = new Thread() {
+
+                    @Override
+                    public void run() {
+                        try {
+                            start.await();
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                        PyObject item;
+                        while ((item = iter.__iternext__()) != null) {
+                            seen.incrementAndGet(((PyInteger)item).getValue());
+                        }
+                    }
+                };
+                threads[t].start();
+            }
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            for (int i = 0; i < size; i++) {
+                assertEquals("item " + i, 1, seen.get(i));
+            }
+            // The iterator stays stopped when the list grows
+            list.append(item(size));
+            assertNull(iter.__iternext__());
+            list.pop();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package org.python.core;
+
+import java.math.BigInteger;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests that arithmetic on {@link PyLong} values held as a Java long agrees with BigInteger
+ * arithmetic, in particular where the result overflows a long.
+ */
+public class PyLongTest extends TestCase {
+
+    private static final long[] VALUES = {0L, 1L, -1L, 2L, -2L, 3L, -7L, 100L,
+            Integer.MAX_VALUE, Integer.MIN_VALUE, 1L << 31, -(1L << 31) - 1, 3037000499L,
+            -3037000500L, 1L << 62, -(1L << 62), Long.MAX_VALUE - 1, Long.MAX_VALUE,
+            Long.MIN_VALUE + 1, Long.MIN_VALUE};
+
+    private static final BigInteger BIG = BigInteger.ONE.shiftLeft(64);
+
+    private static BigInteger big(long v) {
+        return BigInteger.valueOf(v);
+    }
+
+    private static BigInteger value(PyObject o) {
+        if (o instanceof PyInteger) {
+            return big(((PyInteger)o).getValue());
+        }
+        return ((PyLong)o).getValue();
+    }
+
+    /** Python's floor division. */
+    private static BigInteger floorDiv(BigInteger x, BigInteger y) {
+        BigInteger[] qr = x.divideAndRemainder(y);
+        if (qr[1].signum() != 0 && qr[1].signum() != y.signum()) {
+            return qr[0].subtract(BigInteger.ONE);
+        }
+        return qr[0];
+    }
+
+    public void testBinaryOperations() {
+        for (long x : VALUES) {
+            for (long y : VALUES) {
+                PyLong a = new PyLong(x);
+                PyLong b = new PyLong(y);
+                BigInteger bx = big(x), by = big(y);
+                String msg = x + " op " + y;
+                assertEquals(msg, bx.add(by), value(a.__add__(b)));
+                assertEquals(msg, bx.subtract(by), value(a.__sub__(b)));
+                assertEquals(msg, bx.multiply(by), value(a.__mul__(b)));
+                assertEquals(msg, bx.and(by), value(a.__and__(b)));
+                assertEquals(msg, bx.or(by), value(a.__or__(b)));
+                assertEquals(msg, bx.xor(by), value(a.__xor__(b)));
+                assertEquals(msg, Integer.signum(bx.compareTo(by)), a.__cmp__(b));
+                if (y != 0) {
+                    BigInteger q = floorDiv(bx, by);
+                    assertEquals(msg, q, value(a.__floordiv__(b)));
+                    assertEquals(msg, bx.subtract(q.multiply(by)), value(a.__mod__(b)));
+                    PyTuple qr = (PyTuple)a.__divmod__(b);
+                    assertEquals(msg, q, value(qr.pyget(0)));
+                }
+            }
+        }
+    }
+
+    public void testMixedWithInt() {
+        PyInteger i = Py.newInteger(Integer.MIN_VALUE);
+        PyLong l = new PyLong(Long.MIN_VALUE);
+        assertEquals(big(Long.MIN_VALUE).add(big(Integer.MIN_VALUE)), value(l.__add__(i)));
+        assertEquals(big(Integer.MIN_VALUE).subtract(big(Long.MIN_VALUE)), value(l.__rsub__(i)));
+        assertEquals(big(Integer.MIN_VALUE).multiply(big(Long.MIN_VALUE)), value(l.__rmul__(i)));
+        assertEquals(BigInteger.ZERO, value(l.__rfloordiv__(Py.newInteger(-1))));
+    }
+
+    public void testPromotion() {
+        PyLong max = new PyLong(Long.MAX_VALUE);
+        PyLong sum = (PyLong)max.__add__(Py.One);
+        assertEquals(big(Long.MAX_VALUE).add(BigInteger.ONE), sum.getValue());
+        // Back in range: the result is held as a long again
+        PyLong back = (PyLong)sum.__sub__(Py.One);
+        assertEquals(Long.MAX_VALUE, back.asLong());
+        assertEquals(max.hashCode(), back.hashCode());
+        assertEquals(max, back);
+    }
+
+    public void testUnaryOperations() {
+        for (long x : VALUES) {
+            PyLong a = new PyLong(x);
+            BigInteger bx = big(x);
+            assertEquals(bx.negate(), value(a.__neg__()));
+            assertEquals(bx.abs(), value(a.__abs__()));
+            assertEquals(bx.not(), value(a.__invert__()));
+            assertEquals(bx.abs().bitLength(), a.bit_length());
+            assertEquals(bx.hashCode(), a.hashCode());
+            assertEquals(bx.toString(), a.__str__().toString());
+            assertEquals(bx.doubleValue(), a.doubleValue());
+            assertEquals(x != 0, a.__nonzero__());
+        }
+    }
+
+    public void testShifts() {
+        for (long x : VALUES) {
+            PyLong a = new PyLong(x);
+            for (int n : new int[] {0, 1, 31, 32, 62, 63, 64, 65, 200}) {
+                PyInteger s = Py.newInteger(n);
+                assertEquals(x + " << " + n, big(x).shiftLeft(n), value(a.__lshift__(s)));
+                assertEquals(x + " >> " + n, big(x).shiftRight(n), value(a.__rshift__(s)));
+            }
+        }
+    }
+
+    public void testBigValues() {
+        PyLong a = new PyLong(BIG);
+        PyLong b = new PyLong(BIG.negate());
+        assertEquals(BIG.shiftLeft(1), value(a.__sub__(b)));
+        assertEquals(BigInteger.ZERO, value(a.__add__(b)));
+        assertEquals(BIG.hashCode(), a.hashCode());
+        try {
+            a.asLong();
+            fail("expected OverflowError");
+        } catch (PyException e) {
+            assertTrue(e.match(Py.OverflowError));
+        }
+        assertEquals(Integer.MAX_VALUE, a.asIndex(null));
+        assertEquals(Integer.MIN_VALUE, b.asIndex(null));
+    }
+}
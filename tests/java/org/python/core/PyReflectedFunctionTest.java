@@ -0,0 +1,158 @@
+package org.python.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.python.util.PythonInterpreter;
+
+/**
+ * Tests that the overload of a Java method chosen by {@link PyReflectedFunction}, which it
+ * remembers for each combination of argument types, is the one it would choose if it did not,
+ * including where the choice depends on the value of an argument.
+ */
+public class PyReflectedFunctionTest extends TestCase {
+
+    /** Example overloaded methods. */
+    public static class Demo {
+
+        public static String f(char c) {
+            return "char";
+        }
+
+        public static String f(String s) {
+            return "String";
+        }
+
+        public static String f(Object o) {
+            return "Object";
+        }
+
+        public static String g(byte b) {
+            return "byte";
+        }
+
+        public static String g(double x) {
+            return "double";
+        }
+
+        public static String h(int[] a) {
+            return "int[]";
+        }
+
+        public static String h(Object o) {
+            return "Object";
+        }
+
+        public String m(int i) {
+            return "int " + i;
+        }
+
+        public String m(Object o) {
+            return "Object " + o;
+        }
+
+        public static void fail(String message) {
+            throw new IllegalStateException(message);
+        }
+    }
+
+    /** A class that is not public, whose public methods are called by reflection. */
+    static class Hidden {
+
+        public String f(int i) {
+            return "int";
+        }
+
+        public String f(String s) {
+            return "String";
+        }
+    }
+
+    /** A public class that inherits the methods of {@link Hidden}. */
+    public static class Visible extends Hidden {}
+
+    private PythonInterpreter interp;
+
+    @Override
+    protected void setUp() throws Exception {
+        interp = new PythonInterpreter();
+        interp.set("Demo", Demo.class);
+        interp.set("visible", new Visible());
+        interp.set("demo", new Demo());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        interp.cleanup();
+    }
+
+    private String eval(String expr) {
+        return interp.eval(expr).toString();
+    }
+
+    public void testValueOfString() {
+        // A str of length 1 converts to char, and longer ones do not.
+        for (int i = 0; i < 3; i++) {
+            assertEquals("char", eval("Demo.f('a')"));
+            assertEquals("String", eval("Demo.f('ab')"));
+            assertEquals("char", eval("Demo.f(u'a')"));
+            assertEquals("String", eval("Demo.f(u'')"));
+            assertEquals("Object", eval("Demo.f(1)"));
+        }
+    }
+
+    public void testValueOfLong() {
+        // A long in range converts to byte, and larger ones do not.
+        for (int i = 0; i < 3; i++) {
+            assertEquals("byte", eval("Demo.g(5L)"));
+            assertEquals("double", eval("Demo.g(1000L)"));
+            assertEquals("double", eval("Demo.g(2L**70)"));
+            assertEquals("byte", eval("Demo.g(5L)"));
+            assertEquals("byte", eval("Demo.g(1000)"));
+            assertEquals("double", eval("Demo.g(1.5)"));
+        }
+    }
+
+    public void testValueOfCollection() {
+        // A Java list converts to int[] if all its elements do.
+        List<Object> ints = new ArrayList<>();
+        ints.add(1);
+        List<Object> mixed = new ArrayList<>(ints);
+        mixed.add("x");
+        interp.set("ints", ints);
+        interp.set("mixed", mixed);
+        for (int i = 0; i < 3; i++) {
+            assertEquals("int[]", eval("Demo.h(ints)"));
+            assertEquals("Object", eval("Demo.h(mixed)"));
+        }
+    }
+
+    public void testInstanceMethod() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals("int 1", eval("demo.m(1)"));
+            assertEquals("Object x", eval("demo.m('x')"));
+            assertEquals("int 2", eval("Demo.m(demo, 2)"));
+        }
+    }
+
+    public void testNotPublic() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals("int", eval("visible.f(1)"));
+            assertEquals("String", eval("visible.f('x')"));
+        }
+    }
+
+    public void testException() {
+        for (int i = 0; i < 3; i++) {
+            try {
+                interp.exec("Demo.fail('bad')");
+                fail("expected IllegalStateException");
+            } catch (PyException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+                assertEquals("bad", e.getCause().getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package org.python.core;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests of the open-addressed table behind {@link PyStringMap}: growth, removal and reinsertion,
+ * keys that are not interned or not strings, deleted keys let go, {@code popitem}, the
+ * {@link PyStringMap#getMap()} view, and reads that do not lock while another thread writes.
+ */
+public class PyStringMapTest extends TestCase {
+
+    private static final int N = 1000;
+
+    private static String name(int i) {
+        return ("name" + i).intern();
+    }
+
+    public void testGrowth() {
+        PyStringMap map = new PyStringMap();
+        assertEquals(0, map.__len__());
+        assertNull(map.__finditem__("name0"));
+        for (int i = 0; i < N; i++) {
+            map.__setitem__(name(i), Py.newInteger(i));
+            assertEquals(i + 1, map.__len__());
+        }
+        for (int i = 0; i < N; i++) {
+            assertEquals(Py.newInteger(i), map.__finditem__(name(i)));
+        }
+        assertEquals(N, map.keys().size());
+        assertEquals(N, map.values().size());
+        assertEquals(N, map.items().size());
+    }
+
+    public void testRemoveAndReinsert() {
+        PyStringMap map = new PyStringMap();
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < N; i++) {
+                map.__setitem__(name(i), Py.newInteger(i + round));
+            }
+            for (int i = 0; i < N; i += 2) {
+                map.__delitem__(name(i));
+            }
+            assertEquals(N / 2, map.__len__());
+            for (int i = 0; i < N; i++) {
+                PyObject value = map.__finditem__(name(i));
+                assertEquals(i % 2 == 0 ? null : Py.newInteger(i + round), value);
+            }
+        }
+        try {
+            map.__delitem__(name(0));
+            fail("expected KeyError");
+        } catch (PyException e) {
+            assertTrue(e.match(Py.KeyError));
+        }
+        map.clear();
+        assertEquals(0, map.__len__());
+        assertNull(map.__finditem__(name(1)));
+    }
+
+    public void testKeyNotInterned() {
+        PyStringMap map = new PyStringMap();
+        map.__setitem__(new String("spam"), Py.One);
+        assertEquals(Py.One, map.__finditem__("spam"));
+        assertEquals(Py.One, map.__finditem__(new String("spam")));
+        assertEquals(Py.One, map.__finditem__(Py.newString("spam")));
+        map.__setitem__("spam", Py.Zero);
+        assertEquals(1, map.__len__());
+        assertEquals(Py.Zero, map.__finditem__(new String("spam")));
+    }
+
+    public void testObjectKeys() {
+        PyStringMap map = new PyStringMap();
+        for (int i = 0; i < N; i++) {
+            map.__setitem__(Py.newInteger(i), Py.newInteger(-i));
+            map.__setitem__(Py.newString(name(i)), Py.newInteger(i));
+        }
+        assertEquals(2 * N, map.__len__());
+        for (int i = 0; i < N; i++) {
+            // Equal but not identical keys, including a long equal to an int
+            assertEquals(Py.newInteger(-i), map.__finditem__(Py.newLong(i)));
+            assertEquals(Py.newInteger(i), map.__finditem__(name(i)));
+        }
+        assertEquals(Py.newInteger(-3), map.pop(Py.newInteger(3)));
+        assertNull(map.__finditem__(Py.newInteger(3)));
+        assertEquals(2 * N - 1, map.__len__());
+    }
+
+    public void testDeletedKeyCollected() throws InterruptedException {
+        PyStringMap map = new PyStringMap();
+        PyObject key = new PyObject(), popped = new PyObject();
+        WeakReference<PyObject> ref = new WeakReference<PyObject>(key);
+        WeakReference<PyObject> poppedRef = new WeakReference<PyObject>(popped);
+        map.__setitem__(key, Py.One);
+        map.__setitem__(popped, Py.One);
+        map.__setitem__("a", Py.One);
+        map.__delitem__(key);
+        while (map.__finditem__(popped) != null) {
+            map.popitem();
+        }
+        key = popped = null;
+        for (int i = 0; i < 10 && (ref.get() != null || poppedRef.get() != null); i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull("deleted key still held", ref.get());
+        assertNull("popped key still held", poppedRef.get());
+    }
+
+    public void testPopitem() {
+        PyStringMap map = new PyStringMap();
+        for (int i = 0; i < N; i++) {
+            map.__setitem__(name(i), Py.newInteger(i));
+            map.__setitem__(Py.newInteger(i), Py.newInteger(-i));
+        }
+        PyStringMap popped = new PyStringMap();
+        for (int i = 0; i < N; i++) {
+            PyTuple item = (PyTuple)map.popitem();
+            popped.__setitem__(item.pyget(0), item.pyget(1));
+            // An entry in a slot the search has passed is still found
+            if (i % 100 == 0) {
+                map.__setitem__(name(i), Py.newInteger(i));
+            }
+        }
+        while (map.__len__() > 0) {
+            PyTuple item = (PyTuple)map.popitem();
+            popped.__setitem__(item.pyget(0), item.pyget(1));
+        }
+        assertEquals(2 * N, popped.__len__());
+        assertEquals(Py.newInteger(-5), popped.__finditem__(Py.newInteger(5)));
+        try {
+            map.popitem();
+            fail("expected KeyError");
+        } catch (PyException e) {
+            assertTrue(e.match(Py.KeyError));
+        }
+    }
+
+    public void testCopyIsIndependent() {
+        PyStringMap map = new PyStringMap();
+        map.__setitem__("a", Py.One);
+        map.__setitem__(Py.newInteger(2), Py.One);
+        PyStringMap copy = map.copy();
+        map.__setitem__("b", Py.One);
+        map.__delitem__("a");
+        assertEquals(2, copy.__len__());
+        assertEquals(Py.One, copy.__finditem__("a"));
+        assertEquals(Py.One, copy.__finditem__(Py.newInteger(2)));
+        assertNull(copy.__finditem__("b"));
+    }
+
+    public void testIterationChangedSize() {
+        PyStringMap map = new PyStringMap();
+        map.__setitem__("a", Py.One);
+        map.__setitem__("b", Py.One);
+        PyObject it = map.__iter__();
+        it.__iternext__();
+        map.__setitem__("c", Py.One);
+        try {
+            it.__iternext__();
+            fail("expected RuntimeError");
+        } catch (PyException e) {
+            assertTrue(e.match(Py.RuntimeError));
+        }
+    }
+
+    public void testMapView() {
+        PyStringMap map = new PyStringMap();
+        ConcurrentMap<Object, PyObject> view = map.getMap();
+        int version = map.getVersion();
+        assertNull(view.put("a", Py.One));
+        assertTrue(map.getVersion() != version);
+        assertEquals(Py.One, map.__finditem__("a"));
+        assertNull(view.putIfAbsent(Py.newString("b"), Py.Zero));
+        assertEquals(Py.Zero, view.putIfAbsent("b", Py.One));
+        assertEquals(2, view.size());
+        assertTrue(view.containsKey(Py.newString("a")));
+        assertFalse(view.containsKey(Integer.valueOf(1)));
+        assertTrue(view.replace("b", Py.Zero, Py.One));
+        assertEquals(Py.One, map.__finditem__("b"));
+
+        for (Iterator<Map.Entry<Object, PyObject>> it = view.entrySet().iterator(); it
+                .hasNext();) {
+            Map.Entry<Object, PyObject> entry = it.next();
+            assertTrue(entry.getKey() instanceof String);
+            if (entry.getKey().equals("a")) {
+                it.remove();
+            } else {
+                entry.setValue(Py.newInteger(7));
+            }
+        }
+        assertNull(map.__finditem__("a"));
+        assertEquals(Py.newInteger(7), map.__finditem__("b"));
+        assertEquals(1, map.pyKeySet().size());
+        assertEquals(Py.newString("b"), map.pyKeySet().iterator().next());
+    }
+
+    /** A reader that does not lock sees every entry present while another thread adds more. */
+    public void testConcurrentRead() throws InterruptedException {
+        final PyStringMap map = new PyStringMap();
+        final String[] names = new String[20 * N];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = name(i);
+        }
+        map.__setitem__(names[0], Py.Zero);
+        final AtomicReference<String> failure = new AtomicReference<String>();
+        Thread writer = new Thread() {
+
+            @Override
+            public void run() {
+                for (int i = 1; i < names.length; i++) {
+                    map.__setitem__(names[i], Py.newInteger(i));
+                    if (i % 3 == 0) {
+                        map.__delitem__(names[i]);
+                    }
+                }
+            }
+        };
+        writer.start();
+        while (writer.isAlive()) {
+            if (map.__finditem__(names[0]) != Py.Zero) {
+                failure.set(names[0] + " missing");
+            }
+            int n = map.__len__();
+            for (int i = 1; i < n / 2; i++) {
+                // Entries not deleted up to about n/2 were added before the length was read
+                PyObject value = map.__finditem__(names[i]);
+                if (i % 3 != 0 && (value == null || Py.py2int(value) != i)) {
+                    failure.set(names[i] + " is " + value);
+                }
+            }
+        }
+        writer.join();
+        assertNull(failure.get());
+    }
+}
@@ -2,6 +2,8 @@ package org.python.core;
 
 import junit.framework.TestCase;
 
+import org.python.util.PythonInterpreter;
+
 /**
  * Tests for PyTuple as Java Tuple.
  */
@@ -36,4 +38,46 @@ public class PyTupleTest extends TestCase {
         assertEquals(s[0], "foo");
         assertEquals(s[1], "bar");
     }
+
+    public void testSmallArity() {
+        PyObject[] items = {Py.One, Py.None, Py.True, Py.newString("x")};
+        assertEquals(new PyTuple(items), new PyTuple(items[0], items[1], items[2], items[3]));
+        assertEquals(3, new PyTuple(items[0], items[1], items[2]).size());
+        assertEquals(Py.None, new PyTuple(items[1]).pyget(0));
+        // A tuple does not share an array passed to it
+        PyTuple t = new PyTuple(items);
+        items[0] = Py.Zero;
+        assertEquals(Py.One, t.pyget(0));
+        assertEquals(0, new PyTuple().size());
+    }
+
+    public void testHash() {
+        PyTuple inner = new PyTuple(Py.newString("a"), Py.newLong(2), Py.newFloat(0.5));
+        PyTuple t = new PyTuple(inner, Py.None, Py.True);
+        int h = t.hashCode();
+        assertEquals(h, t.hashCode());
+        // Equal tuples have equal hashes, whether kept or computed afresh
+        PyTuple v = new PyTuple(Py.newUnicode("a"), Py.newInteger(2), Py.newFloat(0.5));
+        PyTuple u = new PyTuple(v, Py.None, Py.One);
+        assertEquals(t, u);
+        assertEquals(h, u.hashCode());
+    }
+
+    /** The hash of a tuple holding an object whose hash may change is not kept. */
+    public void testHashNotKept() {
+        PythonInterpreter interp = new PythonInterpreter();
+        try {
+            interp.exec("class K(object):\n" //
+                    + "    h = 1\n" //
+                    + "    def __hash__(self): return self.h\n" //
+                    + "k = K()\n" //
+                    + "t = (1, k)\n" //
+                    + "h1 = hash(t)\n" //
+                    + "k.h = 2\n" //
+                    + "h2 = hash(t)\n");
+            assertFalse(interp.get("h1").equals(interp.get("h2")));
+        } finally {
+            interp.cleanup();
+        }
+    }
 }
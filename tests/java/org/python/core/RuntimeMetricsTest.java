@@ -0,0 +1,82 @@
+package org.python.core;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import junit.framework.TestCase;
+
+import org.python.util.PythonInterpreter;
+
+/**
+ * Tests of {@link RuntimeMetrics}: that the work it counts moves the counters, and that the values
+ * are readable from {@code sys} and through JMX.
+ */
+public class RuntimeMetricsTest extends TestCase {
+
+    private PythonInterpreter interp;
+
+    @Override
+    protected void setUp() throws Exception {
+        interp = new PythonInterpreter();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        interp.cleanup();
+    }
+
+    private long metric(String name) {
+        interp.exec("import sys\nm = sys._jython_metrics()['" + name + "']");
+        return Py.py2long(interp.get("m"));
+    }
+
+    public void testCounters() {
+        RuntimeMetrics metrics = RuntimeMetrics.getInstance();
+        long imports = metrics.getImports(), compiles = metrics.getCompiles();
+        long hits = metrics.getMethodCacheHits(), resolutions = metrics.getOverloadResolutions();
+        interp.exec("import decimal\n" //
+                + "from java.lang import Math\n" //
+                + "class C(object):\n" //
+                + "    def f(self): return 1\n" //
+                + "for i in range(10): C().f() + Math.max(i, 2)\n");
+        assertTrue(metrics.getImports() > imports);
+        assertTrue(metrics.getImportTimeNanos() > 0);
+        assertTrue(metrics.getCompiles() > compiles);
+        assertTrue(metrics.getCompileTimeNanos() > 0);
+        if (PyType.MethodCache.COUNTED) {
+            assertTrue(metrics.getMethodCacheHits() > hits);
+            assertTrue(metrics.getMethodCacheMisses() > 0);
+        } else {
+            assertEquals(0, metrics.getMethodCacheHits());
+            assertEquals(0, metrics.getMethodCacheMisses());
+        }
+        assertTrue(metrics.getOverloadResolutions() > resolutions);
+        // The overload chosen is remembered, so calls like it are not counted again
+        resolutions = metrics.getOverloadResolutions();
+        interp.exec("for i in range(10): Math.max(i, 2)\n");
+        assertEquals(resolutions, metrics.getOverloadResolutions());
+        assertTrue(metrics.getLiveThreadStates() >= 1);
+        assertTrue(metrics.getPendingFinalizeTriggers() >= 0);
+    }
+
+    public void testFromSys() {
+        long imports = metric("Imports");
+        interp.exec("import fractions");
+        assertTrue(metric("Imports") > imports);
+        interp.exec("assert sorted(m.lower() for m in sys._jython_metrics())[0] == 'compiles'");
+    }
+
+    public void testJmx() throws Exception {
+        assertTrue(RuntimeMetrics.register());
+        // Registering again is harmless
+        assertTrue(RuntimeMetrics.register());
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(RuntimeMetrics.OBJECT_NAME);
+        Object compiles = server.getAttribute(name, "Compiles");
+        assertTrue(compiles instanceof Long);
+        assertTrue((Long)compiles > 0);
+        assertNotNull(server.getAttribute(name, "LiveThreadStates"));
+    }
+}
@@ -0,0 +1,86 @@
+package org.python.core;
+
+import junit.framework.TestCase;
+
+import org.python.util.PythonInterpreter;
+
+/**
+ * Tests of {@link SamplingProfiler}: stacks sampled from another thread, and control of the
+ * profiler from Python through {@code _jyprofiler}.
+ */
+public class SamplingProfilerTest extends TestCase {
+
+    private PythonInterpreter interp;
+
+    @Override
+    protected void setUp() throws Exception {
+        SamplingProfiler.stop();
+        SamplingProfiler.clear();
+        interp = new PythonInterpreter();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        SamplingProfiler.stop();
+        SamplingProfiler.clear();
+        interp.cleanup();
+    }
+
+    /** Samples taken while another thread runs Python code show its stack, outermost first. */
+    public void testSampleOtherThread() throws InterruptedException {
+        interp.exec("import threading\n" //
+                + "running = threading.Event()\n" //
+                + "done = threading.Event()\n" //
+                + "def spin():\n" //
+                + "    running.set()\n" //
+                + "    while not done.is_set():\n" //
+                + "        pass\n" //
+                + "def outer():\n" //
+                + "    spin()\n" //
+                + "t = threading.Thread(target=outer)\n" //
+                + "t.start()\n" //
+                + "running.wait()\n");
+        try {
+            for (int i = 0; i < 5; i++) {
+                SamplingProfiler.sample();
+            }
+        } finally {
+            interp.exec("done.set(); t.join()");
+        }
+        assertTrue(SamplingProfiler.getSampleCount() >= 5);
+        String profile = SamplingProfiler.collapsed();
+        assertTrue(profile, profile.contains("outer (<string>:9);spin (<string>:"));
+        for (String line : profile.split("\n")) {
+            assertTrue(line, line.matches("[^ ].* [0-9]+"));
+        }
+    }
+
+    public void testFromPython() {
+        interp.exec("import _jyprofiler, time\n" //
+                + "def busy():\n" //
+                + "    end = time.time() + 0.5\n" //
+                + "    while time.time() < end:\n" //
+                + "        pass\n" //
+                + "_jyprofiler.start(1)\n" //
+                + "running = _jyprofiler.is_running()\n" //
+                + "busy()\n" //
+                + "_jyprofiler.stop()\n" //
+                + "profile = _jyprofiler.collapsed()\n");
+        assertEquals(Py.True, interp.get("running"));
+        assertFalse(SamplingProfiler.isRunning());
+        String profile = interp.get("profile").toString();
+        assertTrue(profile, profile.contains("<module> (<string>:8);busy (<string>:"));
+        SamplingProfiler.clear();
+        assertEquals("", SamplingProfiler.collapsed());
+    }
+
+    public void testBadInterval() {
+        try {
+            SamplingProfiler.start(0);
+            fail("expected ValueError");
+        } catch (PyException e) {
+            assertTrue(e.match(Py.ValueError));
+        }
+        assertFalse(SamplingProfiler.isRunning());
+    }
+}
@@ -0,0 +1,128 @@
+package org.python.core;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests that {@link ThreadStateMapping} keeps one ThreadState per live thread and forgets those of
+ * threads that have ended.
+ */
+public class ThreadStateMappingTest extends TestCase {
+
+    @Override
+    protected void setUp() throws Exception {
+        PySystemState.initialize();
+    }
+
+    public void testSameThreadState() {
+        ThreadState ts = Py.getThreadState();
+        assertSame(ts, Py.getThreadState());
+        assertSame(ts, Py.getThreadState(null));
+    }
+
+    public void testThreadsHaveOwnState() throws InterruptedException {
+        final ThreadState mine = Py.getThreadState();
+        final ThreadState[] theirs = new ThreadState[2];
+        Thread t = new Thread() {
+
+            @Override
+            public void run() {
+                theirs[0] = Py.getThreadState();
+                theirs[1] = Py.getThreadState();
+            }
+        };
+        t.start();
+        t.join();
+        assertNotNull(theirs[0]);
+        assertSame(theirs[0], theirs[1]);
+        assertNotSame(mine, theirs[0]);
+    }
+
+    public void testCollectedSystemState() throws InterruptedException {
+        // A thread outlives the PySystemState it ran with, and goes on with the default
+        final Object[] result = new Object[4];
+        Thread t = new Thread() {
+
+            @Override
+            public void run() {
+                ThreadState ts = Py.getThreadState();
+                ts.setSystemState(new PySystemState());
+                for (int i = 0; i < 100 && !ts.isSystemStateCollected(); i++) {
+                    System.gc();
+                    try {
+                        Thread.sleep(10);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                result[0] = ts.isSystemStateCollected();
+                // A sweep keeps the ThreadState of a thread that is alive
+                ThreadStateMapping.sweep();
+                result[3] = ThreadStateMapping.liveThreadStates(null).contains(ts);
+                result[1] = ts.getSystemState();
+                PyObject locals = new PyStringMap();
+                Py.exec(Py.compile_flags("import sys, thread\n"
+                        + "listed = thread.get_ident() in sys._current_frames()\n", "<test>",
+                        CompileMode.exec, new CompilerFlags()), locals, locals);
+                result[2] = locals.__finditem__("listed");
+            }
+        };
+        t.start();
+        t.join();
+        assertEquals(Boolean.TRUE, result[0]);
+        assertSame(Py.defaultSystemState, result[1]);
+        assertEquals(Py.True, result[2]);
+        assertEquals(Boolean.TRUE, result[3]);
+    }
+
+    public void testEndedThreadCollected() throws InterruptedException {
+        Thread t = new Thread() {
+
+            @Override
+            public void run() {
+                Py.getThreadState();
+            }
+        };
+        t.start();
+        t.join();
+        WeakReference<Thread> ref = new WeakReference<Thread>(t);
+        t = null;
+        for (int i = 0; i < 100 && ref.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull("ended thread still held", ref.get());
+    }
+
+    public void testEndedThreadsSwept() throws InterruptedException {
+        final AtomicInteger ran = new AtomicInteger();
+        final PyObject add = Py.newInteger(1).__getattr__("__add__");
+        int n = 5000;
+        for (int batch = 0; batch < 10; batch++) {
+            Thread[] threads = new Thread[n / 10];
+            for (int i = 0; i < threads.length; i++) {
+                threads[i] = new Thread() {
+
+                    @Override
+                    public void run() {
+                        Py.getThreadState();
+                        if (add.__call__(Py.newInteger(1)).asInt() == 2) {
+                            ran.incrementAndGet();
+                        }
+                    }
+                };
+                threads[i].start();
+            }
+            for (Thread t : threads) {
+                t.join();
+            }
+        }
+        assertEquals(n, ran.get());
+        // Ended threads are swept each time the registrations double, so at most a batch or two
+        // of them remain registered.
+        assertTrue("registered " + ThreadStateMapping.registeredCount(),
+                ThreadStateMapping.registeredCount() < n / 2);
+    }
+}
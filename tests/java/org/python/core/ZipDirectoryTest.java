@@ -0,0 +1,186 @@
+package org.python.core;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import junit.framework.TestCase;
+
+import org.python.core.util.FileUtil;
+import org.python.util.PythonInterpreter;
+
+/**
+ * Tests of the {@link ZipDirectory}: the entries read from the central directory agree with
+ * {@link ZipFile}, modules are resolved by name, the directory is shared until the archive
+ * changes, and a {@link SyspathArchive} finds entries through it.
+ */
+public class ZipDirectoryTest extends TestCase {
+
+    private File dir;
+
+    private File zip;
+
+    @Override
+    protected void setUp() throws Exception {
+        ZipDirectory.invalidate();
+        dir = Files.createTempDirectory("zipdir").toFile();
+        zip = new File(dir, "app.zip");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        ZipDirectory.invalidate();
+        for (File f : dir.listFiles()) {
+            f.delete();
+        }
+        dir.delete();
+    }
+
+    /** Write a ZIP of entries given as name, content pairs, after some bytes of other data. */
+    private void writeZip(byte[] preamble, String... namesAndContents) throws IOException {
+        try (OutputStream out = new FileOutputStream(zip)) {
+            out.write(preamble);
+            ZipOutputStream zout = new ZipOutputStream(out);
+            for (int i = 0; i < namesAndContents.length; i += 2) {
+                byte[] data = namesAndContents[i + 1].getBytes("UTF-8");
+                ZipEntry entry = new ZipEntry(namesAndContents[i]);
+                if (i % 4 == 0) {
+                    // Store every other entry uncompressed
+                    CRC32 crc = new CRC32();
+                    crc.update(data);
+                    entry.setMethod(ZipEntry.STORED);
+                    entry.setSize(data.length);
+                    entry.setCrc(crc.getValue());
+                }
+                zout.putNextEntry(entry);
+                zout.write(data);
+                zout.closeEntry();
+            }
+            zout.finish();
+        }
+    }
+
+    private void writeZip(String... namesAndContents) throws IOException {
+        writeZip(new byte[0], namesAndContents);
+    }
+
+    private void assertAgreesWithZipFile(ZipDirectory directory) throws IOException {
+        List<String> names = new ArrayList<String>();
+        try (ZipFile zipFile = new ZipFile(zip)) {
+            for (Enumeration<? extends ZipEntry> e = zipFile.entries(); e.hasMoreElements();) {
+                ZipEntry zipEntry = e.nextElement();
+                names.add(zipEntry.getName());
+                ZipDirectory.Entry entry = directory.getEntry(zipEntry.getName());
+                assertNotNull(zipEntry.getName(), entry);
+                assertEquals(zipEntry.getMethod(), entry.method);
+                assertEquals(zipEntry.getCompressedSize(), entry.compressedSize);
+                assertEquals(zipEntry.getSize(), entry.size);
+                assertEquals(zipEntry.getCrc(), entry.crc);
+            }
+        }
+        List<String> indexed = new ArrayList<String>();
+        for (ZipDirectory.Entry entry : directory.entries()) {
+            indexed.add(entry.name);
+        }
+        assertEquals(names, indexed);
+    }
+
+    public void testEntries() throws IOException {
+        writeZip("pkg/__init__.py", "", "pkg/mod.py", "x = 1\n", "top$py.class", "...",
+                "pkg/data.txt", "data", "café.py", "");
+        ZipDirectory directory = ZipDirectory.get(zip);
+        assertAgreesWithZipFile(directory);
+        assertNull(directory.getEntry("missing.py"));
+    }
+
+    public void testPreamble() throws IOException {
+        writeZip("#!/bin/sh\nexec java -jar \"$0\"\n".getBytes("UTF-8"), "main.py", "pass\n",
+                "lib/util.py", "pass\n");
+        ZipDirectory directory = ZipDirectory.get(zip);
+        assertAgreesWithZipFile(directory);
+        assertTrue(directory.hasModule("lib/util"));
+    }
+
+    public void testHasModule() throws IOException {
+        writeZip("pkg/__init__$py.class", "", "pkg/mod.py", "", "top$py.class", "",
+                "pkg/data.txt", "", "other/__init__.py", "");
+        ZipDirectory directory = ZipDirectory.get(zip);
+        assertTrue(directory.hasModule("pkg"));
+        assertTrue(directory.hasModule("pkg/__init__"));
+        assertTrue(directory.hasModule("pkg/mod"));
+        assertTrue(directory.hasModule("top"));
+        assertTrue(directory.hasModule("other"));
+        assertFalse(directory.hasModule("pkg/data"));
+        assertFalse(directory.hasModule("missing"));
+        assertFalse(directory.hasModule("pkg/missing"));
+    }
+
+    public void testShared() throws IOException {
+        writeZip("a.py", "");
+        ZipDirectory directory = ZipDirectory.get(zip);
+        assertSame(directory, ZipDirectory.get(zip));
+        assertNotSame(directory, ZipDirectory.read(zip));
+
+        // A change to the archive is seen
+        writeZip("a.py", "", "b.py", "");
+        assertTrue(zip.setLastModified(zip.lastModified() + 2000));
+        directory = ZipDirectory.get(zip);
+        assertTrue(directory.hasModule("b"));
+        assertSame(directory, ZipDirectory.get(zip));
+    }
+
+    public void testArchiveEntries() throws IOException {
+        writeZip("res/", "", "res/data.txt", "data", "lib/sub/", "", "lib/sub/x.txt", "x");
+        ZipDirectory directory = ZipDirectory.get(zip);
+        // A directory is found by its name without the "/", as by ZipFile
+        assertEquals("res/", directory.findEntry("res"));
+        assertEquals("res/data.txt", directory.findEntry("res/data.txt"));
+        assertNull(directory.findEntry("missing"));
+
+        SyspathArchive archive = SyspathArchive.fromPath(zip.getPath());
+        assertEquals("res/", archive.getEntry("res").getName());
+        assertEquals("data", new String(FileUtil.readBytes(
+                archive.getInputStream(archive.getEntry("res/data.txt")))));
+        SyspathArchive sub = archive.makeSubfolder("lib");
+        assertEquals("lib/sub/", sub.getEntry("sub").getName());
+        assertEquals("x", new String(FileUtil.readBytes(
+                sub.getInputStream(sub.getEntry("sub/x.txt")))));
+        assertNull(sub.getEntry("res"));
+        // Every folder of the archive reads it through the one ZipFile
+        assertSame(directory.getZipFile(), ZipDirectory.get(zip).getZipFile());
+    }
+
+    public void testNotZip() throws IOException {
+        Files.write(zip.toPath(), "not a zip".getBytes());
+        try {
+            ZipDirectory.get(zip);
+            fail("read a directory from a file that is not a ZIP");
+        } catch (IOException ioe) {
+            // expected
+        }
+    }
+
+    public void testImport() throws IOException {
+        writeZip("zdpkg/__init__.py", "", "zdpkg/mod.py", "x = 42\n");
+        PythonInterpreter interp = new PythonInterpreter();
+        try {
+            interp.set("z", zip.getPath());
+            interp.exec("import sys\nsys.path.insert(0, z)\nfrom zdpkg import mod\nx = mod.x");
+            assertEquals(Py.newInteger(42), interp.get("x"));
+            interp.exec("try:\n    import zdpkg.missing\nexcept ImportError:\n    missed = True");
+            assertEquals(Py.True, interp.get("missed"));
+            interp.exec("sys.path.remove(z)\nsys.path_importer_cache.pop(z, None)");
+        } finally {
+            interp.cleanup();
+        }
+    }
+}
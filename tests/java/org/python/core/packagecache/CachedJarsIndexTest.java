@@ -0,0 +1,269 @@
+package org.python.core.packagecache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.python.core.PyJavaPackage;
+import org.python.core.PyList;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests of the index of JARs kept by {@link CachedJarsPackageManager}: JARs added together are
+ * all indexed, and the index written is read back in place of scanning them again.
+ */
+public class CachedJarsIndexTest extends TestCase {
+
+    private File dir;
+
+    private File cachedir;
+
+    private List<File> jars;
+
+    @Override
+    protected void setUp() throws Exception {
+        dir = Files.createTempDirectory("jarindex").toFile();
+        cachedir = new File(dir, "cache");
+        jars = new ArrayList<File>();
+        for (int i = 0; i < 4; i++) {
+            jars.add(makeJar("jar" + i + ".jar", "pkg" + i + "/sub/C" + i, "pkg" + i + "/D" + i));
+        }
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        delete(dir);
+    }
+
+    private static void delete(File f) {
+        File[] files = f.listFiles();
+        if (files != null) {
+            for (File g : files) {
+                delete(g);
+            }
+        }
+        f.delete();
+    }
+
+    /** Make a JAR of empty public classes with the given (internal) names. */
+    private File makeJar(String name, String... classNames) throws IOException {
+        File jar = new File(dir, name);
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+            for (String className : classNames) {
+                ClassWriter cw = new ClassWriter(0);
+                cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, className, null, "java/lang/Object",
+                        null);
+                cw.visitEnd();
+                out.putNextEntry(new ZipEntry(className + ".class"));
+                out.write(cw.toByteArray());
+                out.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    private static void assertHasClasses(TestPackageManager manager, String... names) {
+        for (String name : names) {
+            int dot = name.lastIndexOf('.');
+            PyJavaPackage pkg = (PyJavaPackage) manager.lookupName(name.substring(0, dot));
+            assertNotNull(name, pkg);
+            assertNotNull(name, pkg.clsSet.__finditem__(name.substring(dot + 1)));
+        }
+    }
+
+    public void testAddJars() {
+        TestPackageManager manager = new TestPackageManager(cachedir);
+        manager.addJarsToPackages(jars, true);
+        assertFalse(manager.failed);
+        assertEquals(4, manager.processed);
+        assertHasClasses(manager, "pkg0.sub.C0", "pkg0.D0", "pkg3.sub.C3", "pkg3.D3");
+    }
+
+    public void testIndexReused() throws IOException {
+        TestPackageManager manager = new TestPackageManager(cachedir);
+        manager.addJarsToPackages(jars, true);
+        manager.saveCache();
+        assertTrue(new File(cachedir, "packages.jpi").isFile());
+
+        // A new manager reads what the first found from the index
+        manager = new TestPackageManager(cachedir);
+        manager.addJarsToPackages(jars, true);
+        assertFalse(manager.failed);
+        assertEquals(0, manager.processed);
+        assertHasClasses(manager, "pkg0.sub.C0", "pkg1.D1", "pkg2.sub.C2", "pkg3.D3");
+
+        // A modified JAR is scanned again
+        File jar = makeJar("jar1.jar", "pkg1/E1");
+        assertTrue(jar.setLastModified(jar.lastModified() - 10000));
+        manager = new TestPackageManager(cachedir);
+        manager.addJarsToPackages(jars, true);
+        assertEquals(1, manager.processed);
+        assertHasClasses(manager, "pkg0.sub.C0", "pkg1.E1");
+        assertNull(((PyJavaPackage) manager.lookupName("pkg1")).clsSet.__finditem__("D1"));
+    }
+
+    public void testBadIndex() throws IOException {
+        assertTrue(cachedir.mkdirs());
+        Files.write(new File(cachedir, "packages.jpi").toPath(), new byte[] {1, 2, 3});
+        TestPackageManager manager = new TestPackageManager(cachedir);
+        manager.addJarsToPackages(jars, true);
+        assertEquals(4, manager.processed);
+        assertHasClasses(manager, "pkg2.D2");
+    }
+
+    public void testBadLengthsInIndex() throws IOException {
+        // Counts and lengths read from the index are not trusted to allocate arrays
+        int[][] tables = { {Integer.MAX_VALUE}, {1, Integer.MAX_VALUE}, {1, -1},
+                {1, 0, 0, 0, Integer.MAX_VALUE}};
+        assertTrue(cachedir.mkdirs());
+        for (int[] table : tables) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeInt(0x4a795049);
+                out.writeInt(1);
+                for (int n : table) {
+                    out.writeInt(n);
+                }
+            }
+            Files.write(new File(cachedir, "packages.jpi").toPath(), bytes.toByteArray());
+            TestPackageManager manager = new TestPackageManager(cachedir);
+            manager.addJarsToPackages(jars, true);
+            assertEquals(4, manager.processed);
+            assertHasClasses(manager, "pkg1.sub.C1");
+        }
+    }
+
+        public void testIndexKeptElsewhere() throws IOException {
+        // A subclass may keep the index in storage of its own through the stream hooks
+        StoredPackageManager manager = new StoredPackageManager(null);
+        manager.addJarsToPackages(jars, true);
+        manager.saveCache();
+        assertNotNull(manager.stored);
+        assertFalse(cachedir.exists());
+
+        manager = new StoredPackageManager(manager.stored);
+        manager.addJarsToPackages(jars, true);
+        assertFalse(manager.failed);
+        assertEquals(0, manager.processed);
+        assertHasClasses(manager, "pkg0.sub.C0", "pkg3.D3");
+    }
+
+    public void testOldCacheDeleted() throws IOException {
+        assertTrue(cachedir.mkdirs());
+        File pkc = new File(cachedir, "jar0.pkc");
+        Files.write(pkc.toPath(), new byte[] {1});
+        Files.write(new File(cachedir, "packages.idx").toPath(), new byte[] {1});
+        TestPackageManager manager = new TestPackageManager(cachedir);
+        assertEquals(Arrays.asList(pkc.getPath()), manager.deleted);
+        assertFalse(pkc.exists());
+    }
+
+    public void testMissingAndBadJars() throws IOException {
+        File bad = new File(dir, "bad.jar");
+        Files.write(bad.toPath(), "not a jar".getBytes());
+        TestPackageManager manager = new TestPackageManager(cachedir);
+        manager.addJarsToPackages(Arrays.asList(jars.get(0), new File(dir, "missing.jar"), bad,
+                jars.get(1)), true);
+        assertHasClasses(manager, "pkg0.D0", "pkg1.D1");
+    }
+
+    /** A package manager that keeps its index in memory rather than in a directory. */
+    private static class StoredPackageManager extends TestPackageManager {
+
+        byte[] stored;
+
+        StoredPackageManager(byte[] stored) {
+            super(null);
+            this.stored = stored;
+            initCache();
+        }
+
+        @Override
+        protected DataInputStream inOpenIndex() {
+            return stored == null ? null
+                    : new DataInputStream(new ByteArrayInputStream(stored));
+        }
+
+        @Override
+        protected DataOutputStream outOpenIndex() {
+            return new DataOutputStream(new ByteArrayOutputStream() {
+
+                @Override
+                public void close() {
+                    stored = toByteArray();
+                }
+            });
+        }
+    }
+
+    private static class TestPackageManager extends CachedJarsPackageManager {
+
+        boolean failed;
+
+        int processed;
+
+        List<String> deleted = new ArrayList<String>();
+
+        TestPackageManager(File cachedir) {
+            if (useCacheDir(cachedir)) {
+                initCache();
+            }
+        }
+
+        @Override
+        protected void warning(String msg, Object... params) {
+            failed = true;
+        }
+
+        @Override
+        protected void comment(String msg, Object... params) {
+            if (msg.startsWith("processing")) {
+                processed++;
+            }
+        }
+
+        @SuppressWarnings("deprecation")
+        @Override
+        protected void deleteCacheFile(String cachefile) {
+            deleted.add(cachefile);
+            super.deleteCacheFile(cachefile);
+        }
+
+        @Override
+        public void addDirectory(File dir) {}
+
+        @Override
+        public void addJar(String jarfile, boolean cache) {}
+
+        @Override
+        public void addJarDir(String dir, boolean cache) {}
+
+        @Override
+        public PyList doDir(PyJavaPackage jpkg, boolean instantiate, boolean exclpkgs) {
+            return null;
+        }
+
+        @Override
+        public Class<?> findClass(String pkg, String name, String reason) {
+            return null;
+        }
+
+        @Override
+        public boolean packageExists(String pkg, String name) {
+            return false;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package org.python.expose.generate;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 
 import org.python.core.Py;
 import org.python.core.PyNewWrapper;
@@ -21,6 +23,10 @@ public class TypeExposerTest extends InterpTestCase {
         assertEquals(SimpleExposed.class, t.getTypeClass());
         assertEquals(false, t.getIsBaseType());
         assertEquals("Docstring", t.getDoc());
+        List<String> names = Arrays.asList(t.getNames());
+        assertTrue(names.contains("simple_method"));
+        assertTrue(names.contains("tostring"));
+        assertTrue(names.contains("__new__"));
         PyType type = PyType.fromClass(SimpleExposed.class);
         PyObject dict = t.getDict(type);
         assertNotNull(dict.__finditem__("simple_method"));
@@ -36,6 +42,7 @@ public class TypeExposerTest extends InterpTestCase {
                 .getResourceAsStream("org/python/expose/generate/TypeExposerTest$SimplestNew.class"));
         TypeBuilder te = etp.getTypeExposer().makeBuilder();
         assertEquals(true, te.getIsBaseType());
+        assertEquals(Arrays.asList("__new__"), Arrays.asList(te.getNames()));
         PyType simplestType = PyType.fromClass(SimplestNew.class);
         PyNewWrapper new_ = (PyNewWrapper)te.getDict(simplestType).__finditem__("__new__");
         assertEquals(Py.One, new_.new_impl(false, null, null, null));
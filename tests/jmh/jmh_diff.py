@@ -0,0 +1,108 @@
+"""Compare two runs of the JMH benchmarks.
+
+Usage: jmh_diff.py [--threshold PERCENT] BASELINE.json RESULTS.json
+
+Each file is the JSON result of a JMH run (-rf json). For each benchmark (and
+set of parameters) present in both, this prints the two scores and the change,
+marking it as faster or slower where the change is more than the threshold
+(default 5%) and more than the two error margins together. The exit status is
+1 if any benchmark is slower by that test, so the comparison can gate a build.
+"""
+
+from __future__ import print_function
+
+import json
+import sys
+
+# Modes in which a higher score is better. In the others (avgt, sample, ss) the
+# score is a time, and lower is better.
+HIGHER_IS_BETTER = set(['thrpt'])
+
+
+def load(path):
+    """Map (benchmark, params, mode) to (score, error, unit) for a result file."""
+    with open(path) as f:
+        runs = json.load(f)
+    results = {}
+    for run in runs:
+        params = run.get('params') or {}
+        params = ','.join('%s=%s' % kv for kv in sorted(params.items()))
+        metric = run['primaryMetric']
+        try:
+            error = float(metric['scoreError'])
+        except (TypeError, ValueError):
+            error = 0.0
+        if error != error:  # NaN when there was only one iteration
+            error = 0.0
+        key = (run['benchmark'], params, run['mode'])
+        results[key] = (float(metric['score']), error, metric['scoreUnit'])
+    return results
+
+
+def name(key):
+    benchmark, params, mode = key
+    # Drop the package, which is the same for all
+    benchmark = benchmark.split('.', len(benchmark.split('.')) - 2)[-1]
+    if params:
+        benchmark += '(%s)' % params
+    return benchmark
+
+
+def compare(baseline, results, threshold):
+    """Print the comparison and return the number of benchmarks that were slower."""
+    rows = []
+    slower = 0
+    for key in sorted(set(baseline) & set(results)):
+        base, base_err, unit = baseline[key]
+        new, new_err, new_unit = results[key]
+        if unit != new_unit or base == 0:
+            verdict = ''
+            change = float('nan')
+        else:
+            change = 100.0 * (new - base) / base
+            significant = (abs(change) > threshold
+                           and abs(new - base) > base_err + new_err)
+            better = (new > base) == (key[2] in HIGHER_IS_BETTER)
+            if not significant:
+                verdict = ''
+            elif better:
+                verdict = 'faster'
+            else:
+                verdict = 'SLOWER'
+                slower += 1
+        rows.append((name(key), key[2], '%.3f' % base, '%.3f' % new, unit,
+                     '%+.1f%%' % change, verdict))
+
+    header = ('Benchmark', 'Mode', 'Baseline', 'Results', 'Units', 'Change', '')
+    widths = [max(len(row[i]) for row in [header] + rows)
+              for i in range(len(header))]
+    for row in [header] + rows:
+        cells = [row[0].ljust(widths[0]), row[1].ljust(widths[1])]
+        cells += [row[i].rjust(widths[i]) for i in range(2, 4)]
+        cells += [row[4].ljust(widths[4]), row[5].rjust(widths[5]), row[6]]
+        print('  '.join(cells).rstrip())
+
+    for title, keys in (('Only in baseline', set(baseline) - set(results)),
+                        ('Only in results', set(results) - set(baseline))):
+        if keys:
+            print('\n%s: %s' % (title, ', '.join(sorted(name(k) for k in keys))))
+    return slower
+
+
+def main(args):
+    threshold = 5.0
+    if args[:1] == ['--threshold']:
+        threshold = float(args[1])
+        args = args[2:]
+    if len(args) != 2:
+        print(__doc__, file=sys.stderr)
+        return 2
+    slower = compare(load(args[0]), load(args[1]), threshold)
+    if slower:
+        print('\n%d benchmark(s) slower by more than %g%%' % (slower, threshold))
+        return 1
+    return 0
+
+
+if __name__ == '__main__':
+    sys.exit(main(sys.argv[1:]))
@@ -0,0 +1,60 @@
+package org.python.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.python.core.PyObject;
+import org.python.core.PyType;
+
+/**
+ * Attribute access on instances of a Python class with a few bases: {@code PyType.lookup} along
+ * the MRO for a method found in a base and for a name found nowhere, and getting a method (which
+ * binds it) and an instance variable through {@code __findattr__}.
+ */
+public class AttributeBenchmark extends InterpreterBenchmark {
+
+    private PyType type;
+    private PyObject instance;
+
+    @Override
+    protected String source() {
+        return "class A(object):\n" //
+                + "    def method(self):\n" //
+                + "        pass\n" //
+                + "class B(A):\n" //
+                + "    pass\n" //
+                + "class C(B):\n" //
+                + "    y = 1\n" //
+                + "c = C()\n" //
+                + "c.x = 2\n";
+    }
+
+    @Override
+    protected void prepare() {
+        type = (PyType)get("C");
+        instance = get("c");
+    }
+
+    @Benchmark
+    public PyObject lookupInBase() {
+        return type.lookup("method");
+    }
+
+    @Benchmark
+    public PyObject lookupMissing() {
+        return type.lookup("missing");
+    }
+
+    @Benchmark
+    public PyObject getMethod() {
+        return instance.__findattr__("method");
+    }
+
+    @Benchmark
+    public PyObject getInstanceVariable() {
+        return instance.__findattr__("x");
+    }
+
+    @Benchmark
+    public PyObject getClassVariable() {
+        return instance.__findattr__("y");
+    }
+}
@@ -0,0 +1,65 @@
+package org.python.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.python.core.Py;
+import org.python.core.PyObject;
+
+/**
+ * Calls through {@code PyFunction.__call__} to functions defined in Python: with no arguments,
+ * with positional arguments, with keyword arguments and defaults, and to a method of an instance
+ * through the bound method.
+ */
+public class CallBenchmark extends InterpreterBenchmark {
+
+    private static final String[] KEYWORDS = {"b"};
+
+    private PyObject f0, f2, fDefaults, method;
+    private final PyObject one = Py.newInteger(1), two = Py.newInteger(2);
+
+    @Override
+    protected String source() {
+        return "def f0():\n" //
+                + "    return None\n" //
+                + "def f2(a, b):\n" //
+                + "    return a\n" //
+                + "def f_defaults(a, b=1, c=2):\n" //
+                + "    return b\n" //
+                + "class C(object):\n" //
+                + "    def method(self, a):\n" //
+                + "        return a\n" //
+                + "method = C().method\n";
+    }
+
+    @Override
+    protected void prepare() {
+        f0 = get("f0");
+        f2 = get("f2");
+        fDefaults = get("f_defaults");
+        method = get("method");
+    }
+
+    @Benchmark
+    public PyObject noArgs() {
+        return f0.__call__();
+    }
+
+    @Benchmark
+    public PyObject positional() {
+        return f2.__call__(one, two);
+    }
+
+    @Benchmark
+    public PyObject defaults() {
+        return fDefaults.__call__(one);
+    }
+
+    @Benchmark
+    public PyObject keywords() {
+        return fDefaults.__call__(new PyObject[] {one, two}, KEYWORDS);
+    }
+
+    @Benchmark
+    public PyObject boundMethod() {
+        return method.__call__(one);
+    }
+}
@@ -0,0 +1,99 @@
+package org.python.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.python.core.Py;
+import org.python.core.PyDictionary;
+import org.python.core.PyObject;
+import org.python.core.PyStringMap;
+import org.python.core.PySystemState;
+
+/**
+ * Get and put in a {@code PyStringMap} (as used for module globals and instance dictionaries) and
+ * a {@code PyDictionary}, each holding {@link #SIZE} entries. Successive calls cycle through the
+ * keys present, and the get benchmarks also look up a key that is absent.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DictBenchmark {
+
+    static final int SIZE = 64;
+
+    private final String[] names = new String[SIZE];
+    private final PyObject[] strKeys = new PyObject[SIZE];
+    private final PyObject[] intKeys = new PyObject[SIZE];
+    private final PyObject value = Py.newInteger(42);
+    private PyStringMap stringMap;
+    private PyDictionary dict;
+    private int i;
+
+    @Setup
+    public void setup() {
+        PySystemState.initialize();
+        stringMap = new PyStringMap();
+        dict = new PyDictionary();
+        for (int k = 0; k < SIZE; k++) {
+            names[k] = ("name" + k).intern();
+            strKeys[k] = Py.newString(names[k]);
+            intKeys[k] = Py.newInteger(k * 31);
+            stringMap.__setitem__(names[k], Py.newInteger(k));
+            dict.__setitem__(strKeys[k], Py.newInteger(k));
+            dict.__setitem__(intKeys[k], Py.newInteger(k));
+        }
+    }
+
+    private int next() {
+        return i = (i + 1) & (SIZE - 1);
+    }
+
+    @Benchmark
+    public PyObject stringMapGet() {
+        return stringMap.__finditem__(names[next()]);
+    }
+
+    @Benchmark
+    public PyObject stringMapGetMissing() {
+        return stringMap.__finditem__("missing");
+    }
+
+    @Benchmark
+    public PyStringMap stringMapPut() {
+        stringMap.__setitem__(names[next()], value);
+        return stringMap;
+    }
+
+    @Benchmark
+    public PyObject dictGetStr() {
+        return dict.__finditem__(strKeys[next()]);
+    }
+
+    @Benchmark
+    public PyObject dictGetInt() {
+        return dict.__finditem__(intKeys[next()]);
+    }
+
+    @Benchmark
+    public PyObject dictGetMissing() {
+        return dict.__finditem__(value);
+    }
+
+    @Benchmark
+    public PyDictionary dictPut() {
+        dict.__setitem__(strKeys[next()], value);
+        return dict;
+    }
+}
@@ -0,0 +1,59 @@
+package org.python.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.python.core.PyObject;
+import org.python.util.PythonInterpreter;
+
+/**
+ * Base of benchmarks that need objects made by running Python code. Each subclass gives that code
+ * in {@link #source()}, and gets what it defined with {@link #get(String)} in {@link #prepare()}.
+ * (JMH does not promise to run the {@code Setup} methods of a class after those of its base.)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class InterpreterBenchmark {
+
+    protected PythonInterpreter interp;
+
+    /** Python source to run in a new interpreter before the benchmarks. */
+    protected abstract String source();
+
+    /** Get the objects the benchmarks use, once {@link #source()} has run. */
+    protected abstract void prepare();
+
+    @Setup
+    public void setupInterpreter() {
+        interp = new PythonInterpreter();
+        interp.exec(source());
+        prepare();
+    }
+
+    @TearDown
+    public void tearDownInterpreter() {
+        interp.cleanup();
+    }
+
+    /** The value of a name the Python source defined. */
+    protected PyObject get(String name) {
+        PyObject value = interp.get(name);
+        if (value == null) {
+            throw new IllegalStateException("benchmark source did not define " + name);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,57 @@
+package org.python.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.python.core.Py;
+import org.python.core.PyObject;
+
+/**
+ * Calls from Python to overloaded Java methods, dispatched by {@code PyReflectedFunction}: the
+ * many forms of {@code StringBuilder.append} with arguments of several Python types,
+ * {@code String.valueOf} with a Java object (that only {@code valueOf(Object)} accepts), and
+ * {@code HashMap.put}.
+ */
+public class JavaCallBenchmark extends InterpreterBenchmark {
+
+    private PyObject append, setLength, valueOf, date, put;
+    private final PyObject anInt = Py.newInteger(7), aFloat = Py.newFloat(2.5),
+            aStr = Py.newString("abc"), zero = Py.newInteger(0);
+
+    @Override
+    protected String source() {
+        return "from java.lang import String, StringBuilder\n" //
+                + "from java.util import Date, HashMap\n" //
+                + "sb = StringBuilder()\n" //
+                + "append = sb.append\n" //
+                + "set_length = sb.setLength\n" //
+                + "value_of = String.valueOf\n" //
+                + "date = Date(0)\n" //
+                + "put = HashMap().put\n";
+    }
+
+    @Override
+    protected void prepare() {
+        append = get("append");
+        setLength = get("set_length");
+        valueOf = get("value_of");
+        date = get("date");
+        put = get("put");
+    }
+
+    @Benchmark
+    public PyObject appendMixed() {
+        setLength.__call__(zero);
+        append.__call__(anInt);
+        append.__call__(aFloat);
+        return append.__call__(aStr);
+    }
+
+    @Benchmark
+    public PyObject valueOfObject() {
+        return valueOf.__call__(date);
+    }
+
+    @Benchmark
+    public PyObject mapPut() {
+        return put.__call__(aStr, anInt);
+    }
+}
@@ -0,0 +1,41 @@
+package org.python.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.python.core.PyObject;
+
+/**
+ * Encoding and decoding JSON with the {@code json} module, whose string scanning and escaping is
+ * done by {@code _json}.
+ */
+public class JsonBenchmark extends InterpreterBenchmark {
+
+    private PyObject dumps, loads, data, text;
+
+    @Override
+    protected String source() {
+        return "import json\n" //
+                + "data = {'items': [{'id': i, 'name': u'item \\u00e9 %d' % i, 'price': i * 1.5,\n" //
+                + "                   'ok': i % 2 == 0, 'note': None, 'path': 'a/b\\\\c\\n'}\n" //
+                + "                  for i in range(50)]}\n" //
+                + "text = json.dumps(data)\n" //
+                + "dumps, loads = json.dumps, json.loads\n";
+    }
+
+    @Override
+    protected void prepare() {
+        dumps = get("dumps");
+        loads = get("loads");
+        data = get("data");
+        text = get("text");
+    }
+
+    @Benchmark
+    public PyObject dumpsData() {
+        return dumps.__call__(data);
+    }
+
+    @Benchmark
+    public PyObject loadsText() {
+        return loads.__call__(text);
+    }
+}
@@ -0,0 +1,55 @@
+package org.python.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.python.core.Py;
+import org.python.core.PyObject;
+
+/**
+ * Serialisation with {@code cPickle} of a structure of dictionaries, lists, tuples, strings and
+ * numbers, in protocols 0 and 2, and loading what each wrote.
+ */
+public class PickleBenchmark extends InterpreterBenchmark {
+
+    private PyObject dumps, loads, data, text, binary;
+    private final PyObject protocol0 = Py.newInteger(0), protocol2 = Py.newInteger(2);
+
+    @Override
+    protected String source() {
+        return "import cPickle\n" //
+                + "data = [{'id': i, 'name': 'item%d' % i, 'price': i * 1.5,\n" //
+                + "         'tags': ('a', 'b', u'c'), 'big': 2 ** 70 + i}\n" //
+                + "        for i in range(50)]\n" //
+                + "text = cPickle.dumps(data, 0)\n" //
+                + "binary = cPickle.dumps(data, 2)\n" //
+                + "dumps, loads = cPickle.dumps, cPickle.loads\n";
+    }
+
+    @Override
+    protected void prepare() {
+        dumps = get("dumps");
+        loads = get("loads");
+        data = get("data");
+        text = get("text");
+        binary = get("binary");
+    }
+
+    @Benchmark
+    public PyObject dumpsProtocol0() {
+        return dumps.__call__(data, protocol0);
+    }
+
+    @Benchmark
+    public PyObject dumpsProtocol2() {
+        return dumps.__call__(data, protocol2);
+    }
+
+    @Benchmark
+    public PyObject loadsProtocol0() {
+        return loads.__call__(text);
+    }
+
+    @Benchmark
+    public PyObject loadsProtocol2() {
+        return loads.__call__(binary);
+    }
+}
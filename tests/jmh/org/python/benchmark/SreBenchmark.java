@@ -0,0 +1,54 @@
+package org.python.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.python.core.Py;
+import org.python.core.PyObject;
+
+/**
+ * Regular expression matching by the {@code sre} engine: {@code match} and {@code search} of a
+ * compiled pattern with groups, {@code findall} over a longer string, and {@code sub}.
+ */
+public class SreBenchmark extends InterpreterBenchmark {
+
+    private PyObject match, search, findall, sub;
+    private final PyObject address = Py.newString("someone@example.com");
+    private final PyObject text = Py.newString(
+            "Write to alice@example.com or bob@example.org, not to carol at example dot net, "
+                    + "and copy dave@example.com.");
+    private final PyObject replacement = Py.newString("<\\1>");
+
+    @Override
+    protected String source() {
+        return "import re\n" //
+                + "p = re.compile(r'(\\w+)@(\\w+)\\.(com|org)')\n" //
+                + "match, search, findall, sub = p.match, p.search, p.findall, p.sub\n";
+    }
+
+    @Override
+    protected void prepare() {
+        match = get("match");
+        search = get("search");
+        findall = get("findall");
+        sub = get("sub");
+    }
+
+    @Benchmark
+    public PyObject matchGroups() {
+        return match.__call__(address);
+    }
+
+    @Benchmark
+    public PyObject searchText() {
+        return search.__call__(text);
+    }
+
+    @Benchmark
+    public PyObject findallText() {
+        return findall.__call__(text);
+    }
+
+    @Benchmark
+    public PyObject subText() {
+        return sub.__call__(replacement, text);
+    }
+}
@@ -0,0 +1,46 @@
+package org.python.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.python.core.Py;
+import org.python.core.PyObject;
+import org.python.core.PyString;
+import org.python.core.PyTuple;
+
+/**
+ * Formatting of {@code str} with the {@code %} operator (mixed conversions, and a single
+ * {@code %s}) and with {@code str.format}.
+ */
+public class StringFormatBenchmark extends InterpreterBenchmark {
+
+    private final PyString percentMixed = Py.newString("%s=%d (%.2f) %r");
+    private final PyString percentOne = Py.newString("<%s>");
+    private final PyTuple mixedArgs = new PyTuple(Py.newString("key"), Py.newInteger(42),
+            Py.newFloat(3.14159), Py.newString("x"));
+    private final PyObject word = Py.newString("word");
+    private PyObject format;
+
+    @Override
+    protected String source() {
+        return "format = '{0}={1} ({2:.2f}) {3!r}'.format\n";
+    }
+
+    @Override
+    protected void prepare() {
+        format = get("format");
+    }
+
+    @Benchmark
+    public PyObject percentMixed() {
+        return percentMixed.__mod__(mixedArgs);
+    }
+
+    @Benchmark
+    public PyObject percentOne() {
+        return percentOne.__mod__(word);
+    }
+
+    @Benchmark
+    public PyObject formatMethod() {
+        return format.__call__(mixedArgs.getArray());
+    }
+}